@@ -2,6 +2,7 @@ plugins {
     application
     id("tai-e.conventions")
     id("maven-publish.conventions")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = projectGroupId
@@ -64,6 +65,20 @@ tasks.jar {
     destinationDirectory.set(rootProject.layout.buildDirectory)
 }
 
+jmh {
+    // JMH benchmarks are in src/jmh/java, and the results are written
+    // in JSON format for tracking performance regressions
+    jmhVersion.set("1.37")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+    // e.g., -PjmhIncludes=HybridBitSetBenchmark runs the matched benchmarks only
+    project.findProperty("jmhIncludes")?.let { includes.add(it.toString()) }
+    // passes the arguments of the analyzed programs to the forked benchmark JVMs
+    listOf("taie.bench.args", "taie.bench.pta.args").forEach { key ->
+        System.getProperty(key)?.let { jvmArgsAppend.add("-D$key=$it") }
+    }
+}
+
 tasks.withType<Test> {
     // Uses JUnit5
     useJUnitPlatform()
@@ -95,6 +110,17 @@ task("testTaieTestSuite", type = Test::class) {
     }
 }
 
+task("perfRegression", type = JavaExec::class) {
+    group = "verification"
+    description = "Runs pointer analysis over java-benchmarks and compares" +
+            " the performance with the baseline"
+    classpath = sourceSets["test"].runtimeClasspath
+    mainClass.set("pascal.taie.analysis.pta.PerfRegressionRunner")
+    maxHeapSize = project.findProperty("perfHeap")?.toString() ?: "8G"
+    // e.g., -PperfArgs="-plans ci,2-obj -baseline perf-baseline.json antlr"
+    project.findProperty("perfArgs")?.let { args(it.toString().split(" ")) }
+}
+
 // Automatically agree the Gradle ToS when running gradle with '--scan' option
 extensions.findByName("buildScan")?.withGroovyBuilder {
     setProperty("termsOfServiceUrl", "https://gradle.com/terms-of-service")
@@ -0,0 +1,111 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.util.Indexer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Provides the workloads of the benchmarks on pointer analysis data
+ * structures, which are recorded from a real pointer analysis run.
+ * <p>
+ * The analysis runs once per JVM (i.e., per JMH fork) with the arguments
+ * given by system property {@code taie.bench.pta.args} (separated by
+ * spaces), and by default, it analyzes a test program together with
+ * the classes of JDK 8 under 2-object sensitivity.
+ */
+public final class PTATrace {
+
+    private static final String DEFAULT_ARGS =
+            "-pp -java 8 -cp src/test/resources/pta/misc -m Zipper" +
+                    " -a pta=cs:2-obj;only-app:false;implicit-entries:false";
+
+    private static PointerAnalysisResult result;
+
+    private static List<Pointer> pointers;
+
+    private static Indexer<CSObj> objIndexer;
+
+    private PTATrace() {
+    }
+
+    /**
+     * @return the result of the pointer analysis run.
+     */
+    public static synchronized PointerAnalysisResult getResult() {
+        if (result == null) {
+            Main.main(System.getProperty("taie.bench.pta.args", DEFAULT_ARGS)
+                    .split(" "));
+            result = World.get().getResult(PointerAnalysis.ID);
+        }
+        return result;
+    }
+
+    /**
+     * @return all pointers in pointer flow graph, in the order of
+     * variables, instance fields, array indexes, and static fields.
+     */
+    public static synchronized List<Pointer> getPointers() {
+        if (pointers == null) {
+            PointerAnalysisResult pta = getResult();
+            List<Pointer> list = new ArrayList<>();
+            list.addAll(pta.getCSVars());
+            list.addAll(pta.getInstanceFields());
+            list.addAll(pta.getArrayIndexes());
+            list.addAll(pta.getStaticFields());
+            pointers = Collections.unmodifiableList(list);
+        }
+        return pointers;
+    }
+
+    /**
+     * @return the indexer of the context-sensitive objects
+     * created by the pointer analysis run.
+     */
+    public static synchronized Indexer<CSObj> getObjectIndexer() {
+        if (objIndexer == null) {
+            List<CSObj> objs = new ArrayList<>(getResult().getCSObjects());
+            CSObj[] index2Obj = new CSObj[objs.size()];
+            objs.forEach(o -> index2Obj[o.getIndex()] = o);
+            objIndexer = new Indexer<>() {
+                @Override
+                public int getIndex(CSObj o) {
+                    return o.getIndex();
+                }
+
+                @Override
+                public CSObj getObject(int index) {
+                    return index2Obj[index];
+                }
+            };
+        }
+        return objIndexer;
+    }
+}
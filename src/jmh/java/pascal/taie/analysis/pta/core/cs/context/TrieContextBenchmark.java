@@ -0,0 +1,110 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.context;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.analysis.pta.PTATrace;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the creation of {@link TrieContext}s with the contexts
+ * of a real pointer analysis run (see {@link PTATrace}).
+ * <p>
+ * The workload consists of the contexts of all context-sensitive
+ * variables and objects, in the order they were created.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TrieContextBenchmark {
+
+    /**
+     * Elements of the recorded contexts.
+     */
+    private Object[][] contexts;
+
+    private int limit;
+
+    @Setup
+    public void setup() {
+        PointerAnalysisResult pta = PTATrace.getResult();
+        List<Object[]> list = new ArrayList<>();
+        for (CSVar csVar : pta.getCSVars()) {
+            list.add(toElements(csVar.getContext()));
+        }
+        for (CSObj csObj : pta.getCSObjects()) {
+            list.add(toElements(csObj.getContext()));
+        }
+        contexts = list.toArray(new Object[0][]);
+        for (Object[] elems : contexts) {
+            limit = Math.max(limit, elems.length);
+        }
+    }
+
+    private static Object[] toElements(Context context) {
+        Object[] elems = new Object[context.getLength()];
+        for (int i = 0; i < elems.length; ++i) {
+            elems[i] = context.getElementAt(i);
+        }
+        return elems;
+    }
+
+    @Benchmark
+    public void make(Blackhole bh) {
+        TrieContext.Factory<Object> factory = new TrieContext.Factory<>();
+        for (Object[] elems : contexts) {
+            bh.consume(factory.make(elems));
+        }
+    }
+
+    @Benchmark
+    public void append(Blackhole bh) {
+        TrieContext.Factory<Object> factory = new TrieContext.Factory<>();
+        for (Object[] elems : contexts) {
+            Context context = factory.getEmptyContext();
+            for (Object elem : elems) {
+                context = factory.append(context, elem, limit);
+            }
+            bh.consume(context);
+        }
+    }
+}
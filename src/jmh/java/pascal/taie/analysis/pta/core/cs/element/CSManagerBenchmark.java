@@ -0,0 +1,97 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.analysis.pta.PTATrace;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the creation and lookup of context-sensitive elements in
+ * {@link MapBasedCSManager} with the (context, element) pairs of
+ * a real pointer analysis run (see {@link PTATrace}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CSManagerBenchmark {
+
+    private List<CSVar> csVars;
+
+    private List<CSObj> csObjs;
+
+    /**
+     * A manager which contains all recorded elements.
+     */
+    private CSManager filledManager;
+
+    @Setup
+    public void setup() {
+        PointerAnalysisResult pta = PTATrace.getResult();
+        csVars = List.copyOf(pta.getCSVars());
+        csObjs = List.copyOf(pta.getCSObjects());
+        filledManager = new MapBasedCSManager();
+        fill(filledManager, null);
+    }
+
+    private void fill(CSManager csManager, Blackhole bh) {
+        for (CSVar csVar : csVars) {
+            CSVar v = csManager.getCSVar(csVar.getContext(), csVar.getVar());
+            if (bh != null) {
+                bh.consume(v);
+            }
+        }
+        for (CSObj csObj : csObjs) {
+            CSObj o = csManager.getCSObj(csObj.getContext(), csObj.getObject());
+            if (bh != null) {
+                bh.consume(o);
+            }
+        }
+    }
+
+    @Benchmark
+    public void create(Blackhole bh) {
+        fill(new MapBasedCSManager(), bh);
+    }
+
+    @Benchmark
+    public void lookup(Blackhole bh) {
+        fill(filledManager, bh);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.analysis.pta.PTATrace;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures adding entries to and polling entries from {@link WorkList}
+ * with the pointer flow edges of a real pointer analysis run
+ * (see {@link PTATrace}).
+ * <p>
+ * For each edge, the points-to set of the source pointer is added to
+ * the target pointer, so that the entries of the same pointer are
+ * merged as in the solver.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WorkListBenchmark {
+
+    private List<Pointer> targets;
+
+    private List<PointsToSet> sets;
+
+    @Setup
+    public void setup() {
+        targets = new ArrayList<>();
+        sets = new ArrayList<>();
+        for (Pointer pointer : PTATrace.getPointers()) {
+            PointsToSet pts = pointer.getPointsToSet();
+            if (pts == null || pts.isEmpty()) {
+                continue;
+            }
+            for (PointerFlowEdge edge : pointer.getOutEdges()) {
+                targets.add(edge.target());
+                sets.add(pts);
+            }
+        }
+    }
+
+    @Benchmark
+    public void addAndPoll(Blackhole bh) {
+        WorkList workList = new WorkList();
+        for (int i = 0; i < targets.size(); ++i) {
+            workList.addEntry(targets.get(i), sets.get(i));
+        }
+        while (!workList.isEmpty()) {
+            bh.consume(workList.pollEntry());
+        }
+    }
+}
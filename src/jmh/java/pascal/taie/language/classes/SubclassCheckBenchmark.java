@@ -0,0 +1,136 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.Main;
+import pascal.taie.World;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the encoding-based subclass checking of
+ * {@link ClassHierarchyImpl#isSubclass(JClass, JClass)} with
+ * traversing superclasses and interfaces of the subclass.
+ * <p>
+ * The world is built with the arguments given by system property
+ * {@code taie.bench.args} (separated by spaces), and by default,
+ * it contains the classes of JDK 8 that are loaded for analyzing
+ * a small program.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SubclassCheckBenchmark {
+
+    private static final String DEFAULT_ARGS =
+            "-pp -java 8 -cp src/test/resources/world --input-classes AllInOne";
+
+    /**
+     * Number of (superclass, subclass) pairs checked in each invocation.
+     */
+    @Param({"100000"})
+    private int pairs;
+
+    private ClassHierarchy hierarchy;
+
+    private JClass[] supers;
+
+    private JClass[] subs;
+
+    @Setup
+    public void setup() {
+        Main.buildWorld(System.getProperty("taie.bench.args", DEFAULT_ARGS)
+                .split(" "));
+        hierarchy = World.get().getClassHierarchy();
+        List<JClass> classes = hierarchy.allClasses().toList();
+        supers = new JClass[pairs];
+        subs = new JClass[pairs];
+        Random random = new Random(0);
+        for (int i = 0; i < pairs; ++i) {
+            JClass sub = classes.get(random.nextInt(classes.size()));
+            subs[i] = sub;
+            // half of the pairs are (likely) in subclass relation
+            supers[i] = random.nextBoolean() ?
+                    randomSuperclass(sub, random) :
+                    classes.get(random.nextInt(classes.size()));
+        }
+    }
+
+    private static JClass randomSuperclass(JClass jclass, Random random) {
+        List<JClass> supers = new ArrayList<>();
+        for (JClass c = jclass; c != null; c = c.getSuperClass()) {
+            supers.add(c);
+            supers.addAll(c.getInterfaces());
+        }
+        return supers.get(random.nextInt(supers.size()));
+    }
+
+    @Benchmark
+    public void encoding(Blackhole bh) {
+        for (int i = 0; i < pairs; ++i) {
+            bh.consume(hierarchy.isSubclass(supers[i], subs[i]));
+        }
+    }
+
+    @Benchmark
+    public void traversal(Blackhole bh) {
+        for (int i = 0; i < pairs; ++i) {
+            bh.consume(isSubclassByTraversal(supers[i], subs[i]));
+        }
+    }
+
+    private static boolean isSubclassByTraversal(JClass superclass, JClass subclass) {
+        boolean isToInterface = superclass.isInterface();
+        for (JClass c = subclass; c != null; c = c.getSuperClass()) {
+            if (c.equals(superclass)) {
+                return true;
+            }
+            if (isToInterface) {
+                for (JClass iface : c.getInterfaces()) {
+                    if (iface != null && isSubclassByTraversal(superclass, iface)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link IBitSet} implementations on sets whose bits are
+ * clustered, as the points-to sets whose objects are indexed in
+ * allocation order.
+ * <p>
+ * Each set consists of a few clusters spread over {@code universe} bits,
+ * and each bit in a cluster is set with probability {@code density}.
+ * Besides the time of the bulk operations, the setup prints the memory
+ * taken by the sets (measured by {@link IBitSet#size()}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class BitSetBenchmark {
+
+    private static final int SETS = 1000;
+
+    @Param({"REGULAR", "SPARSE", "COMPRESSED"})
+    private IBitSet.Kind kind;
+
+    @Param({"1000000"})
+    private int universe;
+
+    @Param({"1.0", "0.5", "0.05"})
+    private double density;
+
+    private List<IBitSet> sets;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        sets = new ArrayList<>(SETS);
+        long bits = 0;
+        for (int i = 0; i < SETS; ++i) {
+            IBitSet set = IBitSet.newBitSet(kind);
+            int clusters = 1 + random.nextInt(20);
+            for (int j = 0; j < clusters; ++j) {
+                int start = random.nextInt(universe);
+                int length = 10 + random.nextInt(5000);
+                for (int k = 0; k < length && start + k < universe; ++k) {
+                    if (random.nextDouble() < density) {
+                        set.set(start + k);
+                    }
+                }
+            }
+            sets.add(set);
+            bits += set.size();
+        }
+        System.out.printf("%n%s (density %s): %d KB for %d sets%n",
+                kind, density, bits / 8 / 1024, SETS);
+    }
+
+    @Benchmark
+    public IBitSet or() {
+        IBitSet result = IBitSet.newBitSet(kind);
+        for (IBitSet set : sets) {
+            result.or(set);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public void orDiff(Blackhole bh) {
+        IBitSet result = IBitSet.newBitSet(kind);
+        for (IBitSet set : sets) {
+            bh.consume(result.orDiff(set));
+        }
+    }
+
+    @Benchmark
+    public void andNot(Blackhole bh) {
+        for (int i = 1; i < sets.size(); ++i) {
+            IBitSet set = sets.get(i).copy();
+            set.andNot(sets.get(i - 1));
+            bh.consume(set);
+        }
+    }
+
+    @Benchmark
+    public int intersects() {
+        int count = 0;
+        for (int i = 1; i < sets.size(); ++i) {
+            if (sets.get(i).intersects(sets.get(i - 1))) {
+                ++count;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.analysis.pta.PTATrace;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.solver.PointerFlowEdge;
+import pascal.taie.util.Indexer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link HybridBitSet#addAllDiff} on the points-to sets of
+ * a real pointer analysis run (see {@link PTATrace}).
+ * <p>
+ * Each iteration propagates the final points-to sets along all edges
+ * of pointer flow graph into initially empty sets, which mimics the
+ * propagation performed by the pointer analysis solver.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HybridBitSetBenchmark {
+
+    @Param({"REGULAR", "SPARSE", "COMPRESSED"})
+    private IBitSet.Kind kind;
+
+    private Indexer<CSObj> indexer;
+
+    private List<HybridBitSet<CSObj>> sets;
+
+    /**
+     * Pairs of (source, target) indexes of pointer flow edges.
+     */
+    private int[] edges;
+
+    @Setup
+    public void setup() {
+        indexer = PTATrace.getObjectIndexer();
+        List<Pointer> pointers = PTATrace.getPointers();
+        Map<Pointer, Integer> pointer2Index = Maps.newMap(pointers.size());
+        sets = new ArrayList<>(pointers.size());
+        for (Pointer pointer : pointers) {
+            pointer2Index.put(pointer, sets.size());
+            HybridBitSet<CSObj> set = new HybridBitSet<>(indexer, kind);
+            set.addAll(pointer.getObjects());
+            sets.add(set);
+        }
+        List<Integer> edgeList = new ArrayList<>();
+        for (Pointer pointer : pointers) {
+            for (PointerFlowEdge edge : pointer.getOutEdges()) {
+                Integer target = pointer2Index.get(edge.target());
+                if (target != null) {
+                    edgeList.add(pointer2Index.get(pointer));
+                    edgeList.add(target);
+                }
+            }
+        }
+        edges = edgeList.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Benchmark
+    public void addAllDiff(Blackhole bh) {
+        List<HybridBitSet<CSObj>> targets = new ArrayList<>(sets.size());
+        for (int i = 0; i < sets.size(); ++i) {
+            targets.add(new HybridBitSet<>(indexer, kind));
+        }
+        for (int i = 0; i < edges.length; i += 2) {
+            bh.consume(targets.get(edges[i + 1]).addAllDiff(sets.get(edges[i])));
+        }
+    }
+
+    @Benchmark
+    public void addAll(Blackhole bh) {
+        List<HybridBitSet<CSObj>> targets = new ArrayList<>(sets.size());
+        for (int i = 0; i < sets.size(); ++i) {
+            targets.add(new HybridBitSet<>(indexer, kind));
+        }
+        for (int i = 0; i < edges.length; i += 2) {
+            bh.consume(targets.get(edges[i + 1]).addAll(sets.get(edges[i])));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.graph;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.CFGDominators;
+import pascal.taie.analysis.graph.cfg.CFGNodeIndexer;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IndexerBitSet;
+import pascal.taie.util.collection.SetEx;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link DominatorTree} with the iterative set-intersection
+ * algorithm on the CFGs of all concrete methods in the world.
+ * <p>
+ * The world is built with the arguments given by system property
+ * {@code taie.bench.args} (separated by spaces), and by default,
+ * it contains the classes of JDK 8. Parameter {@code minNodes} selects
+ * the CFGs with at least the given number of nodes, so that the
+ * huge methods can be measured separately.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DominatorBenchmark {
+
+    private static final String DEFAULT_ARGS =
+            "-pp -java 8 -cp src/test/resources/world --input-classes AllInOne";
+
+    @Param({"0", "500"})
+    private int minNodes;
+
+    private List<CFG<Stmt>> cfgs;
+
+    @Setup
+    public void setup() {
+        Main.buildWorld(System.getProperty("taie.bench.args", DEFAULT_ARGS)
+                .split(" "));
+        CFGBuilder builder = new CFGBuilder(AnalysisConfig.of(
+                CFGBuilder.ID, "exception", null, "dump", false));
+        cfgs = new ArrayList<>();
+        World.get().getClassHierarchy().allClasses()
+                .map(JClass::getDeclaredMethods)
+                .flatMap(methods -> methods.stream()
+                        .filter(m -> !m.isAbstract() && !m.isNative()))
+                .map(JMethod::getIR)
+                .map(builder::analyze)
+                .filter(cfg -> cfg.getNumberOfNodes() >= minNodes)
+                .forEach(cfgs::add);
+    }
+
+    @Benchmark
+    public void dominatorTree(Blackhole bh) {
+        for (CFG<Stmt> cfg : cfgs) {
+            bh.consume(CFGDominators.dominatorTreeOf(cfg));
+        }
+    }
+
+    @Benchmark
+    public void postDominatorTree(Blackhole bh) {
+        for (CFG<Stmt> cfg : cfgs) {
+            bh.consume(CFGDominators.postDominatorTreeOf(cfg));
+        }
+    }
+
+    @Benchmark
+    public void iterativeSets(Blackhole bh) {
+        for (CFG<Stmt> cfg : cfgs) {
+            bh.consume(findDominatorsIteratively(cfg, new CFGNodeIndexer<>(cfg)));
+        }
+    }
+
+    /**
+     * The classic iterative algorithm which keeps a dominator set
+     * for each node, and intersects the sets of predecessors until
+     * fixed point.
+     */
+    private static <N> List<SetEx<N>> findDominatorsIteratively(
+            CFG<N> cfg, Indexer<N> indexer) {
+        SetEx<N> fullSet = new IndexerBitSet<>(indexer, true);
+        fullSet.addAll(cfg.getNodes());
+        List<SetEx<N>> node2Doms = new ArrayList<>(cfg.getNumberOfNodes());
+        Deque<N> workList = new ArrayDeque<>();
+        for (int i = 0; i < cfg.getNumberOfNodes(); ++i) {
+            N node = indexer.getObject(i);
+            if (cfg.getInDegreeOf(node) == 0) {
+                SetEx<N> doms = new IndexerBitSet<>(indexer, true);
+                doms.add(node);
+                node2Doms.add(doms);
+            } else {
+                node2Doms.add(fullSet);
+                workList.add(node);
+            }
+        }
+        while (!workList.isEmpty()) {
+            N node = workList.pop();
+            SetEx<N> newDoms = fullSet;
+            for (N pred : cfg.getPredsOf(node)) {
+                SetEx<N> doms = node2Doms.get(indexer.getIndex(pred));
+                if (newDoms != fullSet) {
+                    newDoms.retainAll(doms);
+                } else if (doms != fullSet) {
+                    newDoms = doms.copy();
+                }
+            }
+            newDoms.add(node);
+            int index = indexer.getIndex(node);
+            if (!node2Doms.get(index).equals(newDoms)) {
+                node2Doms.set(index, newDoms);
+                workList.addAll(cfg.getSuccsOf(node));
+            }
+        }
+        return node2Doms;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.AnalysisManager;
+import pascal.taie.config.LoggerConfigs;
+import pascal.taie.config.Options;
+import pascal.taie.config.Plan;
+import pascal.taie.util.Timer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs Tai-e as a long-running daemon, which builds (or loads, with
+ * {@code -wc}) the world once, keeps it resident, and executes the
+ * analysis plans it receives on the same world. Between two plans,
+ * only the analysis results are cleared
+ * (see {@link World#clearAnalysisResults()}).
+ * <p>
+ * Usage: {@code AnalysisDaemon [--port <port>] <options>}, where
+ * {@code <options>} are the command-line options of {@link Main} for
+ * building the world (analyses in them are only used to build the world,
+ * e.g., to add the classes in reflection logs, and are not executed).
+ * The daemon reads requests from standard input, or from the clients
+ * connected to given port on the loopback address, one at a time.
+ * <p>
+ * Each request is a line of analysis options, i.e., {@code -a},
+ * {@code -p} and {@code -kr}, e.g., {@code -a pta=cs:2-obj;only-app:true}
+ * (double quotes can be used to group an argument with spaces).
+ * Other options, e.g., {@code -scope} and {@code --output-dir},
+ * are given by the world and cannot be changed.
+ * For each request, the daemon responds a line
+ * {@code tai-e-daemon: OK <elapsed-milliseconds>} or
+ * {@code tai-e-daemon: ERROR <message>}. Request {@code shutdown}
+ * stops the daemon.
+ */
+public class AnalysisDaemon {
+
+    private static final Logger logger = LogManager.getLogger(AnalysisDaemon.class);
+
+    private static final String PORT_OPTION = "--port";
+
+    private static final String SHUTDOWN = "shutdown";
+
+    /**
+     * Prefix of responses, which distinguishes the responses from
+     * the logs on standard output.
+     */
+    private static final String RESPONSE_PREFIX = "tai-e-daemon: ";
+
+    private boolean isShutdown = false;
+
+    public static void main(String... args) throws IOException {
+        int port = -1;
+        List<String> worldArgs = new ArrayList<>(Arrays.asList(args));
+        int i = worldArgs.indexOf(PORT_OPTION);
+        if (i >= 0 && i + 1 < worldArgs.size()) {
+            port = Integer.parseInt(worldArgs.get(i + 1));
+            worldArgs.subList(i, i + 2).clear();
+        }
+        Options options = Options.parse(worldArgs.toArray(String[]::new));
+        LoggerConfigs.setOutput(options.getOutputDir());
+        Main.buildWorld(options, Main.processConfigs(options).analyses());
+        AnalysisDaemon daemon = new AnalysisDaemon();
+        if (port < 0) {
+            logger.info("Tai-e daemon is reading requests from standard input");
+            daemon.serve(new BufferedReader(new InputStreamReader(
+                            System.in, StandardCharsets.UTF_8)),
+                    new PrintWriter(System.out, true, StandardCharsets.UTF_8));
+        } else {
+            try (ServerSocket server = new ServerSocket(
+                    port, 0, InetAddress.getLoopbackAddress())) {
+                logger.info("Tai-e daemon is listening on {}",
+                        server.getLocalSocketAddress());
+                while (!daemon.isShutdown) {
+                    try (Socket client = server.accept()) {
+                        daemon.serve(new BufferedReader(new InputStreamReader(
+                                        client.getInputStream(), StandardCharsets.UTF_8)),
+                                new PrintWriter(client.getOutputStream(),
+                                        true, StandardCharsets.UTF_8));
+                    } catch (IOException | UncheckedIOException e) {
+                        logger.warn("Connection failed: {}", e.toString());
+                    }
+                }
+            }
+        }
+        LoggerConfigs.reconfigure();
+    }
+
+    /**
+     * Serves the requests from {@code in} until the input ends or
+     * the daemon is shut down.
+     */
+    private void serve(BufferedReader in, PrintWriter out) throws IOException {
+        String line;
+        while (!isShutdown && (line = in.readLine()) != null) {
+            line = line.strip();
+            if (line.isEmpty()) {
+                continue;
+            }
+            if (line.equals(SHUTDOWN)) {
+                isShutdown = true;
+                out.println(RESPONSE_PREFIX + "OK 0");
+                break;
+            }
+            long start = System.nanoTime();
+            try {
+                execute(splitArgs(line));
+                out.println(RESPONSE_PREFIX + "OK " +
+                        (System.nanoTime() - start) / 1_000_000);
+            } catch (RuntimeException e) {
+                logger.error("Failed to execute request: {}", line, e);
+                out.println(RESPONSE_PREFIX + "ERROR " +
+                        String.valueOf(e.getMessage()).replace('\n', ' '));
+            }
+        }
+    }
+
+    /**
+     * Executes the plan given by {@code args} on the resident world,
+     * and clears the analysis results after the execution.
+     */
+    static void execute(String[] args) {
+        // the options that affect planning and outputs follow the world
+        Options worldOptions = World.get().getOptions();
+        List<String> planArgs = new ArrayList<>(List.of(
+                "-scope", worldOptions.getScope().name(),
+                "--output-dir", worldOptions.getOutputDir().getPath()));
+        planArgs.addAll(Arrays.asList(args));
+        Plan plan = Main.processConfigs(Options.parse(planArgs.toArray(String[]::new)));
+        if (plan.analyses().isEmpty()) {
+            throw new IllegalArgumentException("No analyses are specified");
+        }
+        try {
+            Timer.runAndCount(() -> new AnalysisManager(plan).execute(),
+                    "Plan", Level.INFO);
+        } finally {
+            World.get().clearAnalysisResults();
+        }
+    }
+
+    /**
+     * Splits a request line into arguments by whitespaces,
+     * where double-quoted parts are kept in the same argument.
+     */
+    static String[] splitArgs(String line) {
+        List<String> args = new ArrayList<>();
+        StringBuilder arg = new StringBuilder();
+        boolean inQuotes = false;
+        boolean hasArg = false;
+        for (char c : line.toCharArray()) {
+            if (c == '"') {
+                inQuotes = !inQuotes;
+                hasArg = true;
+            } else if (Character.isWhitespace(c) && !inQuotes) {
+                if (hasArg) {
+                    args.add(arg.toString());
+                    arg.setLength(0);
+                    hasArg = false;
+                }
+            } else {
+                arg.append(c);
+                hasArg = true;
+            }
+        }
+        if (hasArg) {
+            args.add(arg.toString());
+        }
+        return args.toArray(String[]::new);
+    }
+}
@@ -37,7 +37,11 @@ import pascal.taie.config.Scope;
 import pascal.taie.frontend.cache.CachedWorldBuilder;
 import pascal.taie.util.Timer;
 import pascal.taie.util.collection.Lists;
+import pascal.taie.util.metrics.JfrExporter;
+import pascal.taie.util.metrics.JsonLinesExporter;
+import pascal.taie.util.metrics.MetricRegistry;
 
+import java.io.File;
 import java.io.InputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -47,6 +51,8 @@ public class Main {
 
     private static final Logger logger = LogManager.getLogger(Main.class);
 
+    private static final String METRICS_FILE = "metrics.jsonl";
+
     public static void main(String... args) {
         Timer.runAndCount(() -> {
             Options options = processArgs(args);
@@ -56,8 +62,12 @@ public class Main {
                 logger.info("No analyses are specified");
                 System.exit(0);
             }
-            buildWorld(options, plan.analyses());
+            enableMetrics(options);
+            try (var ignored = MetricRegistry.get().startSpan("world")) {
+                buildWorld(options, plan.analyses());
+            }
             executePlan(plan);
+            MetricRegistry.disable();
             LoggerConfigs.reconfigure();
         }, "Tai-e");
     }
@@ -75,7 +85,17 @@ public class Main {
         return options;
     }
 
-    private static Plan processConfigs(Options options) {
+    private static void enableMetrics(Options options) {
+        if (options.isMetrics()) {
+            File metricsFile = new File(options.getOutputDir(), METRICS_FILE);
+            logger.info("Exporting metrics to {}", metricsFile.getAbsolutePath());
+            MetricRegistry.enable(List.of(
+                            new JsonLinesExporter(metricsFile), new JfrExporter()),
+                    options.getMetricsInterval());
+        }
+    }
+
+    static Plan processConfigs(Options options) {
         InputStream content = Configs.getAnalysisConfig();
         List<AnalysisConfig> analysisConfigs = AnalysisConfig.parseConfigs(content);
         ConfigManager manager = new ConfigManager(analysisConfigs);
@@ -120,7 +140,7 @@ public class Main {
         LoggerConfigs.reconfigure();
     }
 
-    private static void buildWorld(Options options, List<AnalysisConfig> analyses) {
+    static void buildWorld(Options options, List<AnalysisConfig> analyses) {
         Timer.runAndCount(() -> {
             try {
                 Class<? extends WorldBuilder> builderClass = options.getWorldBuilderClass();
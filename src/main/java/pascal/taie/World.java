@@ -107,6 +107,24 @@ public final class World extends AbstractResultHolder
         resetCallbacks.forEach(Runnable::run);
     }
 
+    /**
+     * Clears the analysis results stored in this world, in the classes,
+     * and in the IRs that have been built, so that another analysis plan
+     * can be executed on this world from scratch. Different from
+     * {@link #reset()}, the world itself and its caches are kept.
+     */
+    public void clearAnalysisResults() {
+        clearAll();
+        classHierarchy.allClasses().forEach(jclass -> {
+            jclass.clearAll();
+            jclass.getDeclaredMethods().forEach(method -> {
+                if (method.isIRBuilt()) {
+                    method.getIR().clearAll();
+                }
+            });
+        });
+    }
+
     public Options getOptions() {
         return options;
     }
@@ -38,6 +38,7 @@ import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.Timer;
 import pascal.taie.util.graph.SimpleGraph;
+import pascal.taie.util.metrics.MetricRegistry;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
@@ -100,8 +101,14 @@ public class AnalysisManager {
         methodScope = null;
         // execute analyses
         plan.analyses().forEach(config -> {
-            Analysis analysis = Timer.runAndCount(
-                    () -> runAnalysis(config), config.getId(), Level.INFO);
+            Analysis analysis = Timer.runAndCount(() -> {
+                MetricRegistry metrics = MetricRegistry.get();
+                try (var ignored = metrics.startSpan("analysis." + config.getId())) {
+                    return runAnalysis(config);
+                } finally {
+                    metrics.sample();
+                }
+            }, config.getId(), Level.INFO);
             if (!keepAllResults) {
                 executedAnalyses.add(analysis);
                 clearUnusedResults(analysis);
@@ -22,12 +22,23 @@
 
 package pascal.taie.analysis.dataflow.analysis.constprop;
 
-import pascal.taie.analysis.dataflow.fact.MapFact;
 import pascal.taie.ir.exp.IntLiteral;
 import pascal.taie.ir.exp.Var;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.Copyable;
 
-import java.util.Collections;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Represents data facts of constant propagation, which maps variables
@@ -47,22 +58,79 @@ import java.util.Map;
  * it represents that the lattice value of the variable is UNDEF;
  * moreover, if we set the lattice value of a variable to UNDEF,
  * it effectively removes the variable from the CPFact.
+ * <p>
+ * The mappings are stored in arrays instead of maps: each lattice value
+ * is encoded as a {@code long} (kind tag in the high 32 bits, and the
+ * constant in the low 32 bits), and variables are located by their
+ * indexes ({@link Var#getIndex()}), which are dense in each method.
+ * Thus, a CPFact can only hold the variables of the same method.
+ * A fact starts in sparse mode, which keeps the mappings in small arrays
+ * sorted by variable index, and switches to dense mode, which indexes
+ * the arrays by variable index directly, when it becomes large enough
+ * compared to the variable indexes, so that the facts of large methods
+ * with few mappings stay small. In addition, {@link #copy()} is
+ * copy-on-write: the copy shares the arrays with this fact until
+ * either of them is modified.
  */
-public class CPFact extends MapFact<Var, Value> {
+public class CPFact implements Copyable<CPFact> {
+
+    private static final long UNDEF = 0L;
+
+    private static final long NAC = 1L << 32;
+
+    private static final long CONSTANT = 2L << 32;
+
+    private static final Var[] EMPTY_VARS = {};
+
+    private static final long[] EMPTY_CODES = {};
+
+    /**
+     * In sparse mode, the number of mappings below this value never
+     * triggers the switch to dense mode.
+     */
+    private static final int MIN_DENSE_SIZE = 8;
+
+    /**
+     * Sparse mode switches to dense mode when the number of mappings
+     * reaches 1/2^DENSE_SHIFT of the largest variable index.
+     */
+    private static final int DENSE_SHIFT = 3;
+
+    /**
+     * In dense mode, {@code vars[i]} is the variable whose index is i,
+     * or null if the variable is absent. In sparse mode, the first
+     * {@link #size} elements are the variables in this fact,
+     * sorted by their indexes.
+     */
+    private Var[] vars;
+
+    /**
+     * Encoded values of the variables in {@link #vars}.
+     */
+    private long[] codes;
+
+    private int size;
+
+    private boolean dense;
+
+    /**
+     * Whether {@link #vars} and {@link #codes} may be shared with
+     * other facts, so that they must be copied before modification.
+     */
+    private boolean shared;
 
     public CPFact() {
-        this(Collections.emptyMap());
+        clear();
     }
 
-    private CPFact(Map<Var, Value> map) {
-        super(map);
+    private CPFact(CPFact fact) {
+        adopt(fact);
     }
 
     /**
      * @return the value of given variable in this fact,
      * or UNDEF the variable is absent in this fact.
      */
-    @Override
     public Value get(Var var) {
         if (var.isConst() &&
                 var.getConstValue() instanceof IntLiteral i) {
@@ -70,27 +138,449 @@ public class CPFact extends MapFact<Var, Value> {
             // the associated value
             return Value.makeConstant(i.getValue());
         } else {
-            return map.getOrDefault(var, Value.getUndef());
+            return decode(getCode(var));
         }
     }
 
-    @Override
+    /**
+     * Updates the value of given variable in this fact.
+     *
+     * @return if the update changes this fact.
+     */
     public boolean update(Var var, Value value) {
         if (var.isConst()) {
             // do not store temporary constant variables
             return false;
-        } else if (value.isUndef()) {
+        } else {
             // if the client code sets variable key to UNDEF,
             // then we remove the variable from the CPFact
             // as we use absence to represent UNDEF.
-            return remove(var) != null;
+            long code = encode(value);
+            return setCode(var, code) != code;
+        }
+    }
+
+    /**
+     * Removes the value of given variable.
+     *
+     * @return the previous value associated with the variable,
+     * or null if the variable was absent in this fact.
+     */
+    public Value remove(Var var) {
+        long old = setCode(var, UNDEF);
+        return old == UNDEF ? null : decode(old);
+    }
+
+    /**
+     * Copies the content from given fact to this fact.
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean copyFrom(CPFact fact) {
+        if (fact == this) {
+            return false;
+        }
+        if (size == 0) {
+            adopt(fact);
+            return size != 0;
+        }
+        boolean changed = false;
+        Var[] fVars = fact.vars;
+        long[] fCodes = fact.codes;
+        int end = fact.end();
+        for (int i = 0; i < end; ++i) {
+            Var var = fVars[i];
+            if (var != null && setCode(var, fCodes[i]) != fCodes[i]) {
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Meets given fact into this fact, i.e., sets the value of each
+     * variable in this fact to the greatest lower bound of its values
+     * in both facts. This method does not allocate unless this fact
+     * needs to grow or to be copied (due to copy-on-write).
+     *
+     * @return true if this fact changed as a result of the call, otherwise false.
+     */
+    public boolean meet(CPFact fact) {
+        if (fact == this) {
+            return false;
+        }
+        if (size == 0) {
+            // UNDEF meets any value results in that value
+            return copyFrom(fact);
+        }
+        boolean changed = false;
+        Var[] fVars = fact.vars;
+        long[] fCodes = fact.codes;
+        int end = fact.end();
+        for (int i = 0; i < end; ++i) {
+            Var var = fVars[i];
+            if (var != null) {
+                long code = getCode(var);
+                long result = meet(fCodes[i], code);
+                if (result != code) {
+                    setCode(var, result);
+                    changed = true;
+                }
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Meets two encoded values, with the same semantics as
+     * {@link ConstantPropagation.Analysis#meetValue(Value, Value)}.
+     */
+    private static long meet(long c1, long c2) {
+        if (c1 == c2 || c2 == UNDEF) {
+            return c1;
+        } else if (c1 == UNDEF) {
+            return c2;
         } else {
-            return super.update(var, value);
+            return NAC;
         }
     }
 
+    /**
+     * Creates and returns a copy of this fact. The copy shares the
+     * underlying arrays with this fact until either of them is modified.
+     */
     @Override
     public CPFact copy() {
-        return new CPFact(this.map);
+        return new CPFact(this);
+    }
+
+    /**
+     * Clears all content in this fact.
+     */
+    public void clear() {
+        vars = EMPTY_VARS;
+        codes = EMPTY_CODES;
+        size = 0;
+        dense = false;
+        shared = false;
+    }
+
+    /**
+     * @return a {@link Set} view of the variables contained in this fact.
+     */
+    public Set<Var> keySet() {
+        return new AbstractSet<>() {
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Var var && getCode(var) != UNDEF;
+            }
+
+            @Override
+            public Iterator<Var> iterator() {
+                return new Iterator<>() {
+
+                    private final Var[] vars = CPFact.this.vars;
+
+                    private final int end = CPFact.this.end();
+
+                    private int next = advance(0);
+
+                    private int advance(int i) {
+                        while (i < end && vars[i] == null) {
+                            ++i;
+                        }
+                        return i;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < end;
+                    }
+
+                    @Override
+                    public Var next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Var var = vars[next];
+                        next = advance(next + 1);
+                        return var;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * @return all entries (variable-value mappings) in this fact.
+     */
+    public Stream<Map.Entry<Var, Value>> entries() {
+        Var[] vars = this.vars;
+        long[] codes = this.codes;
+        return IntStream.range(0, end())
+                .filter(i -> vars[i] != null)
+                .mapToObj(i -> Map.entry(vars[i], decode(codes[i])));
+    }
+
+    /**
+     * Performs the given action for each entry (variable-value mapping)
+     * in this fact until all entries have been processed or the action
+     * throws an exception.
+     *
+     * @param action the action to be performed for each entry.
+     */
+    public void forEach(BiConsumer<Var, Value> action) {
+        Objects.requireNonNull(action);
+        Var[] vars = this.vars;
+        long[] codes = this.codes;
+        int end = end();
+        for (int i = 0; i < end; ++i) {
+            if (vars[i] != null) {
+                action.accept(vars[i], decode(codes[i]));
+            }
+        }
+    }
+
+    /**
+     * @return the end (exclusive) of the used elements of the arrays.
+     */
+    private int end() {
+        return dense ? vars.length : size;
+    }
+
+    /**
+     * Shares the content of given fact.
+     */
+    private void adopt(CPFact fact) {
+        vars = fact.vars;
+        codes = fact.codes;
+        size = fact.size;
+        dense = fact.dense;
+        shared = fact.shared = true;
+    }
+
+    /**
+     * Copies the arrays if they are shared with other facts.
+     */
+    private void unshare() {
+        if (shared) {
+            vars = vars.clone();
+            codes = codes.clone();
+            shared = false;
+        }
+    }
+
+    /**
+     * @return the encoded value of given variable in this fact.
+     */
+    private long getCode(Var var) {
+        int index = var.getIndex();
+        if (dense) {
+            return index < vars.length && vars[index] == var ?
+                    codes[index] : UNDEF;
+        } else {
+            int i = search(index);
+            return i >= 0 && vars[i] == var ? codes[i] : UNDEF;
+        }
+    }
+
+    /**
+     * Sets the encoded value of given variable in this fact.
+     *
+     * @return the previous encoded value of the variable.
+     */
+    private long setCode(Var var, long code) {
+        int index = var.getIndex();
+        if (dense) {
+            if (index < vars.length && vars[index] != null) {
+                checkSameMethod(vars[index], var);
+                long old = codes[index];
+                if (old != code) {
+                    unshare();
+                    if (code == UNDEF) {
+                        vars[index] = null;
+                        --size;
+                    }
+                    codes[index] = code;
+                }
+                return old;
+            } else if (code != UNDEF) {
+                if (index >= vars.length) {
+                    grow(Math.max(index + 1, vars.length + (vars.length >> 1)));
+                } else {
+                    unshare();
+                }
+                vars[index] = var;
+                codes[index] = code;
+                ++size;
+            }
+            return UNDEF;
+        } else {
+            int i = search(index);
+            if (i >= 0) {
+                checkSameMethod(vars[i], var);
+                long old = codes[i];
+                if (old != code) {
+                    unshare();
+                    if (code == UNDEF) {
+                        System.arraycopy(vars, i + 1, vars, i, size - i - 1);
+                        System.arraycopy(codes, i + 1, codes, i, size - i - 1);
+                        vars[--size] = null;
+                        codes[size] = UNDEF;
+                    } else {
+                        codes[i] = code;
+                    }
+                }
+                return old;
+            } else if (code != UNDEF) {
+                int maxIndex = Math.max(index,
+                        size == 0 ? 0 : vars[size - 1].getIndex());
+                if (size + 1 >= Math.max(MIN_DENSE_SIZE, maxIndex >> DENSE_SHIFT)) {
+                    toDense(maxIndex + 1);
+                    return setCode(var, code);
+                }
+                int pos = -(i + 1);
+                if (size == vars.length) {
+                    int capacity = Math.max(4, size + (size >> 1));
+                    Var[] newVars = new Var[capacity];
+                    long[] newCodes = new long[capacity];
+                    System.arraycopy(vars, 0, newVars, 0, pos);
+                    System.arraycopy(codes, 0, newCodes, 0, pos);
+                    System.arraycopy(vars, pos, newVars, pos + 1, size - pos);
+                    System.arraycopy(codes, pos, newCodes, pos + 1, size - pos);
+                    vars = newVars;
+                    codes = newCodes;
+                    shared = false;
+                } else {
+                    unshare();
+                    System.arraycopy(vars, pos, vars, pos + 1, size - pos);
+                    System.arraycopy(codes, pos, codes, pos + 1, size - pos);
+                }
+                vars[pos] = var;
+                codes[pos] = code;
+                ++size;
+            }
+            return UNDEF;
+        }
+    }
+
+    /**
+     * Searches the position of given variable index in sparse mode.
+     *
+     * @return the position of the index if it is present, otherwise,
+     * (-(insertion point) - 1).
+     */
+    private int search(int index) {
+        int low = 0, high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midIndex = vars[mid].getIndex();
+            if (midIndex < index) {
+                low = mid + 1;
+            } else if (midIndex > index) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void grow(int capacity) {
+        vars = Arrays.copyOf(vars, capacity);
+        codes = Arrays.copyOf(codes, capacity);
+        shared = false;
+    }
+
+    private void toDense(int capacity) {
+        Var[] newVars = new Var[capacity];
+        long[] newCodes = new long[capacity];
+        for (int i = 0; i < size; ++i) {
+            int index = vars[i].getIndex();
+            newVars[index] = vars[i];
+            newCodes[index] = codes[i];
+        }
+        vars = newVars;
+        codes = newCodes;
+        dense = true;
+        shared = false;
+    }
+
+    private static void checkSameMethod(Var v1, Var v2) {
+        if (v1 != v2) {
+            throw new AnalysisException("Variables " + v1 + " and " + v2 +
+                    " have the same index " + v1.getIndex() +
+                    ", but a CPFact can only hold variables of the same method");
+        }
+    }
+
+    private static long encode(Value value) {
+        if (value.isUndef()) {
+            return UNDEF;
+        } else if (value.isNAC()) {
+            return NAC;
+        } else {
+            return CONSTANT | (value.getConstant() & 0xFFFFFFFFL);
+        }
+    }
+
+    private static Value decode(long code) {
+        if (code == UNDEF) {
+            return Value.getUndef();
+        } else if (code == NAC) {
+            return Value.getNAC();
+        } else {
+            return Value.makeConstant((int) code);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CPFact that) || size != that.size) {
+            return false;
+        }
+        if (vars == that.vars) {
+            return true;
+        }
+        int end = end();
+        for (int i = 0; i < end; ++i) {
+            Var var = vars[i];
+            if (var != null && that.getCode(var) != codes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        int end = end();
+        for (int i = 0; i < end; ++i) {
+            if (vars[i] != null) {
+                hash += vars[i].hashCode() ^ Long.hashCode(codes[i]);
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        // Sort key-value pairs by key's string representation, so that the
+        // fact representation is stable across executions. This is useful
+        // for comparing expected results and the ones given by the analysis.
+        return "{" + entries()
+                .sorted(Comparator.comparing(e -> e.getKey().toString()))
+                .map(e -> e.getKey() + "=" + e.getValue())
+                .collect(Collectors.joining(", ")) + "}";
     }
 }
@@ -92,8 +92,7 @@ public class ConstantPropagation extends AnalysisDriver<Stmt, CPFact> {
 
         @Override
         public void meetInto(CPFact fact, CPFact target) {
-            fact.forEach((var, value) ->
-                    target.update(var, meetValue(value, target.get(var))));
+            target.meet(fact);
         }
 
         /**
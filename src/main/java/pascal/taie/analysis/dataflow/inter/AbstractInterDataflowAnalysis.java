@@ -47,6 +47,11 @@ public abstract class AbstractInterDataflowAnalysis<Method, Node, Fact>
 
     protected ICFG<Method, Node> icfg;
 
+    /**
+     * The work-list solver, which allows the transfer functions to access
+     * and propagate the facts of other nodes. It is null if the analysis
+     * is solved by {@link ParallelInterSolver}.
+     */
     protected InterSolver<Method, Node, Fact> solver;
 
     public AbstractInterDataflowAnalysis(AnalysisConfig config) {
@@ -67,6 +72,15 @@ public abstract class AbstractInterDataflowAnalysis<Method, Node, Fact>
     protected void finish() {
     }
 
+    /**
+     * If the concrete analysis can be solved by {@link ParallelInterSolver},
+     * i.e., its transfer functions of each node only access the facts of
+     * the nodes in the same method, then it can overwrite this method.
+     */
+    protected boolean isParallel() {
+        return false;
+    }
+
     /**
      * Dispatches {@code Node} to specific node transfer functions for
      * call nodes and non-call nodes.
@@ -121,8 +135,13 @@ public abstract class AbstractInterDataflowAnalysis<Method, Node, Fact>
     public DataflowResult<Node, Fact> analyze() {
         icfg = World.get().getResult(ICFGBuilder.ID);
         initialize();
-        solver = new InterSolver<>(this, icfg);
-        DataflowResult<Node, Fact> result = solver.solve();
+        DataflowResult<Node, Fact> result;
+        if (isParallel()) {
+            result = new ParallelInterSolver<>(this, icfg).solve();
+        } else {
+            solver = new InterSolver<>(this, icfg);
+            result = solver.solve();
+        }
         finish();
         return result;
     }
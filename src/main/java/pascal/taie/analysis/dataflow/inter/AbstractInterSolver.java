@@ -0,0 +1,82 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.graph.icfg.ICFG;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Provides common functionalities for the solvers of inter-procedural
+ * data-flow analysis, i.e., {@link InterSolver} and {@link ParallelInterSolver}.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <Fact>   type of data-flow facts
+ */
+abstract class AbstractInterSolver<Method, Node, Fact> {
+
+    final InterDataflowAnalysis<Node, Fact> analysis;
+
+    final ICFG<Method, Node> icfg;
+
+    DataflowResult<Node, Fact> result;
+
+    AbstractInterSolver(InterDataflowAnalysis<Node, Fact> analysis,
+                        ICFG<Method, Node> icfg) {
+        this.analysis = analysis;
+        this.icfg = icfg;
+    }
+
+    DataflowResult<Node, Fact> solve() {
+        result = new DataflowResult<>();
+        initialize();
+        doSolve();
+        return result;
+    }
+
+    private void initialize() {
+        Set<Node> entryNodes = icfg.entryMethods()
+                .map(icfg::getEntryOf)
+                .collect(Collectors.toSet());
+        entryNodes.forEach(entry -> {
+            result.setInFact(entry, analysis.newBoundaryFact(entry));
+            result.setOutFact(entry, analysis.newBoundaryFact(entry));
+        });
+        icfg.forEach(node -> {
+            if (entryNodes.contains(node)) {
+                return;
+            }
+            result.setInFact(node, analysis.newInitialFact());
+            result.setOutFact(node, analysis.newInitialFact());
+        });
+    }
+
+    abstract void doSolve();
+
+    Fact getOutFact(Node node) {
+        return result.getOutFact(node);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+/**
+ * Edge function of IDE problems, which transforms the lattice value
+ * of the source fact of an exploded super-graph edge to the lattice
+ * value of the target fact.
+ * <p>
+ * The edge functions of an IDE problem must form a lattice of finite
+ * height under {@link #meet(EdgeFunction)}, and must be closed under
+ * {@link #andThen(EdgeFunction)}. The solver compares edge functions
+ * by {@link #equals(Object)}, thus the implementations should be
+ * value-based and canonical, e.g., records.
+ *
+ * @param <V> type of lattice values
+ * @see IDEProblem
+ */
+public interface EdgeFunction<V> {
+
+    /**
+     * @return the value of the target fact given the value of source fact.
+     */
+    V apply(V source);
+
+    /**
+     * @return the composition that applies this function first,
+     * and then {@code next}.
+     */
+    EdgeFunction<V> andThen(EdgeFunction<V> next);
+
+    /**
+     * @return the greatest lower bound of this function and {@code other}.
+     * The implementations must handle the case where {@code other}
+     * is {@link #identity()}.
+     */
+    EdgeFunction<V> meet(EdgeFunction<V> other);
+
+    /**
+     * @return the identity edge function.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> EdgeFunction<V> identity() {
+        return (EdgeFunction<V>) Identity.INSTANCE;
+    }
+
+    enum Identity implements EdgeFunction<Object> {
+
+        INSTANCE;
+
+        @Override
+        public Object apply(Object source) {
+            return source;
+        }
+
+        @Override
+        public EdgeFunction<Object> andThen(EdgeFunction<Object> next) {
+            return next;
+        }
+
+        @Override
+        public EdgeFunction<Object> meet(EdgeFunction<Object> other) {
+            return other == this ? this : other.meet(this);
+        }
+
+        @Override
+        public String toString() {
+            return "id";
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Flow function of IFDS/IDE problems, which maps a data-flow fact
+ * holding before a node (or an ICFG edge) to the facts holding after it.
+ *
+ * @param <D> type of data-flow facts
+ * @see IFDSProblem
+ */
+@FunctionalInterface
+public interface FlowFunction<D> {
+
+    /**
+     * @return the facts that hold after this flow function,
+     * given that {@code source} holds before it.
+     */
+    Set<D> apply(D source);
+
+    /**
+     * @return the flow function which maps each fact to itself.
+     */
+    static <D> FlowFunction<D> identity() {
+        return Collections::singleton;
+    }
+}
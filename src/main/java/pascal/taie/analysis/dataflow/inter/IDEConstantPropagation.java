@@ -0,0 +1,452 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.analysis.constprop.Evaluator;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.Exp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.InvokeDynamic;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.DefinitionStmt;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static pascal.taie.ir.exp.Exps.holdsInt;
+
+/**
+ * Formulates inter-procedural constant propagation as an {@link IDEProblem},
+ * i.e., linear constant propagation in "Precise interprocedural dataflow
+ * analysis with applications to constant propagation" (Sagiv, Reps and
+ * Horwitz, TCS 1996). The facts are the int variables, and the values are
+ * the lattice values of constant propagation.
+ * <p>
+ * Compared to {@link InterConstantPropagation} with the work-list solver,
+ * the values returned from callees are not merged across call sites.
+ * On the other hand, only the assignments of the form {@code x = c},
+ * {@code x = y}, {@code x = y + c}, {@code x = y - c}, {@code x = c - y}
+ * and {@code x = y * c} (c is constant) are distributive, and the edge
+ * refinement is not supported. The other binary expressions over int
+ * variables, e.g., {@code x = y * z}, cannot be expressed by edge functions
+ * of single facts, thus they are evaluated on the values of the operands
+ * computed in previous round (see {@link #refine(IDEResult)}), and the
+ * problem is solved again until the values do not change. The values of
+ * such expressions are merged across the contexts, as in
+ * {@link InterConstantPropagation} with the work-list solver.
+ */
+class IDEConstantPropagation implements IDEProblem<Stmt, Var, Value> {
+
+    /**
+     * The zero fact, which is a dummy variable.
+     */
+    private static final Var ZERO = new Var(null, "<zero>", PrimitiveType.INT, -1);
+
+    private static final EdgeFunction<Value> NAC = new Constant(Value.getNAC());
+
+    private final ICFG<JMethod, Stmt> icfg;
+
+    private final ConstantPropagation.Analysis cp;
+
+    /**
+     * Map from definition statements to the variables used to compute the
+     * defined variables (ZERO if the value is independent of variables)
+     * and the corresponding edge functions.
+     */
+    private final Map<Stmt, Map<Var, EdgeFunction<Value>>> stmtGens = Maps.newMap();
+
+    /**
+     * Map from definition statements to their non-linear binary expressions,
+     * whose values are computed by {@link #refine(IDEResult)}.
+     */
+    private final Map<Stmt, BinaryExp> nonLinearExps = Maps.newMap();
+
+    /**
+     * Values of the non-linear expressions computed in previous round.
+     * The expressions are absent (i.e., UNDEF) before the first round,
+     * so that the values are refined from the top of the lattice,
+     * as the work-list solver does.
+     */
+    private final Map<Stmt, Value> nonLinearValues = Maps.newMap();
+
+    IDEConstantPropagation(ICFG<JMethod, Stmt> icfg, ConstantPropagation.Analysis cp) {
+        this.icfg = icfg;
+        this.cp = cp;
+    }
+
+    @Override
+    public Var getZeroFact() {
+        return ZERO;
+    }
+
+    @Override
+    public Set<Var> getBoundaryFacts(Stmt entry) {
+        return Sets.newHybridSet(getIntParams(icfg.getContainingMethodOf(entry)));
+    }
+
+    @Override
+    public Value getBoundaryValue(Stmt entry, Var fact) {
+        // make conservative assumption about parameters of entry methods
+        return Value.getNAC();
+    }
+
+    @Override
+    public Value getTopValue() {
+        return Value.getUndef();
+    }
+
+    @Override
+    public Value meet(Value v1, Value v2) {
+        return cp.meetValue(v1, v2);
+    }
+
+    // ---------- flow functions and edge functions of nodes ----------
+    @Override
+    public FlowFunction<Var> getFlowFunction(Stmt node) {
+        Var lhs = getDefinedVar(node);
+        if (lhs == null) {
+            return FlowFunction.identity();
+        }
+        Map<Var, EdgeFunction<Value>> gens = getGens(node);
+        return fact -> {
+            Set<Var> targets = Sets.newHybridSet();
+            if (!fact.equals(lhs)) {
+                targets.add(fact);
+            }
+            if (gens.containsKey(fact)) {
+                targets.add(lhs);
+            }
+            return targets;
+        };
+    }
+
+    @Override
+    public EdgeFunction<Value> getEdgeFunction(Stmt node, Var source, Var target) {
+        Var lhs = getDefinedVar(node);
+        if (lhs != null && target.equals(lhs)) {
+            return getGens(node).get(source);
+        }
+        return EdgeFunction.identity();
+    }
+
+    /**
+     * @return the int variable defined by given statement, or null if the
+     * statement does not define int variable.
+     */
+    private static @Nullable Var getDefinedVar(Stmt stmt) {
+        if (stmt instanceof DefinitionStmt<?, ?> def &&
+                def.getLValue() instanceof Var lhs &&
+                holdsInt(lhs) && !lhs.isConst()) {
+            return lhs;
+        }
+        return null;
+    }
+
+    private Map<Var, EdgeFunction<Value>> getGens(Stmt stmt) {
+        return stmtGens.computeIfAbsent(stmt, __ -> computeGens(stmt));
+    }
+
+    private Map<Var, EdgeFunction<Value>> computeGens(Stmt stmt) {
+        Exp rhs = ((DefinitionStmt<?, ?>) stmt).getRValue();
+        if (rhs instanceof IntLiteral literal) {
+            return Map.of(ZERO, new Constant(Value.makeConstant(literal.getValue())));
+        } else if (rhs instanceof Var var) {
+            Integer c = getConstant(var);
+            if (c != null) {
+                return Map.of(ZERO, new Constant(Value.makeConstant(c)));
+            }
+            return holdsInt(var) ?
+                    Map.of(var, EdgeFunction.identity()) : Map.of(ZERO, NAC);
+        } else if (rhs instanceof BinaryExp binary) {
+            Var v1 = binary.getOperand1();
+            Var v2 = binary.getOperand2();
+            Integer c1 = getConstant(v1);
+            Integer c2 = getConstant(v2);
+            if (c1 != null && c2 != null) {
+                Value value = Evaluator.evaluate(binary, new CPFact());
+                // the defined variable stays UNDEF (e.g., division by zero)
+                return value.isUndef() ? Map.of() : Map.of(ZERO, new Constant(value));
+            }
+            BinaryExp.Op op = binary.getOperator();
+            if ((op == ArithmeticExp.Op.DIV || op == ArithmeticExp.Op.REM) &&
+                    c2 != null && c2 == 0) {
+                return Map.of();
+            }
+            if (op == ArithmeticExp.Op.ADD) {
+                if (c2 != null) {
+                    return Map.of(v1, Linear.of(1, c2));
+                } else if (c1 != null) {
+                    return Map.of(v2, Linear.of(1, c1));
+                }
+            } else if (op == ArithmeticExp.Op.SUB) {
+                if (c2 != null) {
+                    return Map.of(v1, Linear.of(1, -c2));
+                } else if (c1 != null) {
+                    return Map.of(v2, Linear.of(-1, c1));
+                }
+            } else if (op == ArithmeticExp.Op.MUL) {
+                if (c2 != null) {
+                    return Map.of(v1, Linear.of(c2, 0));
+                } else if (c1 != null) {
+                    return Map.of(v2, Linear.of(c1, 0));
+                }
+            }
+            // non-linear expression: use the value computed in previous round
+            if (holdsInt(v1) && holdsInt(v2)) {
+                nonLinearExps.put(stmt, binary);
+                Value value = nonLinearValues.get(stmt);
+                return value == null ? Map.of() : Map.of(ZERO, new Constant(value));
+            }
+        }
+        // return NAC for other cases
+        return Map.of(ZERO, NAC);
+    }
+
+    /**
+     * Evaluates the non-linear expressions on the values of their operands
+     * in given result, and meets the values into the ones of previous round.
+     *
+     * @return true if the value of any non-linear expression changed,
+     * then the problem needs to be solved again.
+     */
+    boolean refine(IDEResult<Stmt, Var, Value> result) {
+        boolean changed = false;
+        for (var entry : nonLinearExps.entrySet()) {
+            Stmt stmt = entry.getKey();
+            CPFact in = new CPFact();
+            result.getValuesAt(stmt).forEach(in::update);
+            Value oldValue = nonLinearValues.getOrDefault(stmt, Value.getUndef());
+            Value newValue = cp.meetValue(oldValue,
+                    Evaluator.evaluate(entry.getValue(), in));
+            if (!newValue.equals(oldValue)) {
+                nonLinearValues.put(stmt, newValue);
+                // the edge functions of the statement are recomputed
+                stmtGens.remove(stmt);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return the int constant held by given temporary constant variable,
+     * or null if the variable is not such a variable.
+     */
+    private static @Nullable Integer getConstant(Var var) {
+        return var.isConst() && var.getConstValue() instanceof IntLiteral i ?
+                i.getValue() : null;
+    }
+
+    // ---------- flow functions and edge functions of ICFG edges ----------
+    @Override
+    public FlowFunction<Var> getFlowFunction(ICFGEdge<Stmt> edge) {
+        if (edge instanceof CallToReturnEdge<Stmt>) {
+            // kill the value of LHS variable
+            Var lhs = ((Invoke) edge.source()).getResult();
+            return fact -> fact.equals(lhs) ? Set.of() : Set.of(fact);
+        } else if (edge instanceof CallEdge<Stmt> callEdge) {
+            // pass arguments at call site to parameters of the callee
+            List<Var> args = getArgs(callEdge);
+            List<Var> params = callEdge.getCallee().getIR().getParams();
+            return fact -> {
+                Set<Var> targets = Sets.newHybridSet();
+                if (fact.equals(ZERO)) {
+                    targets.add(ZERO);
+                }
+                for (int i = 0; i < args.size(); ++i) {
+                    Var arg = args.get(i);
+                    Var param = params.get(i);
+                    if (holdsInt(param) && (fact.equals(arg) ||
+                            fact.equals(ZERO) && getConstant(arg) != null)) {
+                        targets.add(param);
+                    }
+                }
+                return targets;
+            };
+        } else if (edge instanceof ReturnEdge<Stmt> returnEdge) {
+            // pass return values to the LHS of the call site
+            Var lhs = ((Invoke) returnEdge.getCallSite()).getResult();
+            boolean passReturn = lhs != null && holdsInt(lhs);
+            return fact -> {
+                Set<Var> targets = Sets.newHybridSet();
+                if (fact.equals(ZERO)) {
+                    targets.add(ZERO);
+                    if (passReturn && returnEdge.getReturnVars()
+                            .stream()
+                            .anyMatch(v -> getConstant(v) != null)) {
+                        targets.add(lhs);
+                    }
+                } else if (passReturn && returnEdge.getReturnVars().contains(fact)) {
+                    targets.add(lhs);
+                }
+                return targets;
+            };
+        } else {
+            return FlowFunction.identity();
+        }
+    }
+
+    @Override
+    public EdgeFunction<Value> getEdgeFunction(
+            ICFGEdge<Stmt> edge, Var source, Var target) {
+        if (source.equals(ZERO) && !target.equals(ZERO)) {
+            if (edge instanceof CallEdge<Stmt> callEdge) {
+                // the parameter receives constant arguments
+                List<Var> args = getArgs(callEdge);
+                List<Var> params = callEdge.getCallee().getIR().getParams();
+                Value value = Value.getUndef();
+                for (int i = 0; i < args.size(); ++i) {
+                    Integer c = getConstant(args.get(i));
+                    if (params.get(i).equals(target) && c != null) {
+                        value = cp.meetValue(value, Value.makeConstant(c));
+                    }
+                }
+                return new Constant(value);
+            } else if (edge instanceof ReturnEdge<Stmt> returnEdge) {
+                // the LHS variable receives constant return values
+                return new Constant(returnEdge.getReturnVars()
+                        .stream()
+                        .map(IDEConstantPropagation::getConstant)
+                        .filter(c -> c != null)
+                        .map(Value::makeConstant)
+                        .reduce(Value.getUndef(), cp::meetValue));
+            }
+        }
+        return EdgeFunction.identity();
+    }
+
+    /**
+     * @return the arguments passed to the parameters of the callee,
+     * or empty list for invokedynamic and the special call edges
+     * whose call-site subsignature does not equal to callee's.
+     */
+    private static List<Var> getArgs(CallEdge<Stmt> edge) {
+        InvokeExp invokeExp = ((Invoke) edge.source()).getInvokeExp();
+        if (!(invokeExp instanceof InvokeDynamic) &&
+                invokeExp.getMethodRef().getSubsignature()
+                        .equals(edge.getCallee().getSubsignature())) {
+            return invokeExp.getArgs();
+        }
+        return List.of();
+    }
+
+    private List<Var> getIntParams(JMethod method) {
+        return method.getIR()
+                .getParams()
+                .stream()
+                .filter(p -> holdsInt(p) && !p.isConst())
+                .toList();
+    }
+
+    // ---------- edge functions ----------
+
+    /**
+     * Edge function that maps any value to {@link #value}.
+     */
+    private record Constant(Value value) implements EdgeFunction<Value> {
+
+        @Override
+        public Value apply(Value source) {
+            return value;
+        }
+
+        @Override
+        public EdgeFunction<Value> andThen(EdgeFunction<Value> next) {
+            return new Constant(next.apply(value));
+        }
+
+        @Override
+        public EdgeFunction<Value> meet(EdgeFunction<Value> other) {
+            if (value.isUndef()) {
+                return other;
+            } else if (other instanceof Constant c) {
+                if (c.value.isUndef()) {
+                    return this;
+                }
+                return value.equals(c.value) ? this : NAC;
+            } else {
+                return NAC;
+            }
+        }
+    }
+
+    /**
+     * Edge function that maps constant c to a * c + b.
+     */
+    private record Linear(int a, int b) implements EdgeFunction<Value> {
+
+        private static EdgeFunction<Value> of(int a, int b) {
+            return a == 1 && b == 0 ? EdgeFunction.identity() : new Linear(a, b);
+        }
+
+        @Override
+        public Value apply(Value source) {
+            if (source.isConstant()) {
+                return Value.makeConstant(a * source.getConstant() + b);
+            } else if (source.isNAC() && a == 0) {
+                // 0 * NAC is 0
+                return Value.makeConstant(b);
+            } else {
+                return source;
+            }
+        }
+
+        @Override
+        public EdgeFunction<Value> andThen(EdgeFunction<Value> next) {
+            if (next instanceof Linear l) {
+                return of(l.a * a, l.a * b + l.b);
+            } else if (next instanceof Constant) {
+                return next;
+            } else { // next is identity
+                return this;
+            }
+        }
+
+        @Override
+        public EdgeFunction<Value> meet(EdgeFunction<Value> other) {
+            if (equals(other) ||
+                    other instanceof Constant c && c.value.isUndef()) {
+                return this;
+            }
+            return NAC;
+        }
+    }
+}
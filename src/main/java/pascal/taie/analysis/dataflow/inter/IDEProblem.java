@@ -0,0 +1,68 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+
+/**
+ * Template interface for defining IDE problems, i.e., inter-procedural
+ * distributive environment problems, which are solved by {@link IDESolver}.
+ * An IDE problem extends an IFDS problem with lattice values of the
+ * facts, and the values are transformed by the edge functions along
+ * the flow functions.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of data-flow facts
+ * @param <V>    type of lattice values
+ */
+public interface IDEProblem<Node, D, V> extends IFDSProblem<Node, D> {
+
+    /**
+     * @return the edge function from {@code source} to {@code target}
+     * in the flow function of given non-call node.
+     */
+    EdgeFunction<V> getEdgeFunction(Node node, D source, D target);
+
+    /**
+     * @return the edge function from {@code source} to {@code target}
+     * in the flow function of given ICFG edge.
+     */
+    EdgeFunction<V> getEdgeFunction(ICFGEdge<Node> edge, D source, D target);
+
+    /**
+     * @return the value of given fact (including zero fact)
+     * at the entry of entry methods.
+     */
+    V getBoundaryValue(Node entry, D fact);
+
+    /**
+     * @return the top value of the lattice, i.e., the value of the facts
+     * that do not hold.
+     */
+    V getTopValue();
+
+    /**
+     * Meets two values.
+     */
+    V meet(V v1, V v2);
+}
@@ -0,0 +1,51 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import java.util.Map;
+
+/**
+ * Result of an IDE problem.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of data-flow facts
+ * @param <V>    type of lattice values
+ */
+public interface IDEResult<Node, D, V> extends IFDSResult<Node, D> {
+
+    /**
+     * @return the value of given fact before given node, or the top value
+     * if the fact does not hold there.
+     */
+    V getValueAt(Node node, D fact);
+
+    /**
+     * @return the values of the facts (except zero fact) before given node.
+     */
+    Map<D, V> getValuesAt(Node node);
+
+    /**
+     * @return the values of the facts (except zero fact) after given node.
+     */
+    Map<D, V> getValuesAfter(Node node);
+}
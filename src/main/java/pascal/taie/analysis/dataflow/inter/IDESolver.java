@@ -0,0 +1,434 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Tabulation solver for {@link IDEProblem}s, based on the algorithm in
+ * "Precise interprocedural dataflow analysis with applications to constant
+ * propagation" (Sagiv, Reps and Horwitz, TCS 1996).
+ * <p>
+ * Phase I computes jump functions, i.e., the edge functions from the facts
+ * at the entry of each method to the facts before each node of the method,
+ * and end summaries, i.e., the jump functions to the exit of each method.
+ * At each call site, the end summaries of the callee are applied for the
+ * facts that reach the callee, so that the callee is analyzed once for
+ * each fact at its entry, and the results of different call sites are not
+ * merged at return sites. Phase II computes the values of the facts at
+ * the entries of methods and then at each node by applying the jump
+ * functions.
+ * <p>
+ * The nodes are visited lazily: only the nodes and facts that are
+ * reachable from the entry methods are recorded, so that the memory
+ * is proportional to the number of reachable facts instead of the size
+ * of ICFG times the size of the data-flow domain.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of data-flow facts
+ * @param <V>      type of lattice values
+ */
+public class IDESolver<Method, Node, D, V> {
+
+    private final IDEProblem<Node, D, V> problem;
+
+    private final ICFG<Method, Node> icfg;
+
+    private final boolean computeValues;
+
+    private final D zero;
+
+    /**
+     * Jump functions: node -> fact before the node -> fact at the entry
+     * of the containing method -> edge function.
+     */
+    private final Map<Node, Map<D, Map<D, EdgeFunction<V>>>> jumpFns = Maps.newMap();
+
+    /**
+     * End summaries: method -> fact at the entry -> fact after the exit
+     * -> edge function.
+     */
+    private final Map<Method, Map<D, Map<D, EdgeFunction<V>>>> endSummaries = Maps.newMap();
+
+    /**
+     * Incoming calls: callee -> fact at the entry of callee -> call site
+     * -> fact at the call site -> edge function of the call edge.
+     */
+    private final Map<Method, Map<D, Map<Node, Map<D, EdgeFunction<V>>>>> incomings = Maps.newMap();
+
+    /**
+     * Reachable call sites in each method.
+     */
+    private final MultiMap<Method, Node> callSites = Maps.newMultiMap();
+
+    private final Queue<PathEdge<Node, D>> workList = new SetQueue<>();
+
+    public IDESolver(IDEProblem<Node, D, V> problem, ICFG<Method, Node> icfg) {
+        this(problem, icfg, true);
+    }
+
+    /**
+     * @param computeValues whether compute the values of the facts (phase II).
+     *                      IFDS problems do not need the values.
+     */
+    IDESolver(IDEProblem<Node, D, V> problem, ICFG<Method, Node> icfg,
+              boolean computeValues) {
+        this.problem = problem;
+        this.icfg = icfg;
+        this.computeValues = computeValues;
+        this.zero = problem.getZeroFact();
+    }
+
+    public IDEResult<Node, D, V> solve() {
+        initialize();
+        doSolve();
+        return new Result(computeValues ? computeValues() : Map.of());
+    }
+
+    private void initialize() {
+        icfg.entryMethods().forEach(method -> {
+            Node entry = icfg.getEntryOf(method);
+            propagate(zero, entry, zero, EdgeFunction.identity());
+            problem.getBoundaryFacts(entry).forEach(fact ->
+                    propagate(fact, entry, fact, EdgeFunction.identity()));
+        });
+    }
+
+    // ---------- phase I: computing jump functions ----------
+    private void doSolve() {
+        while (!workList.isEmpty()) {
+            PathEdge<Node, D> pathEdge = workList.poll();
+            Node node = pathEdge.node();
+            EdgeFunction<V> fn = jumpFns.get(node)
+                    .get(pathEdge.target())
+                    .get(pathEdge.source());
+            if (icfg.isCallSite(node)) {
+                processCall(pathEdge, fn);
+            } else if (isExit(node)) {
+                processExit(pathEdge, fn);
+            } else {
+                processNormal(pathEdge, fn);
+            }
+        }
+    }
+
+    private boolean isExit(Node node) {
+        return icfg.getExitOf(icfg.getContainingMethodOf(node)).equals(node);
+    }
+
+    /**
+     * Meets {@code fn} into the jump function from {@code source} to
+     * ({@code node}, {@code target}), and adds the path edge to work list
+     * if the jump function changed.
+     */
+    private void propagate(D source, Node node, D target, EdgeFunction<V> fn) {
+        Map<D, EdgeFunction<V>> fns = jumpFns
+                .computeIfAbsent(node, __ -> Maps.newHybridMap())
+                .computeIfAbsent(target, __ -> Maps.newHybridMap());
+        EdgeFunction<V> oldFn = fns.get(source);
+        EdgeFunction<V> newFn = oldFn == null ? fn : oldFn.meet(fn);
+        if (!newFn.equals(oldFn)) {
+            fns.put(source, newFn);
+            workList.add(new PathEdge<>(source, node, target));
+        }
+    }
+
+    private void processNormal(PathEdge<Node, D> pathEdge, EdgeFunction<V> fn) {
+        Node node = pathEdge.node();
+        D fact = pathEdge.target();
+        for (D outFact : problem.getFlowFunction(node).apply(fact)) {
+            EdgeFunction<V> outFn = fn.andThen(
+                    problem.getEdgeFunction(node, fact, outFact));
+            for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+                for (D succFact : problem.getFlowFunction(edge).apply(outFact)) {
+                    propagate(pathEdge.source(), edge.target(), succFact,
+                            outFn.andThen(problem.getEdgeFunction(edge, outFact, succFact)));
+                }
+            }
+        }
+    }
+
+    private void processCall(PathEdge<Node, D> pathEdge, EdgeFunction<V> fn) {
+        Node callSite = pathEdge.node();
+        D fact = pathEdge.target();
+        callSites.put(icfg.getContainingMethodOf(callSite), callSite);
+        for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(callSite)) {
+            FlowFunction<D> flowFn = problem.getFlowFunction(edge);
+            if (edge instanceof CallEdge<Node>) {
+                Node calleeEntry = edge.target();
+                Method callee = icfg.getContainingMethodOf(calleeEntry);
+                for (D entryFact : flowFn.apply(fact)) {
+                    EdgeFunction<V> callFn = problem.getEdgeFunction(edge, fact, entryFact);
+                    // analyze the callee from the entry fact (if it has not
+                    // been analyzed), and record the incoming call
+                    propagate(entryFact, calleeEntry, entryFact, EdgeFunction.identity());
+                    incomings.computeIfAbsent(callee, __ -> Maps.newHybridMap())
+                            .computeIfAbsent(entryFact, __ -> Maps.newHybridMap())
+                            .computeIfAbsent(callSite, __ -> Maps.newHybridMap())
+                            .put(fact, callFn);
+                    // apply the existing end summaries of the callee
+                    Map<D, EdgeFunction<V>> summaries = endSummaries
+                            .getOrDefault(callee, Map.of())
+                            .get(entryFact);
+                    if (summaries != null) {
+                        summaries.forEach((exitFact, summary) ->
+                                applyReturns(callSite, callee, exitFact,
+                                        callFn.andThen(summary),
+                                        pathEdge.source(), fn));
+                    }
+                }
+            } else {
+                // call-to-return edges
+                for (D succFact : flowFn.apply(fact)) {
+                    propagate(pathEdge.source(), edge.target(), succFact,
+                            fn.andThen(problem.getEdgeFunction(edge, fact, succFact)));
+                }
+            }
+        }
+    }
+
+    private void processExit(PathEdge<Node, D> pathEdge, EdgeFunction<V> fn) {
+        Node exit = pathEdge.node();
+        D fact = pathEdge.target();
+        D entryFact = pathEdge.source();
+        Method method = icfg.getContainingMethodOf(exit);
+        for (D exitFact : problem.getFlowFunction(exit).apply(fact)) {
+            Map<D, EdgeFunction<V>> summaries = endSummaries
+                    .computeIfAbsent(method, __ -> Maps.newHybridMap())
+                    .computeIfAbsent(entryFact, __ -> Maps.newHybridMap());
+            EdgeFunction<V> summary = fn.andThen(
+                    problem.getEdgeFunction(exit, fact, exitFact));
+            EdgeFunction<V> oldSummary = summaries.get(exitFact);
+            EdgeFunction<V> newSummary = oldSummary == null ?
+                    summary : oldSummary.meet(summary);
+            if (newSummary.equals(oldSummary)) {
+                continue;
+            }
+            summaries.put(exitFact, newSummary);
+            // return to the call sites which reach this method with entryFact
+            Map<Node, Map<D, EdgeFunction<V>>> calls = incomings
+                    .getOrDefault(method, Map.of())
+                    .get(entryFact);
+            if (calls != null) {
+                calls.forEach((callSite, callFns) ->
+                        callFns.forEach((callFact, callFn) ->
+                                jumpFns.get(callSite).get(callFact).forEach(
+                                        (callerFact, callerFn) -> applyReturns(
+                                                callSite, method, exitFact,
+                                                callFn.andThen(newSummary),
+                                                callerFact, callerFn))));
+            }
+        }
+    }
+
+    /**
+     * Propagates {@code exitFact} of {@code callee} to the return sites
+     * of {@code callSite}.
+     *
+     * @param calleeFn   edge function from the fact at call site to exitFact.
+     * @param callerFact the fact at the entry of the caller.
+     * @param callerFn   jump function from callerFact to the fact at call site.
+     */
+    private void applyReturns(Node callSite, Method callee, D exitFact,
+                              EdgeFunction<V> calleeFn,
+                              D callerFact, EdgeFunction<V> callerFn) {
+        Node exit = icfg.getExitOf(callee);
+        for (Node retSite : icfg.getReturnSitesOf(callSite)) {
+            for (ICFGEdge<Node> edge : icfg.getInEdgesOf(retSite)) {
+                if (edge instanceof ReturnEdge<Node> returnEdge &&
+                        returnEdge.source().equals(exit) &&
+                        returnEdge.getCallSite().equals(callSite)) {
+                    for (D retFact : problem.getFlowFunction(edge).apply(exitFact)) {
+                        propagate(callerFact, retSite, retFact, callerFn
+                                .andThen(calleeFn)
+                                .andThen(problem.getEdgeFunction(edge, exitFact, retFact)));
+                    }
+                }
+            }
+        }
+    }
+
+    // ---------- phase II: computing values ----------
+    private Map<Node, Map<D, V>> computeValues() {
+        // propagate values to the entries of methods and call sites
+        Map<Node, Map<D, V>> values = Maps.newMap();
+        Queue<NodeFact<Node, D>> valueWorkList = new SetQueue<>();
+        icfg.entryMethods().forEach(method -> {
+            Node entry = icfg.getEntryOf(method);
+            setValue(values, valueWorkList, entry, zero,
+                    problem.getBoundaryValue(entry, zero));
+            problem.getBoundaryFacts(entry).forEach(fact ->
+                    setValue(values, valueWorkList, entry, fact,
+                            problem.getBoundaryValue(entry, fact)));
+        });
+        while (!valueWorkList.isEmpty()) {
+            NodeFact<Node, D> nodeFact = valueWorkList.poll();
+            Node node = nodeFact.node();
+            D fact = nodeFact.fact();
+            V value = values.get(node).get(fact);
+            if (icfg.isCallSite(node)) {
+                for (ICFGEdge<Node> edge : icfg.getOutEdgesOf(node)) {
+                    if (edge instanceof CallEdge<Node>) {
+                        for (D entryFact : problem.getFlowFunction(edge).apply(fact)) {
+                            setValue(values, valueWorkList, edge.target(), entryFact,
+                                    problem.getEdgeFunction(edge, fact, entryFact)
+                                            .apply(value));
+                        }
+                    }
+                }
+            } else { // node is the entry of a method
+                for (Node callSite : callSites.get(icfg.getContainingMethodOf(node))) {
+                    jumpFns.get(callSite).forEach((callFact, fns) -> {
+                        EdgeFunction<V> fn = fns.get(fact);
+                        if (fn != null) {
+                            setValue(values, valueWorkList, callSite, callFact,
+                                    fn.apply(value));
+                        }
+                    });
+                }
+            }
+        }
+        // compute the values at all reachable nodes via jump functions
+        Map<Node, Map<D, V>> result = Maps.newMap(jumpFns.size());
+        V top = problem.getTopValue();
+        jumpFns.forEach((node, nodeFns) -> {
+            Map<D, V> entryValues = values.getOrDefault(
+                    icfg.getEntryOf(icfg.getContainingMethodOf(node)), Map.of());
+            Map<D, V> nodeValues = Maps.newHybridMap();
+            nodeFns.forEach((fact, fns) -> {
+                V value = top;
+                for (var e : fns.entrySet()) {
+                    V entryValue = entryValues.get(e.getKey());
+                    if (entryValue != null) {
+                        value = problem.meet(value, e.getValue().apply(entryValue));
+                    }
+                }
+                nodeValues.put(fact, value);
+            });
+            result.put(node, nodeValues);
+        });
+        return result;
+    }
+
+    private void setValue(Map<Node, Map<D, V>> values,
+                          Queue<NodeFact<Node, D>> valueWorkList,
+                          Node node, D fact, V value) {
+        Map<D, V> nodeValues = values.computeIfAbsent(node, __ -> Maps.newHybridMap());
+        V oldValue = nodeValues.get(fact);
+        V newValue = oldValue == null ? value : problem.meet(oldValue, value);
+        if (!newValue.equals(oldValue)) {
+            nodeValues.put(fact, newValue);
+            valueWorkList.add(new NodeFact<>(node, fact));
+        }
+    }
+
+    /**
+     * Path edge from {@code source} at the entry of the method containing
+     * {@code node} to {@code target} before {@code node}.
+     */
+    private record PathEdge<Node, D>(D source, Node node, D target) {
+    }
+
+    private record NodeFact<Node, D>(Node node, D fact) {
+    }
+
+    private class Result implements IDEResult<Node, D, V> {
+
+        private final Map<Node, Map<D, V>> values;
+
+        private Result(Map<Node, Map<D, V>> values) {
+            this.values = values;
+        }
+
+        @Override
+        public Set<D> getFactsAt(Node node) {
+            Map<D, ?> fns = jumpFns.get(node);
+            if (fns == null) {
+                return Set.of();
+            }
+            Set<D> facts = Sets.newHybridSet(fns.keySet());
+            facts.remove(zero);
+            return Collections.unmodifiableSet(facts);
+        }
+
+        @Override
+        public Set<D> getFactsAfter(Node node) {
+            Map<D, ?> fns = jumpFns.get(node);
+            if (fns == null) {
+                return Set.of();
+            } else if (icfg.isCallSite(node)) {
+                return getFactsAt(node);
+            }
+            FlowFunction<D> flowFn = problem.getFlowFunction(node);
+            Set<D> facts = Sets.newHybridSet();
+            fns.keySet().forEach(fact -> facts.addAll(flowFn.apply(fact)));
+            facts.remove(zero);
+            return Collections.unmodifiableSet(facts);
+        }
+
+        @Override
+        public V getValueAt(Node node, D fact) {
+            return values.getOrDefault(node, Map.of())
+                    .getOrDefault(fact, problem.getTopValue());
+        }
+
+        @Override
+        public Map<D, V> getValuesAt(Node node) {
+            Map<D, V> nodeValues = Maps.newHybridMap(
+                    values.getOrDefault(node, Map.of()));
+            nodeValues.remove(zero);
+            return Collections.unmodifiableMap(nodeValues);
+        }
+
+        @Override
+        public Map<D, V> getValuesAfter(Node node) {
+            if (icfg.isCallSite(node)) {
+                return getValuesAt(node);
+            }
+            FlowFunction<D> flowFn = problem.getFlowFunction(node);
+            Map<D, V> outValues = Maps.newHybridMap();
+            values.getOrDefault(node, Map.of()).forEach((fact, value) -> {
+                for (D outFact : flowFn.apply(fact)) {
+                    V outValue = problem.getEdgeFunction(node, fact, outFact)
+                            .apply(value);
+                    outValues.merge(outFact, outValue, problem::meet);
+                }
+            });
+            outValues.remove(zero);
+            return Collections.unmodifiableMap(outValues);
+        }
+    }
+}
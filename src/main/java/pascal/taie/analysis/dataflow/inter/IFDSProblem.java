@@ -0,0 +1,73 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+
+import java.util.Set;
+
+/**
+ * Template interface for defining IFDS problems, i.e., inter-procedural,
+ * finite, distributive subset problems, which are solved by {@link IFDSSolver}.
+ * <p>
+ * The problems are forward, and the facts are propagated along ICFG:
+ * the flow function of a node transfers the facts holding before
+ * the node to the ones holding after it, and the flow function of
+ * an ICFG edge transfers the facts holding after the source node
+ * to the ones holding before the target node. Note that the node
+ * flow functions are not applied to call sites, whose effects are
+ * modeled by the flow functions of {@link CallEdge},
+ * {@link CallToReturnEdge} and {@link ReturnEdge}.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of data-flow facts
+ */
+public interface IFDSProblem<Node, D> {
+
+    /**
+     * @return the special fact which holds at every reachable node,
+     * and from which the facts are generated.
+     */
+    D getZeroFact();
+
+    /**
+     * @return the facts (except zero fact) that hold at the entry
+     * of entry methods.
+     */
+    default Set<D> getBoundaryFacts(Node entry) {
+        return Set.of();
+    }
+
+    /**
+     * @return the flow function for given non-call node.
+     */
+    FlowFunction<D> getFlowFunction(Node node);
+
+    /**
+     * @return the flow function for given ICFG edge.
+     */
+    FlowFunction<D> getFlowFunction(ICFGEdge<Node> edge);
+}
@@ -0,0 +1,103 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+
+import java.util.Set;
+
+/**
+ * Tabulation solver for {@link IFDSProblem}s. It solves the problem
+ * by {@link IDESolver} with identity edge functions, and skips
+ * the computation of values.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of data-flow facts
+ */
+public class IFDSSolver<Method, Node, D> {
+
+    private final IDESolver<Method, Node, D, Object> solver;
+
+    public IFDSSolver(IFDSProblem<Node, D> problem, ICFG<Method, Node> icfg) {
+        this.solver = new IDESolver<>(new IDEProblemAdapter<>(problem), icfg, false);
+    }
+
+    public IFDSResult<Node, D> solve() {
+        return solver.solve();
+    }
+
+    /**
+     * Adapts an IFDS problem to an IDE problem whose edge functions
+     * are all identity.
+     */
+    private record IDEProblemAdapter<Node, D>(IFDSProblem<Node, D> problem)
+            implements IDEProblem<Node, D, Object> {
+
+        @Override
+        public D getZeroFact() {
+            return problem.getZeroFact();
+        }
+
+        @Override
+        public Set<D> getBoundaryFacts(Node entry) {
+            return problem.getBoundaryFacts(entry);
+        }
+
+        @Override
+        public FlowFunction<D> getFlowFunction(Node node) {
+            return problem.getFlowFunction(node);
+        }
+
+        @Override
+        public FlowFunction<D> getFlowFunction(ICFGEdge<Node> edge) {
+            return problem.getFlowFunction(edge);
+        }
+
+        @Override
+        public EdgeFunction<Object> getEdgeFunction(Node node, D source, D target) {
+            return EdgeFunction.identity();
+        }
+
+        @Override
+        public EdgeFunction<Object> getEdgeFunction(ICFGEdge<Node> edge, D source, D target) {
+            return EdgeFunction.identity();
+        }
+
+        @Override
+        public Object getBoundaryValue(Node entry, D fact) {
+            return Boolean.TRUE;
+        }
+
+        @Override
+        public Object getTopValue() {
+            return Boolean.FALSE;
+        }
+
+        @Override
+        public Object meet(Object v1, Object v2) {
+            return (Boolean) v1 || (Boolean) v2;
+        }
+    }
+}
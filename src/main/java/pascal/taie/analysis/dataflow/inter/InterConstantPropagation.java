@@ -26,14 +26,17 @@ import pascal.taie.World;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
 import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
 import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.icfg.CallEdge;
 import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
 import pascal.taie.analysis.graph.icfg.NormalEdge;
 import pascal.taie.analysis.graph.icfg.ReturnEdge;
 import pascal.taie.analysis.pta.PointerAnalysis;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.InvokeDynamic;
 import pascal.taie.ir.exp.InvokeExp;
@@ -47,10 +50,18 @@ import pascal.taie.ir.stmt.StoreArray;
 import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Canonicalizer;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.SimpleIndexer;
+import pascal.taie.util.collection.IndexerBitSet;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static pascal.taie.ir.exp.Exps.holdsInt;
 
@@ -77,6 +88,17 @@ public class InterConstantPropagation extends
      */
     private final boolean aliasAware;
 
+    /**
+     * The solver of the constant propagation, i.e., "worklist", "parallel"
+     * or "ide". The "parallel" solver solves the methods in different SCCs
+     * of the call graph concurrently, and the "ide" solver does not merge
+     * the values returned from callees across call sites.
+     *
+     * @see ParallelInterSolver
+     * @see IDEConstantPropagation
+     */
+    private final String solverKind;
+
     /**
      * Map from store statements to the corresponding load statements,
      * including both static and instance field stores and loads.
@@ -86,18 +108,69 @@ public class InterConstantPropagation extends
      * For instance fields, if the base variables of both store and
      * load statements may be aliases, e.g., [a.f = b;] -> [x = y.f;],
      * where a and y are aliases, then they should be recorded in this map.
+     * <p>
+     * The related statements of each statement are represented by a bit set
+     * over the indexes of the statements, and the equivalent sets are shared
+     * by the statements, e.g., the stores whose base variables point to
+     * the same objects. The statements without related ones are absent.
      */
-    private MultiMap<StoreField, LoadField> fieldStoreToLoads;
+    private Map<StoreField, Set<LoadField>> fieldStoreToLoads;
 
-    private MultiMap<StoreArray, LoadArray> arrayStoreToLoads;
+    private Map<StoreArray, Set<LoadArray>> arrayStoreToLoads;
 
-    private MultiMap<LoadArray, StoreArray> arrayLoadToStores;
+    private Map<LoadArray, Set<StoreArray>> arrayLoadToStores;
 
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
         edgeRefine = getOptions().getBoolean("edge-refine");
         aliasAware = getOptions().getBoolean("alias-aware");
         cp = new ConstantPropagation.Analysis(null, edgeRefine);
+        solverKind = getOptions().getString("solver");
+        if (!List.of("worklist", "parallel", "ide").contains(solverKind)) {
+            throw new ConfigException(
+                    "Unknown solver for " + ID + ": " + solverKind);
+        }
+        if (aliasAware && !solverKind.equals("worklist")) {
+            // the transfer functions of alias-aware constant propagation
+            // access and propagate the facts of other methods
+            throw new ConfigException(
+                    "alias-aware is not supported by solver " + solverKind);
+        }
+        if (edgeRefine && solverKind.equals("ide")) {
+            // the edge functions of IDE constant propagation do not
+            // refine the values by the conditions of branches
+            throw new ConfigException("edge-refine is not supported by solver ide" +
+                    ", please set edge-refine:false");
+        }
+    }
+
+    @Override
+    public DataflowResult<Stmt, CPFact> analyze() {
+        if (!solverKind.equals("ide")) {
+            return super.analyze();
+        }
+        icfg = World.get().getResult(ICFGBuilder.ID);
+        IDEConstantPropagation problem = new IDEConstantPropagation(icfg, cp);
+        IDEResult<Stmt, Var, Value> ideResult;
+        do {
+            // solve the problem again if the values of
+            // non-linear expressions are refined
+            ideResult = new IDESolver<>(problem, icfg).solve();
+        } while (problem.refine(ideResult));
+        // convert the results to the facts of the work-list solver,
+        // so that the clients of this analysis are not affected
+        DataflowResult<Stmt, CPFact> result = new DataflowResult<>();
+        for (Stmt stmt : icfg) {
+            result.setInFact(stmt, toFact(ideResult.getValuesAt(stmt)));
+            result.setOutFact(stmt, toFact(ideResult.getValuesAfter(stmt)));
+        }
+        return result;
+    }
+
+    private static CPFact toFact(Map<Var, Value> values) {
+        CPFact fact = new CPFact();
+        values.forEach(fact::update);
+        return fact;
     }
 
     @Override
@@ -105,8 +178,8 @@ public class InterConstantPropagation extends
         if (!aliasAware) {
             return;
         }
-        fieldStoreToLoads = Maps.newMultiMap();
-        // collect related static field stores and loads
+        fieldStoreToLoads = Maps.newConcurrentMap();
+        // collect static field stores and loads
         MultiMap<JField, StoreField> staticStores = Maps.newMultiMap();
         MultiMap<JField, LoadField> staticLoads = Maps.newMultiMap();
         for (Stmt s : icfg) {
@@ -121,57 +194,164 @@ public class InterConstantPropagation extends
                 }
             }
         }
-        staticStores.forEach((field, store) -> {
-            for (LoadField load : staticLoads.get(field)) {
-                fieldStoreToLoads.put(store, load);
-            }
-        });
-        // collect related instance field stores and loads as well as
-        // related array stores and loads via alias information
-        // derived from pointer analysis
         PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
-        MultiMap<Obj, Var> pointedBy = Maps.newMultiMap();
-        pta.getVars()
+        List<Var> accessVars = pta.getVars()
                 .stream()
                 .filter(v -> !v.getStoreFields().isEmpty() ||
                         !v.getLoadFields().isEmpty() ||
                         !v.getStoreArrays().isEmpty() ||
                         !v.getLoadArrays().isEmpty())
-                .forEach(v ->
-                        pta.getPointsToSet(v).forEach(obj ->
-                                pointedBy.put(obj, v)));
-        arrayStoreToLoads = Maps.newMultiMap();
-        arrayLoadToStores = Maps.newMultiMap();
-        pointedBy.forEachSet((__, aliases) -> {
-            for (Var v : aliases) {
-                for (StoreField store : v.getStoreFields()) {
-                    if (!store.isStatic() && holdsInt(store.getRValue())) {
-                        JField storedField = store.getFieldRef().resolve();
-                        aliases.forEach(u ->
-                                u.getLoadFields().forEach(load -> {
-                                    JField loadedField = load
-                                            .getFieldRef().resolve();
-                                    if (storedField.equals(loadedField)) {
-                                        fieldStoreToLoads.put(store, load);
-                                    }
-                                })
-                        );
-                    }
-                }
-                for (StoreArray store : v.getStoreArrays()) {
+                .toList();
+        // index the loads and stores, so that the related statements
+        // can be represented by bit sets. All of them are indexed here,
+        // as the bit sets are built in parallel below, and the indexers
+        // cannot add statements afterwards.
+        Set<LoadField> allFieldLoads = Sets.newLinkedSet();
+        allFieldLoads.addAll(staticLoads.values());
+        Set<LoadArray> allArrayLoads = Sets.newLinkedSet();
+        Set<StoreArray> allArrayStores = Sets.newLinkedSet();
+        accessVars.forEach(v -> {
+            allFieldLoads.addAll(v.getLoadFields());
+            allArrayLoads.addAll(v.getLoadArrays());
+            allArrayStores.addAll(v.getStoreArrays());
+        });
+        Indexer<LoadField> fieldLoads = new FixedIndexer<>(allFieldLoads);
+        Indexer<LoadArray> arrayLoads = new FixedIndexer<>(allArrayLoads);
+        Indexer<StoreArray> arrayStores = new FixedIndexer<>(allArrayStores);
+        // relate the static field stores and loads on the same fields
+        staticStores.forEachSet((field, stores) -> {
+            Set<LoadField> fieldStaticLoads = staticLoads.get(field);
+            if (!fieldStaticLoads.isEmpty()) {
+                Set<LoadField> loads = new IndexerBitSet<>(fieldLoads, true);
+                loads.addAll(fieldStaticLoads);
+                stores.forEach(store -> fieldStoreToLoads.put(store, loads));
+            }
+        });
+        // collect related instance field stores and loads as well as
+        // related array stores and loads via alias information
+        // derived from pointer analysis
+        MultiMap<Obj, Var> pointedBy = Maps.newMultiMap();
+        accessVars.forEach(v -> pta.getPointsToSet(v)
+                .forEach(obj -> pointedBy.put(obj, v)));
+        // group the loads and stores by the accessed objects (and fields),
+        // so that each access is visited once per object it accesses
+        // instead of once per alias pair of its base variable
+        Map<Obj, ObjAccesses> objAccesses = Maps.newConcurrentMap();
+        pointedBy.keySet().parallelStream().forEach(obj -> {
+            ObjAccesses accesses = new ObjAccesses(Maps.newHybridMap(),
+                    new IndexerBitSet<>(arrayLoads, true),
+                    new IndexerBitSet<>(arrayStores, true));
+            for (Var v : pointedBy.get(obj)) {
+                v.getLoadFields().forEach(load -> accesses.fieldLoads()
+                        .computeIfAbsent(load.getFieldRef().resolve(),
+                                __ -> new IndexerBitSet<>(fieldLoads, true))
+                        .add(load));
+                accesses.arrayLoads().addAll(v.getLoadArrays());
+                v.getStoreArrays().forEach(store -> {
                     if (holdsInt(store.getRValue())) {
-                        for (Var u : aliases) {
-                            for (LoadArray load : u.getLoadArrays()) {
-                                arrayStoreToLoads.put(store, load);
-                                arrayLoadToStores.put(load, store);
-                            }
-                        }
+                        accesses.arrayStores().add(store);
                     }
+                });
+            }
+            objAccesses.put(obj, accesses);
+        });
+        // the statements related to an access are the union of
+        // the statements that access the objects pointed to by its base
+        arrayStoreToLoads = Maps.newConcurrentMap();
+        arrayLoadToStores = Maps.newConcurrentMap();
+        Canonicalizer<Set<LoadField>> fieldLoadsCanonicalizer = new Canonicalizer<>();
+        Canonicalizer<Set<LoadArray>> arrayLoadsCanonicalizer = new Canonicalizer<>();
+        Canonicalizer<Set<StoreArray>> arrayStoresCanonicalizer = new Canonicalizer<>();
+        accessVars.parallelStream().forEach(v -> {
+            List<ObjAccesses> pointees = pta.getPointsToSet(v)
+                    .stream()
+                    .map(objAccesses::get)
+                    .toList();
+            for (StoreField store : v.getStoreFields()) {
+                if (holdsInt(store.getRValue())) {
+                    JField field = store.getFieldRef().resolve();
+                    Set<LoadField> loads = new IndexerBitSet<>(fieldLoads, true);
+                    pointees.forEach(accesses -> {
+                        Set<LoadField> objLoads = accesses.fieldLoads().get(field);
+                        if (objLoads != null) {
+                            loads.addAll(objLoads);
+                        }
+                    });
+                    putRelated(fieldStoreToLoads, store, loads,
+                            fieldLoadsCanonicalizer);
                 }
             }
+            for (StoreArray store : v.getStoreArrays()) {
+                if (holdsInt(store.getRValue())) {
+                    Set<LoadArray> loads = new IndexerBitSet<>(arrayLoads, true);
+                    pointees.forEach(accesses -> loads.addAll(accesses.arrayLoads()));
+                    putRelated(arrayStoreToLoads, store, loads,
+                            arrayLoadsCanonicalizer);
+                }
+            }
+            if (!v.getLoadArrays().isEmpty()) {
+                Set<StoreArray> stores = new IndexerBitSet<>(arrayStores, true);
+                pointees.forEach(accesses -> stores.addAll(accesses.arrayStores()));
+                v.getLoadArrays().forEach(load ->
+                        putRelated(arrayLoadToStores, load, stores,
+                                arrayStoresCanonicalizer));
+            }
         });
     }
 
+    /**
+     * Loads and stores that access an object.
+     *
+     * @param fieldLoads  instance field loads grouped by the accessed fields
+     * @param arrayLoads  array loads
+     * @param arrayStores array stores of int values
+     */
+    private record ObjAccesses(Map<JField, Set<LoadField>> fieldLoads,
+                               Set<LoadArray> arrayLoads,
+                               Set<StoreArray> arrayStores) {
+    }
+
+    /**
+     * Indexer over a fixed set of objects. Unlike {@link SimpleIndexer},
+     * it never adds objects, thus it can be used by multiple threads.
+     */
+    private static class FixedIndexer<E> implements Indexer<E> {
+
+        private final Map<E, Integer> obj2index;
+
+        private final List<E> index2obj;
+
+        private FixedIndexer(Collection<E> objs) {
+            obj2index = Maps.newMap(objs.size());
+            index2obj = List.copyOf(objs);
+            for (int i = 0; i < index2obj.size(); ++i) {
+                obj2index.put(index2obj.get(i), i);
+            }
+        }
+
+        @Override
+        public int getIndex(E o) {
+            Integer index = obj2index.get(o);
+            if (index == null) {
+                throw new IllegalArgumentException(o + " was not indexed");
+            }
+            return index;
+        }
+
+        @Override
+        public E getObject(int index) {
+            return index2obj.get(index);
+        }
+    }
+
+    private static <S extends Stmt, T extends Stmt> void putRelated(
+            Map<S, Set<T>> relation, S stmt, Set<T> related,
+            Canonicalizer<Set<T>> canonicalizer) {
+        if (!related.isEmpty()) {
+            relation.put(stmt, canonicalizer.get(related));
+        }
+    }
+
     @Override
     protected void finish() {
         // clear unused intermediate results
@@ -180,6 +360,11 @@ public class InterConstantPropagation extends
         arrayLoadToStores = null;
     }
 
+    @Override
+    protected boolean isParallel() {
+        return solverKind.equals("parallel");
+    }
+
     @Override
     public boolean isForward() {
         return cp.isForward();
@@ -226,7 +411,7 @@ public class InterConstantPropagation extends
                         changed |= out.update(inVar, in.get(inVar));
                     }
                 }
-                for (StoreArray store : arrayLoadToStores.get(load)) {
+                for (StoreArray store : arrayLoadToStores.getOrDefault(load, Set.of())) {
                     changed |= transferLoadArray(store, load);
                 }
                 return changed;
@@ -235,7 +420,7 @@ public class InterConstantPropagation extends
             @Override
             public Boolean visit(StoreArray store) {
                 boolean changed = cp.transferNode(store, in, out);
-                for (LoadArray load : arrayStoreToLoads.get(store)) {
+                for (LoadArray load : arrayStoreToLoads.getOrDefault(store, Set.of())) {
                     if (transferLoadArray(store, load)) {
                         solver.propagate(load);
                     }
@@ -284,7 +469,7 @@ public class InterConstantPropagation extends
             public Boolean visit(StoreField store) {
                 Var var = store.getRValue();
                 Value value = in.get(var);
-                fieldStoreToLoads.get(store).forEach(load -> {
+                fieldStoreToLoads.getOrDefault(store, Set.of()).forEach(load -> {
                     // propagate stored value to aliased loads
                     Var lhs = load.getLValue();
                     CPFact loadOut = solver.getOutFact(load);
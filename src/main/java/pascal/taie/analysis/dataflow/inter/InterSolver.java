@@ -22,60 +22,27 @@
 
 package pascal.taie.analysis.dataflow.inter;
 
-import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.icfg.ICFG;
 import pascal.taie.util.collection.SetQueue;
 
 import java.util.Queue;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Solver for inter-procedural data-flow analysis.
  * The workload of inter-procedural analysis is heavy, thus we always
  * adopt work-list algorithm for efficiency.
  */
-class InterSolver<Method, Node, Fact> {
-
-    private final InterDataflowAnalysis<Node, Fact> analysis;
-
-    private final ICFG<Method, Node> icfg;
-
-    private DataflowResult<Node, Fact> result;
+class InterSolver<Method, Node, Fact> extends AbstractInterSolver<Method, Node, Fact> {
 
     private Queue<Node> workList;
 
     InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
                 ICFG<Method, Node> icfg) {
-        this.analysis = analysis;
-        this.icfg = icfg;
-    }
-
-    DataflowResult<Node, Fact> solve() {
-        result = new DataflowResult<>();
-        initialize();
-        doSolve();
-        return result;
+        super(analysis, icfg);
     }
 
-    private void initialize() {
-        Set<Node> entryNodes = icfg.entryMethods()
-                .map(icfg::getEntryOf)
-                .collect(Collectors.toSet());
-        entryNodes.forEach(entry -> {
-            result.setInFact(entry, analysis.newBoundaryFact(entry));
-            result.setOutFact(entry, analysis.newBoundaryFact(entry));
-        });
-        icfg.forEach(node -> {
-            if (entryNodes.contains(node)) {
-                return;
-            }
-            result.setInFact(node, analysis.newInitialFact());
-            result.setOutFact(node, analysis.newInitialFact());
-        });
-    }
-
-    private void doSolve() {
+    @Override
+    void doSolve() {
         workList = new SetQueue<>();
         icfg.forEach(workList::add);
         while (!workList.isEmpty()) {
@@ -94,11 +61,12 @@ class InterSolver<Method, Node, Fact> {
         }
     }
 
+    /**
+     * Adds the successors of given node to the work list. The transfer
+     * functions can call this method when they change the facts of
+     * other nodes.
+     */
     void propagate(Node node) {
         workList.addAll(icfg.getSuccsOf(node));
     }
-
-    Fact getOutFact(Node node) {
-        return result.getOutFact(node);
-    }
 }
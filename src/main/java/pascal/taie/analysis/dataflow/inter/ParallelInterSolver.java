@@ -0,0 +1,176 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.MergedNode;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.SimpleGraph;
+import pascal.taie.util.graph.TopologicalSorter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Parallel solver for inter-procedural data-flow analysis.
+ * <p>
+ * The ICFG is partitioned by the SCCs of the call graph, and each SCC is
+ * solved by its own work list, i.e., the solver only iterates within SCCs.
+ * The SCCs are grouped into levels of the merged call graph, and each
+ * round processes the levels from callers to callees, where the SCCs in
+ * the same level are independent and are solved in parallel.
+ * The facts flowing along the call and return edges across SCCs are
+ * exchanged through edge buffers: when an SCC reaches its local fixed
+ * point, it publishes the facts of its outgoing cross-SCC edges, and the
+ * target nodes are scheduled for the target SCCs. Facts returned from
+ * callees are consumed by the callers in the next round, and the solver
+ * terminates when no SCC has pending nodes.
+ * <p>
+ * This solver requires that the transfer functions of each node only
+ * access the facts of the nodes in the same method, thus unlike
+ * {@link InterSolver}, it does not allow the transfer functions
+ * to propagate the facts of other nodes.
+ */
+class ParallelInterSolver<Method, Node, Fact> extends AbstractInterSolver<Method, Node, Fact> {
+
+    /**
+     * Map from each ICFG node to the SCC containing it.
+     */
+    private Map<Node, MergedNode<Method>> node2SCC;
+
+    /**
+     * Facts of the cross-SCC edges, i.e., the results of
+     * {@link InterDataflowAnalysis#transferEdge} on the edges.
+     */
+    private final Map<ICFGEdge<Node>, Fact> edgeFacts = Maps.newConcurrentMap();
+
+    /**
+     * Nodes to be processed for each SCC.
+     */
+    private final Map<MergedNode<Method>, Set<Node>> pendingNodes = Maps.newConcurrentMap();
+
+    ParallelInterSolver(InterDataflowAnalysis<Node, Fact> analysis,
+                        ICFG<Method, Node> icfg) {
+        super(analysis, icfg);
+    }
+
+    @Override
+    void doSolve() {
+        MergedSCCGraph<Method> mg = new MergedSCCGraph<>(buildCallGraph(icfg));
+        Map<Method, MergedNode<Method>> method2SCC = Maps.newMap();
+        mg.forEach(scc -> scc.getNodes().forEach(m -> method2SCC.put(m, scc)));
+        node2SCC = Maps.newMap(icfg.getNumberOfNodes());
+        icfg.forEach(node -> {
+            MergedNode<Method> scc = method2SCC.get(icfg.getContainingMethodOf(node));
+            node2SCC.put(node, scc);
+            addPendingNode(scc, node);
+        });
+        // process callers before callees, so that the facts passed to
+        // the callees are available in the same round
+        List<List<MergedNode<Method>>> levels = TopologicalSorter.computeLevels(mg);
+        while (!pendingNodes.isEmpty()) {
+            for (int i = levels.size() - 1; i >= 0; --i) {
+                levels.get(i)
+                        .parallelStream()
+                        .filter(pendingNodes::containsKey)
+                        .forEach(this::solveSCC);
+            }
+        }
+    }
+
+    private static <Method, Node> SimpleGraph<Method> buildCallGraph(
+            ICFG<Method, Node> icfg) {
+        SimpleGraph<Method> callGraph = new SimpleGraph<>();
+        icfg.forEach(node -> {
+            Method method = icfg.getContainingMethodOf(node);
+            callGraph.addNode(method);
+            if (icfg.isCallSite(node)) {
+                icfg.getCalleesOf(node).forEach(callee ->
+                        callGraph.addEdge(method, callee));
+            }
+        });
+        return callGraph;
+    }
+
+    private void addPendingNode(MergedNode<Method> scc, Node node) {
+        pendingNodes.computeIfAbsent(scc, __ -> Sets.newConcurrentSet())
+                .add(node);
+    }
+
+    private void solveSCC(MergedNode<Method> scc) {
+        Queue<Node> workList = new SetQueue<>();
+        workList.addAll(pendingNodes.remove(scc));
+        // nodes whose out facts flow to other SCCs and have been changed
+        Set<Node> changedBoundaries = Sets.newHybridSet();
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            // meet incoming facts
+            Fact in = result.getInFact(node);
+            icfg.getInEdgesOf(node).forEach(inEdge -> {
+                Fact edgeFact;
+                if (node2SCC.get(inEdge.source()) == scc) {
+                    edgeFact = analysis.transferEdge(
+                            inEdge, result.getOutFact(inEdge.source()));
+                } else {
+                    edgeFact = edgeFacts.get(inEdge);
+                }
+                if (edgeFact != null) {
+                    analysis.meetInto(edgeFact, in);
+                }
+            });
+            Fact out = result.getOutFact(node);
+            boolean changed = analysis.transferNode(node, in, out);
+            if (changed) {
+                for (Node succ : icfg.getSuccsOf(node)) {
+                    if (node2SCC.get(succ) == scc) {
+                        workList.add(succ);
+                    } else {
+                        changedBoundaries.add(node);
+                    }
+                }
+            }
+        }
+        // publish the facts of outgoing cross-SCC edges
+        changedBoundaries.forEach(node -> {
+            Fact out = result.getOutFact(node);
+            icfg.getOutEdgesOf(node).forEach(outEdge -> {
+                MergedNode<Method> target = node2SCC.get(outEdge.target());
+                if (target != scc) {
+                    // the edge fact is copied as the transfer function
+                    // may return the out fact of the node, which is
+                    // modified by this SCC in the later rounds
+                    Fact edgeFact = analysis.newInitialFact();
+                    analysis.meetInto(analysis.transferEdge(outEdge, out), edgeFact);
+                    edgeFacts.put(outEdge, edgeFact);
+                    addPendingNode(target, outEdge.target());
+                }
+            });
+        });
+    }
+}
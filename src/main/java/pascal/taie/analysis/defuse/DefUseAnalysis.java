@@ -26,6 +26,8 @@ import pascal.taie.analysis.MethodAnalysis;
 import pascal.taie.analysis.dataflow.analysis.ReachingDefinition;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.ssa.SSA;
+import pascal.taie.analysis.ssa.SSABuilder;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.RValue;
@@ -39,7 +41,7 @@ import pascal.taie.util.collection.TwoKeyMultiMap;
 
 /**
  * Computes intra-procedural def-use and use-def chains
- * based on reaching definition analysis.
+ * based on reaching definition analysis or SSA form.
  */
 public class DefUseAnalysis extends MethodAnalysis<DefUse> {
 
@@ -55,15 +57,21 @@ public class DefUseAnalysis extends MethodAnalysis<DefUse> {
      */
     private final boolean computeUses;
 
+    /**
+     * Whether compute the chains from SSA form instead of the results
+     * of reaching definition analysis.
+     */
+    private final boolean ssa;
+
     public DefUseAnalysis(AnalysisConfig config) {
         super(config);
         computeDefs = getOptions().getBoolean("compute-defs");
         computeUses = getOptions().getBoolean("compute-uses");
+        ssa = getOptions().getBoolean("ssa");
     }
 
     @Override
     public DefUse analyze(IR ir) {
-        DataflowResult<Stmt, SetFact<Stmt>> rdResult = ir.getResult(ReachingDefinition.ID);
         TwoKeyMultiMap<Stmt, Var, Stmt> defs = computeDefs ?
                 Maps.newTwoKeyMultiMap(new IndexMap<>(ir, ir.getStmts().size()),
                         () -> Maps.newMultiMap(Maps.newHybridMap()))
@@ -72,6 +80,17 @@ public class DefUseAnalysis extends MethodAnalysis<DefUse> {
                 Maps.newMultiMap(new IndexMap<>(ir, ir.getStmts().size()),
                         Sets::newHybridSet)
                 : null;
+        if (ssa) {
+            computeBySSA(ir, defs, uses);
+        } else {
+            computeByReachDefs(ir, defs, uses);
+        }
+        return new DefUse(defs, uses);
+    }
+
+    private void computeByReachDefs(IR ir, TwoKeyMultiMap<Stmt, Var, Stmt> defs,
+                                    MultiMap<Stmt, Stmt> uses) {
+        DataflowResult<Stmt, SetFact<Stmt>> rdResult = ir.getResult(ReachingDefinition.ID);
         for (Stmt stmt : ir) {
             SetFact<Stmt> reachDefs = rdResult.getInFact(stmt);
             for (RValue use : stmt.getUses()) {
@@ -91,6 +110,27 @@ public class DefUseAnalysis extends MethodAnalysis<DefUse> {
                 }
             }
         }
-        return new DefUse(defs, uses);
+    }
+
+    /**
+     * In SSA form, each use has a single reaching version, thus the
+     * definitions of a use are directly obtained from its version,
+     * without scanning all reaching definitions.
+     */
+    private void computeBySSA(IR ir, TwoKeyMultiMap<Stmt, Var, Stmt> defs,
+                              MultiMap<Stmt, Stmt> uses) {
+        SSA ssaForm = ir.getResult(SSABuilder.ID);
+        for (Stmt stmt : ir) {
+            ssaForm.getUses(stmt).forEach((useVar, ssaVar) -> {
+                for (Stmt def : ssaForm.getDefStmts(ssaVar)) {
+                    if (computeDefs) {
+                        defs.put(stmt, useVar, def);
+                    }
+                    if (computeUses) {
+                        uses.put(def, stmt);
+                    }
+                }
+            });
+        }
     }
 }
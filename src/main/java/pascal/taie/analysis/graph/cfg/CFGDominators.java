@@ -0,0 +1,55 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.util.graph.DominatorTree;
+
+/**
+ * Computes dominator and post-dominator trees of {@link CFG}s.
+ * The nodes are indexed by {@link CFGNodeIndexer}.
+ * <p>
+ * Besides the entry (resp. exit), nodes without predecessors (resp.
+ * successors), e.g., dead code, are also roots of the trees.
+ */
+public final class CFGDominators {
+
+    private CFGDominators() {
+    }
+
+    /**
+     * @return the dominator tree of {@code cfg}, which is rooted at
+     * the entry of the CFG.
+     */
+    public static <N> DominatorTree<N> dominatorTreeOf(CFG<N> cfg) {
+        return new DominatorTree<>(cfg, new CFGNodeIndexer<>(cfg));
+    }
+
+    /**
+     * @return the post-dominator tree of {@code cfg}, which is rooted at
+     * the exit of the CFG. Nodes that cannot reach the exit, e.g., the
+     * nodes in infinite loops, are absent in the tree.
+     */
+    public static <N> DominatorTree<N> postDominatorTreeOf(CFG<N> cfg) {
+        return DominatorTree.ofPostDominators(cfg, new CFGNodeIndexer<>(cfg));
+    }
+}
@@ -76,7 +76,15 @@ public class ObjectFlowGraph extends NodeManager
                 });
     }
 
-    private void addEdge(FlowKind kind, Node source, Node target) {
+    /**
+     * Creates an empty object flow graph. Subclasses are responsible
+     * for populating the nodes and edges, e.g., when restoring an
+     * object flow graph from persistent storage.
+     */
+    protected ObjectFlowGraph() {
+    }
+
+    protected void addEdge(FlowKind kind, Node source, Node target) {
         BasicFlowEdge edge = new BasicFlowEdge(kind, source, target);
         outEdges.put(source, edge);
         inEdges.put(target, edge);
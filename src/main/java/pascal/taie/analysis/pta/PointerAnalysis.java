@@ -50,6 +50,7 @@ import pascal.taie.analysis.pta.plugin.taint.TaintAnalysis;
 import pascal.taie.analysis.pta.toolkit.CollectionMethods;
 import pascal.taie.analysis.pta.toolkit.mahjong.Mahjong;
 import pascal.taie.analysis.pta.toolkit.scaler.Scaler;
+import pascal.taie.analysis.pta.toolkit.snapshot.PointerAnalysisSnapshot;
 import pascal.taie.analysis.pta.toolkit.zipper.Zipper;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.AnalysisOptions;
@@ -57,6 +58,7 @@ import pascal.taie.config.ConfigException;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.Timer;
 
+import java.io.File;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
@@ -82,8 +84,7 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
                         new CollectionMethods(World.get().getClassHierarchy()).get());
             } else {
                 // run context-insensitive analysis as pre-analysis
-                PointerAnalysisResult preResult = runAnalysis(heapModel,
-                        ContextSelectorFactory.makeCISelector());
+                PointerAnalysisResult preResult = runPreAnalysis(heapModel);
                 if (advanced.startsWith("scaler")) {
                     selector = Timer.runAndCount(() -> ContextSelectorFactory
                                     .makeGuidedSelector(Scaler.run(preResult, advanced)),
@@ -107,6 +108,27 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
         return runAnalysis(heapModel, selector);
     }
 
+    /**
+     * Runs context-insensitive pre-analysis. If option pre-analysis-cache
+     * is enabled, then the result is loaded from the snapshot saved by
+     * previous runs when possible, otherwise, the result is saved as
+     * a snapshot for later runs.
+     */
+    private PointerAnalysisResult runPreAnalysis(HeapModel heapModel) {
+        AnalysisOptions options = getOptions();
+        if (!options.getBoolean("pre-analysis-cache")) {
+            return runAnalysis(heapModel, ContextSelectorFactory.makeCISelector());
+        }
+        File snapshotFile = PointerAnalysisSnapshot.getSnapshotFile(options);
+        PointerAnalysisResult result = PointerAnalysisSnapshot.load(
+                snapshotFile, options);
+        if (result == null) {
+            result = runAnalysis(heapModel, ContextSelectorFactory.makeCISelector());
+            PointerAnalysisSnapshot.save(result, snapshotFile);
+        }
+        return result;
+    }
+
     private PointerAnalysisResult runAnalysis(HeapModel heapModel,
                                               ContextSelector selector) {
         AnalysisOptions options = getOptions();
@@ -151,7 +173,7 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
                 InvokeDynamicAnalysis.useMethodHandle()) {
             plugin.addPlugin(new InvokeDynamicAnalysis());
         }
-        if (options.getString("taint-config") != null) {
+        if (TaintAnalysis.isEnabled(options)) {
             plugin.addPlugin(new TaintAnalysis());
         }
         plugin.addPlugin(new ResultProcessor());
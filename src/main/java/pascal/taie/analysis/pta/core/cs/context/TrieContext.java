@@ -79,6 +79,15 @@ public class TrieContext implements Context {
                 e -> new TrieContext(this, e));
     }
 
+    /**
+     * @return the context that consists of the elements of this context
+     * followed by {@code elem}. It is the same object as the one produced
+     * by the factory of this context for the same elements.
+     */
+    public TrieContext extend(Object elem) {
+        return getChild(elem);
+    }
+
     Object getElem() {
         return elem;
     }
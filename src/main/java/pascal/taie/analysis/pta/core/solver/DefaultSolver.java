@@ -51,6 +51,7 @@ import pascal.taie.analysis.pta.plugin.Plugin;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.analysis.pta.pts.PointsToSetFactory;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.CastExp;
 import pascal.taie.ir.exp.InvokeExp;
@@ -80,9 +81,16 @@ import pascal.taie.language.type.ArrayType;
 import pascal.taie.language.type.ClassType;
 import pascal.taie.language.type.Type;
 import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.IBitSet;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.Sets;
+import pascal.taie.util.metrics.MetricRegistry;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -108,6 +116,17 @@ public class DefaultSolver implements Solver {
      */
     private static final long UNLIMITED = -1;
 
+    /**
+     * Prefix of the names of the metrics registered by this solver.
+     */
+    private static final String METRICS_PREFIX = "pta.";
+
+    /**
+     * Samples are checked after every 1024 work-list entries,
+     * so that the solver does not read the clock for each entry.
+     */
+    private static final int SAMPLE_CHECK_MASK = (1 << 10) - 1;
+
     private final AnalysisOptions options;
 
     private final HeapModel heapModel;
@@ -136,6 +155,28 @@ public class DefaultSolver implements Solver {
 
     private TimeLimiter timeLimiter;
 
+    /**
+     * Directory of checkpoints, or {@code null} if checkpointing is disabled.
+     */
+    private final File checkpointDir;
+
+    private File checkpointFile;
+
+    /**
+     * Interval between two checkpoints (in milliseconds).
+     */
+    private final long checkpointInterval;
+
+    /**
+     * Time (in milliseconds) when the next checkpoint is due.
+     */
+    private long nextCheckpoint;
+
+    /**
+     * Number of facts replayed from the checkpoint of a previous run.
+     */
+    private int nResumedFacts;
+
     /**
      * Whether the analysis has reached time limit.
      */
@@ -165,6 +206,23 @@ public class DefaultSolver implements Solver {
 
     private PointerAnalysisResult result;
 
+    private MetricRegistry metrics;
+
+    /**
+     * Number of processed work-list entries.
+     */
+    private long nEntries;
+
+    /**
+     * Number of objects newly propagated to pointers.
+     */
+    private long nPropagatedObjects;
+
+    /**
+     * Number of edges added to pointer flow graph.
+     */
+    private long nPFGEdges;
+
     @SuppressWarnings("unchecked")
     public DefaultSolver(AnalysisOptions options, HeapModel heapModel,
                          ContextSelector contextSelector, CSManager csManager) {
@@ -174,10 +232,24 @@ public class DefaultSolver implements Solver {
         this.csManager = csManager;
         hierarchy = World.get().getClassHierarchy();
         typeSystem = World.get().getTypeSystem();
-        ptsFactory = new PointsToSetFactory(csManager.getObjectIndexer());
+        ptsFactory = new PointsToSetFactory(csManager.getObjectIndexer(),
+                getBitSetKind(options.getString("pts-bitset")));
         propTypes = new PropagateTypes((List<String>) options.get("propagate-types"));
         onlyApp = options.getBoolean("only-app");
         timeLimit = options.getInt("time-limit");
+        String checkpointDir = options.getString("checkpoint-dir");
+        this.checkpointDir = checkpointDir != null ? new File(checkpointDir) : null;
+        checkpointInterval = options.getInt("checkpoint-interval") * 1000L;
+    }
+
+    private static IBitSet.Kind getBitSetKind(String ptsBitSet) {
+        return switch (ptsBitSet) {
+            case "regular" -> IBitSet.Kind.REGULAR;
+            case "sparse" -> IBitSet.Kind.SPARSE;
+            case "compressed" -> IBitSet.Kind.COMPRESSED;
+            default -> throw new ConfigException("Unknown pts-bitset: " +
+                    ptsBitSet + ", expected regular, sparse or compressed");
+        };
     }
 
     @Override
@@ -258,11 +330,78 @@ public class DefaultSolver implements Solver {
         ignoredMethods = Sets.newSet();
         stmtProcessor = new StmtProcessor();
         isTimeout = false;
+        registerMetrics();
         if (timeLimit != UNLIMITED) {
             timeLimiter = new TimeLimiter(timeLimit);
             timeLimiter.countDown();
         }
         plugin.onStart();
+        if (checkpointDir != null) {
+            checkpointFile = SolverCheckpoint.getCheckpointFile(
+                    checkpointDir, this);
+            resume();
+            nextCheckpoint = System.currentTimeMillis() + checkpointInterval;
+        }
+    }
+
+    /**
+     * Resumes from the checkpoint saved by a previous run (if exists)
+     * by replaying the recorded facts to this solver.
+     */
+    private void resume() {
+        SolverCheckpoint.Content content = SolverCheckpoint.load(
+                checkpointFile, this);
+        if (content == null) {
+            return;
+        }
+        try {
+            plugin.onResume(new DataInputStream(
+                    new ByteArrayInputStream(content.pluginState())));
+        } catch (IOException e) {
+            throw new AnalysisException(
+                    "Failed to restore plugin states from checkpoint", e);
+        }
+        content.csMethods().forEach(this::addCSMethod);
+        content.callEdges().forEach(this::addCallEdge);
+        content.pointsTo().forEach(fact ->
+                addPointsTo(fact.pointer(), fact.pts()));
+        nResumedFacts = content.csMethods().size() +
+                content.callEdges().size() + content.pointsTo().size();
+        logger.info("Resumed from checkpoint: {} reachable methods," +
+                        " {} call edges, {} points-to sets",
+                content.csMethods().size(), content.callEdges().size(),
+                content.pointsTo().size());
+    }
+
+    /**
+     * @return the number of facts replayed from the checkpoint of
+     * a previous run, or 0 if this solver did not resume from a checkpoint.
+     */
+    int getNumberOfResumedFacts() {
+        return nResumedFacts;
+    }
+
+    private void saveCheckpoint() {
+        SolverCheckpoint.save(checkpointFile, this,
+                callGraph, workList, plugin);
+    }
+
+    private void registerMetrics() {
+        nEntries = nPropagatedObjects = nPFGEdges = 0;
+        metrics = MetricRegistry.get();
+        metrics.registerCounter(METRICS_PREFIX + "entries", () -> nEntries);
+        metrics.registerCounter(METRICS_PREFIX + "propagated-objects",
+                () -> nPropagatedObjects);
+        metrics.registerGauge(METRICS_PREFIX + "worklist", workList::size);
+        metrics.registerGauge(METRICS_PREFIX + "pfg.edges", () -> nPFGEdges);
+        metrics.registerGauge(METRICS_PREFIX + "reachable-methods",
+                reachableMethods::size);
+        metrics.registerGauge(METRICS_PREFIX + "call-edges",
+                callGraph::getNumberOfEdges);
+        metrics.registerGauge(METRICS_PREFIX + "cs-vars",
+                () -> csManager.getCSVars().size());
+        metrics.registerGauge(METRICS_PREFIX + "cs-objs",
+                () -> csManager.getObjects().size());
     }
 
     private class TimeLimiter {
@@ -304,6 +443,16 @@ public class DefaultSolver implements Solver {
      */
     private void analyze() {
         while (!workList.isEmpty() && !isTimeout) {
+            if ((++nEntries & SAMPLE_CHECK_MASK) == 0) {
+                metrics.sampleIfDue();
+                // checkpoints are saved before polling the next entry,
+                // so that the work list is recorded completely
+                if (checkpointFile != null &&
+                        System.currentTimeMillis() >= nextCheckpoint) {
+                    saveCheckpoint();
+                    nextCheckpoint = System.currentTimeMillis() + checkpointInterval;
+                }
+            }
             WorkList.Entry entry = workList.pollEntry();
             if (entry instanceof WorkList.PointerEntry pEntry) {
                 Pointer p = pEntry.pointer();
@@ -324,9 +473,21 @@ public class DefaultSolver implements Solver {
         if (!workList.isEmpty() && isTimeout) {
             logger.warn("Pointer analysis stops early as it reaches time limit ({} seconds)," +
                     " and the result may be unsound!", timeLimit);
-        } else if (timeLimiter != null) { // finish normally but time limiter is still running
-            timeLimiter.stop();
+            if (checkpointFile != null) {
+                saveCheckpoint();
+            }
+        } else {
+            if (timeLimiter != null) { // finish normally but time limiter is still running
+                timeLimiter.stop();
+            }
+            if (checkpointFile != null) {
+                // the facts have reached the fixpoint, so the checkpoint
+                // is no longer needed
+                SolverCheckpoint.delete(checkpointFile);
+            }
         }
+        metrics.sample();
+        metrics.unregister(METRICS_PREFIX);
         plugin.onFinish();
     }
 
@@ -345,6 +506,7 @@ public class DefaultSolver implements Solver {
         }
         PointsToSet diff = getPointsToSetOf(pointer).addAllDiff(pointsToSet);
         if (!diff.isEmpty()) {
+            nPropagatedObjects += diff.size();
             pointerFlowGraph.getOutEdgesOf(pointer).forEach(edge -> {
                 Pointer target = edge.target();
                 edge.getTransfers().forEach(transfer ->
@@ -771,6 +933,9 @@ public class DefaultSolver implements Solver {
                            Transfer transfer) {
         PointerFlowEdge edge = pointerFlowGraph.getOrAddEdge(kind, source, target);
         if (edge != null && edge.addTransfer(transfer)) {
+            if (edge.getTransfers().size() == 1) {
+                ++nPFGEdges;
+            }
             PointsToSet targetSet = transfer.apply(edge, getPointsToSetOf(source));
             if (!targetSet.isEmpty()) {
                 addPointsTo(target, targetSet);
@@ -0,0 +1,717 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.core.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.pta.core.cs.CSCallGraph;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.context.TrieContext;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.InstanceField;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.element.StaticField;
+import pascal.taie.analysis.pta.core.heap.NewObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.frontend.cache.CachedWorldBuilder;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.BinaryFiles;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static pascal.taie.util.BinaryFiles.readString;
+import static pascal.taie.util.BinaryFiles.readVarInt;
+import static pascal.taie.util.BinaryFiles.writeString;
+import static pascal.taie.util.BinaryFiles.writeVarInt;
+
+/**
+ * Saves and loads checkpoints of {@link DefaultSolver}.
+ * <p>
+ * A checkpoint records the facts derived by the solver so far, i.e.,
+ * the reachable context-sensitive methods, the call edges, and the
+ * points-to sets of all pointers (including the pending entries in the
+ * work list), together with the states of the plugins. The facts are
+ * not restored as they are; instead, they are replayed to the solver
+ * of a later run as initial facts. Since each recorded fact belongs to
+ * the least fixpoint of the analysis, the resumed solver reaches the
+ * same fixpoint, while it propagates the replayed points-to sets in bulk
+ * instead of discovering them object by object. Replaying also re-derives
+ * the pointer flow graph and notifies the plugins, so that the plugins
+ * only need to save the states that cannot be re-derived from the facts.
+ * <p>
+ * Like {@link pascal.taie.analysis.pta.toolkit.snapshot.PointerAnalysisSnapshot},
+ * a checkpoint refers to the program elements by their signatures and
+ * indexes in IR. The facts involving the elements that cannot be referred
+ * to in this way, e.g., the mock objects and the temporary variables
+ * created by plugins, are not recorded, and they are re-derived after
+ * resuming.
+ */
+final class SolverCheckpoint {
+
+    private static final Logger logger = LogManager.getLogger(SolverCheckpoint.class);
+
+    private static final int MAGIC = 0x54414943; // "TAIC"
+
+    private static final int VERSION = 2;
+
+    /**
+     * Options that affect the facts derived by pointer analysis.
+     */
+    private static final List<String> KEY_OPTIONS = List.of(
+            "cs", "only-app", "implicit-entries", "distinguish-string-constants",
+            "merge-string-objects", "merge-string-builders",
+            "merge-exception-objects", "handle-invokedynamic",
+            "propagate-types", "advanced", "reflection-inference",
+            "reflection-log", "taint-config", "taint-packs", "plugins");
+
+    private static final int OBJ_ELEM = 0, TYPE_ELEM = 1,
+            INVOKE_ELEM = 2, METHOD_ELEM = 3;
+
+    private static final int VAR_PTR = 0, INSTANCE_FIELD_PTR = 1,
+            ARRAY_INDEX_PTR = 2, STATIC_FIELD_PTR = 3;
+
+    /**
+     * Id of the elements that cannot be recorded in checkpoints.
+     */
+    private static final int UNKNOWN = -1;
+
+    private SolverCheckpoint() {
+    }
+
+    /**
+     * Facts and plugin states loaded from a checkpoint.
+     */
+    record Content(List<CSMethod> csMethods,
+                   List<Edge<CSCallSite, CSMethod>> callEdges,
+                   List<PointerFact> pointsTo,
+                   byte[] pluginState) {
+    }
+
+    record PointerFact(Pointer pointer, PointsToSet pts) {
+    }
+
+    /**
+     * @return the checkpoint file of given solver in given directory.
+     */
+    static File getCheckpointFile(File dir, Solver solver) {
+        return new File(dir, "pta-checkpoint-" +
+                Integer.toHexString(fingerprint(solver.getOptions(), solver)) + ".bin");
+    }
+
+    /**
+     * Saves the state of the solver to given file. An interrupted save
+     * does not destroy the previous checkpoint, see
+     * {@link BinaryFiles#save(String, File, BinaryFiles.ContentWriter)}.
+     *
+     * @return {@code true} if the checkpoint is saved successfully.
+     */
+    static boolean save(File file, Solver solver,
+                        CSCallGraph callGraph, WorkList workList, Plugin plugin) {
+        return BinaryFiles.save("pointer analysis checkpoint", file,
+                tmp -> new Writer().write(tmp, fingerprint(solver.getOptions(), solver),
+                        solver.getCSManager(), callGraph, workList, plugin));
+    }
+
+    /**
+     * Loads a checkpoint saved by a previous run with the same program
+     * and pointer analysis options.
+     *
+     * @return the loaded content, or {@code null} if the checkpoint does
+     * not exist, was saved with different options, or fails to be loaded.
+     */
+    @Nullable
+    static Content load(File file, Solver solver) {
+        return BinaryFiles.load("pointer analysis checkpoint", file,
+                f -> new Reader(solver).read(f,
+                        fingerprint(solver.getOptions(), solver)));
+    }
+
+    /**
+     * Deletes given checkpoint, which is useless after the solver
+     * reaches the fixpoint.
+     */
+    static void delete(File file) {
+        if (file.exists() && !file.delete()) {
+            logger.warn("Failed to delete pointer analysis checkpoint {}", file);
+        }
+    }
+
+    /**
+     * Checkpoints are keyed by the program, the options, and the classes of
+     * the context selector and the heap model, which tell apart the
+     * context-insensitive pre-analysis from the main analysis.
+     */
+    private static int fingerprint(AnalysisOptions options, Solver solver) {
+        int hash = CachedWorldBuilder.getProgramHash(World.get().getOptions());
+        for (String key : KEY_OPTIONS) {
+            hash = 31 * hash + Objects.hashCode(
+                    options.has(key) ? options.get(key) : null);
+        }
+        hash = 31 * hash + solver.getContextSelector().getClass().getName().hashCode();
+        hash = 31 * hash + solver.getHeapModel().getClass().getName().hashCode();
+        return hash;
+    }
+
+    /**
+     * Writes a checkpoint. Objects, contexts and context-sensitive objects
+     * are assigned ids when they are encountered for the first time, and
+     * their definitions are written to separate tables at that moment,
+     * so that each definition only refers to the elements defined before it.
+     */
+    private static class Writer {
+
+        private final Map<String, Integer> strings = Maps.newLinkedHashMap();
+
+        private final Map<JMethod, Integer> methods = Maps.newLinkedHashMap();
+
+        private final Map<JField, Integer> fields = Maps.newLinkedHashMap();
+
+        private final Map<Obj, Integer> objs = Maps.newMap();
+
+        private final Map<Context, Integer> contexts = Maps.newMap();
+
+        private final Map<CSObj, Integer> csObjs = Maps.newMap();
+
+        private final ByteArrayOutputStream objBytes = new ByteArrayOutputStream();
+
+        private final DataOutputStream objTable = new DataOutputStream(objBytes);
+
+        private final ByteArrayOutputStream ctxBytes = new ByteArrayOutputStream();
+
+        private final DataOutputStream ctxTable = new DataOutputStream(ctxBytes);
+
+        private final ByteArrayOutputStream csObjBytes = new ByteArrayOutputStream();
+
+        private final DataOutputStream csObjTable = new DataOutputStream(csObjBytes);
+
+        private void write(File file, int fingerprint,
+                           CSManager csManager, CSCallGraph callGraph,
+                           WorkList workList, Plugin plugin) throws IOException {
+            ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(1 << 16);
+            DataOutputStream body = new DataOutputStream(bodyBytes);
+            writeMethods(body, callGraph);
+            writeCallEdges(body, callGraph, workList);
+            writePointsTo(body, csManager, workList);
+            ByteArrayOutputStream pluginBytes = new ByteArrayOutputStream();
+            DataOutputStream pluginOut = new DataOutputStream(pluginBytes);
+            plugin.onCheckpoint(pluginOut);
+            pluginOut.flush();
+            writeVarInt(body, pluginBytes.size());
+            pluginBytes.writeTo(body);
+            body.flush();
+            objTable.flush();
+            ctxTable.flush();
+            csObjTable.flush();
+            // signatures of methods and fields are added to the string table
+            // before it is written
+            List<Integer> methodSigs = new ArrayList<>(methods.size());
+            methods.keySet().forEach(m -> methodSigs.add(
+                    stringId(m.getSignature())));
+            List<Integer> fieldSigs = new ArrayList<>(fields.size());
+            fields.keySet().forEach(f -> fieldSigs.add(
+                    stringId(f.getSignature())));
+            try (DataOutputStream out = new DataOutputStream(
+                    new DeflaterOutputStream(new BufferedOutputStream(
+                            new FileOutputStream(file))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(fingerprint);
+                writeVarInt(out, strings.size());
+                for (String s : strings.keySet()) {
+                    writeString(out, s);
+                }
+                writeVarInt(out, methodSigs.size());
+                for (int sig : methodSigs) {
+                    writeVarInt(out, sig);
+                }
+                writeVarInt(out, fieldSigs.size());
+                for (int sig : fieldSigs) {
+                    writeVarInt(out, sig);
+                }
+                writeVarInt(out, objs.size());
+                objBytes.writeTo(out);
+                writeVarInt(out, contexts.size());
+                ctxBytes.writeTo(out);
+                writeVarInt(out, csObjs.size());
+                csObjBytes.writeTo(out);
+                bodyBytes.writeTo(out);
+            }
+        }
+
+        private void writeMethods(DataOutputStream out, CSCallGraph callGraph)
+                throws IOException {
+            List<int[]> records = new ArrayList<>();
+            callGraph.reachableMethods().forEach(csMethod -> {
+                int ctx = contextId(csMethod.getContext());
+                if (ctx != UNKNOWN) {
+                    records.add(new int[]{ ctx, methodId(csMethod.getMethod()) });
+                }
+            });
+            writeVarInt(out, records.size());
+            for (int[] record : records) {
+                writeVarInt(out, record[0]);
+                writeVarInt(out, record[1]);
+            }
+        }
+
+        /**
+         * Writes the call edges in the call graph and the work list.
+         * The edges of {@link CallKind#OTHER} and the edges of the
+         * subclasses of {@link Edge} carry information of the plugins
+         * that added them, thus they are left to be re-derived.
+         */
+        private void writeCallEdges(DataOutputStream out, CSCallGraph callGraph,
+                                    WorkList workList) throws IOException {
+            List<int[]> records = new ArrayList<>();
+            callGraph.edges().forEach(edge -> addCallEdge(records, edge));
+            workList.getCallEdges().forEach(edge -> addCallEdge(records, edge));
+            writeVarInt(out, records.size());
+            for (int[] record : records) {
+                for (int i : record) {
+                    writeVarInt(out, i);
+                }
+            }
+        }
+
+        private void addCallEdge(List<int[]> records,
+                                 Edge<CSCallSite, CSMethod> edge) {
+            if (edge.getClass() != Edge.class
+                    || edge.getKind() == CallKind.OTHER) {
+                return;
+            }
+            Invoke callSite = edge.getCallSite().getCallSite();
+            int callerCtx = contextId(edge.getCallSite().getContext());
+            int calleeCtx = contextId(edge.getCallee().getContext());
+            if (callSite.getIndex() < 0
+                    || callerCtx == UNKNOWN || calleeCtx == UNKNOWN) {
+                return;
+            }
+            records.add(new int[]{
+                    edge.getKind().ordinal(),
+                    callerCtx,
+                    methodId(callSite.getContainer()),
+                    callSite.getIndex(),
+                    calleeCtx,
+                    methodId(edge.getCallee().getMethod()),
+            });
+        }
+
+        private void writePointsTo(DataOutputStream out, CSManager csManager,
+                                   WorkList workList) throws IOException {
+            ByteArrayOutputStream factBytes = new ByteArrayOutputStream(1 << 16);
+            DataOutputStream facts = new DataOutputStream(factBytes);
+            int[] count = { 0 };
+            try {
+                csManager.pointers().forEach(pointer ->
+                        writePointerFact(facts, pointer,
+                                pointer.getPointsToSet(), count));
+                workList.forEachPointerEntry((pointer, pts) ->
+                        writePointerFact(facts, pointer, pts, count));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            facts.flush();
+            writeVarInt(out, count[0]);
+            factBytes.writeTo(out);
+        }
+
+        private void writePointerFact(DataOutputStream out, Pointer pointer,
+                                      @Nullable PointsToSet pts, int[] count) {
+            if (pts == null || pts.isEmpty()) {
+                return;
+            }
+            try {
+                int[] ptr = encodePointer(pointer);
+                if (ptr == null) {
+                    return;
+                }
+                int[] ids = new int[pts.size()];
+                int n = 0;
+                for (CSObj csObj : pts) {
+                    int id = csObjId(csObj);
+                    if (id != UNKNOWN) {
+                        ids[n++] = id;
+                    }
+                }
+                if (n == 0) {
+                    return;
+                }
+                for (int i : ptr) {
+                    writeVarInt(out, i);
+                }
+                Arrays.sort(ids, 0, n);
+                writeVarInt(out, n);
+                int prev = 0;
+                for (int i = 0; i < n; ++i) {
+                    writeVarInt(out, ids[i] - prev);
+                    prev = ids[i];
+                }
+                ++count[0];
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * @return the kind and ids of the pointer,
+         * or {@code null} if it cannot be recorded.
+         */
+        @Nullable
+        private int[] encodePointer(Pointer pointer) {
+            if (pointer instanceof CSVar csVar) {
+                Var var = csVar.getVar();
+                int ctx = contextId(csVar.getContext());
+                if (var.getIndex() < 0 || ctx == UNKNOWN) {
+                    return null;
+                }
+                return new int[]{ VAR_PTR, ctx,
+                        methodId(var.getMethod()), var.getIndex() };
+            } else if (pointer instanceof InstanceField iField) {
+                int base = csObjId(iField.getBase());
+                return base == UNKNOWN ? null : new int[]{
+                        INSTANCE_FIELD_PTR, base, fieldId(iField.getField()) };
+            } else if (pointer instanceof ArrayIndex arrayIndex) {
+                int array = csObjId(arrayIndex.getArray());
+                return array == UNKNOWN ? null :
+                        new int[]{ ARRAY_INDEX_PTR, array };
+            } else if (pointer instanceof StaticField sField) {
+                return new int[]{ STATIC_FIELD_PTR, fieldId(sField.getField()) };
+            }
+            return null;
+        }
+
+        private int csObjId(CSObj csObj) {
+            Integer id = csObjs.get(csObj);
+            if (id == null) {
+                int ctx = contextId(csObj.getContext());
+                int obj = objId(csObj.getObject());
+                id = ctx == UNKNOWN || obj == UNKNOWN ? UNKNOWN : csObjs.size();
+                if (id != UNKNOWN) {
+                    writeTableEntry(csObjTable, ctx, obj);
+                }
+                csObjs.put(csObj, id);
+            }
+            return id;
+        }
+
+        /**
+         * Only the objects allocated by {@link New} statements in IR
+         * can be recorded, as the others are created by plugins on demand.
+         */
+        private int objId(Obj obj) {
+            Integer id = objs.get(obj);
+            if (id == null) {
+                id = UNKNOWN;
+                if (obj instanceof NewObj newObj) {
+                    New allocSite = newObj.getAllocation();
+                    if (allocSite.getIndex() >= 0) {
+                        id = objs.size();
+                        writeTableEntry(objTable,
+                                methodId(allocSite.getContainer()),
+                                allocSite.getIndex());
+                    }
+                }
+                objs.put(obj, id);
+            }
+            return id;
+        }
+
+        /**
+         * A context is recorded as the sequence of its elements.
+         */
+        private int contextId(Context context) {
+            Integer id = contexts.get(context);
+            if (id == null) {
+                int length = context.getLength();
+                int[][] elems = new int[length][];
+                id = contexts.size();
+                for (int i = 0; i < length; ++i) {
+                    elems[i] = encodeElement(context.getElementAt(i));
+                    if (elems[i] == null) {
+                        id = UNKNOWN;
+                        break;
+                    }
+                }
+                if (id != UNKNOWN) {
+                    writeTableEntry(ctxTable, length);
+                    for (int[] elem : elems) {
+                        writeTableEntry(ctxTable, elem);
+                    }
+                }
+                contexts.put(context, id);
+            }
+            return id;
+        }
+
+        @Nullable
+        private int[] encodeElement(Object elem) {
+            if (elem instanceof Obj obj) {
+                int id = objId(obj);
+                return id == UNKNOWN ? null : new int[]{ OBJ_ELEM, id };
+            } else if (elem instanceof Type type) {
+                return new int[]{ TYPE_ELEM, stringId(type.getName()) };
+            } else if (elem instanceof Invoke invoke) {
+                return invoke.getIndex() < 0 ? null : new int[]{ INVOKE_ELEM,
+                        methodId(invoke.getContainer()), invoke.getIndex() };
+            } else if (elem instanceof JMethod method) {
+                return new int[]{ METHOD_ELEM, methodId(method) };
+            }
+            return null;
+        }
+
+        private static void writeTableEntry(DataOutputStream table, int... values) {
+            try {
+                for (int value : values) {
+                    writeVarInt(table, value);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private int stringId(String s) {
+            return strings.computeIfAbsent(s, unused -> strings.size());
+        }
+
+        private int methodId(JMethod method) {
+            return methods.computeIfAbsent(method, unused -> methods.size());
+        }
+
+        private int fieldId(JField field) {
+            return fields.computeIfAbsent(field, unused -> fields.size());
+        }
+    }
+
+    /**
+     * Reads a checkpoint and converts the recorded facts to
+     * the elements of given solver.
+     */
+    private static class Reader {
+
+        private final Solver solver;
+
+        private final CSManager csManager;
+
+        private final ClassHierarchy hierarchy = World.get().getClassHierarchy();
+
+        private String[] strings;
+
+        private JMethod[] methods;
+
+        private JField[] fields;
+
+        private Obj[] objs;
+
+        private Context[] contexts;
+
+        private CSObj[] csObjs;
+
+        private Reader(Solver solver) {
+            this.solver = solver;
+            this.csManager = solver.getCSManager();
+        }
+
+        @Nullable
+        private Content read(File file, int fingerprint) throws IOException {
+            try (DataInputStream in = new DataInputStream(
+                    new InflaterInputStream(new BufferedInputStream(
+                            new FileInputStream(file))))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new IOException("Unrecognized checkpoint format");
+                }
+                if (in.readInt() != fingerprint) {
+                    logger.warn("Pointer analysis checkpoint {} was saved for" +
+                            " a different program or options, ignore it", file);
+                    return null;
+                }
+                strings = new String[readVarInt(in)];
+                for (int i = 0; i < strings.length; ++i) {
+                    strings[i] = readString(in);
+                }
+                methods = new JMethod[readVarInt(in)];
+                for (int i = 0; i < methods.length; ++i) {
+                    String sig = strings[readVarInt(in)];
+                    methods[i] = Objects.requireNonNull(
+                            hierarchy.getMethod(sig), "Missing method " + sig);
+                }
+                fields = new JField[readVarInt(in)];
+                for (int i = 0; i < fields.length; ++i) {
+                    String sig = strings[readVarInt(in)];
+                    fields[i] = Objects.requireNonNull(
+                            hierarchy.getField(sig), "Missing field " + sig);
+                }
+                readObjects(in);
+                readContexts(in);
+                csObjs = new CSObj[readVarInt(in)];
+                for (int i = 0; i < csObjs.length; ++i) {
+                    Context ctx = contexts[readVarInt(in)];
+                    csObjs[i] = csManager.getCSObj(ctx, objs[readVarInt(in)]);
+                }
+                List<CSMethod> csMethods = readMethods(in);
+                List<Edge<CSCallSite, CSMethod>> callEdges = readCallEdges(in);
+                List<PointerFact> pointsTo = readPointsTo(in);
+                byte[] pluginState = new byte[readVarInt(in)];
+                in.readFully(pluginState);
+                return new Content(csMethods, callEdges, pointsTo, pluginState);
+            }
+        }
+
+        private void readObjects(DataInputStream in) throws IOException {
+            objs = new Obj[readVarInt(in)];
+            for (int i = 0; i < objs.length; ++i) {
+                JMethod container = methods[readVarInt(in)];
+                New allocSite = (New) container.getIR().getStmt(readVarInt(in));
+                objs[i] = solver.getHeapModel().getObj(allocSite);
+            }
+        }
+
+        private void readContexts(DataInputStream in) throws IOException {
+            contexts = new Context[readVarInt(in)];
+            Context empty = solver.getContextSelector().getEmptyContext();
+            for (int i = 0; i < contexts.length; ++i) {
+                Context ctx = empty;
+                int length = readVarInt(in);
+                for (int j = 0; j < length; ++j) {
+                    ctx = ((TrieContext) ctx).extend(readElement(in));
+                }
+                contexts[i] = ctx;
+            }
+        }
+
+        private Object readElement(DataInputStream in) throws IOException {
+            int kind = readVarInt(in);
+            return switch (kind) {
+                case OBJ_ELEM -> objs[readVarInt(in)];
+                case TYPE_ELEM -> solver.getTypeSystem()
+                        .getType(strings[readVarInt(in)]);
+                case INVOKE_ELEM -> {
+                    JMethod container = methods[readVarInt(in)];
+                    yield container.getIR().getStmt(readVarInt(in));
+                }
+                case METHOD_ELEM -> methods[readVarInt(in)];
+                default -> throw new IOException(
+                        "Unknown context element kind: " + kind);
+            };
+        }
+
+        private List<CSMethod> readMethods(DataInputStream in) throws IOException {
+            int n = readVarInt(in);
+            List<CSMethod> csMethods = new ArrayList<>(n);
+            for (int i = 0; i < n; ++i) {
+                Context ctx = contexts[readVarInt(in)];
+                csMethods.add(csManager.getCSMethod(ctx, methods[readVarInt(in)]));
+            }
+            return csMethods;
+        }
+
+        private List<Edge<CSCallSite, CSMethod>> readCallEdges(DataInputStream in)
+                throws IOException {
+            CallKind[] kinds = CallKind.values();
+            int n = readVarInt(in);
+            List<Edge<CSCallSite, CSMethod>> edges = new ArrayList<>(n);
+            for (int i = 0; i < n; ++i) {
+                CallKind kind = kinds[readVarInt(in)];
+                Context callerCtx = contexts[readVarInt(in)];
+                JMethod caller = methods[readVarInt(in)];
+                Invoke callSite = (Invoke) caller.getIR().getStmt(readVarInt(in));
+                Context calleeCtx = contexts[readVarInt(in)];
+                JMethod callee = methods[readVarInt(in)];
+                edges.add(new Edge<>(kind,
+                        csManager.getCSCallSite(callerCtx, callSite),
+                        csManager.getCSMethod(calleeCtx, callee)));
+            }
+            return edges;
+        }
+
+        private List<PointerFact> readPointsTo(DataInputStream in)
+                throws IOException {
+            int n = readVarInt(in);
+            List<PointerFact> facts = new ArrayList<>(n);
+            for (int i = 0; i < n; ++i) {
+                Pointer pointer = readPointer(in);
+                PointsToSet pts = solver.makePointsToSet();
+                int size = readVarInt(in);
+                int id = 0;
+                for (int j = 0; j < size; ++j) {
+                    id += readVarInt(in);
+                    pts.addObject(csObjs[id]);
+                }
+                facts.add(new PointerFact(pointer, pts));
+            }
+            return facts;
+        }
+
+        private Pointer readPointer(DataInputStream in) throws IOException {
+            int kind = readVarInt(in);
+            return switch (kind) {
+                case VAR_PTR -> {
+                    Context ctx = contexts[readVarInt(in)];
+                    JMethod method = methods[readVarInt(in)];
+                    yield csManager.getCSVar(ctx,
+                            method.getIR().getVar(readVarInt(in)));
+                }
+                case INSTANCE_FIELD_PTR -> {
+                    CSObj base = csObjs[readVarInt(in)];
+                    yield csManager.getInstanceField(base, fields[readVarInt(in)]);
+                }
+                case ARRAY_INDEX_PTR -> csManager.getArrayIndex(csObjs[readVarInt(in)]);
+                case STATIC_FIELD_PTR -> csManager.getStaticField(fields[readVarInt(in)]);
+                default -> throw new IOException("Unknown pointer kind: " + kind);
+            };
+        }
+    }
+}
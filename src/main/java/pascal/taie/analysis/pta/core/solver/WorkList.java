@@ -30,9 +30,12 @@ import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.util.collection.Maps;
 
 import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Queue;
+import java.util.function.BiConsumer;
 
 /**
  * Represents work list in pointer analysis.
@@ -81,6 +84,24 @@ final class WorkList {
         return pointerEntries.isEmpty() && callEdges.isEmpty();
     }
 
+    int size() {
+        return pointerEntries.size() + callEdges.size();
+    }
+
+    /**
+     * Applies given action to each pending pointer entry.
+     */
+    void forEachPointerEntry(BiConsumer<Pointer, PointsToSet> action) {
+        pointerEntries.forEach(action);
+    }
+
+    /**
+     * @return pending call edges.
+     */
+    Collection<Edge<CSCallSite, CSMethod>> getCallEdges() {
+        return Collections.unmodifiableCollection(callEdges);
+    }
+
     interface Entry {
     }
 
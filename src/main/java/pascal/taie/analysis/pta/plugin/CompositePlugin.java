@@ -26,21 +26,41 @@ import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.pta.core.cs.context.Context;
 import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.analysis.pta.core.solver.Solver;
 import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Composite plugin which allows multiple independent plugins
  * to be used together.
+ * <p>
+ * For the plugins that accept {@link InterestedVarRegistrar}, this class
+ * dispatches {@link #onNewPointsToSet(CSVar, PointsToSet)} only when
+ * they have registered the variable. Each plugin of this kind is assigned
+ * a bit, and the bits of the plugins interested in each context-sensitive
+ * variable are cached in an array indexed by {@link CSVar#getIndex()},
+ * so that deciding the receivers of a points-to set change takes
+ * one array access instead of a lookup in every plugin.
  */
 public class CompositePlugin implements Plugin {
 
@@ -51,6 +71,45 @@ public class CompositePlugin implements Plugin {
 
     private final List<Plugin> onNewPointsToSetPlugins = new ArrayList<>();
 
+    /**
+     * Interest bits of {@link #onNewPointsToSetPlugins}, where
+     * {@link #ALL_VARS} means that the plugin is interested in all variables.
+     */
+    private int[] interestBits = new int[0];
+
+    private static final int ALL_VARS = -1;
+
+    /**
+     * Maximum number of plugins that can declare interested variables.
+     * The highest bit of the cached interests is reserved for {@link #CACHED}.
+     */
+    private static final int MAX_INTERESTED_PLUGINS = Integer.SIZE - 1;
+
+    private static final int CACHED = 1 << MAX_INTERESTED_PLUGINS;
+
+    private int nInterestedPlugins = 0;
+
+    /**
+     * Map from variable to bits of the plugins interested in it.
+     */
+    private final Map<Var, Integer> varInterests = Maps.newMap();
+
+    /**
+     * Bits of the plugins interested in each context-sensitive variable.
+     * An entry is computed from {@link #varInterests} when it is accessed
+     * for the first time (marked by {@link #CACHED}), and updated when
+     * a plugin registers the corresponding variable later.
+     */
+    private int[] csVarInterests = new int[1024];
+
+    private CSManager csManager;
+
+    /**
+     * Registrar given by the plugin containing this composite plugin,
+     * if this composite plugin accepted it.
+     */
+    private InterestedVarRegistrar registrar;
+
     private final List<Plugin> onNewCallEdgePlugins = new ArrayList<>();
 
     private final List<Plugin> onNewMethodPlugins = new ArrayList<>();
@@ -64,8 +123,10 @@ public class CompositePlugin implements Plugin {
     public void addPlugin(Plugin... plugins) {
         for (Plugin plugin : plugins) {
             allPlugins.add(plugin);
-            addPlugin(plugin, onNewPointsToSetPlugins,
-                    "onNewPointsToSet", CSVar.class, PointsToSet.class);
+            if (addPlugin(plugin, onNewPointsToSetPlugins,
+                    "onNewPointsToSet", CSVar.class, PointsToSet.class)) {
+                setInterestBit(plugin);
+            }
             addPlugin(plugin, onNewCallEdgePlugins, "onNewCallEdge", Edge.class);
             addPlugin(plugin, onNewMethodPlugins, "onNewMethod", JMethod.class);
             addPlugin(plugin, onNewStmtPlugins, "onNewStmt", Stmt.class, JMethod.class);
@@ -75,22 +136,101 @@ public class CompositePlugin implements Plugin {
         }
     }
 
-    private void addPlugin(Plugin plugin, List<Plugin> plugins,
-                           String name, Class<?>... parameterTypes) {
+    /**
+     * @return {@code true} if {@code plugin} overwrites the specific method
+     * and is added to {@code plugins}.
+     */
+    private boolean addPlugin(Plugin plugin, List<Plugin> plugins,
+                              String name, Class<?>... parameterTypes) {
         try {
             Method method = plugin.getClass().getMethod(name, parameterTypes);
             if (!method.getDeclaringClass().equals(Plugin.class)) {
                 // the plugin does overwrite the specific method
                 plugins.add(plugin);
+                return true;
             }
+            return false;
         } catch (NoSuchMethodException e) {
             throw new RuntimeException("Can't find method '" + name +
                     "' in " + plugin.getClass(), e);
         }
     }
 
+    private void setInterestBit(Plugin plugin) {
+        int bit = ALL_VARS;
+        if (nInterestedPlugins < MAX_INTERESTED_PLUGINS) {
+            int pluginBit = 1 << nInterestedPlugins;
+            if (plugin.setInterestedVarRegistrar(var -> register(var, pluginBit))) {
+                bit = pluginBit;
+                ++nInterestedPlugins;
+            }
+        }
+        interestBits = Arrays.copyOf(interestBits, interestBits.length + 1);
+        interestBits[interestBits.length - 1] = bit;
+    }
+
+    private void register(Var var, int bit) {
+        int bits = varInterests.getOrDefault(var, 0);
+        if ((bits & bit) == 0) {
+            varInterests.put(var, bits | bit);
+            if (csManager != null) {
+                // update the cached interests of existing CSVars
+                for (CSVar csVar : csManager.getCSVarsOf(var)) {
+                    int index = csVar.getIndex();
+                    if (index < csVarInterests.length &&
+                            csVarInterests[index] != 0) {
+                        csVarInterests[index] |= bit;
+                    }
+                }
+            }
+            if (registrar != null) {
+                registrar.register(var);
+            }
+        }
+    }
+
+    /**
+     * @return bits of the plugins interested in given variable.
+     */
+    private int getInterests(CSVar csVar) {
+        if (csManager == null) {
+            return varInterests.getOrDefault(csVar.getVar(), 0);
+        }
+        int index = csVar.getIndex();
+        if (index >= csVarInterests.length) {
+            csVarInterests = Arrays.copyOf(csVarInterests,
+                    Math.max(index + 1, csVarInterests.length * 2));
+        }
+        int bits = csVarInterests[index];
+        if (bits == 0) {
+            bits = CACHED | varInterests.getOrDefault(csVar.getVar(), 0);
+            csVarInterests[index] = bits;
+        }
+        return bits;
+    }
+
+    /**
+     * Accepts the registrar if all plugins handling new points-to sets
+     * in this composite plugin accepted their registrars, so that
+     * the variables registered by them are passed to {@code registrar}.
+     * This method should be called after all plugins are added.
+     */
+    @Override
+    public boolean setInterestedVarRegistrar(InterestedVarRegistrar registrar) {
+        for (int bit : interestBits) {
+            if (bit == ALL_VARS) {
+                return false;
+            }
+        }
+        this.registrar = registrar;
+        // pass the variables registered before
+        varInterests.keySet().forEach(registrar::register);
+        return true;
+    }
+
     @Override
     public void setSolver(Solver solver) {
+        csManager = solver.getCSManager();
         allPlugins.forEach(p -> p.setSolver(solver));
     }
 
@@ -104,9 +244,60 @@ public class CompositePlugin implements Plugin {
         allPlugins.forEach(Plugin::onFinish);
     }
 
+    /**
+     * Writes the states of the plugins that write anything. Each state is
+     * tagged by the position and the class name of its plugin.
+     */
+    @Override
+    public void onCheckpoint(DataOutput out) throws IOException {
+        List<Integer> indexes = new ArrayList<>();
+        List<byte[]> states = new ArrayList<>();
+        for (int i = 0; i < allPlugins.size(); ++i) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream state = new DataOutputStream(bytes);
+            allPlugins.get(i).onCheckpoint(state);
+            state.flush();
+            if (bytes.size() > 0) {
+                indexes.add(i);
+                states.add(bytes.toByteArray());
+            }
+        }
+        out.writeInt(states.size());
+        for (int i = 0; i < states.size(); ++i) {
+            int index = indexes.get(i);
+            out.writeInt(index);
+            out.writeUTF(allPlugins.get(index).getClass().getName());
+            out.writeInt(states.get(i).length);
+            out.write(states.get(i));
+        }
+    }
+
+    @Override
+    public void onResume(DataInput in) throws IOException {
+        int n = in.readInt();
+        for (int i = 0; i < n; ++i) {
+            int index = in.readInt();
+            String pluginClass = in.readUTF();
+            byte[] state = new byte[in.readInt()];
+            in.readFully(state);
+            if (index >= allPlugins.size() || !allPlugins.get(index)
+                    .getClass().getName().equals(pluginClass)) {
+                throw new IOException("Plugin " + pluginClass +
+                        " in checkpoint does not match current plugins");
+            }
+            allPlugins.get(index).onResume(
+                    new DataInputStream(new ByteArrayInputStream(state)));
+        }
+    }
+
     @Override
     public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
-        onNewPointsToSetPlugins.forEach(p -> p.onNewPointsToSet(csVar, pts));
+        int interests = nInterestedPlugins > 0 ? getInterests(csVar) : 0;
+        for (int i = 0; i < interestBits.length; ++i) {
+            if ((interestBits[i] & interests) != 0 || interestBits[i] == ALL_VARS) {
+                onNewPointsToSetPlugins.get(i).onNewPointsToSet(csVar, pts);
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,64 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin;
+
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.function.Predicate;
+
+/**
+ * Registrar via which a plugin declares the variables it is interested in,
+ * i.e., the variables whose new points-to sets are handled by
+ * {@link Plugin#onNewPointsToSet(CSVar, PointsToSet)} of the plugin.
+ *
+ * @see Plugin#setInterestedVarRegistrar(InterestedVarRegistrar)
+ */
+@FunctionalInterface
+public interface InterestedVarRegistrar {
+
+    /**
+     * Registers a variable that the plugin is interested in.
+     * Registering a variable multiple times is allowed.
+     */
+    void register(Var var);
+
+    /**
+     * Registers the variables defined or used by {@code stmt}
+     * that satisfy {@code isInterested}.
+     */
+    default void register(Stmt stmt, Predicate<Var> isInterested) {
+        stmt.getDef().ifPresent(lvalue -> {
+            if (lvalue instanceof Var var && isInterested.test(var)) {
+                register(var);
+            }
+        });
+        stmt.getUses().forEach(rvalue -> {
+            if (rvalue instanceof Var var && isInterested.test(var)) {
+                register(var);
+            }
+        });
+    }
+}
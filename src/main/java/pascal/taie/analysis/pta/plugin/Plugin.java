@@ -34,6 +34,10 @@ import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JMethod;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Analysis plugin interface.
  * <p>
@@ -64,6 +68,24 @@ public interface Plugin {
     default void onFinish() {
     }
 
+    /**
+     * Offers a registrar for declaring the variables that this plugin
+     * is interested in.
+     * <p>
+     * By default, {@link #onNewPointsToSet(CSVar, PointsToSet)} is invoked
+     * for all variables. A plugin which only handles the points-to sets of
+     * some specific variables can accept the registrar (by returning
+     * {@code true}), and register each such variable no later than it
+     * starts to care about the variable (e.g., when it records the variable
+     * in its own maps). After that, {@link #onNewPointsToSet(CSVar, PointsToSet)}
+     * is invoked only for the registered variables.
+     *
+     * @return {@code true} if this plugin accepts the registrar.
+     */
+    default boolean setInterestedVarRegistrar(InterestedVarRegistrar registrar) {
+        return false;
+    }
+
     /**
      * Invoked when set of new objects flow to a context-sensitive variable.
      *
@@ -117,4 +139,26 @@ public interface Plugin {
      */
     default void onUnresolvedCall(CSObj recv, Context context, Invoke invoke) {
     }
+
+    /**
+     * Invoked when the solver saves a checkpoint of its state.
+     * When resuming from the checkpoint, the solver replays the recorded
+     * points-to relations and call edges, and the corresponding callbacks
+     * of this plugin are invoked again. Thus, a plugin only needs to write
+     * the state that cannot be re-derived from these callbacks.
+     *
+     * @param out the output to which the state of this plugin is written
+     */
+    default void onCheckpoint(DataOutput out) throws IOException {
+    }
+
+    /**
+     * Invoked when the solver resumes from a checkpoint, after
+     * {@link #onStart()} and before the recorded facts are replayed.
+     *
+     * @param in the input from which the state written by
+     *           {@link #onCheckpoint(DataOutput)} is read
+     */
+    default void onResume(DataInput in) throws IOException {
+    }
 }
@@ -0,0 +1,352 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static pascal.taie.util.BinaryFiles.readString;
+import static pascal.taie.util.BinaryFiles.readVarInt;
+import static pascal.taie.util.BinaryFiles.writeString;
+import static pascal.taie.util.BinaryFiles.writeVarInt;
+
+/**
+ * Binary format of dumped points-to results.
+ * <p>
+ * A dump file starts with an uncompressed header (magic number, version
+ * and kind of the dump), followed by a body compressed by {@link Deflater}.
+ * The body consists of:
+ * <ul>
+ *     <li>the object table, i.e., the string representations of all
+ *     objects sorted in natural order, so that object ids follow
+ *     the order of their strings;</li>
+ *     <li>a sequence of records, each of which is a section header,
+ *     a pointer with its points-to set, or a plain text line.</li>
+ * </ul>
+ * In each section, pointers are written in sorted order and their strings
+ * are front-coded, i.e., each pointer only stores the suffix that differs
+ * from the previous pointer. Points-to sets are stored as delta-encoded
+ * sorted object ids. Records are written and read in a streaming manner,
+ * thus neither writing nor reading holds the whole dump in memory
+ * (except the object table).
+ * <p>
+ * {@link #main(String[])} converts a binary dump to the text format
+ * of {@link ResultProcessor}.
+ */
+public final class PointsToDumpFormat {
+
+    private static final int MAGIC = 0x54414944; // "TAID"
+
+    private static final int VERSION = 1;
+
+    /**
+     * Kinds of dumps.
+     */
+    public static final int CS = 0, CI = 1;
+
+    private static final int END = 0, SECTION = 1, POINTER = 2, LINE = 3;
+
+    private PointsToDumpFormat() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Options: <binary-dump> <output-path>");
+            System.out.println("Converts binary dump of points-to results" +
+                    " to text format");
+            return;
+        }
+        File outFile = new File(args[1]);
+        System.out.printf("Converting %s to %s%n", args[0],
+                outFile.getAbsolutePath());
+        toText(new File(args[0]), outFile);
+    }
+
+    /**
+     * @return {@code true} if given file is a binary dump.
+     */
+    public static boolean isBinaryDump(File file) {
+        try (DataInputStream in = new DataInputStream(
+                new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Converts a binary dump to text format (encoded in UTF-8), which is
+     * the same as the one dumped by {@link ResultProcessor} with text format.
+     */
+    public static void toText(File binaryFile, File textFile) throws IOException {
+        try (PrintStream out = new PrintStream(new BufferedOutputStream(
+                new FileOutputStream(textFile)), false, StandardCharsets.UTF_8)) {
+            read(binaryFile, new Visitor() {
+
+                private int kind;
+
+                private boolean inSection = false;
+
+                @Override
+                public void visitKind(int kind) {
+                    this.kind = kind;
+                }
+
+                @Override
+                public void visitSection(String header) {
+                    endSection();
+                    out.println(header);
+                    inSection = true;
+                }
+
+                @Override
+                public void visitPointer(String pointer, List<String> objects) {
+                    if (kind == CS) {
+                        out.println(pointer + ResultProcessor.SEP + objects);
+                    } else {
+                        out.printf("%s:%n", pointer);
+                        objects.forEach(o -> out.printf("    %s%n", o));
+                    }
+                }
+
+                @Override
+                public void visitLine(String line) {
+                    out.println(line);
+                }
+
+                @Override
+                public void visitEnd() {
+                    endSection();
+                }
+
+                private void endSection() {
+                    if (inSection) {
+                        out.println();
+                        inSection = false;
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Visitor of the content of a binary dump.
+     */
+    public interface Visitor {
+
+        default void visitKind(int kind) {
+        }
+
+        default void visitSection(String header) {
+        }
+
+        /**
+         * @param pointer string representation of the pointer
+         * @param objects string representations of the objects pointed to
+         *                by the pointer, in natural order
+         */
+        default void visitPointer(String pointer, List<String> objects) {
+        }
+
+        default void visitLine(String line) {
+        }
+
+        default void visitEnd() {
+        }
+    }
+
+    /**
+     * Reads given binary dump in a streaming manner.
+     */
+    public static void read(File file, Visitor visitor) throws IOException {
+        try (InputStream fileIn = new BufferedInputStream(new FileInputStream(file))) {
+            DataInputStream header = new DataInputStream(fileIn);
+            if (header.readInt() != MAGIC || header.readInt() != VERSION) {
+                throw new IOException(file + " is not a binary points-to dump" +
+                        " of version " + VERSION);
+            }
+            visitor.visitKind(header.readUnsignedByte());
+            DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new InflaterInputStream(fileIn), 1 << 16));
+            String[] objects = new String[readVarInt(in)];
+            for (int i = 0; i < objects.length; ++i) {
+                objects[i] = readString(in);
+            }
+            String prevPointer = "";
+            for (int tag = in.readUnsignedByte(); tag != END;
+                 tag = in.readUnsignedByte()) {
+                switch (tag) {
+                    case SECTION -> {
+                        visitor.visitSection(readString(in));
+                        prevPointer = "";
+                    }
+                    case POINTER -> {
+                        int prefix = readVarInt(in);
+                        String pointer = prevPointer.substring(0, prefix)
+                                + readString(in);
+                        int size = readVarInt(in);
+                        String[] pts = new String[size];
+                        int id = -1;
+                        for (int i = 0; i < size; ++i) {
+                            id += readVarInt(in);
+                            pts[i] = objects[id];
+                        }
+                        visitor.visitPointer(pointer, Arrays.asList(pts));
+                        prevPointer = pointer;
+                    }
+                    case LINE -> visitor.visitLine(readString(in));
+                    default -> throw new IOException(
+                            "Unknown record " + tag + " in " + file);
+                }
+            }
+            visitor.visitEnd();
+        } catch (EOFException e) {
+            throw new IOException("Unexpected end of " + file, e);
+        }
+    }
+
+    /**
+     * Writer of binary dumps. The pointers of each section must be
+     * written in sorted order to benefit from front coding.
+     */
+    public static class Writer implements Closeable {
+
+        private final Deflater deflater;
+
+        private final DataOutputStream out;
+
+        private final int nObjects;
+
+        private String prevPointer = "";
+
+        /**
+         * @param kind    kind of the dump, either {@link #CS} or {@link #CI}
+         * @param objects string representations of all objects in natural
+         *                order, whose indexes are the object ids
+         */
+        public Writer(File file, int kind, List<String> objects) throws IOException {
+            BufferedOutputStream fileOut = new BufferedOutputStream(
+                    new FileOutputStream(file), 1 << 16);
+            deflater = new Deflater(Deflater.BEST_SPEED);
+            out = new DataOutputStream(new BufferedOutputStream(
+                    new DeflaterOutputStream(fileOut, deflater, 1 << 16), 1 << 16));
+            nObjects = objects.size();
+            try {
+                DataOutputStream header = new DataOutputStream(fileOut);
+                header.writeInt(MAGIC);
+                header.writeInt(VERSION);
+                header.writeByte(kind);
+                header.flush();
+                writeVarInt(out, nObjects);
+                for (String obj : objects) {
+                    writeString(out, obj);
+                }
+            } catch (IOException | RuntimeException e) {
+                // the caller cannot close a writer that fails to be
+                // constructed, thus the file is closed here
+                try {
+                    fileOut.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                } finally {
+                    deflater.end();
+                }
+                throw e;
+            }
+        }
+
+        public void writeSection(String header) throws IOException {
+            out.writeByte(SECTION);
+            writeString(out, header);
+            prevPointer = "";
+        }
+
+        /**
+         * @param pointer string representation of the pointer
+         * @param objIds  ids of the objects pointed to by the pointer,
+         *                in ascending order
+         */
+        public void writePointer(String pointer, int[] objIds) throws IOException {
+            int prefix = commonPrefixLength(prevPointer, pointer);
+            out.writeByte(POINTER);
+            writeVarInt(out, prefix);
+            writeString(out, pointer.substring(prefix));
+            writeVarInt(out, objIds.length);
+            int prev = -1;
+            for (int id : objIds) {
+                if (id <= prev || id >= nObjects) {
+                    throw new IllegalArgumentException(
+                            "Object ids must be ascending and less than "
+                                    + nObjects + ": " + Arrays.toString(objIds));
+                }
+                writeVarInt(out, id - prev);
+                prev = id;
+            }
+            prevPointer = pointer;
+        }
+
+        public void writeLine(String line) throws IOException {
+            out.writeByte(LINE);
+            writeString(out, line);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                out.writeByte(END);
+                out.close();
+            } finally {
+                deflater.end();
+            }
+        }
+    }
+
+    private static int commonPrefixLength(String s1, String s2) {
+        int n = Math.min(s1.length(), s2.length());
+        int i = 0;
+        while (i < n && s1.charAt(i) == s2.charAt(i)) {
+            ++i;
+        }
+        // avoid splitting surrogate pairs
+        if (i > 0 && Character.isHighSurrogate(s1.charAt(i - 1))) {
+            --i;
+        }
+        return i;
+    }
+}
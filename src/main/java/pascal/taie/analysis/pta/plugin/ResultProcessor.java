@@ -33,15 +33,19 @@ import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.taint.TaintAnalysis;
 import pascal.taie.analysis.pta.plugin.taint.TaintFlow;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.collection.Lists;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Pair;
 import pascal.taie.util.collection.Streams;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -57,6 +61,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.ToIntFunction;
@@ -68,6 +73,10 @@ import static pascal.taie.util.collection.CollectionUtils.sum;
 /**
  * Dump points-to set to file or compare the analysis result with
  * the ones read from input file.
+ * Points-to sets can be dumped in text format or in the binary format
+ * defined by {@link PointsToDumpFormat}, which is much more compact and
+ * faster to write for large results. The expected file for comparison
+ * can be in either format.
  * Currently, the compare functionality is mainly for testing purpose.
  * It is not efficient and not recommended applying on large program.
  */
@@ -79,14 +88,18 @@ public class ResultProcessor implements Plugin {
 
     public static final String RESULTS_YAML_FILE = "pta-results.yml";
 
+    public static final String RESULTS_BINARY_FILE = "pta-results.bin";
+
     private static final String CI_RESULTS_FILE = "pta-ci-results.txt";
 
+    private static final String CI_RESULTS_BINARY_FILE = "pta-ci-results.bin";
+
     private static final String HEADER = "Points-to sets of all ";
 
     /**
      * Separator between pointer and its points-to set.
      */
-    private static final String SEP = " -> ";
+    static final String SEP = " -> ";
 
     private static final DecimalFormat formatter = new DecimalFormat("#,####");
 
@@ -106,13 +119,22 @@ public class ResultProcessor implements Plugin {
                                PointerAnalysisResult result) {
         logStatistics(result);
 
-        boolean taintEnabled = options.getString("taint-config") != null;
+        boolean taintEnabled = TaintAnalysis.isEnabled(options);
+        boolean binary = isBinaryFormat(options.getString("dump-format"));
         if (options.getBoolean("dump")) {
-            dumpPointsToSet(result, taintEnabled);
+            if (binary) {
+                dumpPointsToSetInBinary(result, taintEnabled);
+            } else {
+                dumpPointsToSet(result, taintEnabled);
+            }
         }
 
         if (options.getBoolean("dump-ci")) {
-            dumpCIPointsToSet(result);
+            if (binary) {
+                dumpCIPointsToSetInBinary(result);
+            } else {
+                dumpCIPointsToSet(result);
+            }
         }
 
         if (options.getBoolean("dump-yaml")) {
@@ -170,10 +192,20 @@ public class ResultProcessor implements Plugin {
         return formatter.format(i);
     }
 
+    private static boolean isBinaryFormat(String format) {
+        return switch (format) {
+            case "text" -> false;
+            case "binary" -> true;
+            default -> throw new ConfigException(
+                    "Unknown dump format: " + format);
+        };
+    }
+
     private static void dumpPointsToSet(PointerAnalysisResult result,
                                         boolean taintEnabled) {
         File outFile = new File(World.get().getOptions().getOutputDir(), RESULTS_FILE);
-        try (PrintStream out = new PrintStream(new FileOutputStream(outFile))) {
+        try (PrintStream out = new PrintStream(new BufferedOutputStream(
+                new FileOutputStream(outFile)))) {
             logger.info("Dumping points-to set (with contexts) to {}",
                     outFile.getAbsolutePath());
             dumpPointers(out, result.getCSVars(), "variables");
@@ -191,12 +223,79 @@ public class ResultProcessor implements Plugin {
     private static void dumpPointers(
             PrintStream out, Collection<? extends Pointer> pointers, String desc) {
         out.println(HEADER + desc);
-        pointers.stream()
-                .sorted(Comparator.comparing(Pointer::toString))
-                .forEach(p -> out.println(p + SEP + Streams.toString(p.objects())));
+        sortByString(pointers).forEach(p ->
+                out.println(p.first() + SEP + Streams.toString(p.second().objects())));
         out.println();
     }
 
+    /**
+     * @return pairs of given elements and their string representations,
+     * sorted by the strings.
+     */
+    private static <T> List<Pair<String, T>> sortByString(Collection<? extends T> c) {
+        List<Pair<String, T>> list = new ArrayList<>(c.size());
+        c.forEach(e -> list.add(new Pair<>(e.toString(), e)));
+        list.sort(Comparator.comparing(Pair::first));
+        return list;
+    }
+
+    private static void dumpPointsToSetInBinary(PointerAnalysisResult result,
+                                                boolean taintEnabled) {
+        File outFile = new File(World.get().getOptions().getOutputDir(),
+                RESULTS_BINARY_FILE);
+        logger.info("Dumping points-to set (with contexts) in binary to {}",
+                outFile.getAbsolutePath());
+        Map<CSObj, Integer> objIds = Maps.newMap(result.getCSObjects().size());
+        List<String> objects = assignIds(result.getCSObjects(), objIds);
+        try (var writer = new PointsToDumpFormat.Writer(
+                outFile, PointsToDumpFormat.CS, objects)) {
+            dumpPointers(writer, result.getCSVars(), "variables", objIds);
+            dumpPointers(writer, result.getStaticFields(), "static fields", objIds);
+            dumpPointers(writer, result.getInstanceFields(), "instance fields", objIds);
+            dumpPointers(writer, result.getArrayIndexes(), "array indexes", objIds);
+            if (taintEnabled) {
+                Set<TaintFlow> taintFlows = getTaintFlows(result);
+                writer.writeSection(String.format(
+                        "Detected %d taint flow(s):", taintFlows.size()));
+                for (TaintFlow taintFlow : taintFlows) {
+                    writer.writeLine(taintFlow.toString());
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to write output file {}", outFile, e);
+        }
+    }
+
+    /**
+     * Assigns ids to given objects in the natural order of
+     * their string representations.
+     *
+     * @return the sorted string representations of the objects.
+     */
+    private static <T> List<String> assignIds(
+            Collection<? extends T> objs, Map<T, Integer> objIds) {
+        List<Pair<String, T>> sorted = sortByString(objs);
+        List<String> strings = new ArrayList<>(sorted.size());
+        sorted.forEach(p -> {
+            objIds.put(p.second(), strings.size());
+            strings.add(p.first());
+        });
+        return strings;
+    }
+
+    private static void dumpPointers(
+            PointsToDumpFormat.Writer writer, Collection<? extends Pointer> pointers,
+            String desc, Map<CSObj, Integer> objIds) throws IOException {
+        writer.writeSection(HEADER + desc);
+        for (var p : sortByString(pointers)) {
+            writer.writePointer(p.first(), p.second()
+                    .objects()
+                    .mapToInt(objIds::get)
+                    .sorted()
+                    .toArray());
+        }
+    }
+
     private static void dumpPointsToSetInYaml(PointerAnalysisResult result) {
         File outFile = new File(World.get().getOptions().getOutputDir(), RESULTS_YAML_FILE);
         logger.info("Dumping points-to set (with contexts) in YAML to {}",
@@ -335,7 +434,8 @@ public class ResultProcessor implements Plugin {
      */
     private static void dumpCIPointsToSet(PointerAnalysisResult result) {
         File outFile = new File(World.get().getOptions().getOutputDir(), CI_RESULTS_FILE);
-        try (PrintStream out = new PrintStream(new FileOutputStream(outFile))) {
+        try (PrintStream out = new PrintStream(new BufferedOutputStream(
+                new FileOutputStream(outFile)))) {
             logger.info("Dumping points-to set (without contexts) to {}",
                     outFile.getAbsolutePath());
             Function<Var, String> toString =
@@ -355,44 +455,86 @@ public class ResultProcessor implements Plugin {
         }
     }
 
+    private static void dumpCIPointsToSetInBinary(PointerAnalysisResult result) {
+        File outFile = new File(World.get().getOptions().getOutputDir(),
+                CI_RESULTS_BINARY_FILE);
+        logger.info("Dumping points-to set (without contexts) in binary to {}",
+                outFile.getAbsolutePath());
+        Map<Obj, Integer> objIds = Maps.newMap(result.getObjects().size());
+        List<String> objects = assignIds(result.getObjects(), objIds);
+        List<Pair<String, Var>> vars = new ArrayList<>();
+        result.getVars().forEach(v -> vars.add(
+                new Pair<>(v.getMethod().toString() + '/' + v.getName(), v)));
+        vars.sort(Comparator.comparing(Pair::first));
+        try (var writer = new PointsToDumpFormat.Writer(
+                outFile, PointsToDumpFormat.CI, objects)) {
+            for (var v : vars) {
+                Set<Obj> pts = result.getPointsToSet(v.second());
+                if (!pts.isEmpty()) {
+                    writer.writePointer(v.first(), pts.stream()
+                            .mapToInt(objIds::get)
+                            .sorted()
+                            .toArray());
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to write output file {}", outFile, e);
+        }
+    }
+
     private static void comparePointsToSet(PointerAnalysisResult result, String input) {
         logger.info("Comparing points-to set with {}", input);
-        var inputs = readPointsToSets(input);
         Map<String, Pointer> pointers = Maps.newLinkedHashMap();
         addPointers(pointers, result.getCSVars());
         addPointers(pointers, result.getStaticFields());
         addPointers(pointers, result.getInstanceFields());
         addPointers(pointers, result.getArrayIndexes());
+        // stream the expected points-to sets, and match them against
+        // (and remove them from) the given pointers
         List<String> mismatches = new ArrayList<>();
-        pointers.forEach((pointerStr, pointer) -> {
-            String given = Streams.toString(pointer.objects());
-            String expected = inputs.get(pointerStr);
-            if (!given.equals(expected)) {
+        readPointsToSets(input, (pointerStr, expected) -> {
+            Pointer pointer = pointers.remove(pointerStr);
+            String given = pointer != null ?
+                    Streams.toString(pointer.objects()) : null;
+            if (!expected.equals(given)) {
                 mismatches.add(String.format("%s, expected: %s, given: %s",
                         pointerStr, expected, given));
             }
         });
-        inputs.keySet()
-                .stream()
-                .filter(Predicate.not(pointers::containsKey))
-                .forEach(pointerStr -> {
-                    String expected = inputs.get(pointerStr);
-                    mismatches.add(String.format("%s, expected: %s, given: null",
-                            pointerStr, expected));
-                });
+        pointers.forEach((pointerStr, pointer) -> {
+            String given = Streams.toString(pointer.objects());
+            mismatches.add(String.format("%s, expected: null, given: %s",
+                    pointerStr, given));
+        });
         if (!mismatches.isEmpty()) {
             throw new AnalysisException("Mismatches of points-to set\n" +
                     String.join("\n", mismatches));
         }
     }
 
-    private static Map<String, String> readPointsToSets(String input) {
-        try (Stream<String> lines = Files.lines(Path.of(input))) {
-            Map<String, String> result = Maps.newLinkedHashMap();
-            lines.filter(line -> line.contains(SEP))
-                    .map(line -> line.split(SEP))
-                    .forEach(s -> result.put(s[0], s[1]));
-            return result;
+    /**
+     * Reads points-to sets from given file in text or binary format,
+     * and passes each pointer and the string of its points-to set
+     * to {@code consumer}.
+     */
+    private static void readPointsToSets(
+            String input, BiConsumer<String, String> consumer) {
+        try {
+            File inputFile = new File(input);
+            if (PointsToDumpFormat.isBinaryDump(inputFile)) {
+                PointsToDumpFormat.read(inputFile, new PointsToDumpFormat.Visitor() {
+                    @Override
+                    public void visitPointer(String pointer, List<String> objects) {
+                        consumer.accept(pointer, objects.toString());
+                    }
+                });
+            } else {
+                try (Stream<String> lines = Files.lines(Path.of(input))) {
+                    lines.filter(line -> line.contains(SEP))
+                            .map(line -> line.split(SEP))
+                            .forEach(s -> consumer.accept(s[0], s[1]));
+                }
+            }
         } catch (IOException e) {
             throw new AnalysisException(
                     "Failed to read points-to set from " + input, e);
@@ -448,10 +590,25 @@ public class ResultProcessor implements Plugin {
     }
 
     private static List<String> readTaintFlows(String input) {
-        try (Stream<String> lines = Files.lines(Path.of(input))) {
+        try {
             List<String> taintFlows = new ArrayList<>();
-            lines.filter(line -> line.startsWith("TaintFlow{") && line.contains(SEP))
-                    .forEach(taintFlows::add);
+            Predicate<String> isTaintFlow = line ->
+                    line.startsWith("TaintFlow{") && line.contains(SEP);
+            File inputFile = new File(input);
+            if (PointsToDumpFormat.isBinaryDump(inputFile)) {
+                PointsToDumpFormat.read(inputFile, new PointsToDumpFormat.Visitor() {
+                    @Override
+                    public void visitLine(String line) {
+                        if (isTaintFlow.test(line)) {
+                            taintFlows.add(line);
+                        }
+                    }
+                });
+            } else {
+                try (Stream<String> lines = Files.lines(Path.of(input))) {
+                    lines.filter(isTaintFlow).forEach(taintFlows::add);
+                }
+            }
             return taintFlows;
         } catch (IOException e) {
             throw new AnalysisException(
@@ -81,6 +81,15 @@ public class ThreadHandler implements Plugin {
      */
     private final Set<Context> currentThreadContexts = Sets.newHybridSet();
 
+    private InterestedVarRegistrar registrar = var -> {
+    };
+
+    @Override
+    public boolean setInterestedVarRegistrar(InterestedVarRegistrar registrar) {
+        this.registrar = registrar;
+        return true;
+    }
+
     @Override
     public void setSolver(Solver solver) {
         this.solver = solver;
@@ -90,6 +99,7 @@ public class ThreadHandler implements Plugin {
                 hierarchy.getJREMethod("<java.lang.Thread: void start()>"))
                 .getIR()
                 .getThis();
+        registrar.register(threadStartThis);
         currentThread = hierarchy.getJREMethod(
                 "<java.lang.Thread: java.lang.Thread currentThread()>");
         currentThreadReturn = getOne(requireNonNull(currentThread)
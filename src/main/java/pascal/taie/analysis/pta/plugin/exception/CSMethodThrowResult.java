@@ -63,4 +63,13 @@ public class CSMethodThrowResult {
     Set<CSObj> mayThrowUncaught() {
         return Collections.unmodifiableSet(uncaughtExceptions);
     }
+
+    /**
+     * @return the (modifiable) set of uncaught exceptions. Different from
+     * {@link #mayThrowUncaught()}, bit set operations on the returned set
+     * are not slowed down by a wrapper.
+     */
+    SetEx<CSObj> getUncaughtExceptions() {
+        return uncaughtExceptions;
+    }
 }
@@ -22,6 +22,8 @@
 
 package pascal.taie.analysis.pta.plugin.exception;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.exception.CatchAnalysis;
 import pascal.taie.analysis.graph.callgraph.CallKind;
 import pascal.taie.analysis.graph.callgraph.Edge;
@@ -33,6 +35,7 @@ import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.InterestedVarRegistrar;
 import pascal.taie.analysis.pta.plugin.Plugin;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.ir.exp.Var;
@@ -47,18 +50,21 @@ import pascal.taie.util.collection.IndexerBitSet;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
 import pascal.taie.util.collection.SetEx;
-import pascal.taie.util.collection.Sets;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 public class ExceptionAnalysis implements Plugin {
 
+    private static final Logger logger = LogManager.getLogger(ExceptionAnalysis.class);
+
     private Solver solver;
 
     private CSManager csManager;
@@ -67,6 +73,9 @@ public class ExceptionAnalysis implements Plugin {
 
     private Supplier<SetEx<CSObj>> setFactory;
 
+    private InterestedVarRegistrar registrar = var -> {
+    };
+
     /**
      * Map from thrown variables to the corresponding throw statements.
      */
@@ -79,14 +88,46 @@ public class ExceptionAnalysis implements Plugin {
             Maps.newMap(1024);
 
     /**
-     * Work-list of exception entries to be propagated.
+     * Work-list of the methods that have pending exceptions.
+     */
+    private Queue<CSMethod> workList = new ArrayDeque<>();
+
+    /**
+     * Map from each method in {@link #workList} to its pending exceptions,
+     * i.e., the exceptions newly thrown by its statements that have not been
+     * propagated. The pending exceptions of a method are accumulated
+     * until the method is processed, so that they are propagated in batch.
      */
-    private Queue<Entry> workList = new ArrayDeque<>();
+    private Map<CSMethod, Map<Stmt, PendingExceptions>> pending = Maps.newMap();
 
     /**
-     * Work-list entries.
+     * Map from each method that throws uncaught exceptions to the call sites
+     * which call the method, excluding the call sites of OTHER call edges.
+     * This index is built lazily for the methods throwing uncaught exceptions,
+     * and is updated when new call edges to these methods are discovered.
      */
-    private record Entry(CSMethod csMethod, Stmt stmt, Set<CSObj> exceptions) {
+    private Map<CSMethod, List<CSCallSite>> callers = Maps.newMap();
+
+    /**
+     * Counters of exception propagation work.
+     */
+    private long nMethodBatches, nStmtPropagations, nCallerPropagations,
+            nUncaughtExceptions;
+
+    /**
+     * Pending exceptions of a statement. To avoid copying, the set is shared
+     * with its source (e.g., the uncaught exceptions of a callee) until
+     * more exceptions are merged into it.
+     */
+    private static class PendingExceptions {
+
+        private Set<CSObj> exceptions;
+
+        private boolean isCopied = false;
+
+        private PendingExceptions(Set<CSObj> exceptions) {
+            this.exceptions = exceptions;
+        }
     }
 
     @Override
@@ -99,6 +140,12 @@ public class ExceptionAnalysis implements Plugin {
         this.setFactory = () -> new IndexerBitSet<>(csManager.getObjectIndexer(), isSparse);
     }
 
+    @Override
+    public boolean setInterestedVarRegistrar(InterestedVarRegistrar registrar) {
+        this.registrar = registrar;
+        return true;
+    }
+
     /**
      * For the throw statements in the method, analyzes and records all the
      * exception entries that handle the exceptions thrown by the statements.
@@ -121,6 +168,7 @@ public class ExceptionAnalysis implements Plugin {
         if (stmt instanceof Throw throwStmt) {
             Var exceptionRef = throwStmt.getExceptionRef();
             var2Throws.put(exceptionRef, throwStmt);
+            registrar.register(exceptionRef);
         }
     }
 
@@ -139,8 +187,9 @@ public class ExceptionAnalysis implements Plugin {
             Context ctx = csVar.getContext();
             JMethod currentMethod = exceptionRef.getMethod();
             CSMethod currentCSMethod = csManager.getCSMethod(ctx, currentMethod);
-            throwStmts.forEach(throwStmt -> workList.add(
-                    new Entry(currentCSMethod, throwStmt, pts.getObjects())));
+            Set<CSObj> exceptions = pts.getObjects();
+            throwStmts.forEach(throwStmt ->
+                    addPendingExceptions(currentCSMethod, throwStmt, exceptions));
             propagateExceptions();
         }
     }
@@ -157,49 +206,105 @@ public class ExceptionAnalysis implements Plugin {
         if (edge.getKind() != CallKind.OTHER) {
             // currently, don't propagate exceptions along OTHER edges
             CSMethod callee = edge.getCallee();
+            List<CSCallSite> calleeCallers = callers.get(callee);
+            if (calleeCallers != null) {
+                calleeCallers.add(edge.getCallSite());
+            }
             Optional<CSMethodThrowResult> csResult =
                     callee.getResult(getClass().getName());
             csResult.ifPresent(result -> {
-                CSMethod caller = edge.getCallSite().getContainer();
-                Invoke invoke = edge.getCallSite().getCallSite();
-                Set<CSObj> exceptions = result.mayThrowUncaught();
-                workList.add(new Entry(caller, invoke, exceptions));
-                propagateExceptions();
+                Set<CSObj> exceptions = result.getUncaughtExceptions();
+                if (!exceptions.isEmpty()) {
+                    CSMethod caller = edge.getCallSite().getContainer();
+                    Invoke invoke = edge.getCallSite().getCallSite();
+                    addPendingExceptions(caller, invoke, exceptions);
+                    propagateExceptions();
+                }
             });
         }
     }
 
+    /**
+     * Adds exceptions thrown by {@code stmt} in {@code csMethod}
+     * to the pending exceptions.
+     */
+    private void addPendingExceptions(
+            CSMethod csMethod, Stmt stmt, Set<CSObj> exceptions) {
+        Map<Stmt, PendingExceptions> stmtExceptions = pending.get(csMethod);
+        if (stmtExceptions == null) {
+            stmtExceptions = Maps.newHybridMap();
+            pending.put(csMethod, stmtExceptions);
+            workList.add(csMethod);
+        }
+        PendingExceptions pendingExceptions = stmtExceptions.get(stmt);
+        if (pendingExceptions == null) {
+            stmtExceptions.put(stmt, new PendingExceptions(exceptions));
+        } else if (pendingExceptions.exceptions != exceptions) {
+            if (!pendingExceptions.isCopied) {
+                SetEx<CSObj> copy = setFactory.get();
+                copy.addAll(pendingExceptions.exceptions);
+                pendingExceptions.exceptions = copy;
+                pendingExceptions.isCopied = true;
+            }
+            pendingExceptions.exceptions.addAll(exceptions);
+        }
+    }
+
+    /**
+     * @return the call sites that call {@code callee}, excluding
+     * the call sites of OTHER call edges.
+     */
+    private List<CSCallSite> getCallers(CSMethod callee) {
+        return callers.computeIfAbsent(callee, m -> solver.getCallGraph()
+                .edgesInTo(m)
+                // currently, don't propagate exceptions along OTHER edges
+                .filter(edge -> edge.getKind() != CallKind.OTHER)
+                .map(Edge::getCallSite)
+                .collect(Collectors.toCollection(ArrayList::new)));
+    }
+
     /**
      * Propagates exceptions from callees to callers (and callers' caller).
-     * When a statement throws new exceptions, call {@link #analyzeIntraUncaught}
+     * The pending exceptions of a method are processed in batch:
+     * when a statement throws new exceptions, call {@link #analyzeIntraUncaught}
      * to handle the exceptions that can be caught by the containing method.
-     * If there are uncaught exceptions in the method, they will be propagated
-     * to call site (invoke) of the method.
+     * The uncaught exceptions of all statements in the method are merged,
+     * and then propagated to call sites (invoke) of the method.
      */
     private void propagateExceptions() {
         while (!workList.isEmpty()) {
-            Entry entry = workList.poll();
-            CSMethod csMethod = entry.csMethod();
-            Stmt stmt = entry.stmt();
-            Set<CSObj> exceptions = entry.exceptions();
+            CSMethod csMethod = workList.poll();
+            Map<Stmt, PendingExceptions> stmtExceptions = pending.remove(csMethod);
             CSMethodThrowResult result = csMethod.getResult(getClass().getName(),
                     () -> new CSMethodThrowResult(setFactory));
-            Set<CSObj> diff = result.propagate(stmt, exceptions);
-            if (!diff.isEmpty()) {
-                Set<CSObj> uncaught = analyzeIntraUncaught(
-                        stmt, diff, csMethod);
-                if (!uncaught.isEmpty()) {
-                    result.addUncaughtExceptions(uncaught);
-                    solver.getCallGraph()
-                            .edgesInTo(csMethod)
-                            // currently, don't propagate exceptions along OTHER edges
-                            .filter(edge -> edge.getKind() != CallKind.OTHER)
-                            .forEach(edge -> {
-                                CSCallSite callSite = edge.getCallSite();
-                                CSMethod caller = callSite.getContainer();
-                                Invoke invoke = callSite.getCallSite();
-                                workList.add(new Entry(caller, invoke, uncaught));
-                            });
+            ++nMethodBatches;
+            // diffs returned by result.propagate() are fresh sets,
+            // thus they can be merged into (and reused as) newUncaught
+            Set<CSObj> newUncaught = null;
+            for (var entry : stmtExceptions.entrySet()) {
+                ++nStmtPropagations;
+                Stmt stmt = entry.getKey();
+                Set<CSObj> diff = result.propagate(
+                        stmt, entry.getValue().exceptions);
+                if (!diff.isEmpty()) {
+                    Set<CSObj> uncaught = analyzeIntraUncaught(
+                            stmt, diff, csMethod);
+                    if (!uncaught.isEmpty()) {
+                        if (newUncaught == null) {
+                            newUncaught = uncaught;
+                        } else {
+                            newUncaught.addAll(uncaught);
+                        }
+                    }
+                }
+            }
+            if (newUncaught != null) {
+                result.addUncaughtExceptions(newUncaught);
+                nUncaughtExceptions += newUncaught.size();
+                for (CSCallSite callSite : getCallers(csMethod)) {
+                    ++nCallerPropagations;
+                    addPendingExceptions(callSite.getContainer(),
+                            callSite.getCallSite(), newUncaught);
                 }
             }
         }
@@ -223,7 +328,7 @@ public class ExceptionAnalysis implements Plugin {
         if (entries != null) {
             Context ctx = csMethod.getContext();
             for (ExceptionEntry entry : entries) {
-                Set<CSObj> uncaughtExceptions = Sets.newHybridSet();
+                Set<CSObj> uncaughtExceptions = setFactory.get();
                 newExceptions.forEach(newException -> {
                     Obj exObj = newException.getObject();
                     if (typeSystem.isSubtype(entry.catchType(), exObj.getType())) {
@@ -253,6 +358,10 @@ public class ExceptionAnalysis implements Plugin {
             csResult.ifPresent(result::addCSMethodThrowResult);
         }
         solver.getResult().storeResult(getClass().getName(), throwResult);
+        logger.info("Exception propagation: {} method batches, {} stmt" +
+                        " propagations, {} caller propagations, {} uncaught exceptions",
+                nMethodBatches, nStmtPropagations, nCallerPropagations,
+                nUncaughtExceptions);
         clear();
     }
 
@@ -260,5 +369,7 @@ public class ExceptionAnalysis implements Plugin {
         var2Throws = null;
         catchers = null;
         workList = null;
+        pending = null;
+        callers = null;
     }
 }
@@ -36,6 +36,7 @@ import pascal.taie.analysis.pta.core.heap.Descriptor;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.InterestedVarRegistrar;
 import pascal.taie.analysis.pta.plugin.Plugin;
 import pascal.taie.analysis.pta.plugin.util.CSObjs;
 import pascal.taie.analysis.pta.plugin.util.DummyModel;
@@ -150,6 +151,9 @@ public class InvokeDynamicAnalysis implements Plugin {
      */
     private final Map<ClassType, Obj> lookupObjs = Maps.newMap();
 
+    private InterestedVarRegistrar registrar = var -> {
+    };
+
     /**
      * @return true if java.lang.invoke.MethodHandle is used by
      * the program being analyzed, otherwise false.
@@ -178,12 +182,21 @@ public class InvokeDynamicAnalysis implements Plugin {
         lookupModel = new LookupModel(solver);
     }
 
+    @Override
+    public boolean setInterestedVarRegistrar(InterestedVarRegistrar registrar) {
+        this.registrar = registrar;
+        return true;
+    }
+
     @Override
     public void onNewStmt(Stmt stmt, JMethod container) {
         if (stmt instanceof Invoke invoke) {
             if (!invoke.isDynamic()) {
                 methodTypeModel.handleNewInvoke(invoke);
                 lookupModel.handleNewInvoke(invoke);
+                registrar.register(invoke, var ->
+                        methodTypeModel.isRelevantVar(var) ||
+                                lookupModel.isRelevantVar(var));
             }
             InvokeDynamic indy = getInvokeDynamic(invoke);
             if (indy != null) {
@@ -196,8 +209,10 @@ public class InvokeDynamicAnalysis implements Plugin {
                 // the MethodHandle for the invokedynamic,
                 // so that when MethodHandle objects reach these variables,
                 // we can associate them to the invokedynamic.
-                extractMHVars(bsm).forEach(mhVar ->
-                        mhVar2indys.put(mhVar, invoke));
+                extractMHVars(bsm).forEach(mhVar -> {
+                    mhVar2indys.put(mhVar, invoke);
+                    registrar.register(mhVar);
+                });
                 // add call edge to BSM
                 addBSMCallEdge(invoke, bsm);
             }
@@ -384,6 +399,7 @@ public class InvokeDynamicAnalysis implements Plugin {
                 // add invokedynamic call edge
                 Var base = invoke.getInvokeExp().getArg(0);
                 base2Indys.put(base, invoke);
+                registrar.register(base);
                 contexts.forEach(ctx -> {
                     PointsToSet recvObjs = solver.getPointsToSetOf(
                             csManager.getCSVar(ctx, base));
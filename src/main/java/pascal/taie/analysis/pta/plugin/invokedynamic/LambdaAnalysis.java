@@ -36,6 +36,7 @@ import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.heap.MockObj;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.InterestedVarRegistrar;
 import pascal.taie.analysis.pta.plugin.Plugin;
 import pascal.taie.analysis.pta.plugin.util.CSObjs;
 import pascal.taie.analysis.pta.pts.PointsToSet;
@@ -91,6 +92,15 @@ public class LambdaAnalysis implements Plugin {
      */
     private final MultiMap<CSVar, InstanceInvoInfo> invoInfos = Maps.newMultiMap();
 
+    private InterestedVarRegistrar registrar = var -> {
+    };
+
+    @Override
+    public boolean setInterestedVarRegistrar(InterestedVarRegistrar registrar) {
+        this.registrar = registrar;
+        return true;
+    }
+
     @Override
     public void setSolver(Solver solver) {
         this.solver = solver;
@@ -209,6 +219,7 @@ public class LambdaAnalysis implements Plugin {
                 // together with information about the related Lambda invocation.
                 invoInfos.put(csRecvVar,
                         new InstanceInvoInfo(csCallSite, indy, indyCtx));
+                registrar.register(recvVar);
             }
             case REF_invokeStatic -> // targetRef is static method
                     addLambdaCallEdge(csCallSite, null, targetRef, indy, indyCtx);
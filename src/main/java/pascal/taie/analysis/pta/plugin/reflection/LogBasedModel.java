@@ -43,8 +43,8 @@ import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
 import pascal.taie.util.collection.Sets;
 
+import javax.annotation.Nullable;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -66,12 +66,15 @@ class LogBasedModel extends SolverHolder {
             "Array.newInstance"
     );
 
-    private final Map<String, String> fullNames = Map.of(
-            "Class", ClassNames.CLASS,
-            "Constructor", ClassNames.CONSTRUCTOR,
-            "Method", ClassNames.METHOD,
-            "Field", ClassNames.FIELD,
-            "Array", ClassNames.ARRAY
+    /**
+     * Map from reflection classes to their names used by the log.
+     */
+    private final Map<String, String> shortNames = Map.of(
+            ClassNames.CLASS, "Class",
+            ClassNames.CONSTRUCTOR, "Constructor",
+            ClassNames.METHOD, "Method",
+            ClassNames.FIELD, "Field",
+            ClassNames.ARRAY, "Array"
     );
 
     private final MetaObjHelper helper;
@@ -110,14 +113,78 @@ class LogBasedModel extends SolverHolder {
         this.helper = helper;
         logger.info("Using reflection log from {}",
                 Path.of(logPath).toAbsolutePath());
-        LogItem.load(logPath).forEach(this::addItem);
+        ReflectionLog log = ReflectionLog.load(logPath);
+        log.getCallers().forEach(caller -> addItems(log, caller));
     }
 
-    private void addItem(LogItem item) {
-        if (!supportedApis.contains(item.api)) {
+    /**
+     * Adds the items of given caller. The invocations in the caller are
+     * scanned once, and the items of each invocation are looked up
+     * by its line number in the log.
+     */
+    private void addItems(ReflectionLog log, String caller) {
+        // obtain reflective targets
+        Map<LogItem, Object> targets = Maps.newMap();
+        for (LogItem item : log.getItemsOf(caller)) {
+            Object target = getTarget(item);
+            if (target != null) {
+                targets.put(item, target);
+            }
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+        int lastDot = caller.lastIndexOf('.');
+        String callerClass = caller.substring(0, lastDot);
+        String callerMethod = caller.substring(lastDot + 1);
+        JClass clazz = hierarchy.getClass(callerClass);
+        if (clazz == null) {
+            if (missingItems.add(callerClass)) {
+                logger.warn("Reflective caller class '{}' is absent", callerClass);
+            }
             return;
         }
-        // obtain reflective target
+        List<LogItem> unknownLineItems = log.getItems(caller, LogItem.UNKNOWN);
+        Set<LogItem> matchedItems = Sets.newSet();
+        for (JMethod method : clazz.getDeclaredMethods()) {
+            if (!method.getName().equals(callerMethod) || method.isAbstract()) {
+                continue;
+            }
+            method.getIR().invokes(false).forEach(invoke -> {
+                int lineNumber = invoke.getLineNumber();
+                List<LogItem> lineItems = lineNumber != LogItem.UNKNOWN
+                        ? log.getItems(caller, lineNumber) : List.of();
+                if (lineItems.isEmpty() && unknownLineItems.isEmpty()) {
+                    return;
+                }
+                String api = getApi(invoke);
+                if (api != null) {
+                    for (LogItem item : lineItems) {
+                        addMatchedItem(item, targets, api, invoke, matchedItems);
+                    }
+                    for (LogItem item : unknownLineItems) {
+                        addMatchedItem(item, targets, api, invoke, matchedItems);
+                    }
+                }
+            });
+        }
+        targets.keySet().forEach(item -> {
+            if (!matchedItems.contains(item)) {
+                logger.warn("No matched invokes found for {}/{}",
+                        item.caller, item.lineNumber);
+            }
+        });
+    }
+
+    /**
+     * @return the reflective target specified in given item, or {@code null}
+     * if the item is not supported or the target is absent or ignored.
+     */
+    @Nullable
+    private Object getTarget(LogItem item) {
+        if (!supportedApis.contains(item.api)) {
+            return null;
+        }
         Object target = switch (item.api) {
             case "Class.forName", "Class.newInstance" -> hierarchy.getClass(item.target);
             case "Constructor.newInstance", "Method.invoke" -> hierarchy.getMethod(item.target);
@@ -125,82 +192,60 @@ class LogBasedModel extends SolverHolder {
             case "Array.newInstance" -> typeSystem.getType(item.target);
             default -> null;
         };
+        if (target == null) {
+            if (missingItems.add(item.target)) {
+                logger.warn("Reflective target '{}' for {} is not found",
+                        item.target, item.api);
+            }
+            return null;
+        }
         // ignore get/set of fields of primitive types
         if (target instanceof JField field &&
                 field.getType() instanceof PrimitiveType) {
-            return;
-        }
-        // add target specified in the item
-        if (target != null) {
-            List<Invoke> invokes = getMatchedInvokes(item);
-            if (target instanceof JClass jclass) {
-                if (item.api.equals("Class.forName")) {
-                    for (Invoke invoke : invokes) {
-                        forNameTargets.put(invoke, jclass);
-                    }
-                } else {
-                    for (Invoke invoke : invokes) {
-                        classTargets.put(invoke, jclass);
-                    }
-                }
-            } else if (target instanceof ClassMember member) {
-                for (Invoke invoke : invokes) {
-                    memberTargets.put(invoke, member);
-                }
-            } else if (target instanceof ArrayType arrayType) {
-                // Note that currently we only support Array.newInstance(Class,int),
-                // and ignore primitive arrays.
-                if (arrayType.baseType() instanceof ClassType baseClass) {
-                    for (Invoke invoke : invokes) {
-                        arrayTypeTargets.put(invoke, baseClass);
-                    }
-                }
-            }
-            invokes.forEach(invoke -> {
-                loggedInvokes.add(invoke);
-                relevantMethods.add(invoke.getContainer());
-            });
-        } else if (missingItems.add(item.target)) {
-            logger.warn("Reflective target '{}' for {} is not found", item.target, item.api);
+            return null;
         }
+        return target;
     }
 
-    private List<Invoke> getMatchedInvokes(LogItem item) {
-        int lastDot = item.caller.lastIndexOf('.');
-        String callerClass = item.caller.substring(0, lastDot);
-        String callerMethod = item.caller.substring(lastDot + 1);
-        JClass clazz = hierarchy.getClass(callerClass);
-        if (clazz == null) {
-            if (missingItems.add(callerClass)) {
-                logger.warn("Reflective caller class '{}' is absent", callerClass);
-            }
-            return List.of();
-        }
-        List<Invoke> invokes = new ArrayList<>();
-        clazz.getDeclaredMethods()
-                .stream()
-                .filter(m -> m.getName().equals(callerMethod) && !m.isAbstract())
-                .forEach(caller ->
-                        caller.getIR()
-                                .invokes(false)
-                                .filter(invoke -> isMatched(item, invoke))
-                                .forEach(invokes::add));
-        if (invokes.isEmpty()) {
-            logger.warn("No matched invokes found for {}/{}",
-                    item.caller, item.lineNumber);
+    /**
+     * @return the API called by given invocation in the form used by
+     * the log (e.g., "Class.forName"), or {@code null} if the callee
+     * is not declared in a reflection class.
+     */
+    @Nullable
+    private String getApi(Invoke invoke) {
+        JMethod callee = invoke.getMethodRef().resolveNullable();
+        if (callee == null) {
+            return null;
         }
-        return invokes;
+        String apiClass = shortNames.get(callee.getDeclaringClass().getName());
+        return apiClass != null ? apiClass + "." + callee.getName() : null;
     }
 
-    private boolean isMatched(LogItem item, Invoke invoke) {
-        int lastDot = item.api.lastIndexOf('.');
-        String apiClass = fullNames.get(item.api.substring(0, lastDot));
-        String apiMethod = item.api.substring(lastDot + 1);
-        JMethod callee = invoke.getMethodRef().resolve();
-        return callee.getDeclaringClass().getName().equals(apiClass) &&
-                callee.getName().equals(apiMethod) &&
-                (item.lineNumber == LogItem.UNKNOWN ||
-                        item.lineNumber == invoke.getLineNumber());
+    private void addMatchedItem(LogItem item, Map<LogItem, Object> targets,
+                                String api, Invoke invoke, Set<LogItem> matchedItems) {
+        Object target = targets.get(item);
+        if (target == null || !item.api.equals(api)) {
+            return;
+        }
+        matchedItems.add(item);
+        if (target instanceof JClass jclass) {
+            if (item.api.equals("Class.forName")) {
+                forNameTargets.put(invoke, jclass);
+            } else {
+                classTargets.put(invoke, jclass);
+            }
+        } else if (target instanceof ClassMember member) {
+            memberTargets.put(invoke, member);
+        } else if (target instanceof ArrayType arrayType) {
+            // Note that currently we only support Array.newInstance(Class,int),
+            // and ignore primitive arrays.
+            if (arrayType.baseType() instanceof ClassType baseClass) {
+                arrayTypeTargets.put(invoke, baseClass);
+            }
+        }
+        loggedInvokes.add(invoke);
+        relevantMethods.add(invoke.getContainer());
     }
 
     /**
@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Represents log items.
@@ -47,13 +48,18 @@ public class LogItem {
 
     public static final int UNKNOWN = -1;
 
-    private LogItem(String api, String target, String caller, int lineNumber) {
+    LogItem(String api, String target, String caller, int lineNumber) {
         this.api = api;
         this.target = target;
         this.caller = caller;
         this.lineNumber = lineNumber;
     }
 
+    /**
+     * Loads the items from a reflection log in text format.
+     * To load a log only once and look up its items efficiently,
+     * use {@link ReflectionLog#load(String)}.
+     */
     public static List<LogItem> load(String path) {
         try {
             return Files.readAllLines(Path.of(path))
@@ -78,4 +84,29 @@ public class LogItem {
             return List.of();
         }
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LogItem item)) {
+            return false;
+        }
+        return lineNumber == item.lineNumber &&
+                api.equals(item.api) &&
+                target.equals(item.target) &&
+                caller.equals(item.caller);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(api, target, caller, lineNumber);
+    }
+
+    @Override
+    public String toString() {
+        return api + ';' + target + ';' + caller + ';' +
+                (lineNumber == UNKNOWN ? "" : lineNumber);
+    }
 }
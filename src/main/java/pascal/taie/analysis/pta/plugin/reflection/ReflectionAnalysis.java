@@ -33,6 +33,7 @@ import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.InterestedVarRegistrar;
 import pascal.taie.analysis.pta.plugin.Plugin;
 import pascal.taie.analysis.pta.plugin.util.Model;
 import pascal.taie.analysis.pta.plugin.util.Reflections;
@@ -78,6 +79,15 @@ public class ReflectionAnalysis implements Plugin {
 
     private final MultiMap<Var, ReflectiveCallEdge> reflectiveArgs = Maps.newMultiMap();
 
+    private InterestedVarRegistrar registrar = var -> {
+    };
+
+    @Override
+    public boolean setInterestedVarRegistrar(InterestedVarRegistrar registrar) {
+        this.registrar = registrar;
+        return true;
+    }
+
     @Override
     public void setSolver(Solver solver) {
         this.solver = solver;
@@ -114,12 +124,20 @@ public class ReflectionAnalysis implements Plugin {
                 inferenceModel.handleNewInvoke(invoke);
                 reflectiveActionModel.handleNewInvoke(invoke);
                 othersModel.handleNewInvoke(invoke);
+                registrar.register(invoke, this::isRelevantVar);
             }
         } else {
             inferenceModel.handleNewNonInvokeStmt(stmt);
+            registrar.register(stmt, inferenceModel::isRelevantVar);
         }
     }
 
+    private boolean isRelevantVar(Var var) {
+        return inferenceModel.isRelevantVar(var) ||
+                reflectiveActionModel.isRelevantVar(var) ||
+                othersModel.isRelevantVar(var);
+    }
+
     @Override
     public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
         if (inferenceModel.isRelevantVar(csVar.getVar())) {
@@ -158,6 +176,7 @@ public class ReflectionAnalysis implements Plugin {
                 passReflectiveArgs(refEdge, solver.getPointsToSetOf(csArgs));
                 // record args for later-arrive array objects
                 reflectiveArgs.put(args, refEdge);
+                registrar.register(args);
             }
             // pass return value
             Invoke invoke = refEdge.getCallSite().getCallSite();
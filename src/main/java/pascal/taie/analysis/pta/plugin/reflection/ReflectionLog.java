@@ -0,0 +1,290 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.plugin.reflection;
+
+import pascal.taie.util.BinaryFiles;
+import pascal.taie.util.collection.Maps;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static pascal.taie.util.BinaryFiles.readString;
+import static pascal.taie.util.BinaryFiles.readVarInt;
+import static pascal.taie.util.BinaryFiles.writeString;
+import static pascal.taie.util.BinaryFiles.writeVarInt;
+
+/**
+ * Indexed reflection log.
+ * <p>
+ * The items of a log are deduplicated, sorted by caller and line number,
+ * and indexed by caller method and line number, so that the items of
+ * a call site can be looked up in constant time. A log can be given in
+ * the text format of TamiFlex, or in a preprocessed binary format which
+ * is converted from the text format by {@link #main(String[])}, and
+ * is much faster to load for large logs.
+ * <p>
+ * The log most recently loaded by {@link #load(String)} is kept, so that
+ * the frontend (which adds the classes in the log to the world) and
+ * the reflection analysis share the same log instead of parsing it twice.
+ */
+public final class ReflectionLog {
+
+    private static final int MAGIC = 0x5441494C; // "TAIL"
+
+    private static final int VERSION = 2;
+
+    private static final Comparator<LogItem> ORDER =
+            Comparator.<LogItem, String>comparing(item -> item.caller)
+                    .thenComparingInt(item -> item.lineNumber)
+                    .thenComparing(item -> item.api)
+                    .thenComparing(item -> item.target);
+
+    /**
+     * The most recently loaded log and the state of its file.
+     */
+    private static ReflectionLog cached;
+
+    private static String cachedPath;
+
+    private static long cachedLastModified;
+
+    private static long cachedLength;
+
+    /**
+     * All items, sorted by {@link #ORDER}.
+     */
+    private final List<LogItem> items;
+
+    /**
+     * Map from caller to line number to the items at the line.
+     */
+    private final Map<String, Map<Integer, List<LogItem>>> index = Maps.newLinkedHashMap();
+
+    private ReflectionLog(Collection<LogItem> items) {
+        List<LogItem> sorted = new ArrayList<>(new LinkedHashSet<>(items));
+        sorted.sort(ORDER);
+        this.items = Collections.unmodifiableList(sorted);
+        for (LogItem item : sorted) {
+            index.computeIfAbsent(item.caller, unused -> Maps.newHybridMap())
+                    .computeIfAbsent(item.lineNumber, unused -> new ArrayList<>())
+                    .add(item);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Options: <reflection-log> <output-path>");
+            System.out.println("Converts reflection log to the indexed" +
+                    " binary format");
+            return;
+        }
+        File outFile = new File(args[1]);
+        System.out.printf("Converting %s to %s%n", args[0],
+                outFile.getAbsolutePath());
+        ReflectionLog log = load(args[0]);
+        if (log.save(outFile)) {
+            System.out.printf("%d items are written%n", log.size());
+        } else {
+            System.out.println("Failed to convert the log");
+        }
+    }
+
+    /**
+     * Loads the reflection log in given path, which can be either in text
+     * or in binary format. If the file has not changed since the last call,
+     * the log loaded by the last call is returned.
+     * If the log fails to be loaded, the result is empty.
+     */
+    public static synchronized ReflectionLog load(String path) {
+        File file = new File(path).getAbsoluteFile();
+        if (cached != null && file.getPath().equals(cachedPath)
+                && file.lastModified() == cachedLastModified
+                && file.length() == cachedLength) {
+            return cached;
+        }
+        ReflectionLog log;
+        if (isBinaryLog(file)) {
+            log = BinaryFiles.load("reflection log", file,
+                    ReflectionLog::readBinary);
+            if (log == null) {
+                log = new ReflectionLog(List.of());
+            }
+        } else {
+            log = new ReflectionLog(LogItem.load(path));
+        }
+        cached = log;
+        cachedPath = file.getPath();
+        cachedLastModified = file.lastModified();
+        cachedLength = file.length();
+        return log;
+    }
+
+    /**
+     * @return {@code true} if given file is a reflection log in binary format.
+     */
+    public static boolean isBinaryLog(File file) {
+        try (DataInputStream in = new DataInputStream(
+                new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return all items in this log, sorted by caller and line number.
+     */
+    public List<LogItem> getItems() {
+        return items;
+    }
+
+    /**
+     * @return the callers of the items in this log.
+     */
+    public Set<String> getCallers() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    /**
+     * @return all items of given caller.
+     */
+    public List<LogItem> getItemsOf(String caller) {
+        Map<Integer, List<LogItem>> lines = index.get(caller);
+        if (lines == null) {
+            return List.of();
+        }
+        List<LogItem> result = new ArrayList<>();
+        lines.values().forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * @return the items of given caller at given line number.
+     * Items without line numbers are given by {@link LogItem#UNKNOWN}.
+     */
+    public List<LogItem> getItems(String caller, int lineNumber) {
+        Map<Integer, List<LogItem>> lines = index.get(caller);
+        if (lines == null) {
+            return List.of();
+        }
+        List<LogItem> result = lines.get(lineNumber);
+        return result != null ? Collections.unmodifiableList(result) : List.of();
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Saves this log to given file in binary format. Strings are kept in
+     * a table, and items are grouped by caller and line number.
+     *
+     * @return {@code true} if the log is saved successfully.
+     */
+    public boolean save(File file) {
+        return BinaryFiles.save("reflection log", file, this::write);
+    }
+
+    private void write(File file) throws IOException {
+        Map<String, Integer> strings = Maps.newLinkedHashMap();
+        for (LogItem item : items) {
+            strings.putIfAbsent(item.api, strings.size());
+            strings.putIfAbsent(item.target, strings.size());
+            strings.putIfAbsent(item.caller, strings.size());
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            DeflaterOutputStream deflater = new DeflaterOutputStream(out);
+            DataOutputStream body = new DataOutputStream(deflater);
+            writeVarInt(body, strings.size());
+            for (String s : strings.keySet()) {
+                writeString(body, s);
+            }
+            writeVarInt(body, index.size());
+            for (var callerLines : index.entrySet()) {
+                writeVarInt(body, strings.get(callerLines.getKey()));
+                writeVarInt(body, callerLines.getValue().size());
+                for (var lineItems : callerLines.getValue().entrySet()) {
+                    // line numbers may be UNKNOWN (-1), so they are shifted
+                    // to be non-negative
+                    writeVarInt(body, lineItems.getKey() - LogItem.UNKNOWN);
+                    writeVarInt(body, lineItems.getValue().size());
+                    for (LogItem item : lineItems.getValue()) {
+                        writeVarInt(body, strings.get(item.api));
+                        writeVarInt(body, strings.get(item.target));
+                    }
+                }
+            }
+            body.flush();
+            deflater.finish();
+        }
+    }
+
+    private static ReflectionLog readBinary(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unrecognized reflection log format");
+            }
+            DataInputStream body = new DataInputStream(
+                    new BufferedInputStream(new InflaterInputStream(in)));
+            String[] strings = new String[readVarInt(body)];
+            for (int i = 0; i < strings.length; ++i) {
+                strings[i] = readString(body);
+            }
+            List<LogItem> items = new ArrayList<>();
+            int nCallers = readVarInt(body);
+            for (int i = 0; i < nCallers; ++i) {
+                String caller = strings[readVarInt(body)];
+                int nLines = readVarInt(body);
+                for (int j = 0; j < nLines; ++j) {
+                    int lineNumber = readVarInt(body) + LogItem.UNKNOWN;
+                    int nItems = readVarInt(body);
+                    for (int k = 0; k < nItems; ++k) {
+                        String api = strings[readVarInt(body)];
+                        String target = strings[readVarInt(body)];
+                        items.add(new LogItem(api, target, caller, lineNumber));
+                    }
+                }
+            }
+            return new ReflectionLog(items);
+        }
+    }
+}
@@ -53,7 +53,6 @@ import pascal.taie.util.collection.MultiMap;
 import pascal.taie.util.collection.Sets;
 
 import java.util.Collection;
-import java.util.List;
 import java.util.Set;
 import java.util.stream.Stream;
 
@@ -145,25 +144,36 @@ public class SolarModel extends InferenceModel {
         }
         Var result = invoke.getResult();
         if (result != null) {
-            List<PointsToSet> args = getArgs(csVar, pts, invoke, BASE, 0);
-            PointsToSet classObjs = args.get(0);
-            PointsToSet nameObjs = args.get(1);
+            // one of classObjs and nameObjs is the changed part
+            // of csVar, thus only new combinations are processed
+            PointsToSet classObjs = getArg(csVar, pts, invoke, BASE);
+            PointsToSet nameObjs = getArg(csVar, pts, invoke, 0);
+            if (classObjs.isEmpty() || nameObjs.isEmpty()) {
+                return;
+            }
+            // decode the names once instead of for each class
+            int nNames = nameObjs.size();
+            String[] names = new String[nNames];
+            boolean[] isNameUnknown = new boolean[nNames];
+            int i = 0;
+            for (CSObj nameObj : nameObjs) {
+                isNameUnknown[i] = !heapModel.isStringConstant(nameObj.getObject());
+                names[i] = CSObjs.toString(nameObj);
+                ++i;
+            }
             Context context = csVar.getContext();
-            classObjs.forEach(classObj -> {
+            for (CSObj classObj : classObjs) {
                 boolean isClassUnknown = helper.isUnknownMetaObj(classObj);
                 JClass clazz = CSObjs.toClass(classObj);
-                nameObjs.forEach(nameObj -> {
-                    boolean isNameUnknown = !heapModel.isStringConstant(
-                            nameObj.getObject());
-                    String name = CSObjs.toString(nameObj);
-                    if (isClassUnknown || isNameUnknown) { // generate m^t_u, m^u_s, and m^u_u
-                        Obj unknownMethod = helper.getUnknownMethod(invoke, clazz, name);
+                for (int j = 0; j < nNames; ++j) {
+                    if (isClassUnknown || isNameUnknown[j]) { // generate m^t_u, m^u_s, and m^u_u
+                        Obj unknownMethod = helper.getUnknownMethod(invoke, clazz, names[j]);
                         solver.addVarPointsTo(context, result, unknownMethod);
                     } else { // generate m^t_s
-                        classGetMethodKnown(context, invoke, clazz, name);
+                        classGetMethodKnown(context, invoke, clazz, names[j]);
                     }
-                });
-            });
+                }
+            }
         }
     }
 
@@ -199,8 +209,7 @@ public class SolarModel extends InferenceModel {
         if (isIgnored(invoke)) {
             return;
         }
-        List<PointsToSet> args = getArgs(csVar, pts, invoke, BASE, 0);
-        PointsToSet mtdObjs = args.get(0);
+        PointsToSet mtdObjs = getArg(csVar, pts, invoke, BASE);
         // infer m^t_s from m^t_u (obj) with type information at invoke
         if (typeMatcher.hasTypeInfo(invoke)) {
             Context context = csVar.getContext();
@@ -223,7 +232,7 @@ public class SolarModel extends InferenceModel {
         }
         // collect unsound Method.invoke() call
         if (!unsoundInvokes.contains(invoke)) {
-            PointsToSet recvObjs = args.get(1);
+            PointsToSet recvObjs = getArg(csVar, pts, invoke, 0);
             Var o = InvokeUtils.getVar(invoke, 0);
             boolean oIsNull = o.isConst() && o.getConstValue() instanceof NullLiteral;
             for (CSObj mtdObj : mtdObjs) {
@@ -0,0 +1,286 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.plugin.taint;
+
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Compiled form of {@link TaintConfig}, which is compiled once and shared
+ * by all taint analysis handlers.
+ * <p>
+ * Each method that appears in the config is numbered by its position in
+ * the config, and the number maps to a bitmask of its roles (e.g.,
+ * {@link #CALL_SOURCE} and {@link #SINK}). The rules of each kind are
+ * stored in a flat array grouped by method number, and the rules of
+ * a method are located by an offset array. The numbers are local to the
+ * config, as {@link JMethod} has no global index, so a lookup first finds
+ * the number of the method in a hash map, and then reads the roles and
+ * rules of all kinds from the arrays without further map lookups.
+ */
+final class CompiledTaintConfig {
+
+    static final int CALL_SOURCE = 1;
+
+    static final int PARAM_SOURCE = 1 << 1;
+
+    static final int SINK = 1 << 2;
+
+    static final int TRANSFER = 1 << 3;
+
+    static final int SANITIZER = 1 << 4;
+
+    /**
+     * Map from a method in the config to its id, i.e., its position in
+     * {@link #getMethods()}. This is the only hash lookup of the queries.
+     */
+    private final Map<JMethod, Integer> methodIds;
+
+    /**
+     * Roles of each method, indexed by method id.
+     */
+    private final int[] roles;
+
+    private final RuleTable<CallSource> callSources;
+
+    private final RuleTable<ParamSource> paramSources;
+
+    private final RuleTable<Sink> sinks;
+
+    private final RuleTable<TaintTransfer> transfers;
+
+    private final RuleTable<ParamSanitizer> paramSanitizers;
+
+    /**
+     * Map from a source field to the type of taint objects generated from it.
+     */
+    private final Map<JField, Type> fieldSources;
+
+    private final boolean callSiteMode;
+
+    /**
+     * Creates a compiled taint config from its contents. This constructor
+     * is also used to restore the config from {@link TaintConfigCache}.
+     */
+    CompiledTaintConfig(JMethod[] methods,
+                        List<CallSource> callSources,
+                        List<ParamSource> paramSources,
+                        List<Sink> sinks,
+                        List<TaintTransfer> transfers,
+                        List<ParamSanitizer> paramSanitizers,
+                        Map<JField, Type> fieldSources,
+                        boolean callSiteMode) {
+        methodIds = Maps.newMap(methods.length);
+        for (JMethod method : methods) {
+            methodIds.put(method, methodIds.size());
+        }
+        roles = new int[methods.length];
+        this.callSources = buildTable(callSources, CallSource::method, CALL_SOURCE);
+        this.paramSources = buildTable(paramSources, ParamSource::method, PARAM_SOURCE);
+        this.sinks = buildTable(sinks, Sink::method, SINK);
+        this.transfers = buildTable(transfers, TaintTransfer::method, TRANSFER);
+        this.paramSanitizers = buildTable(paramSanitizers, ParamSanitizer::method, SANITIZER);
+        this.fieldSources = Collections.unmodifiableMap(fieldSources);
+        this.callSiteMode = callSiteMode;
+    }
+
+    /**
+     * Compiles given taint config. Duplicate rules are removed.
+     */
+    static CompiledTaintConfig compile(TaintConfig config) {
+        Set<JMethod> methods = Sets.newLinkedSet();
+        Set<CallSource> callSources = Sets.newLinkedSet();
+        Set<ParamSource> paramSources = Sets.newLinkedSet();
+        Map<JField, Type> fieldSources = Maps.newLinkedHashMap();
+        config.sources().forEach(src -> {
+            if (src instanceof CallSource callSrc) {
+                methods.add(callSrc.method());
+                callSources.add(callSrc);
+            } else if (src instanceof ParamSource paramSrc) {
+                methods.add(paramSrc.method());
+                paramSources.add(paramSrc);
+            } else if (src instanceof FieldSource fieldSrc) {
+                fieldSources.put(fieldSrc.field(), fieldSrc.type());
+            }
+        });
+        Set<Sink> sinks = Sets.newLinkedSet();
+        config.sinks().forEach(sink -> {
+            methods.add(sink.method());
+            sinks.add(sink);
+        });
+        Set<TaintTransfer> transfers = Sets.newLinkedSet();
+        config.transfers().forEach(transfer -> {
+            methods.add(transfer.method());
+            transfers.add(transfer);
+        });
+        Set<ParamSanitizer> paramSanitizers = Sets.newLinkedSet();
+        config.paramSanitizers().forEach(sanitizer -> {
+            methods.add(sanitizer.method());
+            paramSanitizers.add(sanitizer);
+        });
+        return new CompiledTaintConfig(methods.toArray(new JMethod[0]),
+                List.copyOf(callSources), List.copyOf(paramSources),
+                List.copyOf(sinks), List.copyOf(transfers),
+                List.copyOf(paramSanitizers), fieldSources,
+                config.callSiteMode());
+    }
+
+    /**
+     * Groups given rules by their method ids (via counting sort, which
+     * keeps the order of the rules of the same method), and marks the
+     * methods of the rules with given role.
+     */
+    private <R> RuleTable<R> buildTable(
+            List<R> rules, Function<R, JMethod> getMethod, int role) {
+        int[] starts = new int[roles.length + 1];
+        int[] ids = new int[rules.size()];
+        for (int i = 0; i < ids.length; ++i) {
+            int id = methodIds.get(getMethod.apply(rules.get(i)));
+            ids[i] = id;
+            roles[id] |= role;
+            ++starts[id + 1];
+        }
+        for (int i = 0; i < roles.length; ++i) {
+            starts[i + 1] += starts[i];
+        }
+        Object[] sorted = new Object[ids.length];
+        int[] next = Arrays.copyOf(starts, roles.length);
+        for (int i = 0; i < ids.length; ++i) {
+            sorted[next[ids[i]]++] = rules.get(i);
+        }
+        return new RuleTable<>(starts, sorted);
+    }
+
+    /**
+     * @return the roles of given method, or 0 if the method is absent
+     * in the config.
+     */
+    int getRoles(JMethod method) {
+        Integer id = methodIds.get(method);
+        return id != null ? roles[id] : 0;
+    }
+
+    boolean hasRole(JMethod method, int role) {
+        return (getRoles(method) & role) != 0;
+    }
+
+    List<CallSource> getCallSources(JMethod method) {
+        return getRules(method, callSources);
+    }
+
+    List<ParamSource> getParamSources(JMethod method) {
+        return getRules(method, paramSources);
+    }
+
+    List<Sink> getSinks(JMethod method) {
+        return getRules(method, sinks);
+    }
+
+    List<TaintTransfer> getTransfers(JMethod method) {
+        return getRules(method, transfers);
+    }
+
+    List<ParamSanitizer> getParamSanitizers(JMethod method) {
+        return getRules(method, paramSanitizers);
+    }
+
+    private <R> List<R> getRules(JMethod method, RuleTable<R> table) {
+        Integer id = methodIds.get(method);
+        return id != null ? table.get(id) : List.of();
+    }
+
+    List<CallSource> getCallSources() {
+        return callSources.getAll();
+    }
+
+    List<ParamSource> getParamSources() {
+        return paramSources.getAll();
+    }
+
+    List<Sink> getSinks() {
+        return sinks.getAll();
+    }
+
+    List<TaintTransfer> getTransfers() {
+        return transfers.getAll();
+    }
+
+    List<ParamSanitizer> getParamSanitizers() {
+        return paramSanitizers.getAll();
+    }
+
+    /**
+     * @return all methods in the config, ordered by their ids.
+     */
+    List<JMethod> getMethods() {
+        JMethod[] methods = new JMethod[roles.length];
+        methodIds.forEach((m, id) -> methods[id] = m);
+        return Arrays.asList(methods);
+    }
+
+    Map<JField, Type> getFieldSources() {
+        return fieldSources;
+    }
+
+    boolean callSiteMode() {
+        return callSiteMode;
+    }
+
+    @Override
+    public String toString() {
+        List<Source> sources = new ArrayList<>(getCallSources());
+        sources.addAll(getParamSources());
+        fieldSources.forEach((f, t) -> sources.add(new FieldSource(f, t)));
+        return new TaintConfig(sources, getSinks(), getTransfers(),
+                getParamSanitizers(), callSiteMode).toString();
+    }
+
+    /**
+     * Rules of a kind, grouped by method ids. The rules of the method
+     * with id {@code i} are {@code rules[starts[i]..starts[i+1])}.
+     */
+    private record RuleTable<R>(int[] starts, Object[] rules) {
+
+        @SuppressWarnings("unchecked")
+        private List<R> get(int id) {
+            int start = starts[id], end = starts[id + 1];
+            return start == end ? List.of() : (List<R>) Collections.unmodifiableList(
+                    Arrays.asList(rules).subList(start, end));
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<R> getAll() {
+            return (List<R>) Collections.unmodifiableList(Arrays.asList(rules));
+        }
+    }
+}
@@ -29,5 +29,5 @@ import pascal.taie.analysis.pta.core.solver.Solver;
  */
 record HandlerContext(Solver solver,
                       TaintManager manager,
-                      TaintConfig config) {
+                      CompiledTaintConfig config) {
 }
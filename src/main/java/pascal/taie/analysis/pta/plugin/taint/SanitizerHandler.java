@@ -30,9 +30,8 @@ import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.language.classes.JMethod;
-import pascal.taie.util.collection.Maps;
-import pascal.taie.util.collection.MultiMap;
 
+import java.util.List;
 import java.util.function.Predicate;
 
 /**
@@ -40,7 +39,7 @@ import java.util.function.Predicate;
  */
 class SanitizerHandler extends OnFlyHandler {
 
-    private final MultiMap<JMethod, ParamSanitizer> paramSanitizers = Maps.newMultiMap();
+    private final CompiledTaintConfig config;
 
     private final CSManager csManager;
 
@@ -53,8 +52,7 @@ class SanitizerHandler extends OnFlyHandler {
         super(context);
         csManager = solver.getCSManager();
         taintFilter = o -> !context.manager().isTaint(o.getObject());
-        context.config().paramSanitizers()
-                .forEach(s -> this.paramSanitizers.put(s.method(), s));
+        config = context.config();
     }
 
     /**
@@ -64,10 +62,11 @@ class SanitizerHandler extends OnFlyHandler {
     @Override
     public void onNewCSMethod(CSMethod csMethod) {
         JMethod method = csMethod.getMethod();
-        if (paramSanitizers.containsKey(method)) {
+        List<ParamSanitizer> sanitizers = config.getParamSanitizers(method);
+        if (!sanitizers.isEmpty()) {
             Context context = csMethod.getContext();
             IR ir = method.getIR();
-            paramSanitizers.get(method).forEach(sanitizer -> {
+            sanitizers.forEach(sanitizer -> {
                 int index = sanitizer.index();
                 Var param = ir.getParam(index);
                 CSVar csParam = csManager.getCSVar(context, param);
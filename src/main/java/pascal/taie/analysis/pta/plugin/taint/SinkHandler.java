@@ -28,31 +28,26 @@ import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.language.classes.JMethod;
-import pascal.taie.util.collection.MultiMap;
-import pascal.taie.util.collection.MultiMapCollector;
 import pascal.taie.util.collection.Sets;
 
-import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Handles sinks in taint analysis.
  */
 class SinkHandler extends Handler {
 
-    private final List<Sink> sinks;
+    private final CompiledTaintConfig config;
 
     SinkHandler(HandlerContext context) {
         super(context);
-        sinks = context.config().sinks();
+        config = context.config();
     }
 
     Set<TaintFlow> collectTaintFlows() {
         PointerAnalysisResult result = solver.getResult();
         Set<TaintFlow> taintFlows = Sets.newOrderedSet();
-        sinks.forEach(sink -> {
+        config.getSinks().forEach(sink -> {
             int i = sink.index();
             result.getCallGraph()
                     .edgesInTo(sink.method())
@@ -71,8 +66,6 @@ class SinkHandler extends Handler {
                     });
         });
         if (callSiteMode) {
-            MultiMap<JMethod, Sink> sinkMap = sinks.stream()
-                    .collect(MultiMapCollector.get(Sink::method, s -> s));
             // scan all reachable call sites to search sink calls
             result.getCallGraph()
                     .reachableMethods()
@@ -83,7 +76,7 @@ class SinkHandler extends Handler {
                         if (callee == null) {
                             return;
                         }
-                        for (Sink sink : sinkMap.get(callee)) {
+                        for (Sink sink : config.getSinks(callee)) {
                             int i = sink.index();
                             Var arg = InvokeUtils.getVar(callSite, i);
                             SinkPoint sinkPoint = new SinkPoint(callSite, i);
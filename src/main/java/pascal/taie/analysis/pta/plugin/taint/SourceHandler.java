@@ -40,6 +40,7 @@ import pascal.taie.language.type.Type;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -48,10 +49,7 @@ import java.util.Set;
  */
 class SourceHandler extends OnFlyHandler {
 
-    /**
-     * Map from a source method to its result sources.
-     */
-    private final MultiMap<JMethod, CallSource> callSources = Maps.newMultiMap();
+    private final CompiledTaintConfig config;
 
     /**
      * Map from a method to {@link Invoke} statements in the method
@@ -60,11 +58,6 @@ class SourceHandler extends OnFlyHandler {
      */
     private final MultiMap<JMethod, Invoke> callSiteSources = Maps.newMultiMap();
 
-    /**
-     * Map from a source method to its parameter sources.
-     */
-    private final MultiMap<JMethod, ParamSource> paramSources = Maps.newMultiMap();
-
     /**
      * Whether this handler needs to handle field sources.
      */
@@ -73,7 +66,7 @@ class SourceHandler extends OnFlyHandler {
     /**
      * Map from a source field taint objects generated from it.
      */
-    private final Map<JField, Type> fieldSources = Maps.newMap();
+    private final Map<JField, Type> fieldSources;
 
     /**
      * Maps from a method to {@link LoadField} statements in the method
@@ -83,15 +76,8 @@ class SourceHandler extends OnFlyHandler {
 
     SourceHandler(HandlerContext context) {
         super(context);
-        context.config().sources().forEach(src -> {
-            if (src instanceof CallSource callSrc) {
-                callSources.put(callSrc.method(), callSrc);
-            } else if (src instanceof ParamSource paramSrc) {
-                paramSources.put(paramSrc.method(), paramSrc);
-            } else if (src instanceof FieldSource fieldSrc) {
-                fieldSources.put(fieldSrc.field(), fieldSrc.type());
-            }
-        });
+        config = context.config();
+        fieldSources = config.getFieldSources();
         handleFieldSources = !fieldSources.isEmpty();
     }
 
@@ -117,7 +103,7 @@ class SourceHandler extends OnFlyHandler {
         if (edge.getKind() == CallKind.OTHER) {
             return;
         }
-        Set<CallSource> sources = callSources.get(edge.getCallee().getMethod());
+        List<CallSource> sources = config.getCallSources(edge.getCallee().getMethod());
         if (!sources.isEmpty()) {
             Context context = edge.getCallSite().getContext();
             Invoke callSite = edge.getCallSite().getCallSite();
@@ -144,7 +130,7 @@ class SourceHandler extends OnFlyHandler {
             // If method references of any {@link Invoke}s are resolved to
             // call source method, then records the {@link Invoke} statements.
             JMethod callee = invoke.getMethodRef().resolveNullable();
-            if (callSources.containsKey(callee)) {
+            if (config.hasRole(callee, CompiledTaintConfig.CALL_SOURCE)) {
                 callSiteSources.put(container, invoke);
             }
         }
@@ -163,10 +149,11 @@ class SourceHandler extends OnFlyHandler {
 
     private void handleParamSource(CSMethod csMethod) {
         JMethod method = csMethod.getMethod();
-        if (paramSources.containsKey(method)) {
+        List<ParamSource> sources = config.getParamSources(method);
+        if (!sources.isEmpty()) {
             Context context = csMethod.getContext();
             IR ir = method.getIR();
-            paramSources.get(method).forEach(source -> {
+            sources.forEach(source -> {
                 int index = source.index();
                 Var param = ir.getParam(index);
                 SourcePoint sourcePoint = new ParamSourcePoint(method, index);
@@ -208,7 +195,7 @@ class SourceHandler extends OnFlyHandler {
             Context context = csMethod.getContext();
             callSites.forEach(callSite -> {
                 JMethod callee = callSite.getMethodRef().resolve();
-                callSources.get(callee).forEach(source ->
+                config.getCallSources(callee).forEach(source ->
                         processCallSource(context, callSite, source));
             });
         }
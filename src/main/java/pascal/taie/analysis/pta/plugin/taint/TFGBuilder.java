@@ -38,7 +38,7 @@ import pascal.taie.ir.exp.Var;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.Sets;
-import pascal.taie.util.graph.Reachability;
+import pascal.taie.util.graph.IndexedReachability;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -201,11 +201,10 @@ class TFGBuilder {
         TaintFlowGraph tfg = new TaintFlowGraph(sourceNodes, sinkNodes);
         Set<Node> nodesReachSink = null;
         if (onlyReachSink) {
-            nodesReachSink = Sets.newHybridSet();
-            Reachability<Node> reachability = new Reachability<>(complete);
-            for (Node sink : sinkNodes) {
-                nodesReachSink.addAll(reachability.nodesCanReach(sink));
-            }
+            // all sinks are queried by one backward traversal
+            IndexedReachability<Node> reachability =
+                    new IndexedReachability<>(complete, ofg, 0);
+            nodesReachSink = reachability.nodesCanReach(sinkNodes);
         }
         Set<Node> visitedNodes = Sets.newSet();
         Deque<Node> workList = new ArrayDeque<>(complete.getSourceNodes());
@@ -31,13 +31,23 @@ import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.analysis.pta.core.solver.Solver;
 import pascal.taie.analysis.pta.plugin.CompositePlugin;
+import pascal.taie.analysis.pta.plugin.InterestedVarRegistrar;
 import pascal.taie.analysis.pta.plugin.Plugin;
 import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
 import pascal.taie.util.Timer;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class TaintAnalysis implements Plugin {
@@ -46,31 +56,142 @@ public class TaintAnalysis implements Plugin {
 
     private static final String TAINT_FLOW_GRAPH_FILE = "taint-flow-graph.dot";
 
+    /**
+     * Key of the result which maps each rule pack (given by option
+     * taint-packs) to the taint flows detected by the pack.
+     */
+    public static final String PACK_FLOWS_KEY = "taint-pack-flows";
+
     private Solver solver;
 
-    private TaintManager manager;
+    /**
+     * Rule packs of this analysis. The config given by option taint-config
+     * (if any) forms the pack without id.
+     */
+    private final List<Pack> packs = new ArrayList<>();
 
     private Plugin onFlyHandler;
 
-    private SinkHandler sinkHandler;
+    private InterestedVarRegistrar registrar;
+
+    private record Pack(@Nullable String id, TaintManager manager,
+                        SinkHandler sinkHandler) {
+    }
+
+    /**
+     * @return {@code true} if taint analysis is enabled by given options.
+     */
+    public static boolean isEnabled(AnalysisOptions options) {
+        return options.getString("taint-config") != null ||
+                !getPackPaths(options).isEmpty();
+    }
+
+    /**
+     * @return the paths of rule packs given by option taint-packs.
+     * @throws ConfigException if the option is not a list of paths.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<String> getPackPaths(AnalysisOptions options) {
+        Object value = options.get("taint-packs");
+        if (!(value instanceof List<?> paths) ||
+                !paths.stream().allMatch(String.class::isInstance)) {
+            throw new ConfigException("taint-packs expects a list of paths" +
+                    ", e.g., taint-packs:[a.yml,b.yml], but given: " + value);
+        }
+        return (List<String>) paths;
+    }
+
+    /**
+     * Accepts the registrar, which is passed to the on-the-fly handlers
+     * when they are created in {@link #setSolver(Solver)}.
+     */
+    @Override
+    public boolean setInterestedVarRegistrar(InterestedVarRegistrar registrar) {
+        this.registrar = registrar;
+        return true;
+    }
 
     @Override
     public void setSolver(Solver solver) {
         this.solver = solver;
-        manager = new TaintManager(solver.getHeapModel());
-        TaintConfig config = TaintConfig.loadConfig(
-                solver.getOptions().getString("taint-config"),
-                solver.getHierarchy(),
-                solver.getTypeSystem());
-        logger.info(config);
-        HandlerContext context = new HandlerContext(solver, manager, config);
         CompositePlugin onFlyHandler = new CompositePlugin();
+        String configPath = solver.getOptions().getString("taint-config");
+        if (configPath != null) {
+            addPack(null, configPath, onFlyHandler);
+        }
+        // all rule packs are tracked by the same solver run, and each pack
+        // has its own handlers which only see the taint objects of the pack
+        Set<String> packIds = Sets.newSet();
+        for (String packPath : getPackPaths(solver.getOptions())) {
+            String packId = getPackId(packPath);
+            if (!packIds.add(packId)) {
+                throw new ConfigException("Duplicate taint pack " + packId
+                        + " given by " + packPath);
+            }
+            addPack(packId, packPath, onFlyHandler);
+        }
+        if (registrar != null &&
+                !onFlyHandler.setInterestedVarRegistrar(registrar)) {
+            // all on-the-fly handlers handling new points-to sets
+            // are expected to accept the registrar
+            throw new AnalysisException(
+                    "Taint handlers do not accept interested variable registrar");
+        }
+        this.onFlyHandler = onFlyHandler;
+    }
+
+    private void addPack(@Nullable String packId, String path,
+                         CompositePlugin onFlyHandler) {
+        TaintManager manager = new TaintManager(solver.getHeapModel(), packId);
+        if (packId != null) {
+            logger.info("Loading taint pack {}", packId);
+        }
+        CompiledTaintConfig config = loadConfig(solver, path);
+        HandlerContext context = new HandlerContext(solver, manager, config);
         onFlyHandler.addPlugin(
                 new SourceHandler(context),
                 new TransferHandler(context),
                 new SanitizerHandler(context));
-        this.onFlyHandler = onFlyHandler;
-        sinkHandler = new SinkHandler(context);
+        packs.add(new Pack(packId, manager, new SinkHandler(context)));
+    }
+
+    /**
+     * @return the id of the rule pack given by the path, i.e., the name
+     * of the config file (without extension) or directory.
+     */
+    private static String getPackId(String path) {
+        String name = new File(path).getName();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    /**
+     * Loads and compiles the taint config. If option taint-config-cache
+     * is enabled, then the compiled config is reused from (or saved to)
+     * the cache.
+     */
+    private static CompiledTaintConfig loadConfig(Solver solver, String path) {
+        boolean useCache = solver.getOptions().getBoolean("taint-config-cache");
+        int fingerprint = 0;
+        File cacheFile = null;
+        if (useCache) {
+            fingerprint = TaintConfigCache.fingerprint(path);
+            cacheFile = TaintConfigCache.getCacheFile(fingerprint);
+            CompiledTaintConfig config = TaintConfigCache.load(cacheFile,
+                    fingerprint, solver.getHierarchy(), solver.getTypeSystem());
+            if (config != null) {
+                logger.info(config);
+                return config;
+            }
+        }
+        CompiledTaintConfig config = CompiledTaintConfig.compile(
+                TaintConfig.loadConfig(path,
+                        solver.getHierarchy(), solver.getTypeSystem()));
+        logger.info(config);
+        if (useCache) {
+            TaintConfigCache.save(config, cacheFile, fingerprint);
+        }
+        return config;
     }
 
     @Override
@@ -95,13 +216,39 @@ public class TaintAnalysis implements Plugin {
 
     @Override
     public void onFinish() {
-        Set<TaintFlow> taintFlows = sinkHandler.collectTaintFlows();
+        Set<TaintFlow> taintFlows = Sets.newOrderedSet();
+        Map<String, Set<TaintFlow>> packFlows = Maps.newLinkedHashMap();
+        boolean dumpPackTFG = solver.getOptions().getBoolean("taint-pack-tfg");
+        File outputDir = World.get().getOptions().getOutputDir();
+        for (Pack pack : packs) {
+            Set<TaintFlow> flows = pack.sinkHandler().collectTaintFlows();
+            taintFlows.addAll(flows);
+            if (pack.id() == null) {
+                dumpTFG(flows, pack.manager(),
+                        new File(outputDir, TAINT_FLOW_GRAPH_FILE));
+            } else {
+                packFlows.put(pack.id(), flows);
+                logger.info("Detected {} taint flow(s) of pack {}:",
+                        flows.size(), pack.id());
+                flows.forEach(logger::info);
+                if (dumpPackTFG) {
+                    dumpTFG(flows, pack.manager(), new File(outputDir,
+                            "taint-flow-graph-" + pack.id() + ".dot"));
+                }
+            }
+        }
         solver.getResult().storeResult(getClass().getName(), taintFlows);
+        if (!packFlows.isEmpty()) {
+            solver.getResult().storeResult(PACK_FLOWS_KEY, packFlows);
+        }
         logger.info("Detected {} taint flow(s):", taintFlows.size());
         taintFlows.forEach(logger::info);
+    }
+
+    private void dumpTFG(Set<TaintFlow> taintFlows, TaintManager manager, File output) {
         Timer.runAndCount(() -> new TFGDumper().dump(
                         new TFGBuilder(solver.getResult(), taintFlows, manager).build(),
-                        new File(World.get().getOptions().getOutputDir(), TAINT_FLOW_GRAPH_FILE)),
+                        output),
                 "TFGDumper");
     }
 }
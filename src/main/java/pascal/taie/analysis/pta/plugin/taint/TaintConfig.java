@@ -43,7 +43,7 @@ import pascal.taie.language.type.ArrayType;
 import pascal.taie.language.type.ClassType;
 import pascal.taie.language.type.Type;
 import pascal.taie.language.type.TypeSystem;
-import pascal.taie.util.collection.Lists;
+import pascal.taie.util.collection.Sets;
 
 import javax.annotation.Nullable;
 import java.io.File;
@@ -53,6 +53,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static pascal.taie.analysis.pta.plugin.taint.TransferPoint.ARRAY_SUFFIX;
@@ -68,12 +69,6 @@ record TaintConfig(List<Source> sources,
 
     private static final Logger logger = LogManager.getLogger(TaintConfig.class);
 
-    /**
-     * An empty taint config.
-     */
-    private static final TaintConfig EMPTY = new TaintConfig(
-            List.of(), List.of(), List.of(), List.of(), false);
-
     /**
      * Loads a taint analysis configuration from given path.
      * If the path is a file, then loads config from the file;
@@ -93,19 +88,36 @@ record TaintConfig(List<Source> sources,
         module.addDeserializer(TaintConfig.class,
                 new Deserializer(hierarchy, typeSystem));
         mapper.registerModule(module);
+        logger.info("Loading taint config from {}",
+                new File(path).getAbsolutePath());
+        List<File> files = getConfigFiles(path);
+        if (files.size() == 1) {
+            return loadSingle(mapper, files.get(0));
+        } else {
+            // merges all configs at once, instead of merging them
+            // pairwise, which is quadratic in the number of rules
+            return merge(files.stream()
+                    .map(f -> loadSingle(mapper, f))
+                    .toList());
+        }
+    }
+
+    /**
+     * @return the config files given by the path. If the path is a file,
+     * then returns the file; if the path is a directory, then returns all
+     * YAML files in the directory, sorted by their paths.
+     * @throws ConfigException if the path is neither a file nor a directory
+     */
+    static List<File> getConfigFiles(String path) {
         File file = new File(path);
-        logger.info("Loading taint config from {}", file.getAbsolutePath());
         if (file.isFile()) {
-            return loadSingle(mapper, file);
+            return List.of(file);
         } else if (file.isDirectory()) {
-            // if file is a directory, then load all YAML files
-            // in the directory and merge them as the result
-            TaintConfig[] result = new TaintConfig[]{ EMPTY };
             try (Stream<Path> paths = Files.walk(file.toPath())) {
-                paths.filter(TaintConfig::isYAML)
-                        .map(p -> loadSingle(mapper, p.toFile()))
-                        .forEach(tc -> result[0] = result[0].mergeWith(tc));
-                return result[0];
+                return paths.filter(TaintConfig::isYAML)
+                        .sorted()
+                        .map(Path::toFile)
+                        .toList();
             } catch (IOException e) {
                 throw new ConfigException("Failed to load taint config from " + file, e);
             }
@@ -131,16 +143,25 @@ record TaintConfig(List<Source> sources,
     }
 
     /**
-     * Merges this taint config with other taint config.
+     * Merges given taint configs.
      * @return a new merged taint config.
      */
-    TaintConfig mergeWith(TaintConfig other) {
-        return new TaintConfig(
-                Lists.concatDistinct(sources, other.sources),
-                Lists.concatDistinct(sinks, other.sinks),
-                Lists.concatDistinct(transfers, other.transfers),
-                Lists.concatDistinct(paramSanitizers, other.paramSanitizers),
-                callSiteMode || other.callSiteMode);
+    static TaintConfig merge(List<TaintConfig> configs) {
+        Set<Source> sources = Sets.newLinkedSet();
+        Set<Sink> sinks = Sets.newLinkedSet();
+        Set<TaintTransfer> transfers = Sets.newLinkedSet();
+        Set<ParamSanitizer> paramSanitizers = Sets.newLinkedSet();
+        boolean callSiteMode = false;
+        for (TaintConfig config : configs) {
+            sources.addAll(config.sources);
+            sinks.addAll(config.sinks);
+            transfers.addAll(config.transfers);
+            paramSanitizers.addAll(config.paramSanitizers);
+            callSiteMode |= config.callSiteMode;
+        }
+        return new TaintConfig(List.copyOf(sources), List.copyOf(sinks),
+                List.copyOf(transfers), List.copyOf(paramSanitizers),
+                callSiteMode);
     }
 
     @Override
@@ -0,0 +1,376 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.plugin.taint;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
+import pascal.taie.config.ConfigException;
+import pascal.taie.frontend.cache.CachedWorldBuilder;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.BinaryFiles;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static pascal.taie.util.BinaryFiles.readString;
+import static pascal.taie.util.BinaryFiles.readVarInt;
+import static pascal.taie.util.BinaryFiles.writeString;
+import static pascal.taie.util.BinaryFiles.writeVarInt;
+
+/**
+ * Saves and loads {@link CompiledTaintConfig} in a compact binary format,
+ * so that later runs can skip parsing and resolving the YAML files.
+ * <p>
+ * A cache file is keyed by the contents of the YAML files and the program
+ * (including the files on the class paths), as the rules of the methods
+ * and fields absent in the program are dropped when the config is loaded.
+ */
+final class TaintConfigCache {
+
+    private static final Logger logger = LogManager.getLogger(TaintConfigCache.class);
+
+    private static final int MAGIC = 0x54414954; // "TAIT"
+
+    private static final int VERSION = 2;
+
+    private TaintConfigCache() {
+    }
+
+    /**
+     * Computes the fingerprint of the config given by the path, which
+     * combines the hash of the program (see
+     * {@link CachedWorldBuilder#getProgramHash}) with the hash of paths
+     * and contents of the config files.
+     *
+     * @throws ConfigException if failed to read the config files
+     */
+    static int fingerprint(String path) {
+        int hash = CachedWorldBuilder.getProgramHash(World.get().getOptions());
+        for (File file : TaintConfig.getConfigFiles(path)) {
+            try {
+                hash = 31 * hash + file.getPath().hashCode();
+                hash = 31 * hash + Arrays.hashCode(Files.readAllBytes(file.toPath()));
+            } catch (IOException e) {
+                throw new ConfigException("Failed to read taint config " + file, e);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * @return the cache file for given fingerprint.
+     */
+    static File getCacheFile(int fingerprint) {
+        return BinaryFiles.getCacheFile("taint-config-" +
+                Integer.toHexString(fingerprint) + ".bin");
+    }
+
+    /**
+     * Saves given compiled config to given file. Concurrent runs never
+     * observe a partially written cache, see
+     * {@link BinaryFiles#save(String, File, BinaryFiles.ContentWriter)}.
+     *
+     * @return {@code true} if the config is saved successfully.
+     */
+    static boolean save(CompiledTaintConfig config, File file, int fingerprint) {
+        return BinaryFiles.save("compiled taint config", file,
+                tmp -> new Writer(config).write(tmp, fingerprint));
+    }
+
+    /**
+     * Loads compiled config from given cache file.
+     *
+     * @return the loaded config, or {@code null} if the cache does not
+     * exist, was saved for different config files or program,
+     * or fails to be loaded.
+     */
+    @Nullable
+    static CompiledTaintConfig load(File file, int fingerprint,
+                                    ClassHierarchy hierarchy, TypeSystem typeSystem) {
+        return BinaryFiles.load("compiled taint config", file,
+                f -> new Reader(hierarchy, typeSystem).read(f, fingerprint));
+    }
+
+    /**
+     * Index may be {@link InvokeUtils#BASE} or {@link InvokeUtils#RESULT},
+     * so it is shifted to be non-negative before being written.
+     */
+    private static void writeIndex(DataOutputStream out, int index)
+            throws IOException {
+        writeVarInt(out, index - InvokeUtils.RESULT);
+    }
+
+    private static int readIndex(DataInputStream in) throws IOException {
+        return readVarInt(in) + InvokeUtils.RESULT;
+    }
+
+    /**
+     * Writes a compiled config. The body is encoded first, which collects
+     * the tables of strings and fields, and then the tables and the body
+     * are written to the file.
+     */
+    private static class Writer {
+
+        private final CompiledTaintConfig config;
+
+        private final Map<String, Integer> strings = Maps.newLinkedHashMap();
+
+        private final Map<JMethod, Integer> methods = Maps.newLinkedHashMap();
+
+        private final Map<JField, Integer> fields = Maps.newLinkedHashMap();
+
+        private Writer(CompiledTaintConfig config) {
+            this.config = config;
+            // keeps the method ids of the compiled config
+            config.getMethods().forEach(m -> methods.put(m, methods.size()));
+        }
+
+        private void write(File file, int fingerprint) throws IOException {
+            ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(1 << 16);
+            DataOutputStream body = new DataOutputStream(bodyBytes);
+            writeBody(body);
+            body.flush();
+            List<Integer> methodSigs = new ArrayList<>(methods.size());
+            methods.keySet().forEach(m -> methodSigs.add(
+                    stringId(m.getSignature())));
+            List<Integer> fieldSigs = new ArrayList<>(fields.size());
+            fields.keySet().forEach(f -> fieldSigs.add(
+                    stringId(f.getSignature())));
+            try (DataOutputStream out = new DataOutputStream(
+                    new DeflaterOutputStream(new BufferedOutputStream(
+                            new FileOutputStream(file))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(fingerprint);
+                writeVarInt(out, strings.size());
+                for (String s : strings.keySet()) {
+                    writeString(out, s);
+                }
+                writeVarInt(out, methodSigs.size());
+                for (int sig : methodSigs) {
+                    writeVarInt(out, sig);
+                }
+                writeVarInt(out, fieldSigs.size());
+                for (int sig : fieldSigs) {
+                    writeVarInt(out, sig);
+                }
+                bodyBytes.writeTo(out);
+            }
+        }
+
+        private void writeBody(DataOutputStream out) throws IOException {
+            out.writeBoolean(config.callSiteMode());
+            List<CallSource> callSources = config.getCallSources();
+            writeVarInt(out, callSources.size());
+            for (CallSource src : callSources) {
+                writeVarInt(out, methods.get(src.method()));
+                writeIndex(out, src.index());
+                writeType(out, src.type());
+            }
+            List<ParamSource> paramSources = config.getParamSources();
+            writeVarInt(out, paramSources.size());
+            for (ParamSource src : paramSources) {
+                writeVarInt(out, methods.get(src.method()));
+                writeIndex(out, src.index());
+                writeType(out, src.type());
+            }
+            Map<JField, Type> fieldSources = config.getFieldSources();
+            writeVarInt(out, fieldSources.size());
+            for (var e : fieldSources.entrySet()) {
+                writeVarInt(out, fieldId(e.getKey()));
+                writeType(out, e.getValue());
+            }
+            List<Sink> sinks = config.getSinks();
+            writeVarInt(out, sinks.size());
+            for (Sink sink : sinks) {
+                writeVarInt(out, methods.get(sink.method()));
+                writeIndex(out, sink.index());
+            }
+            List<TaintTransfer> transfers = config.getTransfers();
+            writeVarInt(out, transfers.size());
+            for (TaintTransfer transfer : transfers) {
+                writeVarInt(out, methods.get(transfer.method()));
+                writeTransferPoint(out, transfer.from());
+                writeTransferPoint(out, transfer.to());
+                writeType(out, transfer.type());
+            }
+            List<ParamSanitizer> sanitizers = config.getParamSanitizers();
+            writeVarInt(out, sanitizers.size());
+            for (ParamSanitizer sanitizer : sanitizers) {
+                writeVarInt(out, methods.get(sanitizer.method()));
+                writeIndex(out, sanitizer.index());
+            }
+        }
+
+        private void writeTransferPoint(DataOutputStream out, TransferPoint point)
+                throws IOException {
+            out.writeByte(point.kind().ordinal());
+            writeIndex(out, point.index());
+            if (point.kind() == TransferPoint.Kind.FIELD) {
+                writeVarInt(out, fieldId(point.field()));
+            }
+        }
+
+        private void writeType(DataOutputStream out, Type type) throws IOException {
+            writeVarInt(out, stringId(type.getName()));
+        }
+
+        private int stringId(String s) {
+            return strings.computeIfAbsent(s, unused -> strings.size());
+        }
+
+        private int fieldId(JField field) {
+            return fields.computeIfAbsent(field, unused -> fields.size());
+        }
+    }
+
+    private static class Reader {
+
+        private final ClassHierarchy hierarchy;
+
+        private final TypeSystem typeSystem;
+
+        private String[] strings;
+
+        private JMethod[] methods;
+
+        private JField[] fields;
+
+        private final Map<String, Type> types = Maps.newMap();
+
+        private Reader(ClassHierarchy hierarchy, TypeSystem typeSystem) {
+            this.hierarchy = hierarchy;
+            this.typeSystem = typeSystem;
+        }
+
+        @Nullable
+        private CompiledTaintConfig read(File file, int fingerprint)
+                throws IOException {
+            try (DataInputStream in = new DataInputStream(
+                    new InflaterInputStream(new BufferedInputStream(
+                            new FileInputStream(file))))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new IOException("Unrecognized taint config cache format");
+                }
+                if (in.readInt() != fingerprint) {
+                    logger.warn("Compiled taint config {} was saved for" +
+                            " different config files or program, ignore it", file);
+                    return null;
+                }
+                strings = new String[readVarInt(in)];
+                for (int i = 0; i < strings.length; ++i) {
+                    strings[i] = readString(in);
+                }
+                methods = new JMethod[readVarInt(in)];
+                for (int i = 0; i < methods.length; ++i) {
+                    String sig = strings[readVarInt(in)];
+                    methods[i] = Objects.requireNonNull(
+                            hierarchy.getMethod(sig), "Missing method " + sig);
+                }
+                fields = new JField[readVarInt(in)];
+                for (int i = 0; i < fields.length; ++i) {
+                    String sig = strings[readVarInt(in)];
+                    fields[i] = Objects.requireNonNull(
+                            hierarchy.getField(sig), "Missing field " + sig);
+                }
+                return readBody(in);
+            }
+        }
+
+        private CompiledTaintConfig readBody(DataInputStream in) throws IOException {
+            boolean callSiteMode = in.readBoolean();
+            int n = readVarInt(in);
+            List<CallSource> callSources = new ArrayList<>(n);
+            for (int i = 0; i < n; ++i) {
+                callSources.add(new CallSource(methods[readVarInt(in)],
+                        readIndex(in), readType(in)));
+            }
+            n = readVarInt(in);
+            List<ParamSource> paramSources = new ArrayList<>(n);
+            for (int i = 0; i < n; ++i) {
+                paramSources.add(new ParamSource(methods[readVarInt(in)],
+                        readIndex(in), readType(in)));
+            }
+            n = readVarInt(in);
+            Map<JField, Type> fieldSources = Maps.newLinkedHashMap();
+            for (int i = 0; i < n; ++i) {
+                fieldSources.put(fields[readVarInt(in)], readType(in));
+            }
+            n = readVarInt(in);
+            List<Sink> sinks = new ArrayList<>(n);
+            for (int i = 0; i < n; ++i) {
+                sinks.add(new Sink(methods[readVarInt(in)], readIndex(in)));
+            }
+            n = readVarInt(in);
+            List<TaintTransfer> transfers = new ArrayList<>(n);
+            for (int i = 0; i < n; ++i) {
+                transfers.add(new TaintTransfer(methods[readVarInt(in)],
+                        readTransferPoint(in), readTransferPoint(in), readType(in)));
+            }
+            n = readVarInt(in);
+            List<ParamSanitizer> sanitizers = new ArrayList<>(n);
+            for (int i = 0; i < n; ++i) {
+                sanitizers.add(new ParamSanitizer(methods[readVarInt(in)],
+                        readIndex(in)));
+            }
+            return new CompiledTaintConfig(methods, callSources, paramSources,
+                    sinks, transfers, sanitizers, fieldSources, callSiteMode);
+        }
+
+        private TransferPoint readTransferPoint(DataInputStream in)
+                throws IOException {
+            TransferPoint.Kind kind = TransferPoint.Kind.values()[in.readUnsignedByte()];
+            int index = readIndex(in);
+            JField field = kind == TransferPoint.Kind.FIELD
+                    ? fields[readVarInt(in)] : null;
+            return new TransferPoint(kind, index, field);
+        }
+
+        private Type readType(DataInputStream in) throws IOException {
+            return types.computeIfAbsent(strings[readVarInt(in)],
+                    typeSystem::getType);
+        }
+    }
+}
@@ -30,11 +30,16 @@ import pascal.taie.language.type.Type;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.collection.Sets;
 
+import javax.annotation.Nullable;
 import java.util.Collections;
 import java.util.Set;
 
 /**
  * Manages taint objects.
+ * <p>
+ * When taint analysis runs multiple rule packs together, each pack has
+ * its own manager, whose taint objects are tagged with the pack id,
+ * so that the rules of a pack only apply to the taint objects of the pack.
  */
 class TaintManager {
 
@@ -42,10 +47,30 @@ class TaintManager {
 
     private final HeapModel heapModel;
 
+    /**
+     * Id of the rule pack of this manager, or {@code null} if the taint
+     * objects are not tagged.
+     */
+    @Nullable
+    private final String pack;
+
+    private final Descriptor desc;
+
     private final Set<Obj> taintObjs = Sets.newHybridSet();
 
-    TaintManager(HeapModel heapModel) {
+    TaintManager(HeapModel heapModel, @Nullable String pack) {
         this.heapModel = heapModel;
+        this.pack = pack;
+        this.desc = pack == null ? TAINT_DESC : new PackDescriptor(pack);
+    }
+
+    /**
+     * @return id of the rule pack of this manager, or {@code null}
+     * if the taint objects are not tagged.
+     */
+    @Nullable
+    String getPack() {
+        return pack;
     }
 
     /**
@@ -56,17 +81,18 @@ class TaintManager {
      * @return the taint object for given source and type.
      */
     Obj makeTaint(SourcePoint sourcePoint, Type type) {
-        Obj taint = heapModel.getMockObj(TAINT_DESC, sourcePoint, type, false);
+        Obj taint = heapModel.getMockObj(desc, sourcePoint, type, false);
         taintObjs.add(taint);
         return taint;
     }
 
     /**
-     * @return true if given obj represents a taint object, otherwise false.
+     * @return true if given obj represents a taint object of this manager,
+     * otherwise false.
      */
     boolean isTaint(Obj obj) {
         return obj instanceof MockObj mockObj &&
-                mockObj.getDescriptor().equals(TAINT_DESC);
+                mockObj.getDescriptor().equals(desc);
     }
 
     /**
@@ -86,4 +112,15 @@ class TaintManager {
     Set<Obj> getTaintObjs() {
         return Collections.unmodifiableSet(taintObjs);
     }
+
+    /**
+     * Descriptor for the taint objects of a rule pack.
+     */
+    private record PackDescriptor(String pack) implements Descriptor {
+
+        @Override
+        public String string() {
+            return "TaintObj[" + pack + "]";
+        }
+    }
 }
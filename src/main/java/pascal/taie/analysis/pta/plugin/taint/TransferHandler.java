@@ -34,6 +34,7 @@ import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.analysis.pta.core.solver.Transfer;
+import pascal.taie.analysis.pta.plugin.InterestedVarRegistrar;
 import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.ir.exp.CastExp;
@@ -69,11 +70,7 @@ class TransferHandler extends OnFlyHandler {
 
     private final Context emptyContext;
 
-    /**
-     * Map from method (which causes taint transfer) to set of relevant
-     * {@link TaintTransfer}.
-     */
-    private final MultiMap<JMethod, TaintTransfer> transfers = Maps.newMultiMap();
+    private final CompiledTaintConfig config;
 
     private final Map<Type, Transfer> transferFunctions = Maps.newHybridMap();
 
@@ -109,12 +106,20 @@ class TransferHandler extends OnFlyHandler {
      */
     private int counter = 0;
 
+    private InterestedVarRegistrar registrar = var -> {
+    };
+
     TransferHandler(HandlerContext context) {
         super(context);
         csManager = solver.getCSManager();
         emptyContext = solver.getContextSelector().getEmptyContext();
-        context.config().transfers()
-                .forEach(t -> this.transfers.put(t.method(), t));
+        config = context.config();
+    }
+
+    @Override
+    public boolean setInterestedVarRegistrar(InterestedVarRegistrar registrar) {
+        this.registrar = registrar;
+        return true;
     }
 
     private void processTransfer(Context context, Invoke callSite, TaintTransfer transfer) {
@@ -140,6 +145,7 @@ class TransferHandler extends OnFlyHandler {
             if (kind != null) {
                 TransferInfo info = new TransferInfo(kind, fromVar, transfer);
                 transferInfos.put(toVar, info);
+                registrar.register(toVar);
                 transferTaint(solver.getPointsToSetOf(csTo), context, info);
             }
         } else if (to.kind() == TransferPoint.Kind.VAR) { // Array/Field -> Var
@@ -150,6 +156,7 @@ class TransferHandler extends OnFlyHandler {
             };
             TransferInfo info = new TransferInfo(kind, toVar, transfer);
             transferInfos.put(fromVar, info);
+            registrar.register(fromVar);
             transferTaint(solver.getPointsToSetOf(csFrom), context, info);
         } else { // ignore other cases
             logger.warn("TaintTransfer {} -> {} (in {}) is not supported",
@@ -265,7 +272,10 @@ class TransferHandler extends OnFlyHandler {
     }
 
     private Var getTempVar(JMethod container, Type type) {
-        String varName = "%taint-temp-" + counter++;
+        // temporary variables of different rule packs are named apart
+        String varName = manager.getPack() == null
+                ? "%taint-temp-" + counter++
+                : "%taint-temp-" + manager.getPack() + "-" + counter++;
         return new Var(container, varName, type, -1);
     }
 
@@ -277,7 +287,7 @@ class TransferHandler extends OnFlyHandler {
             // TODO: handle OTHER call edges
             return;
         }
-        Set<TaintTransfer> tfs = transfers.get(edge.getCallee().getMethod());
+        List<TaintTransfer> tfs = config.getTransfers(edge.getCallee().getMethod());
         if (!tfs.isEmpty()) {
             Context context = edge.getCallSite().getContext();
             Invoke callSite = edge.getCallSite().getCallSite();
@@ -298,7 +308,7 @@ class TransferHandler extends OnFlyHandler {
                 stmt instanceof Invoke invoke &&
                 !invoke.isDynamic()) {
             JMethod callee = invoke.getMethodRef().resolveNullable();
-            if (transfers.containsKey(callee)) {
+            if (config.hasRole(callee, CompiledTaintConfig.TRANSFER)) {
                 callSiteTransfers.put(container, invoke);
             }
         }
@@ -313,7 +323,7 @@ class TransferHandler extends OnFlyHandler {
                 Context context = csMethod.getContext();
                 callSites.forEach(callSite -> {
                     JMethod callee = callSite.getMethodRef().resolve();
-                    transfers.get(callee).forEach(transfer ->
+                    config.getTransfers(callee).forEach(transfer ->
                             processTransfer(context, callSite, transfer));
                 });
             }
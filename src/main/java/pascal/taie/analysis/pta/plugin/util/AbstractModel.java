@@ -30,7 +30,6 @@ import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.TriConsumer;
 import pascal.taie.util.collection.Maps;
-import pascal.taie.util.collection.MultiMap;
 
 import java.lang.invoke.CallSite;
 import java.lang.invoke.LambdaConversionException;
@@ -40,6 +39,7 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -52,8 +52,13 @@ public abstract class AbstractModel extends SolverHolder implements Model {
 
     protected final Map<JMethod, int[]> relevantVarIndexes = Maps.newHybridMap();
 
-    protected final MultiMap<Var, Invoke> relevantVars
-            = Maps.newMultiMap(Maps.newHybridMap());
+    /**
+     * Map from each relevant variable to the invocations that use it,
+     * together with the handlers of the invocations. The targets and
+     * handlers are resolved once when the invocations are discovered,
+     * so that handling a points-to set change does not resolve them again.
+     */
+    private final Map<Var, HandledInvoke[]> relevantVars = Maps.newHybridMap();
 
     protected final Map<JMethod, TriConsumer<CSVar, PointsToSet, Invoke>> handlers
             = Maps.newMap();
@@ -133,11 +138,30 @@ public abstract class AbstractModel extends SolverHolder implements Model {
         JMethod target = invoke.getMethodRef().resolveNullable();
         if (target != null) {
             int[] indexes = relevantVarIndexes.get(target);
-            if (indexes != null) {
+            var handler = handlers.get(target);
+            if (indexes != null && handler != null) {
+                HandledInvoke handled = new HandledInvoke(invoke, handler);
                 for (int i : indexes) {
-                    relevantVars.put(InvokeUtils.getVar(invoke, i), invoke);
+                    addRelevantVar(InvokeUtils.getVar(invoke, i), handled);
+                }
+            }
+        }
+    }
+
+    private void addRelevantVar(Var var, HandledInvoke handled) {
+        HandledInvoke[] invokes = relevantVars.get(var);
+        if (invokes == null) {
+            relevantVars.put(var, new HandledInvoke[]{ handled });
+        } else {
+            for (HandledInvoke h : invokes) {
+                if (h.invoke() == handled.invoke()) {
+                    // var is used by the invocation more than once
+                    return;
                 }
             }
+            invokes = Arrays.copyOf(invokes, invokes.length + 1);
+            invokes[invokes.length - 1] = handled;
+            relevantVars.put(var, invokes);
         }
     }
 
@@ -148,13 +172,16 @@ public abstract class AbstractModel extends SolverHolder implements Model {
 
     @Override
     public void handleNewPointsToSet(CSVar csVar, PointsToSet pts) {
-        relevantVars.get(csVar.getVar()).forEach(invoke -> {
-            JMethod target = invoke.getMethodRef().resolve();
-            var handler = handlers.get(target);
-            if (handler != null) {
-                handler.accept(csVar, pts, invoke);
+        HandledInvoke[] invokes = relevantVars.get(csVar.getVar());
+        if (invokes != null) {
+            for (HandledInvoke h : invokes) {
+                h.handler().accept(csVar, pts, h.invoke());
             }
-        });
+        }
+    }
+
+    private record HandledInvoke(
+            Invoke invoke, TriConsumer<CSVar, PointsToSet, Invoke> handler) {
     }
 
     /**
@@ -173,14 +200,27 @@ public abstract class AbstractModel extends SolverHolder implements Model {
             CSVar csVar, PointsToSet pts, Invoke invoke, int... indexes) {
         List<PointsToSet> args = new ArrayList<>(indexes.length);
         for (int i : indexes) {
-            Var arg = InvokeUtils.getVar(invoke, i);
-            if (arg.equals(csVar.getVar())) {
-                args.add(pts);
-            } else {
-                CSVar csArg = csManager.getCSVar(csVar.getContext(), arg);
-                args.add(solver.getPointsToSetOf(csArg));
-            }
+            args.add(getArg(csVar, pts, invoke, i));
         }
         return args;
     }
+
+    /**
+     * Single-argument version of {@link #getArgs(CSVar, PointsToSet, Invoke, int...)}.
+     * As only the changed part is returned for csVar, the handlers which
+     * combine the points-to sets of multiple arguments only process the
+     * combinations involving the newly-discovered objects.
+     *
+     * @param index index of the relevant argument
+     */
+    protected PointsToSet getArg(
+            CSVar csVar, PointsToSet pts, Invoke invoke, int index) {
+        Var arg = InvokeUtils.getVar(invoke, index);
+        if (arg.equals(csVar.getVar())) {
+            return pts;
+        } else {
+            CSVar csArg = csManager.getCSVar(csVar.getContext(), arg);
+            return solver.getPointsToSetOf(csArg);
+        }
+    }
 }
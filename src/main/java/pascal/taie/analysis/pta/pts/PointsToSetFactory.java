@@ -24,6 +24,7 @@ package pascal.taie.analysis.pta.pts;
 
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IBitSet;
 
 import java.util.function.Supplier;
 
@@ -35,7 +36,15 @@ public class PointsToSetFactory {
     private final Supplier<PointsToSet> factory;
 
     public PointsToSetFactory(Indexer<CSObj> objIndexer) {
-        factory = () -> new HybridBitPointsToSet(objIndexer, true);
+        this(objIndexer, IBitSet.Kind.SPARSE);
+    }
+
+    /**
+     * @param bitSetKind kind of the bit sets which represent
+     *                   large points-to sets
+     */
+    public PointsToSetFactory(Indexer<CSObj> objIndexer, IBitSet.Kind bitSetKind) {
+        factory = () -> new HybridBitPointsToSet(objIndexer, bitSetKind);
     }
 
     public PointsToSet make() {
@@ -0,0 +1,642 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.demand;
+
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphs;
+import pascal.taie.analysis.graph.flowgraph.ArrayIndexNode;
+import pascal.taie.analysis.graph.flowgraph.InstanceFieldNode;
+import pascal.taie.analysis.graph.flowgraph.Node;
+import pascal.taie.analysis.graph.flowgraph.NodeManager;
+import pascal.taie.analysis.graph.flowgraph.StaticFieldNode;
+import pascal.taie.analysis.graph.flowgraph.VarNode;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.InvokeInstanceExp;
+import pascal.taie.ir.exp.Literal;
+import pascal.taie.ir.exp.ReferenceLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.ReferenceType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Demand-driven, context-insensitive and field-sensitive points-to analysis.
+ * <p>
+ * Instead of solving the whole program, this analysis only builds the part
+ * of pointer flow graph that a query depends on: demanding a variable
+ * demands the right-hand sides of its definitions, demanding a field
+ * demands the stores to that field, and so on. Calls are resolved on the
+ * fly with the points-to sets of the receiver variables, within the methods
+ * of the given call graph, e.g., the one built by CHA.
+ * <p>
+ * All queries share the same state, so later queries reuse the results
+ * computed by earlier ones. Each query is bounded by a budget, i.e.,
+ * the maximum number of steps it may take; when the budget runs out,
+ * the query returns the objects found so far and marks its answer as
+ * incomplete, and the next query continues the pending work.
+ * <p>
+ * The analysis does not model exceptions, the inner arrays of
+ * multi-dimensional array allocations, and the effects of pointer
+ * analysis plugins (e.g., reflection and native models).
+ */
+public class DemandPointsTo {
+
+    private final CallGraph<Invoke, JMethod> callGraph;
+
+    private final HeapModel heapModel;
+
+    private final TypeSystem typeSystem;
+
+    private final int budget;
+
+    private final Nodes nodes = new Nodes();
+
+    private final Map<Node, Set<Obj>> pointsTo = Maps.newMap();
+
+    private final MultiMap<Node, FlowEdge> successors = Maps.newMultiMap();
+
+    private final Set<Node> demandedNodes = Sets.newSet();
+
+    private final Queue<Node> demandQueue = new ArrayDeque<>();
+
+    private final Map<Node, Set<Obj>> workList = Maps.newLinkedHashMap();
+
+    /**
+     * Call sites whose receiver objects are being dispatched.
+     */
+    private final Set<Invoke> watchedCalls = Sets.newSet();
+
+    /**
+     * Call edges discovered on the fly.
+     */
+    private final MultiMap<Invoke, JMethod> activatedCalls = Maps.newMultiMap();
+
+    private final Set<JField> demandedFields = Sets.newSet();
+
+    private boolean isArrayDemanded = false;
+
+    private final Map<JMethod, MultiMap<Var, Stmt>> method2Defs = Maps.newMap();
+
+    /**
+     * Stores in the methods of the call graph, built on first use.
+     */
+    private StoreIndex storeIndex;
+
+    /**
+     * @param callGraph the call graph which determines the methods
+     *                  that are taken into account
+     * @param heapModel the heap model which provides abstract objects
+     * @param budget    maximum number of steps for each query
+     */
+    public DemandPointsTo(CallGraph<Invoke, JMethod> callGraph,
+                          HeapModel heapModel, int budget) {
+        this.callGraph = callGraph;
+        this.heapModel = heapModel;
+        this.typeSystem = World.get().getTypeSystem();
+        this.budget = budget;
+    }
+
+    /**
+     * @return the objects pointed to by given variable.
+     */
+    public Answer pointsTo(Var var) {
+        if (!isReference(var)) {
+            return new Answer(Set.of(), true);
+        }
+        VarNode node = nodes.getOrCreateVarNode(var);
+        demand(node);
+        boolean isComplete = solve();
+        Set<Obj> pts = pointsTo.get(node);
+        return new Answer(pts == null ? Set.of() :
+                Collections.unmodifiableSet(Sets.newHybridSet(pts)),
+                isComplete);
+    }
+
+    /**
+     * @return true if given two variables may point to the same object.
+     * If any of the two queries runs out of budget, this method
+     * conservatively returns true.
+     */
+    public boolean mayAlias(Var v1, Var v2) {
+        Answer a1 = pointsTo(v1);
+        Answer a2 = pointsTo(v2);
+        if (!a1.isComplete() && a2.isComplete()) {
+            // the second query may have finished the pending work of the first
+            a1 = pointsTo(v1);
+        }
+        if (!a1.isComplete() || !a2.isComplete()) {
+            return true;
+        }
+        Set<Obj> small = a1.objects(), large = a2.objects();
+        if (small.size() > large.size()) {
+            small = a2.objects();
+            large = a1.objects();
+        }
+        for (Obj obj : small) {
+            if (large.contains(obj)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Processes demanded nodes and pending objects until the work is
+     * done or the budget is exhausted.
+     *
+     * @return true if all pending work has been processed.
+     */
+    private boolean solve() {
+        for (int steps = 0; steps < budget; ++steps) {
+            if (!demandQueue.isEmpty()) {
+                processDemand(demandQueue.poll());
+            } else if (!workList.isEmpty()) {
+                var it = workList.entrySet().iterator();
+                var e = it.next();
+                it.remove();
+                propagate(e.getKey(), e.getValue());
+            } else {
+                return true;
+            }
+        }
+        return demandQueue.isEmpty() && workList.isEmpty();
+    }
+
+    private void demand(Node node) {
+        if (demandedNodes.add(node)) {
+            demandQueue.add(node);
+        }
+    }
+
+    private boolean isDemanded(Var var) {
+        VarNode node = nodes.getVarNode(var);
+        return node != null && demandedNodes.contains(node);
+    }
+
+    private void processDemand(Node node) {
+        if (node instanceof VarNode varNode) {
+            demandVar(varNode);
+        } else if (node instanceof InstanceFieldNode fieldNode) {
+            demandField(fieldNode.getField());
+        } else if (node instanceof ArrayIndexNode) {
+            demandArrays();
+        } else if (node instanceof StaticFieldNode fieldNode) {
+            for (StoreField store : getStoreIndex()
+                    .staticStores.get(fieldNode.getField())) {
+                addEdge(getVarNode(store.getRValue()), node, null);
+            }
+        }
+    }
+
+    private void demandVar(VarNode node) {
+        Var var = node.getVar();
+        JMethod method = var.getMethod();
+        IR ir = method.getIR();
+        if (var == ir.getThis() || ir.isParam(var)) {
+            demandParam(node, method, ir);
+        }
+        for (Stmt def : getDefs(method).get(var)) {
+            if (def instanceof New newStmt) {
+                addObjects(node, List.of(heapModel.getObj(newStmt)), null);
+            } else if (def instanceof AssignLiteral assign) {
+                Literal literal = assign.getRValue();
+                if (literal.getType() instanceof ClassType) {
+                    // here we only generate objects of ClassType
+                    addObjects(node, List.of(heapModel.getConstantObj(
+                            (ReferenceLiteral) literal)), null);
+                }
+            } else if (def instanceof Copy copy) {
+                addEdge(getVarNode(copy.getRValue()), node, null);
+            } else if (def instanceof Cast cast) {
+                addEdge(getVarNode(cast.getRValue().getValue()), node,
+                        cast.getRValue().getType());
+            } else if (def instanceof LoadField load) {
+                JField field = load.getFieldRef().resolveNullable();
+                if (field == null) {
+                    continue;
+                }
+                if (load.isStatic()) {
+                    addEdge(nodes.getOrCreateStaticFieldNode(field), node, null);
+                } else {
+                    Var base = ((InstanceFieldAccess) load.getFieldAccess()).getBase();
+                    VarNode baseNode = getVarNode(base);
+                    demand(baseNode);
+                    for (Obj obj : getPointsTo(baseNode)) {
+                        if (obj.isFunctional()) {
+                            addEdge(nodes.getOrCreateInstanceFieldNode(obj, field),
+                                    node, null);
+                        }
+                    }
+                }
+            } else if (def instanceof LoadArray load) {
+                VarNode baseNode = getVarNode(load.getArrayAccess().getBase());
+                demand(baseNode);
+                for (Obj obj : getPointsTo(baseNode)) {
+                    if (obj.isFunctional()) {
+                        addEdge(nodes.getOrCreateArrayIndexNode(obj), node, null);
+                    }
+                }
+            } else if (def instanceof Invoke invoke) {
+                demandResult(invoke, node);
+            }
+        }
+    }
+
+    private void demandParam(VarNode node, JMethod method, IR ir) {
+        Var var = node.getVar();
+        int index = ir.getParams().indexOf(var);
+        for (Invoke callSite : callGraph.getCallersOf(method)) {
+            if (callSite.isDynamic()) {
+                continue;
+            }
+            if (activatedCalls.get(callSite).contains(method)) {
+                if (index >= 0) {
+                    addParamEdge(callSite, index, node);
+                } else {
+                    // receiver objects that had been dispatched to
+                    // the method before 'this' was demanded
+                    Var recv = ((InvokeInstanceExp) callSite.getInvokeExp()).getBase();
+                    List<Obj> objs = new ArrayList<>();
+                    for (Obj obj : getPointsTo(getVarNode(recv))) {
+                        if (CallGraphs.resolveCallee(obj.getType(), callSite) == method) {
+                            objs.add(obj);
+                        }
+                    }
+                    addObjects(node, objs, null);
+                }
+            } else if (callSite.isStatic()) {
+                activate(callSite, method);
+            } else {
+                watchCall(callSite);
+            }
+        }
+    }
+
+    private void demandResult(Invoke callSite, VarNode result) {
+        if (callSite.isDynamic()) {
+            return;
+        }
+        for (JMethod callee : activatedCalls.get(callSite)) {
+            addReturnEdges(callee, result);
+        }
+        if (callSite.isStatic()) {
+            JMethod callee = CallGraphs.resolveCallee(null, callSite);
+            if (callee != null) {
+                activate(callSite, callee);
+            }
+        } else {
+            watchCall(callSite);
+        }
+    }
+
+    private void demandField(JField field) {
+        if (demandedFields.add(field)) {
+            for (StoreField store : getStoreIndex().instanceStores.get(field)) {
+                Var base = ((InstanceFieldAccess) store.getFieldAccess()).getBase();
+                VarNode baseNode = getVarNode(base);
+                demand(baseNode);
+                VarNode from = getVarNode(store.getRValue());
+                for (Obj obj : getPointsTo(baseNode)) {
+                    if (obj.isFunctional()) {
+                        addEdge(from, nodes.getOrCreateInstanceFieldNode(obj, field), null);
+                    }
+                }
+            }
+        }
+    }
+
+    private void demandArrays() {
+        if (!isArrayDemanded) {
+            isArrayDemanded = true;
+            for (StoreArray store : getStoreIndex().arrayStores) {
+                VarNode baseNode = getVarNode(store.getArrayAccess().getBase());
+                demand(baseNode);
+                VarNode from = getVarNode(store.getRValue());
+                for (Obj obj : getPointsTo(baseNode)) {
+                    addArrayStoreEdge(from, obj);
+                }
+            }
+        }
+    }
+
+    /**
+     * Propagates newly arrived objects of a node along its out edges,
+     * and processes the statements whose base variables are the node.
+     */
+    private void propagate(Node node, Set<Obj> objs) {
+        Set<Obj> pts = pointsTo.computeIfAbsent(node, __ -> Sets.newHybridSet());
+        List<Obj> diff = new ArrayList<>(objs.size());
+        for (Obj obj : objs) {
+            if (pts.add(obj)) {
+                diff.add(obj);
+            }
+        }
+        if (diff.isEmpty()) {
+            return;
+        }
+        for (FlowEdge edge : successors.get(node)) {
+            addObjects(edge.target(), diff, edge.filter());
+        }
+        if (node instanceof VarNode varNode) {
+            processBase(varNode.getVar(), diff);
+        }
+    }
+
+    private void processBase(Var var, List<Obj> diff) {
+        for (LoadField load : var.getLoadFields()) {
+            if (isDemanded(load.getLValue())) {
+                JField field = load.getFieldRef().resolveNullable();
+                if (field != null) {
+                    VarNode to = getVarNode(load.getLValue());
+                    for (Obj obj : diff) {
+                        if (obj.isFunctional()) {
+                            addEdge(nodes.getOrCreateInstanceFieldNode(obj, field),
+                                    to, null);
+                        }
+                    }
+                }
+            }
+        }
+        for (LoadArray load : var.getLoadArrays()) {
+            if (isDemanded(load.getLValue())) {
+                VarNode to = getVarNode(load.getLValue());
+                for (Obj obj : diff) {
+                    if (obj.isFunctional()) {
+                        addEdge(nodes.getOrCreateArrayIndexNode(obj), to, null);
+                    }
+                }
+            }
+        }
+        boolean inScope = callGraph.contains(var.getMethod());
+        if (inScope && !demandedFields.isEmpty()) {
+            for (StoreField store : var.getStoreFields()) {
+                JField field = store.getFieldRef().resolveNullable();
+                if (field != null && demandedFields.contains(field)) {
+                    VarNode from = getVarNode(store.getRValue());
+                    for (Obj obj : diff) {
+                        if (obj.isFunctional()) {
+                            addEdge(from, nodes.getOrCreateInstanceFieldNode(obj, field),
+                                    null);
+                        }
+                    }
+                }
+            }
+        }
+        if (inScope && isArrayDemanded) {
+            for (StoreArray store : var.getStoreArrays()) {
+                VarNode from = getVarNode(store.getRValue());
+                for (Obj obj : diff) {
+                    addArrayStoreEdge(from, obj);
+                }
+            }
+        }
+        for (Invoke callSite : var.getInvokes()) {
+            if (watchedCalls.contains(callSite)) {
+                for (Obj obj : diff) {
+                    dispatch(callSite, obj);
+                }
+            }
+        }
+    }
+
+    private void addArrayStoreEdge(VarNode from, Obj array) {
+        if (array.isFunctional()) {
+            // we need type guard for array stores as Java arrays
+            // are covariant
+            addEdge(from, nodes.getOrCreateArrayIndexNode(array),
+                    ((ArrayType) array.getType()).elementType());
+        }
+    }
+
+    /**
+     * Starts resolving the callees of given call site with
+     * the objects pointed to by its receiver variable.
+     */
+    private void watchCall(Invoke callSite) {
+        if (watchedCalls.add(callSite)) {
+            Var recv = ((InvokeInstanceExp) callSite.getInvokeExp()).getBase();
+            VarNode recvNode = getVarNode(recv);
+            demand(recvNode);
+            for (Obj obj : getPointsTo(recvNode)) {
+                dispatch(callSite, obj);
+            }
+        }
+    }
+
+    private void dispatch(Invoke callSite, Obj recvObj) {
+        JMethod callee = CallGraphs.resolveCallee(recvObj.getType(), callSite);
+        if (callee != null && callGraph.contains(callee)) {
+            activate(callSite, callee);
+            Var thisVar = callee.getIR().getThis();
+            if (thisVar != null && isDemanded(thisVar)) {
+                addObjects(getVarNode(thisVar), List.of(recvObj), null);
+            }
+        }
+    }
+
+    /**
+     * Connects the demanded parameters and result of a newly
+     * discovered call edge.
+     */
+    private void activate(Invoke callSite, JMethod callee) {
+        if (activatedCalls.put(callSite, callee)) {
+            Var result = callSite.getResult();
+            if (result != null && isDemanded(result)) {
+                addReturnEdges(callee, getVarNode(result));
+            }
+            IR ir = callee.getIR();
+            for (int i = 0; i < ir.getParams().size(); ++i) {
+                Var param = ir.getParam(i);
+                if (isDemanded(param)) {
+                    addParamEdge(callSite, i, getVarNode(param));
+                }
+            }
+        }
+    }
+
+    private void addReturnEdges(JMethod callee, VarNode result) {
+        for (Var ret : callee.getIR().getReturnVars()) {
+            addEdge(getVarNode(ret), result, null);
+        }
+    }
+
+    private void addParamEdge(Invoke callSite, int index, VarNode param) {
+        InvokeExp invokeExp = callSite.getInvokeExp();
+        if (index < invokeExp.getArgCount()) {
+            addEdge(getVarNode(invokeExp.getArg(index)), param, null);
+        }
+    }
+
+    /**
+     * Adds an edge to pointer flow graph and demands its source node.
+     */
+    private void addEdge(Node source, Node target, @Nullable Type filter) {
+        if (successors.put(source, new FlowEdge(target, filter))) {
+            demand(source);
+            Set<Obj> pts = pointsTo.get(source);
+            if (pts != null) {
+                addObjects(target, pts, filter);
+            }
+        }
+    }
+
+    private void addObjects(Node node, Collection<Obj> objs, @Nullable Type filter) {
+        Set<Obj> pending = null;
+        for (Obj obj : objs) {
+            if (filter == null || typeSystem.isSubtype(filter, obj.getType())) {
+                if (pending == null) {
+                    pending = workList.computeIfAbsent(node, __ -> Sets.newHybridSet());
+                }
+                pending.add(obj);
+            }
+        }
+    }
+
+    private Set<Obj> getPointsTo(Node node) {
+        return pointsTo.getOrDefault(node, Set.of());
+    }
+
+    private VarNode getVarNode(Var var) {
+        return nodes.getOrCreateVarNode(var);
+    }
+
+    private static boolean isReference(Var var) {
+        return var.getType() instanceof ReferenceType;
+    }
+
+    private MultiMap<Var, Stmt> getDefs(JMethod method) {
+        return method2Defs.computeIfAbsent(method, m -> {
+            MultiMap<Var, Stmt> defs = Maps.newMultiMap();
+            for (Stmt stmt : m.getIR()) {
+                stmt.getDef().ifPresent(lvalue -> {
+                    if (lvalue instanceof Var var && isReference(var)) {
+                        defs.put(var, stmt);
+                    }
+                });
+            }
+            return defs;
+        });
+    }
+
+    private StoreIndex getStoreIndex() {
+        if (storeIndex == null) {
+            storeIndex = new StoreIndex();
+            callGraph.reachableMethods().forEach(method -> {
+                for (Stmt stmt : method.getIR()) {
+                    if (stmt instanceof StoreField store) {
+                        if (!isReference(store.getRValue())) {
+                            continue;
+                        }
+                        JField field = store.getFieldRef().resolveNullable();
+                        if (field != null) {
+                            (store.isStatic() ? storeIndex.staticStores
+                                    : storeIndex.instanceStores).put(field, store);
+                        }
+                    } else if (stmt instanceof StoreArray store
+                            && isReference(store.getRValue())) {
+                        storeIndex.arrayStores.add(store);
+                    }
+                }
+            });
+        }
+        return storeIndex;
+    }
+
+    /**
+     * Result of a points-to query.
+     *
+     * @param objects    the objects found for the queried variable
+     * @param isComplete whether the query finished within its budget.
+     *                   If not, {@code objects} may be a subset of
+     *                   the actual points-to set.
+     */
+    public record Answer(Set<Obj> objects, boolean isComplete) {
+    }
+
+    private record FlowEdge(Node target, @Nullable Type filter) {
+    }
+
+    private static class StoreIndex {
+
+        private final MultiMap<JField, StoreField> instanceStores = Maps.newMultiMap();
+
+        private final MultiMap<JField, StoreField> staticStores = Maps.newMultiMap();
+
+        private final List<StoreArray> arrayStores = new ArrayList<>();
+    }
+
+    private static class Nodes extends NodeManager {
+
+        @Override
+        protected VarNode getOrCreateVarNode(Var var) {
+            return super.getOrCreateVarNode(var);
+        }
+
+        @Override
+        protected InstanceFieldNode getOrCreateInstanceFieldNode(Obj base, JField field) {
+            return super.getOrCreateInstanceFieldNode(base, field);
+        }
+
+        @Override
+        protected ArrayIndexNode getOrCreateArrayIndexNode(Obj array) {
+            return super.getOrCreateArrayIndexNode(array);
+        }
+
+        @Override
+        protected StaticFieldNode getOrCreateStaticFieldNode(JField field) {
+            return super.getOrCreateStaticFieldNode(field);
+        }
+    }
+}
@@ -116,6 +116,13 @@ class DFAFactory {
         s.addTransition(f, nextState);
     }
 
+    /**
+     * @return all states of the DFAs built by this factory.
+     */
+    Set<DFAState> getStates() {
+        return states;
+    }
+
     DFA getDFA(Obj obj) {
         DFAState q0 = stateMap.get(Set.of(obj));
         return new DFA(q0);
@@ -0,0 +1,130 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.mahjong;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Computes canonical signatures for DFA states.
+ * <p>
+ * All DFAs built by {@link DFAFactory} share their states, so we minimize
+ * them together by partition refinement (Moore's algorithm) over all states,
+ * where each block of the partition is represented by a hash value.
+ * Initially, the signature of a state is the hash of its output. In each
+ * round, the signature of a state is recomputed from its previous signature
+ * and the signatures of its successors (combined in an order-independent
+ * way), until the number of distinct signatures stops growing.
+ * <p>
+ * Equivalent states always receive the same signature, thus two objects
+ * whose DFAs are equivalent have the same signature of their start states.
+ * The converse holds unless hash collisions happen, so the clients should
+ * confirm the equivalence of DFAs with equal signatures by
+ * {@link DFAEquivChecker}.
+ */
+class DFASignatures {
+
+    private final Map<DFAState, Long> signatures;
+
+    DFASignatures(Collection<DFAState> allStates) {
+        List<DFAState> states = List.copyOf(allStates);
+        int n = states.size();
+        Map<DFAState, Integer> indexes = Maps.newMap(n);
+        for (int i = 0; i < n; ++i) {
+            indexes.put(states.get(i), i);
+        }
+        // encode transitions of each state as (field hashes, successor indexes)
+        long[][] fields = new long[n][];
+        int[][] succs = new int[n][];
+        long[] sigs = new long[n];
+        for (int i = 0; i < n; ++i) {
+            DFAState s = states.get(i);
+            Map<Field, DFAState> nextMap = s.getNextMap();
+            fields[i] = new long[nextMap.size()];
+            succs[i] = new int[nextMap.size()];
+            int j = 0;
+            for (var e : nextMap.entrySet()) {
+                fields[i][j] = mix(e.getKey().hashCode());
+                succs[i][j] = indexes.get(e.getValue());
+                ++j;
+            }
+            sigs[i] = mix(s.getOutput().hashCode());
+        }
+        // refine signatures until the partition becomes stable
+        int blocks = countDistinct(sigs);
+        for (int round = 0; round < n; ++round) {
+            long[] prev = sigs;
+            sigs = IntStream.range(0, n).parallel()
+                    .mapToLong(i -> {
+                        long h = 0;
+                        for (int j = 0; j < succs[i].length; ++j) {
+                            h += mix(fields[i][j] * 31 + prev[succs[i][j]]);
+                        }
+                        return mix(prev[i] * 31 + h);
+                    })
+                    .toArray();
+            int newBlocks = countDistinct(sigs);
+            if (newBlocks == blocks) {
+                break;
+            }
+            blocks = newBlocks;
+        }
+        signatures = Maps.newMap(n);
+        for (int i = 0; i < n; ++i) {
+            signatures.put(states.get(i), sigs[i]);
+        }
+    }
+
+    /**
+     * @return the signature of given state.
+     */
+    long getSignature(DFAState s) {
+        return signatures.get(s);
+    }
+
+    private static int countDistinct(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.parallelSort(sorted);
+        int count = 0;
+        for (int i = 0; i < sorted.length; ++i) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finalizer of SplitMix64, which spreads the bits of given value.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
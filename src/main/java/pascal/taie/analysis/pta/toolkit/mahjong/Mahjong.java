@@ -32,6 +32,8 @@ import pascal.taie.util.Timer;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.UnionFindSet;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
@@ -43,6 +45,8 @@ public class Mahjong {
 
     private DFAFactory dfaFactory;
 
+    private DFASignatures dfaSignatures;
+
     /**
      * This map may be manipulated by multiple threads simultaneously.
      */
@@ -60,6 +64,9 @@ public class Mahjong {
                 "Building field points-to graph", Level.INFO);
         dfaFactory = Timer.runAndCount(() -> new DFAFactory(fpg),
                 "Building DFA", Level.INFO);
+        dfaSignatures = Timer.runAndCount(
+                () -> new DFASignatures(dfaFactory.getStates()),
+                "Computing DFA signatures", Level.INFO);
         UnionFindSet<Obj> uf = Timer.runAndCount(
                 () -> mergeTypeConsistentObjects(fpg),
                 "Merging type-consistent objects", Level.INFO);
@@ -79,25 +86,51 @@ public class Mahjong {
         groupedObjs.entrySet()
                 .parallelStream()
                 .forEach(entry -> {
-                    Set<Obj> objs = entry.getValue();
                     DFAMap dfaMap = new DFAMap();
-                    for (Obj o1 : objs) {
-                        if (canBeMerged(o1, dfaMap)) {
-                            for (Obj o2 : objs) {
-                                if (canBeMerged(o2, dfaMap)) {
-                                    if (o1.getIndex() < o2.getIndex()
-                                            && !uf.isConnected(o1, o2)
-                                            && canBeMerged(o1, o2, dfaMap)) {
-                                        uf.union(o1, o2);
-                                    }
+                    // group the mergeable objects by the signatures of
+                    // their DFAs, so that only the objects in the same
+                    // group can be equivalent
+                    Map<Long, List<Obj>> sig2Objs = Maps.newMap();
+                    for (Obj o : entry.getValue()) {
+                        if (canBeMerged(o, dfaMap)) {
+                            sig2Objs.computeIfAbsent(getSignature(o),
+                                            unused -> new ArrayList<>())
+                                    .add(o);
+                        }
+                    }
+                    sig2Objs.values().forEach(objs -> {
+                        // objects with the same signature are equivalent
+                        // unless hash collisions happen, so we confirm
+                        // the equivalence against representative objects,
+                        // and usually only one representative exists
+                        List<Obj> reps = new ArrayList<>();
+                        for (Obj o : objs) {
+                            Obj rep = null;
+                            for (Obj r : reps) {
+                                if (canBeMerged(r, o, dfaMap)) {
+                                    rep = r;
+                                    break;
                                 }
                             }
+                            if (rep != null) {
+                                uf.union(rep, o);
+                            } else {
+                                reps.add(o);
+                            }
                         }
-                    }
+                    });
                 });
         return uf;
     }
 
+    /**
+     * @return the signature of the DFA whose start state is o.
+     */
+    private long getSignature(Obj o) {
+        return dfaSignatures.getSignature(
+                dfaFactory.getDFA(o).getStartState());
+    }
+
     /**
      * @return {@code true} if o1 and o2 can be merged.
      */
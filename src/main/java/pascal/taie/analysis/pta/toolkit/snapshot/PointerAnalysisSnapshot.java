@@ -0,0 +1,585 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.snapshot;
+
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallKind;
+import pascal.taie.analysis.graph.callgraph.Edge;
+import pascal.taie.analysis.graph.flowgraph.ArrayIndexNode;
+import pascal.taie.analysis.graph.flowgraph.FlowEdge;
+import pascal.taie.analysis.graph.flowgraph.FlowKind;
+import pascal.taie.analysis.graph.flowgraph.InstanceFieldNode;
+import pascal.taie.analysis.graph.flowgraph.Node;
+import pascal.taie.analysis.graph.flowgraph.ObjectFlowGraph;
+import pascal.taie.analysis.graph.flowgraph.StaticFieldNode;
+import pascal.taie.analysis.graph.flowgraph.VarNode;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.InstanceField;
+import pascal.taie.analysis.pta.core.cs.element.StaticField;
+import pascal.taie.analysis.pta.core.heap.NewObj;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.frontend.cache.CachedWorldBuilder;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.BinaryFiles;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import static pascal.taie.util.BinaryFiles.readString;
+import static pascal.taie.util.BinaryFiles.readVarInt;
+import static pascal.taie.util.BinaryFiles.writeString;
+import static pascal.taie.util.BinaryFiles.writeVarInt;
+
+/**
+ * Saves and loads persistent snapshots of context-insensitive pointer
+ * analysis results, i.e., points-to sets, call graph and object flow graph.
+ * <p>
+ * A snapshot refers to the program elements by their signatures and
+ * indexes in IR, so that it can be restored in a later run on the same
+ * program. Its file is keyed by the world (i.e., the program and the
+ * options for building it) and the pointer analysis options that affect
+ * the context-insensitive result. Snapshots are stored in a compact
+ * binary format: all strings are kept in a table, points-to sets are
+ * stored as delta-encoded sorted object ids, and the whole content is
+ * compressed by {@link java.util.zip.Deflater}.
+ */
+public final class PointerAnalysisSnapshot {
+
+    private static final int MAGIC = 0x54414950; // "TAIP"
+
+    private static final int VERSION = 2;
+
+    /**
+     * Options that affect context-insensitive pointer analysis results.
+     */
+    private static final List<String> KEY_OPTIONS = List.of(
+            "only-app", "implicit-entries", "distinguish-string-constants",
+            "merge-string-objects", "merge-string-builders",
+            "merge-exception-objects", "handle-invokedynamic",
+            "propagate-types", "reflection-inference", "reflection-log",
+            "taint-config", "taint-packs", "plugins", "time-limit");
+
+    private static final int NEW_OBJ = 0, OTHER_OBJ = 1;
+
+    private static final int VAR_NODE = 0, INSTANCE_FIELD_NODE = 1,
+            ARRAY_INDEX_NODE = 2, STATIC_FIELD_NODE = 3;
+
+    private PointerAnalysisSnapshot() {
+    }
+
+    /**
+     * @return the snapshot file for the current program and given
+     * pointer analysis options.
+     */
+    public static File getSnapshotFile(AnalysisOptions options) {
+        int hash = CachedWorldBuilder.getProgramHash(World.get().getOptions());
+        for (String key : KEY_OPTIONS) {
+            hash = 31 * hash + Objects.hashCode(
+                    options.has(key) ? options.get(key) : null);
+        }
+        return BinaryFiles.getCacheFile("pta-snapshot-" + Integer.toHexString(hash) + ".bin");
+    }
+
+    /**
+     * Saves given (context-insensitive) pointer analysis result to
+     * given file.
+     *
+     * @return {@code true} if the snapshot is saved successfully.
+     */
+    public static boolean save(PointerAnalysisResult pta, File file) {
+        return BinaryFiles.save("pointer analysis snapshot", file,
+                f -> new Writer(pta).write(f));
+    }
+
+    /**
+     * Loads pointer analysis result from given snapshot file.
+     * The result is context-insensitive, and it can be used as the
+     * base of {@link pascal.taie.analysis.pta.toolkit.PointerAnalysisResultExImpl}.
+     *
+     * @param file    the snapshot file
+     * @param options the pointer analysis options, which are used
+     *                to build the heap model for restoring the objects
+     * @return the restored result, or {@code null} if the snapshot
+     * does not exist or fails to be loaded.
+     */
+    @Nullable
+    public static PointerAnalysisResult load(File file, AnalysisOptions options) {
+        return BinaryFiles.load("pointer analysis snapshot", file,
+                f -> new Reader(options).read(f));
+    }
+
+    /**
+     * Writes a snapshot. The body is encoded first, which collects the
+     * tables of strings, methods and fields, and then the tables and
+     * the body are written to the file.
+     */
+    private static class Writer {
+
+        private final PointerAnalysisResult pta;
+
+        private final Map<String, Integer> strings = Maps.newLinkedHashMap();
+
+        private final Map<JMethod, Integer> methods = Maps.newLinkedHashMap();
+
+        private final Map<JField, Integer> fields = Maps.newLinkedHashMap();
+
+        private final Map<Obj, Integer> objs = Maps.newMap();
+
+        private final Map<Node, Integer> nodes = Maps.newMap();
+
+        private Writer(PointerAnalysisResult pta) {
+            this.pta = pta;
+        }
+
+        private void write(File file) throws IOException {
+            ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(1 << 16);
+            DataOutputStream body = new DataOutputStream(bodyBytes);
+            writeBody(body);
+            body.flush();
+            // signatures of methods and fields are added to the string table
+            // before it is written
+            List<Integer> methodSigs = new ArrayList<>(methods.size());
+            methods.keySet().forEach(m -> methodSigs.add(
+                    stringId(m.getSignature())));
+            List<Integer> fieldSigs = new ArrayList<>(fields.size());
+            fields.keySet().forEach(f -> fieldSigs.add(
+                    stringId(f.getSignature())));
+            try (DataOutputStream out = new DataOutputStream(
+                    new DeflaterOutputStream(new BufferedOutputStream(
+                            new FileOutputStream(file))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                writeVarInt(out, strings.size());
+                for (String s : strings.keySet()) {
+                    writeString(out, s);
+                }
+                writeVarInt(out, methodSigs.size());
+                for (int sig : methodSigs) {
+                    writeVarInt(out, sig);
+                }
+                writeVarInt(out, fieldSigs.size());
+                for (int sig : fieldSigs) {
+                    writeVarInt(out, sig);
+                }
+                bodyBytes.writeTo(out);
+            }
+        }
+
+        private void writeBody(DataOutputStream out) throws IOException {
+            // objects
+            Collection<Obj> objects = pta.getObjects();
+            writeVarInt(out, objects.size());
+            for (Obj obj : objects) {
+                objs.put(obj, objs.size());
+                if (obj instanceof NewObj newObj) {
+                    New allocSite = newObj.getAllocation();
+                    out.writeByte(NEW_OBJ);
+                    writeVarInt(out, methodId(allocSite.getContainer()));
+                    writeVarInt(out, allocSite.getIndex());
+                } else {
+                    out.writeByte(OTHER_OBJ);
+                    writeVarInt(out, stringId(obj.toString()));
+                    writeVarInt(out, stringId(obj.getType().getName()));
+                    writeVarInt(out, obj.getContainerMethod()
+                            .map(m -> methodId(m) + 1)
+                            .orElse(0));
+                    writeVarInt(out, stringId(obj.getContainerType().getName()));
+                    out.writeBoolean(obj.isFunctional());
+                }
+            }
+            // points-to sets of variables
+            Collection<Var> vars = pta.getVars();
+            writeVarInt(out, vars.size());
+            for (Var var : vars) {
+                writeVar(out, var);
+                writePointsToSet(out, pta.getPointsToSet(var));
+            }
+            // points-to sets of instance fields
+            Set<InstanceField> ifields = Sets.newSet();
+            pta.getInstanceFields().forEach(ifields::add);
+            Map<Obj, Set<JField>> obj2Fields = Maps.newLinkedHashMap();
+            for (InstanceField ifield : ifields) {
+                obj2Fields.computeIfAbsent(ifield.getBase().getObject(),
+                        unused -> Sets.newLinkedSet()).add(ifield.getField());
+            }
+            writeVarInt(out, obj2Fields.values().stream()
+                    .mapToInt(Set::size).sum());
+            for (var e : obj2Fields.entrySet()) {
+                Obj base = e.getKey();
+                for (JField field : e.getValue()) {
+                    writeVarInt(out, objId(base));
+                    writeVarInt(out, fieldId(field));
+                    writePointsToSet(out, pta.getPointsToSet(base, field));
+                }
+            }
+            // points-to sets of array indexes
+            Set<Obj> arrays = Sets.newLinkedSet();
+            for (ArrayIndex arrayIndex : pta.getArrayIndexes()) {
+                arrays.add(arrayIndex.getArray().getObject());
+            }
+            writeVarInt(out, arrays.size());
+            for (Obj array : arrays) {
+                writeVarInt(out, objId(array));
+                writePointsToSet(out, pta.getPointsToSet(array));
+            }
+            // points-to sets of static fields
+            Set<JField> sfields = Sets.newLinkedSet();
+            for (StaticField sfield : pta.getStaticFields()) {
+                sfields.add(sfield.getField());
+            }
+            writeVarInt(out, sfields.size());
+            for (JField field : sfields) {
+                writeVarInt(out, fieldId(field));
+                writePointsToSet(out, pta.getPointsToSet(field));
+            }
+            writeCallGraph(out, pta.getCallGraph());
+            writeObjectFlowGraph(out, pta.getObjectFlowGraph());
+        }
+
+        private void writeCallGraph(DataOutputStream out,
+                                    CallGraph<Invoke, JMethod> callGraph)
+                throws IOException {
+            List<JMethod> entries = callGraph.entryMethods().toList();
+            writeVarInt(out, entries.size());
+            for (JMethod m : entries) {
+                writeVarInt(out, methodId(m));
+            }
+            List<JMethod> reachable = callGraph.reachableMethods().toList();
+            writeVarInt(out, reachable.size());
+            for (JMethod m : reachable) {
+                writeVarInt(out, methodId(m));
+            }
+            List<Edge<Invoke, JMethod>> edges = callGraph.edges().toList();
+            writeVarInt(out, edges.size());
+            for (Edge<Invoke, JMethod> edge : edges) {
+                Invoke callSite = edge.getCallSite();
+                writeVarInt(out, methodId(callSite.getContainer()));
+                writeVarInt(out, callSite.getIndex());
+                writeVarInt(out, methodId(edge.getCallee()));
+                out.writeByte(edge.getKind().ordinal());
+            }
+        }
+
+        private void writeObjectFlowGraph(DataOutputStream out,
+                                          ObjectFlowGraph ofg)
+                throws IOException {
+            int nodeCount = ofg.getNodes().size();
+            writeVarInt(out, nodeCount);
+            for (int i = 0; i < nodeCount; ++i) {
+                Node node = ofg.getObject(i);
+                nodes.put(node, i);
+                if (node instanceof VarNode varNode) {
+                    out.writeByte(VAR_NODE);
+                    writeVar(out, varNode.getVar());
+                } else if (node instanceof InstanceFieldNode ifNode) {
+                    out.writeByte(INSTANCE_FIELD_NODE);
+                    writeVarInt(out, objId(ifNode.getBase()));
+                    writeVarInt(out, fieldId(ifNode.getField()));
+                } else if (node instanceof ArrayIndexNode aiNode) {
+                    out.writeByte(ARRAY_INDEX_NODE);
+                    writeVarInt(out, objId(aiNode.getBase()));
+                } else {
+                    out.writeByte(STATIC_FIELD_NODE);
+                    writeVarInt(out, fieldId(((StaticFieldNode) node).getField()));
+                }
+            }
+            List<FlowEdge> edges = new ArrayList<>();
+            for (int i = 0; i < nodeCount; ++i) {
+                edges.addAll(ofg.getOutEdgesOf(ofg.getObject(i)));
+            }
+            writeVarInt(out, edges.size());
+            for (FlowEdge edge : edges) {
+                out.writeByte(edge.kind().ordinal());
+                writeVarInt(out, nodes.get(edge.source()));
+                writeVarInt(out, nodes.get(edge.target()));
+            }
+        }
+
+        /**
+         * Writes a variable by its container method and index in IR.
+         * Temporary variables created by analysis plugins are not
+         * in IR (their indexes are -1), so their names and types
+         * are written as well.
+         */
+        private void writeVar(DataOutputStream out, Var var) throws IOException {
+            writeVarInt(out, methodId(var.getMethod()));
+            writeVarInt(out, var.getIndex() + 1);
+            if (var.getIndex() < 0) {
+                writeVarInt(out, stringId(var.getName()));
+                writeVarInt(out, stringId(var.getType().getName()));
+            }
+        }
+
+        /**
+         * Writes a points-to set as its size followed by the
+         * delta-encoded sorted ids of the objects.
+         */
+        private void writePointsToSet(DataOutputStream out, Set<Obj> pts)
+                throws IOException {
+            int[] ids = new int[pts.size()];
+            int i = 0;
+            for (Obj obj : pts) {
+                ids[i++] = objId(obj);
+            }
+            Arrays.sort(ids);
+            writeVarInt(out, ids.length);
+            int prev = 0;
+            for (int id : ids) {
+                writeVarInt(out, id - prev);
+                prev = id;
+            }
+        }
+
+        private int stringId(String s) {
+            return strings.computeIfAbsent(s, unused -> strings.size());
+        }
+
+        private int methodId(JMethod method) {
+            return methods.computeIfAbsent(method, unused -> methods.size());
+        }
+
+        private int fieldId(JField field) {
+            return fields.computeIfAbsent(field, unused -> fields.size());
+        }
+
+        private int objId(Obj obj) {
+            Integer id = objs.get(obj);
+            if (id == null) {
+                throw new IllegalStateException(obj + " is not in the result");
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Reads a snapshot and restores the pointer analysis result.
+     */
+    private static class Reader {
+
+        private final AnalysisOptions options;
+
+        private final ClassHierarchy hierarchy = World.get().getClassHierarchy();
+
+        private final TypeSystem typeSystem = World.get().getTypeSystem();
+
+        private String[] strings;
+
+        private JMethod[] methods;
+
+        private JField[] fields;
+
+        private Obj[] objs;
+
+        /**
+         * Temporary variables (not in IR) restored from the snapshot.
+         */
+        private final Map<JMethod, Map<String, Var>> tempVars = Maps.newMap();
+
+        private Reader(AnalysisOptions options) {
+            this.options = options;
+        }
+
+        private PointerAnalysisResult read(File file) throws IOException {
+            try (DataInputStream in = new DataInputStream(
+                    new InflaterInputStream(new BufferedInputStream(
+                            new FileInputStream(file))))) {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new IOException("Unrecognized snapshot format");
+                }
+                strings = new String[readVarInt(in)];
+                for (int i = 0; i < strings.length; ++i) {
+                    strings[i] = readString(in);
+                }
+                methods = new JMethod[readVarInt(in)];
+                for (int i = 0; i < methods.length; ++i) {
+                    String sig = strings[readVarInt(in)];
+                    methods[i] = Objects.requireNonNull(
+                            hierarchy.getMethod(sig), "Missing method " + sig);
+                }
+                fields = new JField[readVarInt(in)];
+                for (int i = 0; i < fields.length; ++i) {
+                    String sig = strings[readVarInt(in)];
+                    fields[i] = Objects.requireNonNull(
+                            hierarchy.getField(sig), "Missing field " + sig);
+                }
+                SnapshotResult result = new SnapshotResult(
+                        new SnapshotHeapModel(options));
+                readObjects(in, result);
+                readPointsToSets(in, result);
+                readCallGraph(in, result);
+                readObjectFlowGraph(in, result);
+                return result;
+            }
+        }
+
+        private void readObjects(DataInputStream in, SnapshotResult result)
+                throws IOException {
+            SnapshotHeapModel heapModel = result.getHeapModel();
+            objs = new Obj[readVarInt(in)];
+            for (int i = 0; i < objs.length; ++i) {
+                int kind = in.readUnsignedByte();
+                if (kind == NEW_OBJ) {
+                    JMethod container = methods[readVarInt(in)];
+                    New allocSite = (New) container.getIR().getStmt(readVarInt(in));
+                    objs[i] = heapModel.restoreNewObj(allocSite);
+                } else {
+                    String desc = strings[readVarInt(in)];
+                    Type type = typeSystem.getType(strings[readVarInt(in)]);
+                    int containerId = readVarInt(in);
+                    JMethod container = containerId > 0 ?
+                            methods[containerId - 1] : null;
+                    Type containerType = typeSystem.getType(strings[readVarInt(in)]);
+                    boolean isFunctional = in.readBoolean();
+                    objs[i] = heapModel.restoreObj(desc, type, container,
+                            containerType, isFunctional);
+                }
+                result.addObject(objs[i]);
+            }
+        }
+
+        private void readPointsToSets(DataInputStream in, SnapshotResult result)
+                throws IOException {
+            int varCount = readVarInt(in);
+            for (int i = 0; i < varCount; ++i) {
+                Var var = readVar(in);
+                result.setPointsToSet(var, readPointsToSet(in));
+            }
+            int ifieldCount = readVarInt(in);
+            for (int i = 0; i < ifieldCount; ++i) {
+                Obj base = objs[readVarInt(in)];
+                JField field = fields[readVarInt(in)];
+                result.setPointsToSet(base, field, readPointsToSet(in));
+            }
+            int arrayCount = readVarInt(in);
+            for (int i = 0; i < arrayCount; ++i) {
+                Obj array = objs[readVarInt(in)];
+                result.setPointsToSet(array, readPointsToSet(in));
+            }
+            int sfieldCount = readVarInt(in);
+            for (int i = 0; i < sfieldCount; ++i) {
+                JField field = fields[readVarInt(in)];
+                result.setPointsToSet(field, readPointsToSet(in));
+            }
+        }
+
+        private void readCallGraph(DataInputStream in, SnapshotResult result)
+                throws IOException {
+            var callGraph = result.getMutableCallGraph();
+            int entryCount = readVarInt(in);
+            for (int i = 0; i < entryCount; ++i) {
+                callGraph.addEntryMethod(methods[readVarInt(in)]);
+            }
+            int reachableCount = readVarInt(in);
+            for (int i = 0; i < reachableCount; ++i) {
+                callGraph.addReachableMethod(methods[readVarInt(in)]);
+            }
+            CallKind[] kinds = CallKind.values();
+            int edgeCount = readVarInt(in);
+            for (int i = 0; i < edgeCount; ++i) {
+                JMethod caller = methods[readVarInt(in)];
+                Invoke callSite = (Invoke) caller.getIR().getStmt(readVarInt(in));
+                JMethod callee = methods[readVarInt(in)];
+                CallKind kind = kinds[in.readUnsignedByte()];
+                callGraph.addEdge(new Edge<>(kind, callSite, callee));
+            }
+        }
+
+        private void readObjectFlowGraph(DataInputStream in, SnapshotResult result)
+                throws IOException {
+            SnapshotObjectFlowGraph ofg = result.getMutableObjectFlowGraph();
+            Node[] nodes = new Node[readVarInt(in)];
+            for (int i = 0; i < nodes.length; ++i) {
+                int kind = in.readUnsignedByte();
+                nodes[i] = switch (kind) {
+                    case VAR_NODE -> ofg.addVarNode(readVar(in));
+                    case INSTANCE_FIELD_NODE -> ofg.addInstanceFieldNode(
+                            objs[readVarInt(in)], fields[readVarInt(in)]);
+                    case ARRAY_INDEX_NODE -> ofg.addArrayIndexNode(
+                            objs[readVarInt(in)]);
+                    case STATIC_FIELD_NODE -> ofg.addStaticFieldNode(
+                            fields[readVarInt(in)]);
+                    default -> throw new IOException("Unknown node kind: " + kind);
+                };
+            }
+            FlowKind[] kinds = FlowKind.values();
+            int edgeCount = readVarInt(in);
+            for (int i = 0; i < edgeCount; ++i) {
+                FlowKind kind = kinds[in.readUnsignedByte()];
+                ofg.addFlowEdge(kind, nodes[readVarInt(in)], nodes[readVarInt(in)]);
+            }
+        }
+
+        private Var readVar(DataInputStream in) throws IOException {
+            JMethod method = methods[readVarInt(in)];
+            int index = readVarInt(in) - 1;
+            if (index >= 0) {
+                return method.getIR().getVar(index);
+            } else {
+                String name = strings[readVarInt(in)];
+                Type type = typeSystem.getType(strings[readVarInt(in)]);
+                return tempVars.computeIfAbsent(method, unused -> Maps.newMap())
+                        .computeIfAbsent(name, n -> new Var(method, n, type, -1));
+            }
+        }
+
+        private List<Obj> readPointsToSet(DataInputStream in) throws IOException {
+            int size = readVarInt(in);
+            List<Obj> pts = new ArrayList<>(size);
+            int id = 0;
+            for (int i = 0; i < size; ++i) {
+                id += readVarInt(in);
+                pts.add(objs[id]);
+            }
+            return pts;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.snapshot;
+
+import pascal.taie.analysis.pta.core.heap.AbstractHeapModel;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+
+import javax.annotation.Nullable;
+
+/**
+ * Heap model for restoring the objects in a snapshot. The objects
+ * allocated by new statements are restored as {@link pascal.taie.analysis.pta.core.heap.NewObj},
+ * and other objects are restored as {@link SnapshotObj}.
+ */
+class SnapshotHeapModel extends AbstractHeapModel {
+
+    SnapshotHeapModel(AnalysisOptions options) {
+        super(options);
+    }
+
+    @Override
+    protected Obj doGetObj(New allocSite) {
+        return getNewObj(allocSite);
+    }
+
+    Obj restoreNewObj(New allocSite) {
+        return getNewObj(allocSite);
+    }
+
+    Obj restoreObj(String desc, Type type, @Nullable JMethod container,
+                   Type containerType, boolean isFunctional) {
+        return add(new SnapshotObj(
+                desc, type, container, containerType, isFunctional));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.snapshot;
+
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
+
+import javax.annotation.Nullable;
+import java.util.Optional;
+
+/**
+ * Represents the objects restored from a snapshot whose allocations
+ * cannot be restored, e.g., mock objects and merged objects.
+ * Such an object keeps the information that is needed by the clients
+ * of pre-analysis results, and its allocation is its description.
+ */
+class SnapshotObj extends Obj {
+
+    private final String desc;
+
+    private final Type type;
+
+    @Nullable
+    private final JMethod container;
+
+    private final Type containerType;
+
+    private final boolean isFunctional;
+
+    SnapshotObj(String desc, Type type, @Nullable JMethod container,
+                Type containerType, boolean isFunctional) {
+        this.desc = desc;
+        this.type = type;
+        this.container = container;
+        this.containerType = containerType;
+        this.isFunctional = isFunctional;
+    }
+
+    @Override
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public String getAllocation() {
+        return desc;
+    }
+
+    @Override
+    public Optional<JMethod> getContainerMethod() {
+        return Optional.ofNullable(container);
+    }
+
+    @Override
+    public Type getContainerType() {
+        return containerType;
+    }
+
+    @Override
+    public boolean isFunctional() {
+        return isFunctional;
+    }
+
+    @Override
+    public String toString() {
+        return desc;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.snapshot;
+
+import pascal.taie.analysis.graph.flowgraph.FlowKind;
+import pascal.taie.analysis.graph.flowgraph.Node;
+import pascal.taie.analysis.graph.flowgraph.ObjectFlowGraph;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.JField;
+
+/**
+ * Object flow graph restored from a snapshot.
+ */
+class SnapshotObjectFlowGraph extends ObjectFlowGraph {
+
+    Node addVarNode(Var var) {
+        return getOrCreateVarNode(var);
+    }
+
+    Node addInstanceFieldNode(Obj base, JField field) {
+        return getOrCreateInstanceFieldNode(base, field);
+    }
+
+    Node addArrayIndexNode(Obj array) {
+        return getOrCreateArrayIndexNode(array);
+    }
+
+    Node addStaticFieldNode(JField field) {
+        return getOrCreateStaticFieldNode(field);
+    }
+
+    void addFlowEdge(FlowKind kind, Node source, Node target) {
+        addEdge(kind, source, target);
+    }
+}
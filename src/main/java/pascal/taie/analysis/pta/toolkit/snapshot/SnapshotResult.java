@@ -0,0 +1,276 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.snapshot;
+
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.DefaultCallGraph;
+import pascal.taie.analysis.graph.flowgraph.ObjectFlowGraph;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.InstanceField;
+import pascal.taie.analysis.pta.core.cs.element.StaticField;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.ArrayAccess;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.StaticFieldAccess;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AbstractResultHolder;
+import pascal.taie.util.Canonicalizer;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.HybridBitSet;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Pair;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.TwoKeyMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Context-insensitive pointer analysis result restored from a snapshot.
+ * Since the snapshot does not keep context-sensitive elements, the APIs
+ * for querying such elements are unsupported.
+ */
+class SnapshotResult extends AbstractResultHolder
+        implements PointerAnalysisResult {
+
+    private final SnapshotHeapModel heapModel;
+
+    private final Canonicalizer<Set<Obj>> canonicalizer = new Canonicalizer<>();
+
+    private final List<Obj> objects = new ArrayList<>();
+
+    private final Map<Var, Set<Obj>> varPointsTo = Maps.newMap(4096);
+
+    private final TwoKeyMap<Obj, JField, Set<Obj>> ifieldPointsTo = Maps.newTwoKeyMap();
+
+    private final Map<Obj, Set<Obj>> arrayPointsTo = Maps.newMap(1024);
+
+    private final Map<JField, Set<Obj>> sfieldPointsTo = Maps.newMap(512);
+
+    /**
+     * Points-to sets of instance field expressions, e.g., v.f,
+     * which are computed on demand.
+     */
+    private final Map<Pair<Var, JField>, Set<Obj>> varFieldPointsTo = Maps.newConcurrentMap(1024);
+
+    /**
+     * Points-to sets of array expressions, e.g., a[i],
+     * which are computed on demand.
+     */
+    private final Map<Var, Set<Obj>> varArrayPointsTo = Maps.newConcurrentMap(1024);
+
+    private final DefaultCallGraph callGraph = new DefaultCallGraph();
+
+    private final SnapshotObjectFlowGraph ofg = new SnapshotObjectFlowGraph();
+
+    SnapshotResult(SnapshotHeapModel heapModel) {
+        this.heapModel = heapModel;
+    }
+
+    SnapshotHeapModel getHeapModel() {
+        return heapModel;
+    }
+
+    DefaultCallGraph getMutableCallGraph() {
+        return callGraph;
+    }
+
+    SnapshotObjectFlowGraph getMutableObjectFlowGraph() {
+        return ofg;
+    }
+
+    void addObject(Obj obj) {
+        objects.add(obj);
+    }
+
+    void setPointsToSet(Var var, Collection<Obj> pts) {
+        varPointsTo.put(var, toSet(pts));
+    }
+
+    void setPointsToSet(Obj base, JField field, Collection<Obj> pts) {
+        ifieldPointsTo.put(base, field, toSet(pts));
+    }
+
+    void setPointsToSet(Obj array, Collection<Obj> pts) {
+        arrayPointsTo.put(array, toSet(pts));
+    }
+
+    void setPointsToSet(JField field, Collection<Obj> pts) {
+        sfieldPointsTo.put(field, toSet(pts));
+    }
+
+    private Set<Obj> toSet(Collection<Obj> objs) {
+        Set<Obj> set = new HybridBitSet<>(heapModel, true);
+        set.addAll(objs);
+        return canonicalizer.get(Collections.unmodifiableSet(set));
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        throw new UnsupportedOperationException(
+                "Snapshot does not contain context-sensitive variables");
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return Collections.unmodifiableSet(varPointsTo.keySet());
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        throw new UnsupportedOperationException(
+                "Snapshot does not contain context-sensitive instance fields");
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        throw new UnsupportedOperationException(
+                "Snapshot does not contain context-sensitive array indexes");
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        throw new UnsupportedOperationException(
+                "Snapshot does not contain context-sensitive static fields");
+    }
+
+    @Override
+    public Collection<CSObj> getCSObjects() {
+        throw new UnsupportedOperationException(
+                "Snapshot does not contain context-sensitive objects");
+    }
+
+    @Override
+    public Collection<Obj> getObjects() {
+        return Collections.unmodifiableList(objects);
+    }
+
+    @Override
+    public Indexer<Obj> getObjectIndexer() {
+        return heapModel;
+    }
+
+    @Override
+    public Set<Obj> getPointsToSet(Var var) {
+        return varPointsTo.getOrDefault(var, Set.of());
+    }
+
+    @Override
+    public Set<Obj> getPointsToSet(InstanceFieldAccess access) {
+        JField field = access.getFieldRef().resolveNullable();
+        return field != null ?
+                getPointsToSet(access.getBase(), field) : Set.of();
+    }
+
+    @Override
+    public Set<Obj> getPointsToSet(Var base, JField field) {
+        return varFieldPointsTo.computeIfAbsent(new Pair<>(base, field), p -> {
+            List<Obj> pts = new ArrayList<>();
+            getPointsToSet(base).forEach(o -> pts.addAll(getPointsToSet(o, field)));
+            return toSet(pts);
+        });
+    }
+
+    @Override
+    public Set<Obj> getPointsToSet(Obj base, JField field) {
+        return Objects.requireNonNullElse(
+                ifieldPointsTo.get(base, field), Set.of());
+    }
+
+    @Override
+    public Set<Obj> getPointsToSet(StaticFieldAccess access) {
+        JField field = access.getFieldRef().resolveNullable();
+        return field != null ? getPointsToSet(field) : Set.of();
+    }
+
+    @Override
+    public Set<Obj> getPointsToSet(JField field) {
+        return sfieldPointsTo.getOrDefault(field, Set.of());
+    }
+
+    @Override
+    public Set<Obj> getPointsToSet(ArrayAccess access) {
+        return getPointsToSet(access.getBase(), access.getIndex());
+    }
+
+    @Override
+    public Set<Obj> getPointsToSet(Var base, Var index) {
+        return varArrayPointsTo.computeIfAbsent(base, b -> {
+            List<Obj> pts = new ArrayList<>();
+            getPointsToSet(b).forEach(o -> pts.addAll(getPointsToSet(o)));
+            return toSet(pts);
+        });
+    }
+
+    @Override
+    public Set<Obj> getPointsToSet(Obj array) {
+        return arrayPointsTo.getOrDefault(array, Set.of());
+    }
+
+    @Override
+    public boolean mayAlias(Var v1, Var v2) {
+        return Sets.haveOverlap(getPointsToSet(v1), getPointsToSet(v2));
+    }
+
+    @Override
+    public boolean mayAlias(InstanceFieldAccess if1, InstanceFieldAccess if2) {
+        return Objects.equals(
+                if1.getFieldRef().resolveNullable(),
+                if2.getFieldRef().resolveNullable())
+                && mayAlias(if1.getBase(), if2.getBase());
+    }
+
+    @Override
+    public boolean mayAlias(ArrayAccess a1, ArrayAccess a2) {
+        return mayAlias(a1.getBase(), a2.getBase());
+    }
+
+    @Override
+    public CallGraph<CSCallSite, CSMethod> getCSCallGraph() {
+        throw new UnsupportedOperationException(
+                "Snapshot does not contain context-sensitive call graph");
+    }
+
+    @Override
+    public CallGraph<Invoke, JMethod> getCallGraph() {
+        return callGraph;
+    }
+
+    @Override
+    public ObjectFlowGraph getObjectFlowGraph() {
+        return ofg;
+    }
+}
@@ -30,10 +30,13 @@ import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.ir.stmt.StoreArray;
 import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.CollectionUtils;
+import pascal.taie.util.collection.IndexerBitSet;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Represents result of side-effect analysis.
@@ -42,6 +45,7 @@ public class SideEffect implements StmtResult<Set<Obj>> {
 
     /**
      * Maps from a method to all objects directly or indirectly modified by it.
+     * Methods with equivalent modified objects share the same set.
      */
     private final Map<JMethod, Set<Obj>> methodMods;
 
@@ -52,19 +56,24 @@ public class SideEffect implements StmtResult<Set<Obj>> {
 
     private final CallGraph<Invoke, JMethod> callGraph;
 
+    private final Indexer<Obj> objIndexer;
+
     SideEffect(Map<JMethod, Set<Obj>> methodMods,
                Map<Stmt, Set<Obj>> stmtDirectMods,
-               CallGraph<Invoke, JMethod> callGraph) {
+               CallGraph<Invoke, JMethod> callGraph,
+               Indexer<Obj> objIndexer) {
         this.methodMods = methodMods;
         this.stmtDirectMods = stmtDirectMods;
         this.callGraph = callGraph;
+        this.objIndexer = objIndexer;
     }
 
     /**
      * @return set of objects that may be modified by given method.
      */
     public Set<Obj> getModifiedObjects(JMethod method) {
-        return methodMods.getOrDefault(method, Set.of());
+        Set<Obj> mods = methodMods.get(method);
+        return mods != null ? Collections.unmodifiableSet(mods) : Set.of();
     }
 
     /**
@@ -74,13 +83,21 @@ public class SideEffect implements StmtResult<Set<Obj>> {
         if (stmt instanceof Invoke invoke) {
             // to save space, we compute modified objects of
             // Invoke stmt on demand, and do not cache them
-            return callGraph.getCalleesOf(invoke)
-                    .stream()
-                    .map(this::getModifiedObjects)
-                    .flatMap(Set::stream)
-                    .collect(Collectors.toUnmodifiableSet());
+            Set<JMethod> callees = callGraph.getCalleesOf(invoke);
+            if (callees.size() == 1) {
+                return getModifiedObjects(CollectionUtils.getOne(callees));
+            }
+            Set<Obj> mods = new IndexerBitSet<>(objIndexer, true);
+            callees.forEach(callee -> {
+                Set<Obj> calleeMods = methodMods.get(callee);
+                if (calleeMods != null) {
+                    mods.addAll(calleeMods);
+                }
+            });
+            return mods.isEmpty() ? Set.of() : Collections.unmodifiableSet(mods);
         }
-        return stmtDirectMods.getOrDefault(stmt, Set.of());
+        Set<Obj> mods = stmtDirectMods.get(stmt);
+        return mods != null ? Collections.unmodifiableSet(mods) : Set.of();
     }
 
     /**
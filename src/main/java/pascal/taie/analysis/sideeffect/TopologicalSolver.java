@@ -33,47 +33,64 @@ import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.ir.stmt.StoreArray;
 import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Canonicalizer;
 import pascal.taie.util.Indexer;
 import pascal.taie.util.collection.CollectionUtils;
 import pascal.taie.util.collection.IndexerBitSet;
 import pascal.taie.util.collection.Maps;
-import pascal.taie.util.collection.Sets;
 import pascal.taie.util.graph.MergedNode;
 import pascal.taie.util.graph.MergedSCCGraph;
 import pascal.taie.util.graph.TopologicalSorter;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Computes modification information based on pointer analysis
  * and topological sorting of call graph.
+ * <p>
+ * All sets of modified objects are {@link IndexerBitSet}s over the object
+ * indexer of pointer analysis, and equivalent sets are shared among
+ * statements and methods via a {@link Canonicalizer}. Therefore, the sets
+ * in the result must not be modified.
  */
 class TopologicalSolver {
 
     private final boolean onlyApp;
 
+    private Indexer<Obj> indexer;
+
+    /**
+     * Objects relevant to this analysis, i.e., the objects whose
+     * modifications are tracked.
+     */
+    private Set<Obj> relevantObjs;
+
+    private final Canonicalizer<Set<Obj>> canonicalizer = new Canonicalizer<>();
+
     TopologicalSolver(boolean onlyApp) {
         this.onlyApp = onlyApp;
     }
 
     SideEffect solve(PointerAnalysisResult pta) {
         CallGraph<Invoke, JMethod> callGraph = pta.getCallGraph();
+        indexer = pta.getObjectIndexer();
+        relevantObjs = newSet();
+        pta.getObjects()
+                .stream()
+                .filter(this::isRelevant)
+                .forEach(relevantObjs::add);
         // 1. compute the objects directly modified by each method and stmt
-        Map<JMethod, Set<Obj>> methodDirectMods = Maps.newMap();
-        Map<Stmt, Set<Obj>> stmtDirectMods = Maps.newMap();
+        Map<JMethod, Set<Obj>> methodDirectMods = Maps.newConcurrentMap();
+        Map<Stmt, Set<Obj>> stmtDirectMods = Maps.newConcurrentMap();
         computeDirectMods(pta, callGraph, stmtDirectMods, methodDirectMods);
-        // 2. compute the objects directly modified by
-        //    the methods of each SCC in the call graph
+        // 2. fully compute the objects modified by each method
         var mg = new MergedSCCGraph<>(callGraph);
-        Map<JMethod, Set<Obj>> sccDirectMods = computeSCCDirectMods(
-                mg.getNodes(), methodDirectMods);
-        // 3. fully compute the objects modified by each method
-        Indexer<Obj> indexer = pta.getObjectIndexer();
         Map<JMethod, Set<Obj>> methodMods = computeMethodMods(
-                mg, callGraph, sccDirectMods, indexer);
-        return new SideEffect(methodMods, stmtDirectMods, callGraph);
+                mg, methodDirectMods);
+        return new SideEffect(methodMods, stmtDirectMods, callGraph, indexer);
     }
 
     private void computeDirectMods(
@@ -81,32 +98,31 @@ class TopologicalSolver {
             CallGraph<?, JMethod> callGraph,
             Map<Stmt, Set<Obj>> stmtDirectMods,
             Map<JMethod, Set<Obj>> methodDirectMods) {
-        callGraph.forEach(method -> {
-            Set<Obj> mMods = Sets.newHybridSet();
+        callGraph.reachableMethods().parallel().forEach(method -> {
+            Set<Obj> mMods = newSet();
+            // stores on the same base variable modify the same objects
+            Map<Var, Set<Obj>> baseMods = Maps.newMap();
             method.getIR().forEach(stmt -> {
-                Set<Obj> sMods = Set.of();
+                Var base = null;
                 if (stmt instanceof StoreField storeField) {
                     FieldAccess fieldAccess = storeField.getFieldAccess();
                     if (fieldAccess instanceof InstanceFieldAccess instAccess) {
-                        Var base = instAccess.getBase();
-                        sMods = pta.getPointsToSet(base);
+                        base = instAccess.getBase();
                     }
                 } else if (stmt instanceof StoreArray storeArray) {
-                    Var base = storeArray.getArrayAccess().getBase();
-                    sMods = pta.getPointsToSet(base);
+                    base = storeArray.getArrayAccess().getBase();
                 }
-                if (!sMods.isEmpty()) {
-                    sMods = sMods.stream()
-                            .filter(this::isRelevant)
-                            .collect(Collectors.toUnmodifiableSet());
-                }
-                if (!sMods.isEmpty()) {
-                    mMods.addAll(sMods);
-                    stmtDirectMods.put(stmt, sMods);
+                if (base != null) {
+                    Set<Obj> sMods = baseMods.computeIfAbsent(base,
+                            b -> getRelevantObjs(pta.getPointsToSet(b)));
+                    if (!sMods.isEmpty()) {
+                        mMods.addAll(sMods);
+                        stmtDirectMods.put(stmt, sMods);
+                    }
                 }
             });
             if (!mMods.isEmpty()) {
-                methodDirectMods.put(method, mMods);
+                methodDirectMods.put(method, canonicalizer.get(mMods));
             }
         });
     }
@@ -118,48 +134,70 @@ class TopologicalSolver {
         return false;
     }
 
-    private static Map<JMethod, Set<Obj>> computeSCCDirectMods(
-            Set<MergedNode<JMethod>> sccs,
-            Map<JMethod, Set<Obj>> methodDirectMods) {
-        Map<JMethod, Set<Obj>> sccDirectMods = Maps.newMap();
-        sccs.forEach(scc -> {
-            Set<Obj> mods = Sets.newHybridSet();
-            scc.getNodes().forEach(m ->
-                    mods.addAll(methodDirectMods.getOrDefault(m, Set.of())));
-            scc.getNodes().forEach(m -> sccDirectMods.put(m, mods));
+    /**
+     * @return the canonical set of relevant objects in given points-to set.
+     */
+    private Set<Obj> getRelevantObjs(Set<Obj> pts) {
+        Set<Obj> result = newSet();
+        pts.forEach(obj -> {
+            if (relevantObjs.contains(obj)) {
+                result.add(obj);
+            }
         });
-        return sccDirectMods;
+        return result.isEmpty() ? Set.of() : canonicalizer.get(result);
     }
 
-    private static Map<JMethod, Set<Obj>> computeMethodMods(
+    private Map<JMethod, Set<Obj>> computeMethodMods(
             MergedSCCGraph<JMethod> mg,
-            CallGraph<?, JMethod> callGraph,
-            Map<JMethod, Set<Obj>> sccDirectMods,
-            Indexer<Obj> indexer) {
-        Map<JMethod, Set<Obj>> methodMods = Maps.newMap();
+            Map<JMethod, Set<Obj>> methodDirectMods) {
         // to accelerate side-effect analysis, we propagate modified objects
-        // of methods (methodMods) based on topological sorting of call graph,
-        // so that each method only needs to be processed once
-        var sorter = new TopologicalSorter<>(mg, true);
-        sorter.get().forEach(scc -> {
-            Set<Obj> mods = new IndexerBitSet<>(indexer, true);
-            // add SCC direct mods
-            Set<JMethod> sccNodes = Sets.newSet(scc.getNodes());
-            JMethod rep = CollectionUtils.getOne(sccNodes);
-            mods.addAll(sccDirectMods.get(rep));
-            // add callees' mods
-            sccNodes.forEach(m -> {
-                callGraph.getCalleesOfM(m)
-                        .stream()
-                        // avoid redundantly adding SCC direct mods
-                        .filter(callee -> !sccNodes.contains(callee))
-                        .forEach(callee -> mods.addAll(
-                                methodMods.getOrDefault(callee, Set.of())));
-            });
+        // of SCCs based on topological sorting of merged call graph,
+        // so that each SCC only needs to be processed once.
+        // The SCCs are grouped into levels, where the SCCs in a level
+        // only call the SCCs in lower levels, thus the SCCs in the same
+        // level are independent and can be processed in parallel.
+        Map<MergedNode<JMethod>, Set<Obj>> sccMods = Maps.newConcurrentMap();
+        TopologicalSorter.computeLevels(mg).forEach(level -> level.parallelStream().forEach(scc -> {
+            Set<Obj> mods = computeSCCMods(mg, scc, methodDirectMods, sccMods);
             if (!mods.isEmpty()) {
-                sccNodes.forEach(m -> methodMods.put(m, mods));
+                sccMods.put(scc, mods);
             }
-        });
+        }));
+        Map<JMethod, Set<Obj>> methodMods = Maps.newMap();
+        sccMods.forEach((scc, mods) ->
+                scc.getNodes().forEach(m -> methodMods.put(m, mods)));
         return methodMods;
     }
+
+    private Set<Obj> computeSCCMods(
+            MergedSCCGraph<JMethod> mg,
+            MergedNode<JMethod> scc,
+            Map<JMethod, Set<Obj>> methodDirectMods,
+            Map<MergedNode<JMethod>, Set<Obj>> sccMods) {
+        // collect the sets to be merged, i.e., SCC direct mods and callees'
+        // mods. As the sets are canonicalized, we compare them by identity.
+        Set<Set<Obj>> sets = Collections.newSetFromMap(new IdentityHashMap<>());
+        scc.getNodes().forEach(m -> addIfNonNull(sets, methodDirectMods.get(m)));
+        mg.getSuccsOf(scc).forEach(succ -> addIfNonNull(sets, sccMods.get(succ)));
+        return switch (sets.size()) {
+            case 0 -> Set.of();
+            // share mods with the only callee (or method) without copying
+            case 1 -> CollectionUtils.getOne(sets);
+            default -> {
+                Set<Obj> mods = newSet();
+                sets.forEach(mods::addAll);
+                yield canonicalizer.get(mods);
+            }
+        };
+    }
+
+    private static void addIfNonNull(Set<Set<Obj>> sets, Set<Obj> set) {
+        if (set != null) {
+            sets.add(set);
+        }
+    }
+
+    private Set<Obj> newSet() {
+        return new IndexerBitSet<>(indexer, true);
+    }
 }
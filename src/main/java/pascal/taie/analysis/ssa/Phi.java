@@ -0,0 +1,101 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.ssa;
+
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Represents a phi function of {@link SSA} form, which is placed before
+ * a join node of control-flow graph, and merges the versions of
+ * a variable that flow from the predecessors of the node.
+ */
+public class Phi {
+
+    private final Stmt node;
+
+    private final Var var;
+
+    private SSAVar result;
+
+    /**
+     * Map from predecessors of {@link #node} to the versions flowing from them.
+     */
+    private final Map<Stmt, SSAVar> operands = Maps.newHybridMap();
+
+    Phi(Stmt node, Var var) {
+        this.node = node;
+        this.var = var;
+    }
+
+    /**
+     * @return the node where this phi is placed, i.e., this phi is
+     * evaluated before the node.
+     */
+    public Stmt getNode() {
+        return node;
+    }
+
+    /**
+     * @return the variable merged by this phi.
+     */
+    public Var getVar() {
+        return var;
+    }
+
+    /**
+     * @return the version defined by this phi.
+     */
+    public SSAVar getResult() {
+        return result;
+    }
+
+    /**
+     * @return map from the predecessors of {@link #getNode()} to
+     * the versions flowing from them. Unreachable predecessors are absent.
+     */
+    public Map<Stmt, SSAVar> getOperands() {
+        return Collections.unmodifiableMap(operands);
+    }
+
+    void setResult(SSAVar result) {
+        this.result = result;
+    }
+
+    void setOperand(Stmt pred, SSAVar operand) {
+        operands.put(pred, operand);
+        operand.addPhiUse(this);
+    }
+
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", result + " = phi(", ")");
+        operands.values().forEach(v -> joiner.add(v.toString()));
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.ssa;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.MergedSCCGraph;
+import pascal.taie.util.graph.SimpleGraph;
+import pascal.taie.util.graph.TopologicalSorter;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Static single assignment (SSA) form of a method, which is built by
+ * {@link SSABuilder}. Instead of rewriting the IR, the SSA form
+ * associates the definitions and uses of the variables in the IR with
+ * their versions ({@link SSAVar}), and places {@link Phi}s before the
+ * join nodes of the control-flow graph. As each use has exactly one
+ * reaching version, the def-use chains are sparse, i.e., their size is
+ * linear to the size of the IR, and sparse analyses can propagate facts
+ * along the chains instead of along the control-flow graph.
+ * <p>
+ * The nodes that are unreachable from the heads of the control-flow
+ * graph (e.g., dead loops) are not in SSA form.
+ */
+public class SSA {
+
+    private final CFG<Stmt> cfg;
+
+    private final Map<Stmt, List<Phi>> phis;
+
+    private final Map<Stmt, SSAVar> defs;
+
+    private final Map<Stmt, Map<Var, SSAVar>> uses;
+
+    /**
+     * Map from phis to the statements that define their operands
+     * (transitively through other phis), computed on demand.
+     */
+    private Map<Phi, Set<Stmt>> phiDefStmts;
+
+    SSA(CFG<Stmt> cfg, Map<Stmt, List<Phi>> phis,
+        Map<Stmt, SSAVar> defs, Map<Stmt, Map<Var, SSAVar>> uses) {
+        this.cfg = cfg;
+        this.phis = phis;
+        this.defs = defs;
+        this.uses = uses;
+    }
+
+    /**
+     * @return the control-flow graph which this SSA form is built on.
+     */
+    public CFG<Stmt> getCFG() {
+        return cfg;
+    }
+
+    /**
+     * @return the phis placed before {@code node}.
+     */
+    public List<Phi> getPhisAt(Stmt node) {
+        return Collections.unmodifiableList(phis.getOrDefault(node, List.of()));
+    }
+
+    /**
+     * @return all phis in this SSA form.
+     */
+    public List<Phi> getPhis() {
+        return phis.values()
+                .stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    /**
+     * @return the version defined by {@code stmt}, or {@code null}
+     * if {@code stmt} does not define any variable.
+     */
+    @Nullable
+    public SSAVar getDef(Stmt stmt) {
+        return defs.get(stmt);
+    }
+
+    /**
+     * @return the version of {@code var} used by {@code stmt}, or
+     * {@code null} if {@code var} is not used by {@code stmt}.
+     */
+    @Nullable
+    public SSAVar getUse(Stmt stmt, Var var) {
+        Map<Var, SSAVar> stmtUses = uses.get(stmt);
+        return stmtUses != null ? stmtUses.get(var) : null;
+    }
+
+    /**
+     * @return the versions used by {@code stmt}.
+     */
+    public Map<Var, SSAVar> getUses(Stmt stmt) {
+        return Collections.unmodifiableMap(uses.getOrDefault(stmt, Map.of()));
+    }
+
+    /**
+     * @return the statements that define {@code ssaVar}, i.e., the
+     * definition of {@code ssaVar} if it is defined by a statement,
+     * or the definitions of the operands (transitively) if it is defined
+     * by a phi. This is the set of reaching definitions of the uses of
+     * {@code ssaVar}.
+     */
+    public Set<Stmt> getDefStmts(SSAVar ssaVar) {
+        if (ssaVar.getDefStmt() != null) {
+            return Set.of(ssaVar.getDefStmt());
+        } else if (ssaVar.getPhi() != null) {
+            if (phiDefStmts == null) {
+                phiDefStmts = computePhiDefStmts();
+            }
+            return phiDefStmts.get(ssaVar.getPhi());
+        } else {
+            return Set.of();
+        }
+    }
+
+    private Map<Phi, Set<Stmt>> computePhiDefStmts() {
+        // phis in the same cycle define the same statements, thus we
+        // process the SCCs of phis in topological order, so that
+        // each phi is visited only once
+        SimpleGraph<Phi> phiGraph = new SimpleGraph<>();
+        phis.values().forEach(nodePhis -> nodePhis.forEach(phi -> {
+            phiGraph.addNode(phi);
+            phi.getOperands().values().forEach(operand -> {
+                if (operand.getPhi() != null) {
+                    phiGraph.addEdge(operand.getPhi(), phi);
+                }
+            });
+        }));
+        MergedSCCGraph<Phi> mg = new MergedSCCGraph<>(phiGraph);
+        Map<Phi, Set<Stmt>> result = Maps.newMap(phiGraph.getNumberOfNodes());
+        new TopologicalSorter<>(mg).get().forEach(scc -> {
+            Set<Stmt> defStmts = Sets.newHybridSet();
+            scc.getNodes().forEach(phi ->
+                    phi.getOperands().values().forEach(operand -> {
+                        if (operand.getDefStmt() != null) {
+                            defStmts.add(operand.getDefStmt());
+                        } else if (operand.getPhi() != null) {
+                            // operands in the same SCC are absent in result
+                            Set<Stmt> predDefStmts = result.get(operand.getPhi());
+                            if (predDefStmts != null) {
+                                defStmts.addAll(predDefStmts);
+                            }
+                        }
+                    }));
+            Set<Stmt> sccDefStmts = Collections.unmodifiableSet(defStmts);
+            scc.getNodes().forEach(phi -> result.put(phi, sccDefStmts));
+        });
+        return result;
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.ssa;
+
+import pascal.taie.analysis.MethodAnalysis;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.analysis.graph.cfg.CFGNodeIndexer;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IndexMap;
+import pascal.taie.util.collection.IndexerBitSet;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.DominatorTree;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds {@link SSA} form of a method by the classic algorithm in
+ * "Efficiently Computing Static Single Assignment Form and the Control
+ * Dependence Graph" (Cytron et al., TOPLAS 1991): phis are placed at
+ * the iterated dominance frontiers of the definitions of each variable,
+ * and the variables are renamed by traversing the dominator tree.
+ * <p>
+ * The SSA form is built on the control-flow graph of the method, thus
+ * the definitions reaching a use via exceptional control-flow edges are
+ * merged in the same way as in {@link
+ * pascal.taie.analysis.dataflow.analysis.ReachingDefinition}.
+ */
+public class SSABuilder extends MethodAnalysis<SSA> {
+
+    public static final String ID = "ssa";
+
+    public SSABuilder(AnalysisConfig config) {
+        super(config);
+    }
+
+    @Override
+    public SSA analyze(IR ir) {
+        CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+        return build(cfg);
+    }
+
+    /**
+     * Builds SSA form on given control-flow graph.
+     */
+    public static SSA build(CFG<Stmt> cfg) {
+        Indexer<Stmt> indexer = new CFGNodeIndexer<>(cfg);
+        int nNodes = cfg.getNumberOfNodes();
+        DominatorTree<Stmt> domTree = new DominatorTree<>(cfg, indexer);
+        Map<Stmt, List<Phi>> phis = new IndexMap<>(indexer, nNodes);
+        placePhis(cfg, domTree, phis);
+        Map<Stmt, SSAVar> defs = new IndexMap<>(indexer, nNodes);
+        Map<Stmt, Map<Var, SSAVar>> uses = new IndexMap<>(indexer, nNodes);
+        new Renamer(cfg, phis, defs, uses).rename(domTree, indexer);
+        return new SSA(cfg, phis, defs, uses);
+    }
+
+    private static void placePhis(CFG<Stmt> cfg, DominatorTree<Stmt> domTree,
+                                  Map<Stmt, List<Phi>> phis) {
+        Map<Var, List<Stmt>> defSites = Maps.newMap();
+        for (Stmt stmt : cfg) {
+            Var var = getDefinedVar(stmt);
+            if (var != null && domTree.contains(stmt)) {
+                defSites.computeIfAbsent(var, __ -> new ArrayList<>())
+                        .add(stmt);
+            }
+        }
+        defSites.forEach((var, sites) -> {
+            // place phis at iterated dominance frontiers of the sites
+            Set<Stmt> placed = Sets.newHybridSet();
+            Deque<Stmt> workList = new ArrayDeque<>(sites);
+            while (!workList.isEmpty()) {
+                Stmt site = workList.poll();
+                for (Stmt frontier : domTree.getDominanceFrontierOf(site)) {
+                    if (placed.add(frontier)) {
+                        phis.computeIfAbsent(frontier, __ -> new ArrayList<>(2))
+                                .add(new Phi(frontier, var));
+                        workList.add(frontier);
+                    }
+                }
+            }
+        });
+    }
+
+    @Nullable
+    private static Var getDefinedVar(Stmt stmt) {
+        return stmt.getDef().orElse(null) instanceof Var var ? var : null;
+    }
+
+    /**
+     * Renames the variables to their versions.
+     */
+    private static class Renamer {
+
+        private final CFG<Stmt> cfg;
+
+        private final Map<Stmt, List<Phi>> phis;
+
+        private final Map<Stmt, SSAVar> defs;
+
+        private final Map<Stmt, Map<Var, SSAVar>> uses;
+
+        /**
+         * Current versions of each variable, the top is the version
+         * that reaches the node being visited.
+         */
+        private final Map<Var, Deque<SSAVar>> stacks = Maps.newMap();
+
+        /**
+         * Versions of the variables at method entry, i.e., version 0.
+         */
+        private final Map<Var, SSAVar> entryVars = Maps.newMap();
+
+        /**
+         * Number of versions of each variable (excluding entry versions).
+         */
+        private final Map<Var, Integer> counts = Maps.newMap();
+
+        private Renamer(CFG<Stmt> cfg, Map<Stmt, List<Phi>> phis,
+                        Map<Stmt, SSAVar> defs, Map<Stmt, Map<Var, SSAVar>> uses) {
+            this.cfg = cfg;
+            this.phis = phis;
+            this.defs = defs;
+            this.uses = uses;
+        }
+
+        private void rename(DominatorTree<Stmt> domTree, Indexer<Stmt> indexer) {
+            // use iterative (non-recursive) traversal of dominator tree
+            // to avoid stack overflow for large methods
+            Set<Stmt> entered = new IndexerBitSet<>(indexer, false);
+            Deque<Stmt> stack = new ArrayDeque<>();
+            domTree.getHeads().forEach(stack::push);
+            while (!stack.isEmpty()) {
+                Stmt node = stack.peek();
+                if (entered.add(node)) {
+                    enter(node);
+                    domTree.getChildrenOf(node).forEach(stack::push);
+                } else {
+                    stack.pop();
+                    exit(node);
+                }
+            }
+        }
+
+        private void enter(Stmt node) {
+            for (Phi phi : phis.getOrDefault(node, List.of())) {
+                SSAVar result = newVersion(phi.getVar(), null, phi);
+                phi.setResult(result);
+            }
+            for (RValue use : node.getUses()) {
+                if (use instanceof Var var) {
+                    SSAVar ssaVar = getCurrentVersion(var);
+                    ssaVar.addUse(node);
+                    uses.computeIfAbsent(node, __ -> Maps.newHybridMap())
+                            .put(var, ssaVar);
+                }
+            }
+            Var def = getDefinedVar(node);
+            if (def != null) {
+                defs.put(node, newVersion(def, node, null));
+            }
+            for (Stmt succ : cfg.getSuccsOf(node)) {
+                for (Phi phi : phis.getOrDefault(succ, List.of())) {
+                    phi.setOperand(node, getCurrentVersion(phi.getVar()));
+                }
+            }
+        }
+
+        private void exit(Stmt node) {
+            for (Phi phi : phis.getOrDefault(node, List.of())) {
+                stacks.get(phi.getVar()).pop();
+            }
+            Var def = getDefinedVar(node);
+            if (def != null) {
+                stacks.get(def).pop();
+            }
+        }
+
+        private SSAVar newVersion(Var var, @Nullable Stmt defStmt, @Nullable Phi phi) {
+            int version = counts.merge(var, 1, Integer::sum);
+            SSAVar ssaVar = new SSAVar(var, version, defStmt, phi);
+            stacks.computeIfAbsent(var, __ -> new ArrayDeque<>()).push(ssaVar);
+            return ssaVar;
+        }
+
+        private SSAVar getCurrentVersion(Var var) {
+            Deque<SSAVar> stack = stacks.get(var);
+            if (stack != null && !stack.isEmpty()) {
+                return stack.peek();
+            }
+            return entryVars.computeIfAbsent(var, v -> new SSAVar(v, 0, null, null));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.ssa;
+
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Represents a version of a variable in {@link SSA} form. Each version
+ * has a single definition, which is either a statement, a {@link Phi},
+ * or the entry of the method (for the values of parameters and
+ * the variables used before being defined).
+ */
+public class SSAVar {
+
+    private final Var var;
+
+    private final int version;
+
+    @Nullable
+    private final Stmt defStmt;
+
+    @Nullable
+    private final Phi phi;
+
+    private final Set<Stmt> uses = Sets.newHybridSet();
+
+    private final List<Phi> phiUses = new ArrayList<>(2);
+
+    SSAVar(Var var, int version, @Nullable Stmt defStmt, @Nullable Phi phi) {
+        this.var = var;
+        this.version = version;
+        this.defStmt = defStmt;
+        this.phi = phi;
+    }
+
+    /**
+     * @return the original variable of this version.
+     */
+    public Var getVar() {
+        return var;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the statement that defines this version, or {@code null}
+     * if this version is defined by phi or at the method entry.
+     */
+    @Nullable
+    public Stmt getDefStmt() {
+        return defStmt;
+    }
+
+    /**
+     * @return the phi that defines this version, or {@code null}
+     * if this version is not defined by phi.
+     */
+    @Nullable
+    public Phi getPhi() {
+        return phi;
+    }
+
+    /**
+     * @return {@code true} if this version is defined at the method entry.
+     */
+    public boolean isEntry() {
+        return defStmt == null && phi == null;
+    }
+
+    /**
+     * @return the statements that use this version.
+     */
+    public Set<Stmt> getUses() {
+        return Collections.unmodifiableSet(uses);
+    }
+
+    /**
+     * @return the phis that use this version as an operand.
+     */
+    public List<Phi> getPhiUses() {
+        return Collections.unmodifiableList(phiUses);
+    }
+
+    void addUse(Stmt stmt) {
+        uses.add(stmt);
+    }
+
+    void addPhiUse(Phi phi) {
+        if (!phiUses.contains(phi)) {
+            phiUses.add(phi);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return var.getName() + "#" + version;
+    }
+}
@@ -224,6 +224,29 @@ public class Options implements Serializable {
         return worldCacheMode;
     }
 
+    @JsonProperty
+    @Option(names = "--metrics",
+            description = "Export metrics of analyses (e.g., solver statistics"
+                    + " and elapsed time of each analysis) to metrics.jsonl in"
+                    + " output directory and JFR events (default: ${DEFAULT-VALUE})",
+            defaultValue = "false")
+    private boolean metrics;
+
+    public boolean isMetrics() {
+        return metrics;
+    }
+
+    @JsonProperty
+    @Option(names = "--metrics-interval",
+            description = "Minimum interval (in milliseconds) between two"
+                    + " samples of metrics (default: ${DEFAULT-VALUE})",
+            defaultValue = "1000")
+    private long metricsInterval;
+
+    public long getMetricsInterval() {
+        return metricsInterval;
+    }
+
     @JsonProperty
     @Option(names = "-scope",
             description = "Scope for method/class analyses (default: ${DEFAULT-VALUE}," +
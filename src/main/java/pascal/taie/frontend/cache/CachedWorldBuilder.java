@@ -28,6 +28,7 @@ import pascal.taie.World;
 import pascal.taie.WorldBuilder;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.Options;
+import pascal.taie.util.BinaryFiles;
 import pascal.taie.util.Timer;
 
 import java.io.BufferedInputStream;
@@ -35,10 +36,16 @@ import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
  * A {@link WorldBuilder} that loads the cached world if it exists, or delegates to the
@@ -48,8 +55,6 @@ public class CachedWorldBuilder implements WorldBuilder {
 
     private static final Logger logger = LogManager.getLogger(CachedWorldBuilder.class);
 
-    private static final String CACHE_DIR = "cache";
-
     private final WorldBuilder delegate;
 
     public CachedWorldBuilder(WorldBuilder delegate) {
@@ -141,15 +146,11 @@ public class CachedWorldBuilder implements WorldBuilder {
     }
 
     public static File getWorldCacheFile(Options options) {
-        File cacheDir = new File(CACHE_DIR);
-        if (!cacheDir.exists()) {
-            cacheDir.mkdirs();
-        }
-        return new File(cacheDir,
-                "world-cache-" + getWorldCacheHash(options) + ".bin").getAbsoluteFile();
+        return BinaryFiles.getCacheFile(
+                "world-cache-" + getWorldCacheHash(options) + ".bin");
     }
 
-    private static int getWorldCacheHash(Options options) {
+    public static int getWorldCacheHash(Options options) {
         int result = options.getMainClass() != null
                 ? options.getMainClass().hashCode() : 0;
         result = 31 * result + (options.getInputClasses() != null
@@ -172,4 +173,41 @@ public class CachedWorldBuilder implements WorldBuilder {
         result = Math.abs(result);
         return result;
     }
+
+    /**
+     * Computes the hash of the program given by the options, which is used
+     * to key the files of analysis results cached across runs. Unlike
+     * {@link #getWorldCacheHash(Options)}, it also covers the files in the
+     * directories on the class paths (their relative paths, sizes and
+     * timestamps), so that it changes when any class of the program
+     * is rebuilt, even if the options stay the same.
+     */
+    public static int getProgramHash(Options options) {
+        int result = getWorldCacheHash(options);
+        List<String> paths = new ArrayList<>();
+        paths.addAll(options.getClassPath());
+        paths.addAll(options.getAppClassPath());
+        for (String path : paths) {
+            Path root = Path.of(path);
+            if (Files.isDirectory(root)) {
+                try (Stream<Path> files = Files.walk(root)) {
+                    for (Path file : files.filter(Files::isRegularFile)
+                            .sorted().toList()) {
+                        result = 31 * result + hashFile(
+                                root.relativize(file).toString(), file.toFile());
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(
+                            "Failed to read class path " + path, e);
+                }
+            } else if (Files.isRegularFile(root)) {
+                result = 31 * result + hashFile(path, root.toFile());
+            }
+        }
+        return result;
+    }
+
+    private static int hashFile(String name, File file) {
+        return Objects.hash(name, file.length(), file.lastModified());
+    }
 }
@@ -30,7 +30,7 @@ import org.apache.logging.log4j.Logger;
 import pascal.taie.AbstractWorldBuilder;
 import pascal.taie.World;
 import pascal.taie.analysis.pta.PointerAnalysis;
-import pascal.taie.analysis.pta.plugin.reflection.LogItem;
+import pascal.taie.analysis.pta.plugin.reflection.ReflectionLog;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.Options;
 import pascal.taie.language.classes.ClassHierarchy;
@@ -172,7 +172,7 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
             if (config.getId().equals(PointerAnalysis.ID)) {
                 String path = config.getOptions().getString("reflection-log");
                 if (path != null) {
-                    LogItem.load(path).forEach(item -> {
+                    ReflectionLog.load(path).getItems().forEach(item -> {
                         // add target class
                         String target = item.target;
                         String targetClass;
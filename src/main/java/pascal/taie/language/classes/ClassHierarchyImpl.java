@@ -91,6 +91,13 @@ public class ClassHierarchyImpl implements ClassHierarchy {
      */
     private final Map<JClass, Set<JClass>> allSubclasses = Maps.newConcurrentMap();
 
+    /**
+     * Encoding of subclass relation for constant-time subclass checking.
+     * It is built lazily when {@link #isSubclass(JClass, JClass)} is
+     * called at the first time after all classes are added.
+     */
+    private transient volatile SubclassEncoding subclassEncoding;
+
     @Override
     public void setDefaultClassLoader(JClassLoader loader) {
         this.defaultLoader = loader;
@@ -150,6 +157,7 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         // invalidate global hierarchy information
         // TODO - make this elegant
         allSubclasses.clear();
+        subclassEncoding = null;
     }
 
     @Override
@@ -399,10 +407,28 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         } else if (superclass == getObjectClass()) {
             return true;
         } else {
+            SubclassEncoding encoding = getSubclassEncoding();
+            if (encoding.isEncoded(superclass) && encoding.isEncoded(subclass)) {
+                return encoding.isSubclass(superclass, subclass);
+            }
             return getAllSubclassesOf(superclass).contains(subclass);
         }
     }
 
+    private SubclassEncoding getSubclassEncoding() {
+        SubclassEncoding encoding = subclassEncoding;
+        if (encoding == null) {
+            synchronized (this) {
+                encoding = subclassEncoding;
+                if (encoding == null) {
+                    encoding = new SubclassEncoding(List.copyOf(classes));
+                    subclassEncoding = encoding;
+                }
+            }
+        }
+        return encoding;
+    }
+
     /**
      * Obtains JClass representing java.lang.Object.
      * Since the creation of JClass requires TypeSystem, which may
@@ -195,6 +195,14 @@ public class JMethod extends ClassMember {
         return ir;
     }
 
+    /**
+     * @return {@code true} if the IR of this method has been built,
+     * otherwise {@code false}.
+     */
+    public boolean isIRBuilt() {
+        return ir != null;
+    }
+
     /**
      * @return the {@link MethodRef} pointing to this method.
      */
@@ -0,0 +1,213 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.RegularBitSet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Encodes the subclass relation of a class hierarchy to answer subclass
+ * checks in constant time.
+ * <p>
+ * The classes (excluding interfaces) form a forest via superclass
+ * relation, so we number the classes in pre-order and post-order of
+ * depth-first traversal of the forest, and a class is a subclass of
+ * another class if and only if its interval of numbers is nested in
+ * the interval of the other class. For interfaces, we assign each
+ * interface a dense id, and compute for each class (or interface)
+ * a bit set of the interfaces it implements (or extends) directly
+ * or indirectly. The classes which do not add any interface share
+ * the bit set of their superclasses.
+ * <p>
+ * The encoding is consistent with
+ * {@link ClassHierarchy#getAllSubclassesOf(JClass)}, except that
+ * {@code java.lang.Object} is not specially treated.
+ */
+class SubclassEncoding {
+
+    private static final IBitSet EMPTY = new RegularBitSet();
+
+    private final List<JClass> classes;
+
+    private final int[] pre;
+
+    private final int[] post;
+
+    /**
+     * Dense ids of interfaces, -1 for non-interface classes.
+     */
+    private final int[] ifaceIds;
+
+    /**
+     * Interfaces that each class is a subclass of.
+     */
+    private final IBitSet[] ifaces;
+
+    SubclassEncoding(List<JClass> classes) {
+        this.classes = classes;
+        int n = classes.size();
+        pre = new int[n];
+        post = new int[n];
+        ifaceIds = new int[n];
+        ifaces = new IBitSet[n];
+        int ifaceCounter = 0;
+        for (int i = 0; i < n; ++i) {
+            ifaceIds[i] = classes.get(i).isInterface() ? ifaceCounter++ : -1;
+        }
+        numberClasses();
+        for (JClass c : classes) {
+            computeInterfaces(c);
+        }
+    }
+
+    /**
+     * Numbers the classes by iterative depth-first traversal
+     * of the forest formed by superclass relation.
+     */
+    private void numberClasses() {
+        int n = classes.size();
+        List<List<JClass>> children = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            children.add(List.of());
+        }
+        List<JClass> roots = new ArrayList<>();
+        for (JClass c : classes) {
+            if (c.isInterface()) {
+                continue;
+            }
+            JClass superclass = c.getSuperClass();
+            if (superclass != null && isEncoded(superclass)
+                    && !superclass.isInterface()) {
+                int superIndex = superclass.getIndex();
+                if (children.get(superIndex).isEmpty()) {
+                    children.set(superIndex, new ArrayList<>());
+                }
+                children.get(superIndex).add(c);
+            } else {
+                roots.add(c);
+            }
+        }
+        // interfaces are never numbered in the forest, and
+        // are given empty intervals
+        Arrays.fill(pre, -1);
+        Arrays.fill(post, -2);
+        int counter = 0;
+        Deque<JClass> stack = new ArrayDeque<>();
+        Deque<Integer> nextChild = new ArrayDeque<>();
+        for (JClass root : roots) {
+            pre[root.getIndex()] = counter++;
+            stack.push(root);
+            nextChild.push(0);
+            while (!stack.isEmpty()) {
+                JClass c = stack.peek();
+                int i = nextChild.pop();
+                List<JClass> succs = children.get(c.getIndex());
+                if (i < succs.size()) {
+                    nextChild.push(i + 1);
+                    JClass child = succs.get(i);
+                    pre[child.getIndex()] = counter++;
+                    stack.push(child);
+                    nextChild.push(0);
+                } else {
+                    post[c.getIndex()] = counter++;
+                    stack.pop();
+                }
+            }
+        }
+    }
+
+    private IBitSet computeInterfaces(JClass c) {
+        int index = c.getIndex();
+        if (ifaces[index] != null) {
+            return ifaces[index];
+        }
+        IBitSet result = null;
+        if (!c.isInterface()) {
+            JClass superclass = c.getSuperClass();
+            if (superclass != null && isEncoded(superclass)
+                    && !superclass.isInterface()) {
+                result = computeInterfaces(superclass);
+            }
+        }
+        IBitSet own = null;
+        if (c.isInterface()) {
+            own = new RegularBitSet();
+            own.set(ifaceIds[index]);
+        }
+        for (JClass iface : c.getInterfaces()) {
+            if (iface != null && isEncoded(iface)) {
+                IBitSet s = computeInterfaces(iface);
+                if (own == null) {
+                    own = new RegularBitSet();
+                }
+                own.or(s);
+            }
+        }
+        if (own != null) {
+            if (result != null && !result.contains(own)) {
+                own.or(result);
+                result = own;
+            } else if (result == null) {
+                result = own;
+            }
+        }
+        if (result == null) {
+            result = EMPTY;
+        }
+        ifaces[index] = result;
+        return result;
+    }
+
+    /**
+     * @return {@code true} if given class is covered by this encoding.
+     */
+    boolean isEncoded(JClass c) {
+        if (c == null) {
+            return false;
+        }
+        int index = c.getIndex();
+        return 0 <= index && index < classes.size() && classes.get(index) == c;
+    }
+
+    /**
+     * Checks whether subclass is a subclass of superclass.
+     * Both classes must be covered by this encoding.
+     */
+    boolean isSubclass(JClass superclass, JClass subclass) {
+        int superIndex = superclass.getIndex();
+        int subIndex = subclass.getIndex();
+        int ifaceId = ifaceIds[superIndex];
+        if (ifaceId != -1) {
+            return ifaces[subIndex].get(ifaceId);
+        } else {
+            return pre[superIndex] <= pre[subIndex]
+                    && post[subIndex] <= post[superIndex];
+        }
+    }
+}
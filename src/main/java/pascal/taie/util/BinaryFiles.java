@@ -0,0 +1,193 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.util;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Static utility methods shared by the binary file formats of Tai-e,
+ * e.g., the caches of the world and the analysis results.
+ */
+public final class BinaryFiles {
+
+    private static final Logger logger = LogManager.getLogger(BinaryFiles.class);
+
+    /**
+     * Directory of the files cached across runs.
+     */
+    private static final String CACHE_DIR = "cache";
+
+    private BinaryFiles() {
+    }
+
+    /**
+     * @return the file of given name in the cache directory. The directory
+     * is created if it does not exist.
+     */
+    public static File getCacheFile(String name) {
+        File cacheDir = new File(CACHE_DIR);
+        if (!cacheDir.exists()) {
+            cacheDir.mkdirs();
+        }
+        return new File(cacheDir, name).getAbsoluteFile();
+    }
+
+    /**
+     * Saves a file by given writer. The file is written to a temporary
+     * file first and then moved to {@code file}, so that an interrupted
+     * or failed save does not leave a broken file.
+     *
+     * @param desc   description of the content, used in logs
+     * @param file   the file to save
+     * @param writer the writer which writes the content to given file
+     * @return {@code true} if the file is saved successfully.
+     */
+    public static boolean save(String desc, File file, ContentWriter writer) {
+        logger.info("Saving {} to {}", desc, file);
+        Timer timer = new Timer("Save " + desc);
+        timer.start();
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            File dir = file.getAbsoluteFile().getParentFile();
+            if (dir != null && !dir.exists()) {
+                dir.mkdirs();
+            }
+            writer.write(tmp);
+            Files.move(tmp.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (Exception e) {
+            logger.error("Failed to save {} to {} due to {}", desc, file, e);
+            tmp.delete();
+            return false;
+        } finally {
+            timer.stop();
+            logger.info(timer);
+        }
+    }
+
+    /**
+     * Loads a file by given reader.
+     *
+     * @param desc   description of the content, used in logs
+     * @param file   the file to load
+     * @param reader the reader which reads the content from given file,
+     *               it may return {@code null} if the content is unusable
+     * @return the loaded content, or {@code null} if the file does not
+     * exist or fails to be loaded.
+     */
+    @Nullable
+    public static <T> T load(String desc, File file, ContentReader<T> reader) {
+        if (!file.exists()) {
+            logger.info("{} not found in {}", Strings.capitalize(desc), file);
+            return null;
+        }
+        logger.info("Loading {} from {}", desc, file);
+        Timer timer = new Timer("Load " + desc);
+        timer.start();
+        try {
+            return reader.read(file);
+        } catch (Exception e) {
+            logger.error("Failed to load {} from {} due to {}", desc, file, e);
+            return null;
+        } finally {
+            timer.stop();
+            logger.info(timer);
+        }
+    }
+
+    /**
+     * Writes a non-negative int in variable-length encoding, i.e., 7 bits
+     * per byte, and the highest bit of a byte tells if more bytes follow.
+     * Negative ints are also supported, but they always take five bytes.
+     */
+    public static void writeVarInt(DataOutputStream out, int value)
+            throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Reads an int written by {@link #writeVarInt(DataOutputStream, int)}.
+     */
+    public static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Writes a string as its length and its bytes in UTF-8. Unlike
+     * {@link DataOutputStream#writeUTF(String)}, the length of the
+     * string is not limited to 64KB.
+     */
+    public static void writeString(DataOutputStream out, String s)
+            throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     */
+    public static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[readVarInt(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes content to a file.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void write(File file) throws IOException;
+    }
+
+    /**
+     * Reads content from a file.
+     */
+    @FunctionalInterface
+    public interface ContentReader<T> {
+        @Nullable
+        T read(File file) throws IOException;
+    }
+}
@@ -0,0 +1,1628 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Compressed bit set implementation, which follows the design of
+ * Roaring bitmaps.
+ * <p>
+ * The 32-bit indexes are partitioned by their high 16 bits into chunks,
+ * and each non-empty chunk stores its low 16 bits in a container of one
+ * of the three encodings:
+ * <ul>
+ *     <li>array: a sorted {@code char[]}, for sparse chunks;</li>
+ *     <li>bitmap: a {@code long[1024]}, for dense chunks;</li>
+ *     <li>run: a sorted list of (start, length) pairs, for chunks that
+ *     consist of a few long runs of consecutive set bits.</li>
+ * </ul>
+ * The bulk operations work chunk by chunk and pick the cheapest encoding
+ * for each resulting container, so that sets whose bits are clustered
+ * (e.g., points-to sets whose objects are indexed in allocation order)
+ * take much less space than {@link RegularBitSet} and {@link SparseBitSet}.
+ */
+public class CompressedBitSet extends AbstractBitSet
+        implements Serializable {
+
+    private static final int CHUNK_BITS = 16;
+
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Number of words of a bitmap container.
+     */
+    private static final int BITMAP_WORDS = CHUNK_SIZE / BITS_PER_WORD;
+
+    /**
+     * Maximum cardinality of an array container. An array container
+     * with more elements takes more space than a bitmap container.
+     */
+    private static final int MAX_ARRAY_SIZE = 4096;
+
+    /**
+     * Maximum number of runs of a run container, beyond which
+     * a run container takes more space than a bitmap container.
+     */
+    private static final int MAX_RUNS = 2048;
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * High 16 bits of the chunks, in ascending order.
+     */
+    private char[] keys;
+
+    /**
+     * Containers of the chunks. All containers are non-empty.
+     */
+    private Container[] containers;
+
+    /**
+     * Number of chunks in use.
+     */
+    private int size;
+
+    public CompressedBitSet() {
+        keys = new char[INITIAL_CAPACITY];
+        containers = new Container[INITIAL_CAPACITY];
+    }
+
+    private static char highBits(int bitIndex) {
+        return (char) (bitIndex >>> CHUNK_BITS);
+    }
+
+    private static int lowBits(int bitIndex) {
+        return bitIndex & CHUNK_MASK;
+    }
+
+    private static int toBitIndex(char key, int low) {
+        return (key << CHUNK_BITS) | low;
+    }
+
+    /**
+     * @return index of the chunk for given key if it exists;
+     * otherwise, {@code (-(insertion point) - 1)}.
+     */
+    private int find(char key) {
+        // fast path for the common case of appending to the last chunk
+        if (size > 0 && keys[size - 1] == key) {
+            return size - 1;
+        }
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insertChunk(int i, char key, Container c) {
+        if (size == keys.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = key;
+        containers[i] = c;
+        ++size;
+    }
+
+    private void removeChunk(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+        containers[--size] = null;
+    }
+
+    private static void checkIndex(int bitIndex) {
+        if (bitIndex < 0) {
+            throw new IndexOutOfBoundsException("bitIndex < 0: " + bitIndex);
+        }
+    }
+
+    @Override
+    public boolean set(int bitIndex) {
+        checkIndex(bitIndex);
+        char key = highBits(bitIndex);
+        int low = lowBits(bitIndex);
+        int i = find(key);
+        if (i >= 0) {
+            Container c = containers[i];
+            if (c.contains(low)) {
+                return false;
+            }
+            containers[i] = c.add(low);
+        } else {
+            ArrayContainer c = new ArrayContainer(INITIAL_CAPACITY);
+            c.add(low);
+            insertChunk(-i - 1, key, c);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean clear(int bitIndex) {
+        checkIndex(bitIndex);
+        int i = find(highBits(bitIndex));
+        if (i < 0) {
+            return false;
+        }
+        Container c = containers[i];
+        int low = lowBits(bitIndex);
+        if (!c.contains(low)) {
+            return false;
+        }
+        c = c.remove(low);
+        if (c.cardinality() == 0) {
+            removeChunk(i);
+        } else {
+            containers[i] = c;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean get(int bitIndex) {
+        checkIndex(bitIndex);
+        int i = find(highBits(bitIndex));
+        return i >= 0 && containers[i].contains(lowBits(bitIndex));
+    }
+
+    @Override
+    public void flip(int bitIndex) {
+        if (!clear(bitIndex)) {
+            set(bitIndex);
+        }
+    }
+
+    @Override
+    public int nextSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        }
+        int i = find(highBits(fromIndex));
+        if (i >= 0) {
+            int low = containers[i].next(lowBits(fromIndex));
+            if (low >= 0) {
+                return toBitIndex(keys[i], low);
+            }
+            ++i;
+        } else {
+            i = -i - 1;
+        }
+        return i < size ? toBitIndex(keys[i], containers[i].next(0)) : -1;
+    }
+
+    @Override
+    public int nextClearBit(int fromIndex) {
+        if (fromIndex < 0) {
+            throw new IndexOutOfBoundsException("fromIndex < 0: " + fromIndex);
+        }
+        while (true) {
+            char key = highBits(fromIndex);
+            int i = find(key);
+            if (i < 0) {
+                return fromIndex;
+            }
+            int low = containers[i].nextClear(lowBits(fromIndex));
+            if (low >= 0) {
+                return toBitIndex(key, low);
+            }
+            fromIndex = toBitIndex(key, 0) + CHUNK_SIZE;
+            if (fromIndex < 0) {
+                // all bits up to Integer.MAX_VALUE are set
+                return -1;
+            }
+        }
+    }
+
+    @Override
+    public int previousSetBit(int fromIndex) {
+        if (fromIndex < 0) {
+            if (fromIndex == -1) {
+                return -1;
+            }
+            throw new IndexOutOfBoundsException(
+                    "fromIndex < -1: " + fromIndex);
+        }
+        int i = find(highBits(fromIndex));
+        if (i >= 0) {
+            int low = containers[i].previous(lowBits(fromIndex));
+            if (low >= 0) {
+                return toBitIndex(keys[i], low);
+            }
+            --i;
+        } else {
+            i = -i - 2;
+        }
+        return i >= 0 ? toBitIndex(keys[i], containers[i].previous(CHUNK_MASK)) : -1;
+    }
+
+    @Override
+    public int previousClearBit(int fromIndex) {
+        if (fromIndex < 0) {
+            if (fromIndex == -1) {
+                return -1;
+            }
+            throw new IndexOutOfBoundsException(
+                    "fromIndex < -1: " + fromIndex);
+        }
+        while (true) {
+            char key = highBits(fromIndex);
+            int i = find(key);
+            if (i < 0) {
+                return fromIndex;
+            }
+            int low = containers[i].previousClear(lowBits(fromIndex));
+            if (low >= 0) {
+                return toBitIndex(key, low);
+            }
+            if (key == 0) {
+                return -1;
+            }
+            fromIndex = toBitIndex(key, 0) - 1;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // bulk operations
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean intersects(IBitSet set) {
+        if (this == set) {
+            return !isEmpty();
+        }
+        if (!(set instanceof CompressedBitSet other)) {
+            return super.intersects(set);
+        }
+        int i = 0, j = 0;
+        while (i < size && j < other.size) {
+            char k1 = keys[i], k2 = other.keys[j];
+            if (k1 < k2) {
+                ++i;
+            } else if (k1 > k2) {
+                ++j;
+            } else {
+                if (intersects(containers[i], other.containers[j])) {
+                    return true;
+                }
+                ++i;
+                ++j;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(IBitSet set) {
+        if (this == set) {
+            return true;
+        }
+        if (!(set instanceof CompressedBitSet other)) {
+            return super.contains(set);
+        }
+        int i = 0;
+        for (int j = 0; j < other.size; ++j) {
+            char key = other.keys[j];
+            while (i < size && keys[i] < key) {
+                ++i;
+            }
+            if (i == size || keys[i] != key
+                    || !contains(containers[i], other.containers[j])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean and(IBitSet set) {
+        if (this == set) {
+            return false;
+        }
+        if (!(set instanceof CompressedBitSet other)) {
+            // generic path: clears the bits which are absent in given set
+            boolean changed = false;
+            for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+                if (!set.get(i)) {
+                    clear(i);
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+        boolean changed = false;
+        int newSize = 0;
+        int j = 0;
+        for (int i = 0; i < size; ++i) {
+            char key = keys[i];
+            while (j < other.size && other.keys[j] < key) {
+                ++j;
+            }
+            if (j < other.size && other.keys[j] == key) {
+                Container c = containers[i];
+                int oldCard = c.cardinality();
+                c = and(c, other.containers[j]);
+                int newCard = c.cardinality();
+                if (newCard != oldCard) {
+                    changed = true;
+                }
+                if (newCard != 0) {
+                    keys[newSize] = key;
+                    containers[newSize++] = c;
+                }
+            } else {
+                changed = true;
+            }
+        }
+        truncate(newSize);
+        return changed;
+    }
+
+    @Override
+    public boolean andNot(IBitSet set) {
+        if (this == set) {
+            boolean changed = !isEmpty();
+            clear();
+            return changed;
+        }
+        if (!(set instanceof CompressedBitSet other)) {
+            return super.andNot(set);
+        }
+        boolean changed = false;
+        int newSize = 0;
+        int j = 0;
+        for (int i = 0; i < size; ++i) {
+            char key = keys[i];
+            Container c = containers[i];
+            while (j < other.size && other.keys[j] < key) {
+                ++j;
+            }
+            if (j < other.size && other.keys[j] == key) {
+                int oldCard = c.cardinality();
+                c = andNot(c, other.containers[j]);
+                if (c.cardinality() != oldCard) {
+                    changed = true;
+                }
+            }
+            if (c.cardinality() != 0) {
+                keys[newSize] = key;
+                containers[newSize++] = c;
+            }
+        }
+        truncate(newSize);
+        return changed;
+    }
+
+    @Override
+    public boolean or(IBitSet set) {
+        if (this == set) {
+            return false;
+        }
+        if (!(set instanceof CompressedBitSet other)) {
+            return super.or(set);
+        }
+        boolean changed = false;
+        int i = 0, j = 0;
+        while (j < other.size) {
+            char key = other.keys[j];
+            while (i < size && keys[i] < key) {
+                ++i;
+            }
+            if (i < size && keys[i] == key) {
+                Container c = containers[i];
+                int oldCard = c.cardinality();
+                c = or(c, other.containers[j]);
+                if (c.cardinality() != oldCard) {
+                    changed = true;
+                }
+                containers[i] = c;
+            } else {
+                insertChunk(i, key, other.containers[j].copy());
+                changed = true;
+            }
+            ++i;
+            ++j;
+        }
+        return changed;
+    }
+
+    @Override
+    public IBitSet orDiff(IBitSet set) {
+        CompressedBitSet diff = new CompressedBitSet();
+        if (this == set) {
+            return diff;
+        }
+        if (!(set instanceof CompressedBitSet other)) {
+            for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+                if (set(i)) {
+                    diff.set(i);
+                }
+            }
+            return diff;
+        }
+        int i = 0, j = 0;
+        while (j < other.size) {
+            char key = other.keys[j];
+            Container oc = other.containers[j];
+            while (i < size && keys[i] < key) {
+                ++i;
+            }
+            if (i < size && keys[i] == key) {
+                Container c = containers[i];
+                Container d = andNot(oc.copy(), c);
+                if (d.cardinality() != 0) {
+                    containers[i] = or(c, d);
+                    diff.insertChunk(diff.size, key, d);
+                }
+            } else {
+                insertChunk(i, key, oc.copy());
+                diff.insertChunk(diff.size, key, oc.copy());
+            }
+            ++i;
+            ++j;
+        }
+        return diff;
+    }
+
+    @Override
+    public boolean xor(IBitSet set) {
+        if (this == set) {
+            boolean changed = !isEmpty();
+            clear();
+            return changed;
+        }
+        if (!(set instanceof CompressedBitSet other)) {
+            return super.xor(set);
+        }
+        boolean changed = false;
+        int i = 0, j = 0;
+        while (j < other.size) {
+            char key = other.keys[j];
+            while (i < size && keys[i] < key) {
+                ++i;
+            }
+            changed = true;
+            if (i < size && keys[i] == key) {
+                Container c = xor(containers[i], other.containers[j]);
+                if (c.cardinality() == 0) {
+                    removeChunk(i);
+                } else {
+                    containers[i++] = c;
+                }
+            } else {
+                insertChunk(i++, key, other.containers[j].copy());
+            }
+            ++j;
+        }
+        return changed;
+    }
+
+    @Override
+    public void setTo(IBitSet set) {
+        if (this == set) {
+            return;
+        }
+        if (!(set instanceof CompressedBitSet other)) {
+            super.setTo(set);
+            return;
+        }
+        keys = Arrays.copyOf(other.keys, Math.max(INITIAL_CAPACITY, other.size));
+        containers = new Container[keys.length];
+        for (int i = 0; i < other.size; ++i) {
+            containers[i] = other.containers[i].copy();
+        }
+        size = other.size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(containers, 0, size, null);
+        size = 0;
+    }
+
+    private void truncate(int newSize) {
+        Arrays.fill(containers, newSize, size, null);
+        size = newSize;
+    }
+
+    // ------------------------------------------------------------------------
+    // state queries
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int length() {
+        if (size == 0) {
+            return 0;
+        }
+        return toBitIndex(keys[size - 1],
+                containers[size - 1].previous(CHUNK_MASK)) + 1;
+    }
+
+    /**
+     * @return number of bits of space used by the containers of this set.
+     */
+    @Override
+    public int size() {
+        int bytes = 0;
+        for (int i = 0; i < size; ++i) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes * Byte.SIZE;
+    }
+
+    @Override
+    public int cardinality() {
+        int sum = 0;
+        for (int i = 0; i < size; ++i) {
+            sum += containers[i].cardinality();
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the same hash code as {@link RegularBitSet#hashCode()}
+     * for the same set of bits.
+     */
+    @Override
+    public int hashCode() {
+        long h = 1234;
+        int wordIndex = -1;
+        long word = 0;
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            int u = wordIndex(i);
+            if (u != wordIndex) {
+                h ^= word * (wordIndex + 1);
+                wordIndex = u;
+                word = 0;
+            }
+            word |= 1L << i;
+        }
+        h ^= word * (wordIndex + 1);
+        return (int) ((h >> 32) ^ h);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CompressedBitSet other) || size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < size; ++i) {
+            if (keys[i] != other.keys[i]) {
+                return false;
+            }
+            Container c1 = containers[i], c2 = other.containers[i];
+            if (c1.cardinality() != c2.cardinality() || !contains(c1, c2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public CompressedBitSet copy() {
+        CompressedBitSet copy = new CompressedBitSet();
+        copy.setTo(this);
+        return copy;
+    }
+
+    // ------------------------------------------------------------------------
+    // operations on containers. The first operand of the operations that
+    // produce a container may be modified and reused as the result,
+    // and the second operand is never modified.
+    // ------------------------------------------------------------------------
+
+    private static Container or(Container c1, Container c2) {
+        if (c1 instanceof BitmapContainer b1) {
+            return b1.or(c2);
+        } else if (c2 instanceof BitmapContainer b2) {
+            long[] words = b2.words.clone();
+            c1.orInto(words);
+            return fromWords(words);
+        } else if (c1 instanceof ArrayContainer a1
+                && c2 instanceof ArrayContainer a2) {
+            return ArrayContainer.union(a1, a2);
+        } else if (c1 instanceof RunContainer r1
+                && c2 instanceof RunContainer r2) {
+            return RunContainer.union(r1, r2);
+        } else {
+            long[] words = c1.toWords();
+            c2.orInto(words);
+            return fromWords(words);
+        }
+    }
+
+    private static Container and(Container c1, Container c2) {
+        if (c1 instanceof ArrayContainer a1 && c2 instanceof ArrayContainer a2) {
+            return a1.retain(a2, true);
+        } else if (c1 instanceof ArrayContainer a1) {
+            return a1.retain(c2, true);
+        } else if (c2 instanceof ArrayContainer a2) {
+            return a2.copy().retain(c1, true);
+        } else {
+            long[] words = c1 instanceof BitmapContainer b1 ? b1.words : c1.toWords();
+            long[] words2 = c2.getWords();
+            for (int i = 0; i < BITMAP_WORDS; ++i) {
+                words[i] &= words2[i];
+            }
+            return fromWords(words);
+        }
+    }
+
+    private static Container andNot(Container c1, Container c2) {
+        if (c1 instanceof ArrayContainer a1 && c2 instanceof ArrayContainer a2) {
+            return a1.retain(a2, false);
+        } else if (c1 instanceof ArrayContainer a1) {
+            return a1.retain(c2, false);
+        } else {
+            long[] words = c1 instanceof BitmapContainer b1 ? b1.words : c1.toWords();
+            c2.andNotFrom(words);
+            return fromWords(words);
+        }
+    }
+
+    private static Container xor(Container c1, Container c2) {
+        long[] words = c1 instanceof BitmapContainer b1 ? b1.words : c1.toWords();
+        c2.xorInto(words);
+        return fromWords(words);
+    }
+
+    private static boolean intersects(Container c1, Container c2) {
+        if (c1.last() < c2.first() || c2.last() < c1.first()) {
+            return false;
+        }
+        if (c1 instanceof ArrayContainer a1 && c2 instanceof ArrayContainer a2) {
+            return a1.intersects(a2);
+        } else if (c1 instanceof ArrayContainer a1) {
+            return a1.intersects(c2);
+        } else if (c2 instanceof ArrayContainer a2) {
+            return a2.intersects(c1);
+        } else {
+            long[] words1 = c1.getWords(), words2 = c2.getWords();
+            for (int i = 0; i < BITMAP_WORDS; ++i) {
+                if ((words1[i] & words2[i]) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * @return {@code true} if {@code c1} contains all bits in {@code c2}.
+     */
+    private static boolean contains(Container c1, Container c2) {
+        if (c1.cardinality() < c2.cardinality()) {
+            return false;
+        }
+        if (c1 instanceof ArrayContainer a1 && c2 instanceof ArrayContainer a2) {
+            return a1.containsAll(a2);
+        } else if (c2 instanceof ArrayContainer a2) {
+            return a2.isContainedIn(c1);
+        } else {
+            long[] words1 = c1.getWords(), words2 = c2.getWords();
+            for (int i = 0; i < BITMAP_WORDS; ++i) {
+                if ((words2[i] & ~words1[i]) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Creates a container of the most compact encoding for given words.
+     * The returned container may take the ownership of {@code words}.
+     */
+    private static Container fromWords(long[] words) {
+        int card = 0, runs = 0;
+        long carry = 0;
+        for (long word : words) {
+            card += Long.bitCount(word);
+            // counts the set bits whose previous bits are clear
+            runs += Long.bitCount(word & ~((word << 1) | carry));
+            carry = word >>> (BITS_PER_WORD - 1);
+        }
+        int arrayBytes = card <= MAX_ARRAY_SIZE ? card * Character.BYTES : Integer.MAX_VALUE;
+        int runBytes = runs * 2 * Character.BYTES;
+        int bitmapBytes = BITMAP_WORDS * Long.BYTES;
+        if (runBytes < arrayBytes && runBytes < bitmapBytes) {
+            return RunContainer.fromWords(words, runs, card);
+        } else if (arrayBytes <= bitmapBytes) {
+            return ArrayContainer.fromWords(words, card);
+        } else {
+            return new BitmapContainer(words, card);
+        }
+    }
+
+    private static void setRange(long[] words, int from, int to) {
+        applyRange(words, from, to, 0);
+    }
+
+    private static void clearRange(long[] words, int from, int to) {
+        applyRange(words, from, to, 1);
+    }
+
+    private static void flipRange(long[] words, int from, int to) {
+        applyRange(words, from, to, 2);
+    }
+
+    /**
+     * Sets (op 0), clears (op 1), or flips (op 2) the bits
+     * from {@code from} (inclusive) to {@code to} (inclusive).
+     */
+    private static void applyRange(long[] words, int from, int to, int op) {
+        int u1 = wordIndex(from), u2 = wordIndex(to);
+        for (int u = u1; u <= u2; ++u) {
+            long mask = -1L;
+            if (u == u1) {
+                mask &= -1L << from;
+            }
+            if (u == u2) {
+                mask &= -1L >>> (BITS_PER_WORD - 1 - (to & (BITS_PER_WORD - 1)));
+            }
+            switch (op) {
+                case 0 -> words[u] |= mask;
+                case 1 -> words[u] &= ~mask;
+                default -> words[u] ^= mask;
+            }
+        }
+    }
+
+    /**
+     * Container of the low 16 bits of the indexes in a chunk.
+     * Bits are represented by {@code int}s in range [0, 65535].
+     */
+    private abstract static class Container implements Serializable {
+
+        abstract int cardinality();
+
+        abstract boolean contains(int x);
+
+        /**
+         * Adds a bit which is absent in this container.
+         *
+         * @return the container which contains the result.
+         */
+        abstract Container add(int x);
+
+        /**
+         * Removes a bit which is present in this container.
+         *
+         * @return the container which contains the result.
+         */
+        abstract Container remove(int x);
+
+        /**
+         * @return the first set bit that is greater than or equal to
+         * {@code from}, or -1 if no such bit.
+         */
+        abstract int next(int from);
+
+        /**
+         * @return the last set bit that is less than or equal to
+         * {@code from}, or -1 if no such bit.
+         */
+        abstract int previous(int from);
+
+        /**
+         * @return the first clear bit that is greater than or equal to
+         * {@code from}, or -1 if no such bit in this chunk.
+         */
+        abstract int nextClear(int from);
+
+        /**
+         * @return the last clear bit that is less than or equal to
+         * {@code from}, or -1 if no such bit in this chunk.
+         */
+        abstract int previousClear(int from);
+
+        /**
+         * @return the first set bit in this container.
+         */
+        int first() {
+            return next(0);
+        }
+
+        /**
+         * @return the last set bit in this container.
+         */
+        int last() {
+            return previous(CHUNK_MASK);
+        }
+
+        abstract void orInto(long[] words);
+
+        abstract void andNotFrom(long[] words);
+
+        abstract void xorInto(long[] words);
+
+        /**
+         * @return a new bitmap of the bits in this container.
+         */
+        long[] toWords() {
+            long[] words = new long[BITMAP_WORDS];
+            orInto(words);
+            return words;
+        }
+
+        /**
+         * @return a bitmap of the bits in this container,
+         * which must not be modified.
+         */
+        long[] getWords() {
+            return toWords();
+        }
+
+        abstract int sizeInBytes();
+
+        abstract Container copy();
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] content;
+
+        private int card;
+
+        private ArrayContainer(int capacity) {
+            content = new char[capacity];
+        }
+
+        private ArrayContainer(char[] content, int card) {
+            this.content = content;
+            this.card = card;
+        }
+
+        private static ArrayContainer fromWords(long[] words, int card) {
+            char[] content = new char[card];
+            int n = 0;
+            for (int u = 0; u < words.length; ++u) {
+                long word = words[u];
+                while (word != 0) {
+                    content[n++] = (char) (u * BITS_PER_WORD
+                            + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(content, card);
+        }
+
+        private static Container union(ArrayContainer a1, ArrayContainer a2) {
+            char[] c1 = a1.content, c2 = a2.content;
+            int n1 = a1.card, n2 = a2.card;
+            if (n1 + n2 > MAX_ARRAY_SIZE) {
+                long[] words = a1.toWords();
+                a2.orInto(words);
+                return CompressedBitSet.fromWords(words);
+            }
+            char[] result = new char[n1 + n2];
+            int i = 0, j = 0, n = 0;
+            while (i < n1 && j < n2) {
+                char x = c1[i], y = c2[j];
+                if (x < y) {
+                    result[n++] = x;
+                    ++i;
+                } else if (x > y) {
+                    result[n++] = y;
+                    ++j;
+                } else {
+                    result[n++] = x;
+                    ++i;
+                    ++j;
+                }
+            }
+            while (i < n1) {
+                result[n++] = c1[i++];
+            }
+            while (j < n2) {
+                result[n++] = c2[j++];
+            }
+            ArrayContainer union = new ArrayContainer(result, n);
+            return union.isRunCompact() ? union.toRunContainer() : union;
+        }
+
+        private int numberOfRuns() {
+            int runs = card > 0 ? 1 : 0;
+            for (int i = 1; i < card; ++i) {
+                if (content[i] != content[i - 1] + 1) {
+                    ++runs;
+                }
+            }
+            return runs;
+        }
+
+        /**
+         * @return {@code true} if run encoding of the bits in this
+         * container takes less space than array encoding.
+         */
+        private boolean isRunCompact() {
+            return numberOfRuns() * 2 < card;
+        }
+
+        private RunContainer toRunContainer() {
+            int nRuns = numberOfRuns();
+            char[] runs = new char[nRuns * 2];
+            int n = 0;
+            for (int i = 0; i < card; ) {
+                int start = content[i], end = start;
+                while (++i < card && content[i] == end + 1) {
+                    ++end;
+                }
+                runs[n++] = (char) start;
+                runs[n++] = (char) (end - start);
+            }
+            return new RunContainer(runs, nRuns, card);
+        }
+
+        private int indexOf(int x) {
+            return Arrays.binarySearch(content, 0, card, (char) x);
+        }
+
+        /**
+         * Retains the bits which are (if {@code present} is {@code true})
+         * or are not (otherwise) in given container.
+         */
+        private ArrayContainer retain(Container c, boolean present) {
+            int n = 0;
+            for (int i = 0; i < card; ++i) {
+                char x = content[i];
+                if (c.contains(x) == present) {
+                    content[n++] = x;
+                }
+            }
+            card = n;
+            return this;
+        }
+
+        private boolean intersects(Container c) {
+            for (int i = 0; i < card; ++i) {
+                if (c.contains(content[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Retains the bits which are (if {@code present} is {@code true})
+         * or are not (otherwise) in given array container.
+         */
+        private ArrayContainer retain(ArrayContainer a, boolean present) {
+            char[] content2 = a.content;
+            int n = 0, j = 0;
+            for (int i = 0; i < card; ++i) {
+                char x = content[i];
+                while (j < a.card && content2[j] < x) {
+                    ++j;
+                }
+                if ((j < a.card && content2[j] == x) == present) {
+                    content[n++] = x;
+                }
+            }
+            card = n;
+            return this;
+        }
+
+        private boolean intersects(ArrayContainer a) {
+            char[] content2 = a.content;
+            int i = 0, j = 0;
+            while (i < card && j < a.card) {
+                char x = content[i], y = content2[j];
+                if (x < y) {
+                    ++i;
+                } else if (x > y) {
+                    ++j;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean containsAll(ArrayContainer a) {
+            char[] content2 = a.content;
+            int i = 0;
+            for (int j = 0; j < a.card; ++j) {
+                char y = content2[j];
+                while (i < card && content[i] < y) {
+                    ++i;
+                }
+                if (i == card || content[i] != y) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isContainedIn(Container c) {
+            for (int i = 0; i < card; ++i) {
+                if (!c.contains(content[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        boolean contains(int x) {
+            return indexOf(x) >= 0;
+        }
+
+        @Override
+        Container add(int x) {
+            if (card == MAX_ARRAY_SIZE) {
+                // switches to bitmap or run encoding
+                long[] words = toWords();
+                words[wordIndex(x)] |= 1L << x;
+                return CompressedBitSet.fromWords(words);
+            }
+            int i = -indexOf(x) - 1;
+            if (card == content.length) {
+                if (card >= 2 * INITIAL_CAPACITY && isRunCompact()) {
+                    // most bits are consecutive, switches to run encoding
+                    return toRunContainer().add(x);
+                }
+                content = Arrays.copyOf(content,
+                        Math.min(MAX_ARRAY_SIZE, Math.max(INITIAL_CAPACITY, card * 2)));
+            }
+            System.arraycopy(content, i, content, i + 1, card - i);
+            content[i] = (char) x;
+            ++card;
+            return this;
+        }
+
+        @Override
+        Container remove(int x) {
+            int i = indexOf(x);
+            System.arraycopy(content, i + 1, content, i, card - i - 1);
+            --card;
+            return this;
+        }
+
+        @Override
+        int next(int from) {
+            int i = indexOf(from);
+            if (i >= 0) {
+                return from;
+            }
+            i = -i - 1;
+            return i < card ? content[i] : -1;
+        }
+
+        @Override
+        int previous(int from) {
+            int i = indexOf(from);
+            if (i >= 0) {
+                return from;
+            }
+            i = -i - 2;
+            return i >= 0 ? content[i] : -1;
+        }
+
+        @Override
+        int nextClear(int from) {
+            int i = indexOf(from);
+            if (i < 0) {
+                return from;
+            }
+            while (i + 1 < card && content[i + 1] == content[i] + 1) {
+                ++i;
+            }
+            int x = content[i] + 1;
+            return x < CHUNK_SIZE ? x : -1;
+        }
+
+        @Override
+        int previousClear(int from) {
+            int i = indexOf(from);
+            if (i < 0) {
+                return from;
+            }
+            while (i > 0 && content[i - 1] == content[i] - 1) {
+                --i;
+            }
+            return content[i] - 1;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < card; ++i) {
+                char x = content[i];
+                words[wordIndex(x)] |= 1L << x;
+            }
+        }
+
+        @Override
+        void andNotFrom(long[] words) {
+            for (int i = 0; i < card; ++i) {
+                char x = content[i];
+                words[wordIndex(x)] &= ~(1L << x);
+            }
+        }
+
+        @Override
+        void xorInto(long[] words) {
+            for (int i = 0; i < card; ++i) {
+                char x = content[i];
+                words[wordIndex(x)] ^= 1L << x;
+            }
+        }
+
+        @Override
+        int sizeInBytes() {
+            return content.length * Character.BYTES;
+        }
+
+        @Override
+        ArrayContainer copy() {
+            return new ArrayContainer(Arrays.copyOf(content, card), card);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+
+        private int card;
+
+        private BitmapContainer(long[] words, int card) {
+            this.words = words;
+            this.card = card;
+        }
+
+        /**
+         * Adds the bits in given container to this container.
+         * The result stays in bitmap encoding, as it is at least
+         * as large as this container.
+         */
+        private BitmapContainer or(Container c) {
+            if (c instanceof ArrayContainer a) {
+                for (int i = 0; i < a.card; ++i) {
+                    char x = a.content[i];
+                    int u = wordIndex(x);
+                    long word = words[u];
+                    long newWord = word | (1L << x);
+                    if (word != newWord) {
+                        words[u] = newWord;
+                        ++card;
+                    }
+                }
+            } else if (c instanceof RunContainer r) {
+                for (int i = 0; i < r.nRuns; ++i) {
+                    int u1 = wordIndex(r.start(i)), u2 = wordIndex(r.end(i));
+                    for (int u = u1; u <= u2; ++u) {
+                        card -= Long.bitCount(words[u]);
+                    }
+                    setRange(words, r.start(i), r.end(i));
+                    for (int u = u1; u <= u2; ++u) {
+                        card += Long.bitCount(words[u]);
+                    }
+                }
+            } else {
+                long[] words2 = ((BitmapContainer) c).words;
+                int newCard = 0;
+                for (int i = 0; i < BITMAP_WORDS; ++i) {
+                    long word = words[i] | words2[i];
+                    words[i] = word;
+                    newCard += Long.bitCount(word);
+                }
+                card = newCard;
+            }
+            return this;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        boolean contains(int x) {
+            return (words[wordIndex(x)] & (1L << x)) != 0;
+        }
+
+        @Override
+        Container add(int x) {
+            words[wordIndex(x)] |= 1L << x;
+            ++card;
+            return this;
+        }
+
+        @Override
+        Container remove(int x) {
+            words[wordIndex(x)] &= ~(1L << x);
+            --card;
+            return card <= MAX_ARRAY_SIZE
+                    ? ArrayContainer.fromWords(words, card) : this;
+        }
+
+        @Override
+        int next(int from) {
+            int u = wordIndex(from);
+            long word = words[u] & (-1L << from);
+            while (true) {
+                if (word != 0) {
+                    return u * BITS_PER_WORD + Long.numberOfTrailingZeros(word);
+                }
+                if (++u == BITMAP_WORDS) {
+                    return -1;
+                }
+                word = words[u];
+            }
+        }
+
+        @Override
+        int previous(int from) {
+            int u = wordIndex(from);
+            long word = words[u] & (-1L >>> -(from + 1));
+            while (true) {
+                if (word != 0) {
+                    return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+                }
+                if (u-- == 0) {
+                    return -1;
+                }
+                word = words[u];
+            }
+        }
+
+        @Override
+        int nextClear(int from) {
+            int u = wordIndex(from);
+            long word = ~words[u] & (-1L << from);
+            while (true) {
+                if (word != 0) {
+                    return u * BITS_PER_WORD + Long.numberOfTrailingZeros(word);
+                }
+                if (++u == BITMAP_WORDS) {
+                    return -1;
+                }
+                word = ~words[u];
+            }
+        }
+
+        @Override
+        int previousClear(int from) {
+            int u = wordIndex(from);
+            long word = ~words[u] & (-1L >>> -(from + 1));
+            while (true) {
+                if (word != 0) {
+                    return (u + 1) * BITS_PER_WORD - 1 - Long.numberOfLeadingZeros(word);
+                }
+                if (u-- == 0) {
+                    return -1;
+                }
+                word = ~words[u];
+            }
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < BITMAP_WORDS; ++i) {
+                words[i] |= this.words[i];
+            }
+        }
+
+        @Override
+        void andNotFrom(long[] words) {
+            for (int i = 0; i < BITMAP_WORDS; ++i) {
+                words[i] &= ~this.words[i];
+            }
+        }
+
+        @Override
+        void xorInto(long[] words) {
+            for (int i = 0; i < BITMAP_WORDS; ++i) {
+                words[i] ^= this.words[i];
+            }
+        }
+
+        @Override
+        long[] getWords() {
+            return words;
+        }
+
+        @Override
+        int sizeInBytes() {
+            return words.length * Long.BYTES;
+        }
+
+        @Override
+        BitmapContainer copy() {
+            return new BitmapContainer(words.clone(), card);
+        }
+    }
+
+    private static final class RunContainer extends Container {
+
+        /**
+         * Runs of set bits. The i-th run starts at {@code runs[2 * i]}
+         * and consists of {@code runs[2 * i + 1] + 1} bits. The runs are
+         * sorted and neither overlap nor abut each other.
+         */
+        private char[] runs;
+
+        private int nRuns;
+
+        private int card;
+
+        private RunContainer(char[] runs, int nRuns, int card) {
+            this.runs = runs;
+            this.nRuns = nRuns;
+            this.card = card;
+        }
+
+        private static RunContainer fromWords(long[] words, int nRuns, int card) {
+            char[] runs = new char[nRuns * 2];
+            int n = 0;
+            int x = nextSetBit(words, 0);
+            while (x >= 0) {
+                int end = nextClearBit(words, x);
+                runs[n++] = (char) x;
+                runs[n++] = (char) (end - x - 1);
+                x = end < CHUNK_SIZE ? nextSetBit(words, end) : -1;
+            }
+            return new RunContainer(runs, nRuns, card);
+        }
+
+        private static int nextSetBit(long[] words, int from) {
+            int u = wordIndex(from);
+            long word = words[u] & (-1L << from);
+            while (word == 0) {
+                if (++u == BITMAP_WORDS) {
+                    return -1;
+                }
+                word = words[u];
+            }
+            return u * BITS_PER_WORD + Long.numberOfTrailingZeros(word);
+        }
+
+        private static int nextClearBit(long[] words, int from) {
+            int u = wordIndex(from);
+            long word = ~words[u] & (-1L << from);
+            while (word == 0) {
+                if (++u == BITMAP_WORDS) {
+                    return CHUNK_SIZE;
+                }
+                word = ~words[u];
+            }
+            return u * BITS_PER_WORD + Long.numberOfTrailingZeros(word);
+        }
+
+        private static Container union(RunContainer r1, RunContainer r2) {
+            char[] result = new char[(r1.nRuns + r2.nRuns) * 2];
+            int n = 0, card = 0;
+            int i = 0, j = 0;
+            int curStart = -1, curEnd = -1;
+            while (i < r1.nRuns || j < r2.nRuns) {
+                int start, end;
+                if (j == r2.nRuns || (i < r1.nRuns && r1.start(i) <= r2.start(j))) {
+                    start = r1.start(i);
+                    end = r1.end(i++);
+                } else {
+                    start = r2.start(j);
+                    end = r2.end(j++);
+                }
+                if (curStart >= 0 && start <= curEnd + 1) {
+                    curEnd = Math.max(curEnd, end);
+                } else {
+                    if (curStart >= 0) {
+                        result[n++] = (char) curStart;
+                        result[n++] = (char) (curEnd - curStart);
+                        card += curEnd - curStart + 1;
+                    }
+                    curStart = start;
+                    curEnd = end;
+                }
+            }
+            result[n++] = (char) curStart;
+            result[n++] = (char) (curEnd - curStart);
+            card += curEnd - curStart + 1;
+            int nRuns = n / 2;
+            if (nRuns > MAX_RUNS) {
+                RunContainer runs = new RunContainer(result, nRuns, card);
+                return CompressedBitSet.fromWords(runs.toWords());
+            }
+            return new RunContainer(result, nRuns, card);
+        }
+
+        private int start(int i) {
+            return runs[2 * i];
+        }
+
+        private int end(int i) {
+            return runs[2 * i] + runs[2 * i + 1];
+        }
+
+        /**
+         * @return index of the last run which starts at or before x,
+         * or -1 if no such run.
+         */
+        private int findRun(int x) {
+            int lo = 0, hi = nRuns - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (start(mid) <= x) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return hi;
+        }
+
+        private void insertRun(int i, int start, int end) {
+            if (2 * nRuns == runs.length) {
+                runs = Arrays.copyOf(runs, Math.max(2 * INITIAL_CAPACITY, runs.length * 2));
+            }
+            System.arraycopy(runs, 2 * i, runs, 2 * i + 2, 2 * (nRuns - i));
+            runs[2 * i] = (char) start;
+            runs[2 * i + 1] = (char) (end - start);
+            ++nRuns;
+        }
+
+        private void removeRun(int i) {
+            System.arraycopy(runs, 2 * i + 2, runs, 2 * i, 2 * (nRuns - i - 1));
+            --nRuns;
+        }
+
+        private void setRun(int i, int start, int end) {
+            runs[2 * i] = (char) start;
+            runs[2 * i + 1] = (char) (end - start);
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        boolean contains(int x) {
+            int i = findRun(x);
+            return i >= 0 && x <= end(i);
+        }
+
+        @Override
+        Container add(int x) {
+            int i = findRun(x);
+            boolean mergeLeft = i >= 0 && end(i) + 1 == x;
+            boolean mergeRight = i + 1 < nRuns && start(i + 1) == x + 1;
+            ++card;
+            if (mergeLeft && mergeRight) {
+                setRun(i, start(i), end(i + 1));
+                removeRun(i + 1);
+            } else if (mergeLeft) {
+                setRun(i, start(i), x);
+            } else if (mergeRight) {
+                setRun(i + 1, x, end(i + 1));
+            } else {
+                insertRun(i + 1, x, x);
+                if (nRuns > MAX_RUNS) {
+                    return CompressedBitSet.fromWords(toWords());
+                }
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(int x) {
+            int i = findRun(x);
+            int start = start(i), end = end(i);
+            --card;
+            if (start == end) {
+                removeRun(i);
+            } else if (x == start) {
+                setRun(i, start + 1, end);
+            } else if (x == end) {
+                setRun(i, start, end - 1);
+            } else {
+                setRun(i, start, x - 1);
+                insertRun(i + 1, x + 1, end);
+                if (nRuns > MAX_RUNS) {
+                    return CompressedBitSet.fromWords(toWords());
+                }
+            }
+            return this;
+        }
+
+        @Override
+        int next(int from) {
+            int i = findRun(from);
+            if (i >= 0 && from <= end(i)) {
+                return from;
+            }
+            return i + 1 < nRuns ? start(i + 1) : -1;
+        }
+
+        @Override
+        int previous(int from) {
+            int i = findRun(from);
+            return i >= 0 ? Math.min(from, end(i)) : -1;
+        }
+
+        @Override
+        int nextClear(int from) {
+            int i = findRun(from);
+            if (i < 0 || from > end(i)) {
+                return from;
+            }
+            int x = end(i) + 1;
+            return x < CHUNK_SIZE ? x : -1;
+        }
+
+        @Override
+        int previousClear(int from) {
+            int i = findRun(from);
+            if (i < 0 || from > end(i)) {
+                return from;
+            }
+            return start(i) - 1;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < nRuns; ++i) {
+                setRange(words, start(i), end(i));
+            }
+        }
+
+        @Override
+        void andNotFrom(long[] words) {
+            for (int i = 0; i < nRuns; ++i) {
+                clearRange(words, start(i), end(i));
+            }
+        }
+
+        @Override
+        void xorInto(long[] words) {
+            for (int i = 0; i < nRuns; ++i) {
+                flipRange(words, start(i), end(i));
+            }
+        }
+
+        @Override
+        int sizeInBytes() {
+            return runs.length * Character.BYTES;
+        }
+
+        @Override
+        RunContainer copy() {
+            return new RunContainer(Arrays.copyOf(runs, 2 * nRuns), nRuns, card);
+        }
+    }
+}
@@ -61,6 +61,10 @@ public abstract class GenericBitSet<E> extends AbstractSetEx<E>
         bitSet = IBitSet.newBitSet(isSparse);
     }
 
+    protected GenericBitSet(IBitSet.Kind kind) {
+        bitSet = IBitSet.newBitSet(kind);
+    }
+
     @Override
     public boolean contains(Object o) {
         checkInvariant(o);
@@ -52,16 +52,23 @@ public final class HybridBitSet<E> extends AbstractHybridSet<E>
 
     private final Indexer<E> indexer;
 
-    private final boolean isSparse;
+    private final IBitSet.Kind kind;
 
     public HybridBitSet(Indexer<E> indexer, boolean isSparse) {
+        this(indexer, isSparse ? IBitSet.Kind.SPARSE : IBitSet.Kind.REGULAR);
+    }
+
+    /**
+     * @param kind kind of the bit set used for large set
+     */
+    public HybridBitSet(Indexer<E> indexer, IBitSet.Kind kind) {
         this.indexer = indexer;
-        this.isSparse = isSparse;
+        this.kind = kind;
     }
 
     @Override
     protected Set<E> newLargeSet(int unused) {
-        return new IndexerBitSet<>(indexer, isSparse);
+        return new IndexerBitSet<>(indexer, kind);
     }
 
     @Override
@@ -110,7 +117,7 @@ public final class HybridBitSet<E> extends AbstractHybridSet<E>
 
     @Override
     public HybridBitSet<E> addAllDiff(Collection<? extends E> c) {
-        HybridBitSet<E> diff = new HybridBitSet<>(indexer, isSparse);
+        HybridBitSet<E> diff = new HybridBitSet<>(indexer, kind);
         if (c instanceof HybridBitSet other && other.isLargeSet) {
             //noinspection unchecked
             SetEx<E> otherSet = (SetEx<E>) other.set;
@@ -148,7 +155,7 @@ public final class HybridBitSet<E> extends AbstractHybridSet<E>
 
     @Override
     public HybridBitSet<E> copy() {
-        HybridBitSet<E> copy = new HybridBitSet<>(indexer, isSparse);
+        HybridBitSet<E> copy = new HybridBitSet<>(indexer, kind);
         copy.singleton = singleton;
         copy.isLargeSet = isLargeSet;
         if (set != null) {
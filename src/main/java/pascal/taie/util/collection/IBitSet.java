@@ -346,6 +346,40 @@ public interface IBitSet extends Copyable<IBitSet>, Serializable {
     // utilities
     // ------------------------------------------------------------------------
 
+    /**
+     * Kinds of bit set implementations.
+     */
+    enum Kind {
+
+        /**
+         * {@link RegularBitSet}.
+         */
+        REGULAR,
+
+        /**
+         * {@link SparseBitSet}.
+         */
+        SPARSE,
+
+        /**
+         * {@link CompressedBitSet}.
+         */
+        COMPRESSED;
+
+        /**
+         * @return the kind of given bit set.
+         */
+        public static Kind of(IBitSet set) {
+            if (set instanceof SparseBitSet) {
+                return SPARSE;
+            } else if (set instanceof CompressedBitSet) {
+                return COMPRESSED;
+            } else {
+                return REGULAR;
+            }
+        }
+    }
+
     /**
      * Creates a new set.
      */
@@ -353,6 +387,17 @@ public interface IBitSet extends Copyable<IBitSet>, Serializable {
         return isSparse ? new SparseBitSet() : new RegularBitSet();
     }
 
+    /**
+     * Creates a new set of given kind.
+     */
+    static IBitSet newBitSet(Kind kind) {
+        return switch (kind) {
+            case REGULAR -> new RegularBitSet();
+            case SPARSE -> new SparseBitSet();
+            case COMPRESSED -> new CompressedBitSet();
+        };
+    }
+
     /**
      * @return {@code true} if the given bit set is sparse.
      */
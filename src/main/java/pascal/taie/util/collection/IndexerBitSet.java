@@ -43,6 +43,11 @@ public class IndexerBitSet<E> extends GenericBitSet<E>
         this.indexer = indexer;
     }
 
+    public IndexerBitSet(Indexer<E> indexer, IBitSet.Kind kind) {
+        super(kind);
+        this.indexer = indexer;
+    }
+
     @Override
     protected Object getContext() {
         return indexer;
@@ -60,6 +65,6 @@ public class IndexerBitSet<E> extends GenericBitSet<E>
 
     @Override
     protected GenericBitSet<E> newSet() {
-        return new IndexerBitSet<>(indexer, IBitSet.isSparse(bitSet));
+        return new IndexerBitSet<>(indexer, IBitSet.Kind.of(bitSet));
     }
 }
@@ -24,19 +24,19 @@ package pascal.taie.util.graph;
 
 import pascal.taie.util.Indexer;
 import pascal.taie.util.SimpleIndexer;
-import pascal.taie.util.collection.IndexMap;
 import pascal.taie.util.collection.IndexerBitSet;
 import pascal.taie.util.collection.SetEx;
-import pascal.taie.util.collection.Sets;
 
-import java.util.ArrayDeque;
 import java.util.Collections;
-import java.util.Deque;
-import java.util.Map;
 import java.util.Set;
 
 /**
  * Finds dominators for the nodes in given {@link Graph}.
+ * <p>
+ * This class is a set-based facade of {@link DominatorTree}. As in the
+ * classic iterative algorithm, nodes without predecessors are heads which
+ * are only dominated by themselves, and nodes that cannot be reached from
+ * any head are considered to be dominated by all nodes.
  */
 public class DominatorFinder<N> {
 
@@ -50,21 +50,12 @@ public class DominatorFinder<N> {
      */
     private final Indexer<N> indexer;
 
-    /**
-     * Head nodes of the graph.
-     */
-    private final Set<N> heads;
-
-    /**
-     * Maps a node N to all its dominators.
-     */
-    private final Map<N, SetEx<N>> node2Doms;
+    private final DominatorTree<N> tree;
 
     /**
-     * Maps a node N to all nodes dominated by N.
-     * This map is computed on-demand by {@link #findDominatedNodes()}.
+     * Nodes that cannot be reached from any head of the graph.
      */
-    private Map<N, SetEx<N>> dom2Nodes;
+    private final Set<N> unreachable;
 
     private final boolean isSparse;
 
@@ -78,97 +69,56 @@ public class DominatorFinder<N> {
 
     /**
      * Constructs a dominator finder with a graph and given indexer.
-     * Note that {@code indexer} must assign continuous indexes for nodes in
-     * {@code graph}, starting from 0, otherwise the finder may throw exception.
      */
     public DominatorFinder(Graph<N> graph, Indexer<N> indexer, boolean isSparse) {
         this.graph = graph;
         this.indexer = indexer;
         this.isSparse = isSparse;
-        this.heads = Sets.newSet();
-        this.node2Doms = new IndexMap<>(indexer, graph.getNumberOfNodes());
-        findDominators();
-    }
-
-    private void findDominators() {
-        // build full set
-        SetEx<N> fullSet = new IndexerBitSet<>(indexer, isSparse);
-        fullSet.addAll(graph.getNodes());
-        // initialize dominators
-        Deque<N> workList = new ArrayDeque<>();
+        this.tree = new DominatorTree<>(graph, indexer);
+        this.unreachable = new IndexerBitSet<>(indexer, isSparse);
         for (N node : graph) {
-            SetEx<N> doms;
-            if (graph.getInDegreeOf(node) == 0) {
-                // node is head
-                heads.add(node);
-                // head nodes are only dominated by themselves
-                doms = new IndexerBitSet<>(indexer, isSparse);
-                doms.add(node);
-            } else {
-                // other nodes are initially dominated by all nodes
-                // make it a reference of fullSet to save time and memory
-                // notes that it should not be updated in place
-                doms = fullSet;
-                // add to work-list for further processing
-                workList.add(node);
-            }
-            node2Doms.put(node, doms);
-        }
-        // process work-list
-        while (!workList.isEmpty()) {
-            N node = workList.pop();
-            SetEx<N> oldDoms = node2Doms.get(node);
-            SetEx<N> newDoms = fullSet;
-            // intersect dominators of all predecessors
-            for (N pred : graph.getPredsOf(node)) {
-                SetEx<N> doms = node2Doms.get(pred);
-                if (newDoms != fullSet) {
-                    newDoms.retainAll(doms);
-                } else if (doms != fullSet) {
-                    newDoms = doms.copy();
-                }
-            }
-            // each node dominates itself
-            newDoms.add(node);
-            if (!oldDoms.equals(newDoms)) {
-                node2Doms.put(node, newDoms);
-                workList.addAll(graph.getSuccsOf(node));
+            if (!tree.contains(node)) {
+                unreachable.add(node);
             }
         }
     }
 
+    /**
+     * @return the immediate-dominator tree of the graph.
+     */
+    public DominatorTree<N> getDominatorTree() {
+        return tree;
+    }
+
     /**
      * @return the dominators of {@code node}.
      */
     public Set<N> getDominatorsOf(N node) {
-        return Collections.unmodifiableSet(node2Doms.get(node));
+        SetEx<N> doms = new IndexerBitSet<>(indexer, isSparse);
+        if (unreachable.contains(node)) {
+            doms.addAll(graph.getNodes());
+        } else {
+            doms.addAll(tree.getDominatorsOf(node));
+        }
+        return Collections.unmodifiableSet(doms);
     }
 
     /**
      * @return the nodes dominated by the {@code dominator}.
      */
     public Set<N> getNodesDominatedBy(N dominator) {
-        if (dom2Nodes == null) {
-            findDominatedNodes();
-        }
-        return Collections.unmodifiableSet(dom2Nodes.get(dominator));
-    }
-
-    private void findDominatedNodes() {
-        dom2Nodes = new IndexMap<>(indexer, graph.getNumberOfNodes());
-        for (N node : graph) {
-            for (N dom : node2Doms.get(node)) {
-                dom2Nodes.computeIfAbsent(dom,
-                                __ -> new IndexerBitSet<>(indexer, isSparse))
-                        .add(node);
-            }
+        SetEx<N> nodes = new IndexerBitSet<>(indexer, isSparse);
+        if (!unreachable.contains(dominator)) {
+            nodes.addAll(tree.getNodesDominatedBy(dominator));
         }
+        nodes.addAll(unreachable);
+        return Collections.unmodifiableSet(nodes);
     }
 
     /**
      * @return {@code true} if {@code dominator} is a dominator of {@code node}.
      */
     public boolean isDominatedBy(N node, N dominator) {
-        return node2Doms.get(node).contains(dominator);
+        return unreachable.contains(node) || tree.dominates(dominator, node);
     }
 }
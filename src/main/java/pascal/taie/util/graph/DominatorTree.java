@@ -0,0 +1,376 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.graph;
+
+import pascal.taie.util.Indexer;
+import pascal.taie.util.SimpleIndexer;
+import pascal.taie.util.collection.IndexerBitSet;
+import pascal.taie.util.collection.SetEx;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immediate-dominator tree of a {@link Graph}, computed by the algorithm
+ * of Cooper, Harvey and Kennedy ("A Simple, Fast Dominance Algorithm"),
+ * which runs in near-linear time on control-flow graphs and needs only
+ * an int array per node, instead of a dominator set per node.
+ * <p>
+ * Nodes without predecessors are heads of the graph, and they are
+ * treated as children of a virtual root. Nodes that cannot be reached
+ * from any head are absent in the tree.
+ * <p>
+ * Post-dominators are computed by {@link #ofPostDominators(Graph, Indexer)},
+ * i.e., dominators on the {@link ReverseGraph}.
+ *
+ * @param <N> type of nodes
+ */
+public class DominatorTree<N> {
+
+    private static final int UNDEFINED = -1;
+
+    private final IndexedGraph<N> graph;
+
+    /**
+     * Id of the virtual root, i.e., the number of nodes.
+     */
+    private final int root;
+
+    /**
+     * Node id -> id of its immediate dominator.
+     */
+    private final int[] idoms;
+
+    /**
+     * Children of each node (and the root) in dominator tree,
+     * stored in compressed sparse row form.
+     */
+    private final int[] childStarts;
+
+    private final int[] children;
+
+    /**
+     * Node id -> its position in the pre-order of dominator tree.
+     */
+    private final int[] preorders;
+
+    /**
+     * Node id -> the largest pre-order position in its subtree.
+     */
+    private final int[] lasts;
+
+    /**
+     * Pre-order position -> node id.
+     */
+    private final int[] preorderNodes;
+
+    /**
+     * Dominance frontiers, computed on demand by {@link #findFrontiers()}.
+     */
+    private List<SetEx<N>> frontiers;
+
+    public DominatorTree(Graph<N> graph) {
+        this(graph, new SimpleIndexer<>());
+    }
+
+    public DominatorTree(Graph<N> graph, Indexer<N> indexer) {
+        this.graph = new IndexedGraph<>(graph, indexer);
+        int n = this.graph.size();
+        root = n;
+        idoms = new int[n + 1];
+        childStarts = new int[n + 2];
+        children = new int[n];
+        preorders = new int[n + 1];
+        lasts = new int[n + 1];
+        preorderNodes = new int[n + 1];
+        findImmediateDominators();
+        buildTree();
+    }
+
+    /**
+     * @return the post-dominator tree of given graph.
+     */
+    public static <N> DominatorTree<N> ofPostDominators(
+            Graph<N> graph, Indexer<N> indexer) {
+        return new DominatorTree<>(new ReverseGraph<>(graph), indexer);
+    }
+
+    private void findImmediateDominators() {
+        int n = graph.size();
+        // compute reverse post-order from the heads; postorders[id]
+        // is the post-order number, and the root is the last one
+        int[] postorders = new int[n + 1];
+        int[] rpo = new int[n];
+        Arrays.fill(idoms, UNDEFINED);
+        int nVisited = 0;
+        int[] nextSucc = new int[n];
+        int[] stack = new int[n];
+        for (int head = 0; head < n; ++head) {
+            if (graph.predStart(head) != graph.predEnd(head)) {
+                continue;
+            }
+            // idoms also marks visited nodes during the traversal
+            idoms[head] = root;
+            nextSucc[head] = graph.succStart(head);
+            int sp = 0;
+            stack[sp++] = head;
+            while (sp > 0) {
+                int node = stack[sp - 1];
+                if (nextSucc[node] < graph.succEnd(node)) {
+                    int succ = graph.succAt(nextSucc[node]++);
+                    if (idoms[succ] == UNDEFINED) {
+                        idoms[succ] = root;
+                        nextSucc[succ] = graph.succStart(succ);
+                        stack[sp++] = succ;
+                    }
+                } else {
+                    --sp;
+                    postorders[node] = nVisited;
+                    rpo[n - 1 - nVisited] = node;
+                    ++nVisited;
+                }
+            }
+        }
+        postorders[root] = n;
+        idoms[root] = root;
+        int from = n - nVisited;
+        // reset idoms of non-head nodes, then iterate to fixed point
+        for (int i = from; i < n; ++i) {
+            int node = rpo[i];
+            if (graph.predStart(node) != graph.predEnd(node)) {
+                idoms[node] = UNDEFINED;
+            }
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = from; i < n; ++i) {
+                int node = rpo[i];
+                int newIdom = UNDEFINED;
+                for (int pos = graph.predStart(node); pos < graph.predEnd(node); ++pos) {
+                    int pred = graph.predAt(pos);
+                    if (idoms[pred] != UNDEFINED) {
+                        newIdom = newIdom == UNDEFINED ? pred
+                                : intersect(pred, newIdom, postorders);
+                    }
+                }
+                if (newIdom != UNDEFINED && idoms[node] != newIdom) {
+                    idoms[node] = newIdom;
+                    changed = true;
+                }
+            }
+        }
+    }
+
+    private int intersect(int node1, int node2, int[] postorders) {
+        while (node1 != node2) {
+            while (postorders[node1] < postorders[node2]) {
+                node1 = idoms[node1];
+            }
+            while (postorders[node2] < postorders[node1]) {
+                node2 = idoms[node2];
+            }
+        }
+        return node1;
+    }
+
+    private void buildTree() {
+        int n = graph.size();
+        // count children of each node, then fill them in id order
+        for (int node = 0; node < n; ++node) {
+            if (idoms[node] != UNDEFINED) {
+                ++childStarts[idoms[node] + 1];
+            }
+        }
+        for (int node = 0; node <= n; ++node) {
+            childStarts[node + 1] += childStarts[node];
+        }
+        int[] fill = Arrays.copyOf(childStarts, n + 1);
+        for (int node = 0; node < n; ++node) {
+            if (idoms[node] != UNDEFINED) {
+                children[fill[idoms[node]]++] = node;
+            }
+        }
+        // number the tree in pre-order, so that the subtree of a node
+        // occupies a contiguous range of positions
+        Arrays.fill(preorders, UNDEFINED);
+        int[] stack = new int[n + 1];
+        int[] nextChild = new int[n + 1];
+        int sp = 0;
+        int counter = 0;
+        stack[sp++] = root;
+        preorders[root] = counter;
+        preorderNodes[counter++] = root;
+        nextChild[root] = childStarts[root];
+        while (sp > 0) {
+            int node = stack[sp - 1];
+            if (nextChild[node] < childStarts[node + 1]) {
+                int child = children[nextChild[node]++];
+                preorders[child] = counter;
+                preorderNodes[counter++] = child;
+                nextChild[child] = childStarts[child];
+                stack[sp++] = child;
+            } else {
+                --sp;
+                lasts[node] = counter - 1;
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if {@code node} is reachable from a head
+     * of the graph, i.e., it is in this tree.
+     */
+    public boolean contains(N node) {
+        return idoms[getId(node)] != UNDEFINED;
+    }
+
+    /**
+     * @return the immediate dominator of {@code node}, or {@code null}
+     * if {@code node} is a head or is absent in this tree.
+     */
+    public N getImmediateDominator(N node) {
+        int idom = idoms[getId(node)];
+        return idom == UNDEFINED || idom == root ? null : graph.getNode(idom);
+    }
+
+    /**
+     * @return the nodes immediately dominated by {@code node}.
+     */
+    public List<N> getChildrenOf(N node) {
+        int id = getId(node);
+        if (idoms[id] == UNDEFINED) {
+            return List.of();
+        }
+        List<N> result = new ArrayList<>(childStarts[id + 1] - childStarts[id]);
+        for (int pos = childStarts[id]; pos < childStarts[id + 1]; ++pos) {
+            result.add(graph.getNode(children[pos]));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @return the heads of the graph, i.e., the roots of this tree.
+     */
+    public List<N> getHeads() {
+        List<N> heads = new ArrayList<>();
+        for (int pos = childStarts[root]; pos < childStarts[root + 1]; ++pos) {
+            heads.add(graph.getNode(children[pos]));
+        }
+        return Collections.unmodifiableList(heads);
+    }
+
+    /**
+     * @return {@code true} if {@code dominator} dominates {@code node}.
+     * Each node in this tree dominates itself, and the nodes absent in
+     * this tree neither dominate nor are dominated by any node.
+     */
+    public boolean dominates(N dominator, N node) {
+        int dom = getId(dominator);
+        int id = getId(node);
+        if (idoms[dom] == UNDEFINED || idoms[id] == UNDEFINED) {
+            return false;
+        }
+        return preorders[dom] <= preorders[id] && preorders[id] <= lasts[dom];
+    }
+
+    /**
+     * @return the dominators of {@code node} (including itself), from
+     * {@code node} to the head which dominates it.
+     */
+    public List<N> getDominatorsOf(N node) {
+        int id = getId(node);
+        if (idoms[id] == UNDEFINED) {
+            return List.of();
+        }
+        List<N> result = new ArrayList<>();
+        for (int dom = id; dom != root; dom = idoms[dom]) {
+            result.add(graph.getNode(dom));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @return the nodes dominated by {@code dominator} (including itself),
+     * in pre-order of this tree.
+     */
+    public List<N> getNodesDominatedBy(N dominator) {
+        int dom = getId(dominator);
+        if (idoms[dom] == UNDEFINED) {
+            return List.of();
+        }
+        List<N> result = new ArrayList<>(lasts[dom] - preorders[dom] + 1);
+        for (int pos = preorders[dom]; pos <= lasts[dom]; ++pos) {
+            result.add(graph.getNode(preorderNodes[pos]));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @return the dominance frontier of {@code node}, i.e., the nodes
+     * where the dominance of {@code node} ends.
+     */
+    public Set<N> getDominanceFrontierOf(N node) {
+        if (frontiers == null) {
+            findFrontiers();
+        }
+        return Collections.unmodifiableSet(frontiers.get(getId(node)));
+    }
+
+    private void findFrontiers() {
+        int n = graph.size();
+        List<SetEx<N>> result = new ArrayList<>(n);
+        for (int i = 0; i < n; ++i) {
+            result.add(new IndexerBitSet<>(graph.getIndexer(), true));
+        }
+        for (int node = 0; node < n; ++node) {
+            if (idoms[node] == UNDEFINED
+                    || graph.predEnd(node) - graph.predStart(node) < 2) {
+                continue;
+            }
+            N join = graph.getNode(node);
+            for (int pos = graph.predStart(node); pos < graph.predEnd(node); ++pos) {
+                int runner = graph.predAt(pos);
+                if (idoms[runner] == UNDEFINED) {
+                    continue;
+                }
+                while (runner != idoms[node]) {
+                    result.get(runner).add(join);
+                    runner = idoms[runner];
+                }
+            }
+        }
+        frontiers = result;
+    }
+
+    private int getId(N node) {
+        int id = graph.getId(node);
+        if (id < 0) {
+            throw new IllegalArgumentException(node + " is absent in the graph");
+        }
+        return id;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.graph;
+
+import pascal.taie.util.Indexer;
+
+import java.util.Arrays;
+
+/**
+ * Compact, int-indexed snapshot of a {@link Graph}.
+ * <p>
+ * Nodes are numbered densely from 0 in the iteration order of the graph,
+ * and edges are stored in compressed sparse row form, so that graph
+ * algorithms can run on primitive arrays instead of hash maps.
+ * The mapping from nodes to dense ids is looked up through an
+ * {@link Indexer}, thus the snapshot does not hash any node.
+ * <p>
+ * Later modifications to the source graph are not reflected.
+ *
+ * @param <N> type of nodes
+ */
+final class IndexedGraph<N> {
+
+    private final Indexer<N> indexer;
+
+    /**
+     * Dense id -> node.
+     */
+    private final Object[] nodes;
+
+    /**
+     * Indexer index -> dense id + 1, and 0 means the node is absent.
+     */
+    private final int[] ids;
+
+    private final int[] succStarts;
+
+    private final int[] succs;
+
+    /**
+     * Transposed edges, built on first request.
+     */
+    private int[] predStarts;
+
+    private int[] preds;
+
+    IndexedGraph(Graph<N> graph, Indexer<N> indexer) {
+        this.indexer = indexer;
+        int n = graph.getNumberOfNodes();
+        nodes = new Object[n];
+        int maxIndex = -1;
+        int i = 0;
+        for (N node : graph) {
+            nodes[i++] = node;
+            maxIndex = Math.max(maxIndex, indexer.getIndex(node));
+        }
+        ids = new int[maxIndex + 1];
+        for (int id = 0; id < n; ++id) {
+            ids[indexer.getIndex(getNode(id))] = id + 1;
+        }
+        succStarts = new int[n + 1];
+        int[] edges = new int[Math.max(n, 16)];
+        int nEdges = 0;
+        for (int id = 0; id < n; ++id) {
+            succStarts[id] = nEdges;
+            for (N succ : graph.getSuccsOf(getNode(id))) {
+                int succId = getId(succ);
+                if (succId < 0) {
+                    throw new IllegalArgumentException(
+                            succ + " is a successor of " + getNode(id) +
+                                    " but is absent in the graph");
+                }
+                if (nEdges == edges.length) {
+                    edges = Arrays.copyOf(edges, edges.length * 2);
+                }
+                edges[nEdges++] = succId;
+            }
+        }
+        succStarts[n] = nEdges;
+        succs = nEdges == edges.length ? edges : Arrays.copyOf(edges, nEdges);
+    }
+
+    Indexer<N> getIndexer() {
+        return indexer;
+    }
+
+    int size() {
+        return nodes.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    N getNode(int id) {
+        return (N) nodes[id];
+    }
+
+    /**
+     * @return dense id of given node, or -1 if the node is absent.
+     */
+    int getId(N node) {
+        int index = indexer.getIndex(node);
+        return index < ids.length ? ids[index] - 1 : -1;
+    }
+
+    int succStart(int id) {
+        return succStarts[id];
+    }
+
+    int succEnd(int id) {
+        return succStarts[id + 1];
+    }
+
+    int succAt(int pos) {
+        return succs[pos];
+    }
+
+    boolean hasSelfLoop(int id) {
+        for (int pos = succStarts[id]; pos < succStarts[id + 1]; ++pos) {
+            if (succs[pos] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int predStart(int id) {
+        ensurePreds();
+        return predStarts[id];
+    }
+
+    int predEnd(int id) {
+        ensurePreds();
+        return predStarts[id + 1];
+    }
+
+    int predAt(int pos) {
+        return preds[pos];
+    }
+
+    private void ensurePreds() {
+        if (preds != null) {
+            return;
+        }
+        // transpose the successor arrays by counting sort
+        int n = nodes.length;
+        int[] starts = new int[n + 1];
+        for (int succ : succs) {
+            ++starts[succ + 1];
+        }
+        for (int id = 0; id < n; ++id) {
+            starts[id + 1] += starts[id];
+        }
+        int[] fill = Arrays.copyOf(starts, n);
+        int[] edges = new int[succs.length];
+        for (int id = 0; id < n; ++id) {
+            for (int pos = succStarts[id]; pos < succStarts[id + 1]; ++pos) {
+                edges[fill[succs[pos]]++] = id;
+            }
+        }
+        predStarts = starts;
+        preds = edges;
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.graph;
+
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IndexerBitSet;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes reachability information for graph, as {@link Reachability},
+ * but works on an int-indexed snapshot of the graph and returns
+ * bit sets indexed by the given {@link Indexer}.
+ * <p>
+ * All nodes in the same strongly connected component reach (and are
+ * reached by) the same nodes, so the results are cached per component.
+ * The cache can be bounded, in which case the least recently used
+ * results are evicted. Besides, multi-source queries are answered
+ * by a single traversal.
+ * <p>
+ * This class works on the snapshot of the graph taken at construction,
+ * and it is not thread-safe.
+ *
+ * @param <N> type of graph nodes.
+ * @see Reachability
+ */
+public class IndexedReachability<N> {
+
+    /**
+     * Cache size which means that all results are cached.
+     */
+    public static final int UNBOUNDED = -1;
+
+    private final IndexedGraph<N> graph;
+
+    private final IndexedSCC<N> scc;
+
+    private final int cacheSize;
+
+    /**
+     * Maps a component to all nodes reachable from it on the graph.
+     */
+    private final Map<Integer, IndexerBitSet<N>> source2Reachable;
+
+    /**
+     * Maps a component to all nodes that can reach it on the graph.
+     */
+    private final Map<Integer, IndexerBitSet<N>> target2CanReach;
+
+    /**
+     * Node id -> the number of traversal that has visited the node.
+     * Bumping {@link #round} clears all marks in constant time.
+     */
+    private final int[] marks;
+
+    private int round = 0;
+
+    private final int[] workStack;
+
+    public IndexedReachability(Graph<N> graph, Indexer<N> indexer) {
+        this(graph, indexer, UNBOUNDED);
+    }
+
+    /**
+     * @param cacheSize maximum number of cached results in each direction,
+     *                  0 disables caching, and {@link #UNBOUNDED} keeps
+     *                  all results.
+     */
+    public IndexedReachability(Graph<N> graph, Indexer<N> indexer, int cacheSize) {
+        this.graph = new IndexedGraph<>(graph, indexer);
+        this.scc = new IndexedSCC<>(this.graph);
+        this.cacheSize = cacheSize;
+        this.source2Reachable = newCache(cacheSize);
+        this.target2CanReach = newCache(cacheSize);
+        this.marks = new int[this.graph.size()];
+        this.workStack = new int[this.graph.size()];
+    }
+
+    private static <V> Map<Integer, V> newCache(int cacheSize) {
+        if (cacheSize < 0) {
+            return Maps.newMap();
+        } else if (cacheSize == 0) {
+            return Map.of();
+        } else {
+            return new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+                    return size() > cacheSize;
+                }
+            };
+        }
+    }
+
+    /**
+     * @return all nodes those can be reached from {@code source}.
+     */
+    public Set<N> reachableNodesFrom(N source) {
+        return Collections.unmodifiableSet(query(source, true));
+    }
+
+    /**
+     * @return all nodes those can reach {@code target}.
+     */
+    public Set<N> nodesCanReach(N target) {
+        return Collections.unmodifiableSet(query(target, false));
+    }
+
+    /**
+     * @return all nodes those can be reached from any of {@code sources}.
+     */
+    public Set<N> reachableNodesFrom(Collection<? extends N> sources) {
+        return Collections.unmodifiableSet(batchQuery(sources, true));
+    }
+
+    /**
+     * @return all nodes those can reach any of {@code targets}.
+     */
+    public Set<N> nodesCanReach(Collection<? extends N> targets) {
+        return Collections.unmodifiableSet(batchQuery(targets, false));
+    }
+
+    /**
+     * @return {@code true} if {@code target} can be reached from
+     * {@code source}, otherwise {@code false}.
+     */
+    public boolean canReach(N source, N target) {
+        int sourceId = getId(source);
+        int targetId = getId(target);
+        int component = scc.getComponentOf(sourceId);
+        if (component == scc.getComponentOf(targetId)) {
+            return true;
+        }
+        IndexerBitSet<N> cached = source2Reachable.get(component);
+        if (cached != null) {
+            return cached.contains(target);
+        }
+        cached = target2CanReach.get(scc.getComponentOf(targetId));
+        if (cached != null) {
+            return cached.contains(source);
+        }
+        int mark = ++round;
+        int sp = 0;
+        marks[sourceId] = mark;
+        workStack[sp++] = sourceId;
+        while (sp > 0) {
+            int node = workStack[--sp];
+            for (int pos = graph.succStart(node); pos < graph.succEnd(node); ++pos) {
+                int succ = graph.succAt(pos);
+                if (succ == targetId) {
+                    return true;
+                }
+                if (marks[succ] != mark) {
+                    marks[succ] = mark;
+                    workStack[sp++] = succ;
+                }
+            }
+        }
+        return false;
+    }
+
+    private IndexerBitSet<N> query(N node, boolean forward) {
+        int id = getId(node);
+        Map<Integer, IndexerBitSet<N>> cache = forward
+                ? source2Reachable : target2CanReach;
+        Integer component = scc.getComponentOf(id);
+        IndexerBitSet<N> result = cache.get(component);
+        if (result == null) {
+            result = newResult();
+            traverse(id, ++round, forward, result);
+            if (cacheSize != 0) {
+                cache.put(component, result);
+            }
+        }
+        return result;
+    }
+
+    private IndexerBitSet<N> batchQuery(Collection<? extends N> nodes, boolean forward) {
+        Map<Integer, IndexerBitSet<N>> cache = forward
+                ? source2Reachable : target2CanReach;
+        IndexerBitSet<N> result = newResult();
+        int mark = ++round;
+        for (N node : nodes) {
+            int id = getId(node);
+            if (marks[id] == mark) {
+                continue;
+            }
+            IndexerBitSet<N> cached = cache.get(scc.getComponentOf(id));
+            if (cached != null) {
+                // bit sets of the same indexer are merged word by word
+                result.addAll(cached);
+                for (N n : cached) {
+                    marks[graph.getId(n)] = mark;
+                }
+            } else {
+                traverse(id, mark, forward, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Visits all nodes reachable from (or reaching) given node,
+     * skipping the ones which have been marked by {@code mark},
+     * and adds them to {@code result}.
+     */
+    private void traverse(int start, int mark, boolean forward,
+                          IndexerBitSet<N> result) {
+        if (marks[start] == mark) {
+            return;
+        }
+        int sp = 0;
+        marks[start] = mark;
+        workStack[sp++] = start;
+        while (sp > 0) {
+            int node = workStack[--sp];
+            result.add(graph.getNode(node));
+            int end = forward ? graph.succEnd(node) : graph.predEnd(node);
+            for (int pos = forward ? graph.succStart(node) : graph.predStart(node);
+                 pos < end; ++pos) {
+                int next = forward ? graph.succAt(pos) : graph.predAt(pos);
+                if (marks[next] != mark) {
+                    marks[next] = mark;
+                    workStack[sp++] = next;
+                }
+            }
+        }
+    }
+
+    private IndexerBitSet<N> newResult() {
+        return new IndexerBitSet<>(graph.getIndexer(), true);
+    }
+
+    private int getId(N node) {
+        int id = graph.getId(node);
+        if (id < 0) {
+            throw new IllegalArgumentException(node + " is absent in the graph");
+        }
+        return id;
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.graph;
+
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IBitSet;
+import pascal.taie.util.collection.RegularBitSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds strongly connected components in a directed graph using
+ * Tarjan's algorithm, but works on int-indexed arrays instead of
+ * hash maps. This is preferable to {@link SCC} for large graphs whose
+ * nodes already have an {@link Indexer}.
+ * <p>
+ * The results are the same as {@link SCC}: the components are listed
+ * in reverse topological order, and the nodes in each component are
+ * listed in the order they are visited.
+ *
+ * @param <N> type of nodes
+ * @see SCC
+ */
+public class IndexedSCC<N> {
+
+    private static final int UNVISITED = -1;
+
+    private final List<List<N>> componentList = new ArrayList<>();
+
+    private final List<List<N>> trueComponentList = new ArrayList<>();
+
+    /**
+     * Dense node id -> index of its component in {@link #componentList}.
+     */
+    private final int[] componentOf;
+
+    public IndexedSCC(Graph<N> graph, Indexer<N> indexer) {
+        this(new IndexedGraph<>(graph, indexer));
+    }
+
+    IndexedSCC(IndexedGraph<N> graph) {
+        componentOf = new int[graph.size()];
+        compute(graph);
+    }
+
+    /**
+     * @return the list of the strongly-connected components
+     */
+    public List<List<N>> getComponents() {
+        return componentList;
+    }
+
+    /**
+     * @return the list of the strongly-connected components, but only those
+     * that are true components, i.e. components which have more than one element
+     * or consists of one node that has itself as a successor
+     */
+    public List<List<N>> getTrueComponents() {
+        return trueComponentList;
+    }
+
+    /**
+     * @return index of the component (in {@link #getComponents()})
+     * which contains the node of given dense id.
+     */
+    int getComponentOf(int id) {
+        return componentOf[id];
+    }
+
+    private void compute(IndexedGraph<N> graph) {
+        // iterative algorithm where each node on the call stack
+        // remembers the position of its next successor, so that
+        // every edge is traversed exactly once
+        int n = graph.size();
+        int[] indexes = new int[n];
+        Arrays.fill(indexes, UNVISITED);
+        int[] lows = new int[n];
+        int[] nextSucc = new int[n];
+        int[] callStack = new int[n];
+        int[] stack = new int[n];
+        IBitSet inStack = new RegularBitSet(n);
+        int index = 0;
+        int csp = 0; // call stack pointer
+        int sp = 0; // stack pointer
+        for (int root = 0; root < n; ++root) {
+            if (indexes[root] != UNVISITED) {
+                continue;
+            }
+            indexes[root] = lows[root] = index++;
+            nextSucc[root] = graph.succStart(root);
+            stack[sp++] = root;
+            inStack.set(root);
+            callStack[csp++] = root;
+            while (csp > 0) {
+                int node = callStack[csp - 1];
+                if (nextSucc[node] < graph.succEnd(node)) {
+                    int succ = graph.succAt(nextSucc[node]++);
+                    if (indexes[succ] == UNVISITED) {
+                        indexes[succ] = lows[succ] = index++;
+                        nextSucc[succ] = graph.succStart(succ);
+                        stack[sp++] = succ;
+                        inStack.set(succ);
+                        callStack[csp++] = succ;
+                    } else if (inStack.get(succ)) {
+                        lows[node] = Math.min(lows[node], indexes[succ]);
+                    }
+                } else {
+                    --csp;
+                    if (lows[node] == indexes[node]) {
+                        sp = collectSCC(node, stack, sp, inStack, graph);
+                    }
+                    if (csp > 0) {
+                        int parent = callStack[csp - 1];
+                        lows[parent] = Math.min(lows[parent], lows[node]);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Pops the component rooted at {@code node} from {@code stack}.
+     *
+     * @return the new stack pointer.
+     */
+    private int collectSCC(int node, int[] stack, int sp,
+                           IBitSet inStack, IndexedGraph<N> graph) {
+        int start = sp;
+        do {
+            --start;
+        } while (stack[start] != node);
+        int componentIndex = componentList.size();
+        // nodes are taken from the bottom of the component on the stack,
+        // so that the nodes connected to predecessors (outside the SCC)
+        // will be listed ahead, which is the same as SCC
+        List<N> scc = new ArrayList<>(sp - start);
+        for (int i = start; i < sp; ++i) {
+            int id = stack[i];
+            inStack.clear(id);
+            componentOf[id] = componentIndex;
+            scc.add(graph.getNode(id));
+        }
+        componentList.add(scc);
+        if (scc.size() > 1 || graph.hasSelfLoop(node)) {
+            trueComponentList.add(scc);
+        }
+        return start;
+    }
+}
@@ -22,6 +22,7 @@
 
 package pascal.taie.util.graph;
 
+import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.Sets;
 
 import java.util.ArrayDeque;
@@ -29,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -84,6 +86,30 @@ public class TopologicalSorter<N> {
         return sortedList;
     }
 
+    /**
+     * Groups the nodes of given DAG into levels. The level of a node is
+     * one plus the maximum level of its successors (zero if it has none),
+     * thus the nodes in the same level are independent of each other.
+     *
+     * @return the levels in ascending order.
+     */
+    public static <N> List<List<N>> computeLevels(Graph<N> dag) {
+        List<List<N>> levels = new ArrayList<>();
+        Map<N, Integer> nodeLevels = Maps.newMap(dag.getNumberOfNodes());
+        new TopologicalSorter<>(dag, true).get().forEach(node -> {
+            int level = 0;
+            for (N succ : dag.getSuccsOf(node)) {
+                level = Math.max(level, nodeLevels.get(succ) + 1);
+            }
+            nodeLevels.put(node, level);
+            if (level == levels.size()) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(level).add(node);
+        });
+        return levels;
+    }
+
     private void initialize(Graph<N> graph) {
         this.graph = graph;
         this.sortedList = new ArrayList<>(graph.getNumberOfNodes());
@@ -0,0 +1,98 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+import java.util.Map;
+
+/**
+ * Exports metrics as JDK Flight Recorder events, which are recorded
+ * only when a recording is running, e.g., the JVM is started with
+ * {@code -XX:StartFlightRecording}. Each metric of a sample becomes
+ * a {@code pascal.taie.Metric} event, and each span becomes
+ * a {@code pascal.taie.Span} event.
+ */
+public class JfrExporter implements MetricsExporter {
+
+    @Override
+    public void exportSample(long timestamp, Map<String, Number> values) {
+        MetricEvent probe = new MetricEvent();
+        if (!probe.isEnabled()) {
+            return;
+        }
+        values.forEach((name, value) -> {
+            MetricEvent event = new MetricEvent();
+            event.metric = name;
+            event.value = value.doubleValue();
+            event.commit();
+        });
+    }
+
+    @Override
+    public void exportSpan(long timestamp, String name, long wallNanos, long cpuNanos) {
+        SpanEvent event = new SpanEvent();
+        if (event.isEnabled()) {
+            event.span = name;
+            event.wallTime = wallNanos;
+            event.cpuTime = cpuNanos;
+            event.commit();
+        }
+    }
+
+    @Name("pascal.taie.Metric")
+    @Label("Tai-e Metric")
+    @Category("Tai-e")
+    @Description("Sampled value of a Tai-e metric")
+    static class MetricEvent extends Event {
+
+        @Label("Metric")
+        String metric;
+
+        @Label("Value")
+        double value;
+    }
+
+    @Name("pascal.taie.Span")
+    @Label("Tai-e Span")
+    @Category("Tai-e")
+    @Description("Finished phase of Tai-e, e.g., an analysis")
+    static class SpanEvent extends Event {
+
+        @Label("Span")
+        String span;
+
+        @Label("Wall Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long wallTime;
+
+        @Label("CPU Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long cpuTime;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import pascal.taie.util.collection.Maps;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+
+/**
+ * Exports metrics to a JSON-lines file, i.e., one JSON object per line.
+ * A sample is written as
+ * <pre>
+ * {"type":"sample","time":1700000000000,"metrics":{"pta.worklist":42,...}}
+ * </pre>
+ * and a span is written as
+ * <pre>
+ * {"type":"span","time":1700000000000,"name":"analysis.pta","wallNanos":..,"cpuNanos":..}
+ * </pre>
+ * Each line is flushed once written, so that the file is usable
+ * even if the analysis is killed.
+ */
+public class JsonLinesExporter implements MetricsExporter {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final Writer writer;
+
+    public JsonLinesExporter(File file) {
+        try {
+            writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open " + file, e);
+        }
+    }
+
+    @Override
+    public void exportSample(long timestamp, Map<String, Number> values) {
+        Map<String, Object> line = Maps.newLinkedHashMap();
+        line.put("type", "sample");
+        line.put("time", timestamp);
+        line.put("metrics", values);
+        writeLine(line);
+    }
+
+    @Override
+    public void exportSpan(long timestamp, String name, long wallNanos, long cpuNanos) {
+        Map<String, Object> line = Maps.newLinkedHashMap();
+        line.put("type", "span");
+        line.put("time", timestamp);
+        line.put("name", name);
+        line.put("wallNanos", wallNanos);
+        line.put("cpuNanos", cpuNanos);
+        writeLine(line);
+    }
+
+    private synchronized void writeLine(Map<String, Object> line) {
+        try {
+            writer.write(mapper.writeValueAsString(line));
+            writer.write('\n');
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
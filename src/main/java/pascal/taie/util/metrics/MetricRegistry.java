@@ -0,0 +1,265 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.metrics;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.util.collection.Maps;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Registry of the metrics of Tai-e, e.g., the sizes of the data
+ * structures of an analysis and the time spent in each phase.
+ * <p>
+ * Metrics are registered as {@link LongSupplier}s, so that an analysis
+ * can expose its plain counters without synchronization, and they are
+ * sampled on the thread that calls {@link #sampleIfDue()}. Counters
+ * (monotonic metrics) are additionally exported as rates per second.
+ * Phases are measured by {@link #startSpan(String)} with
+ * {@link System#nanoTime()} and thread CPU time.
+ * <p>
+ * The registry is disabled by default, in which case registration,
+ * sampling and spans are no-ops. It is enabled by
+ * {@link #enable(List, long)} with the exporters which receive
+ * the metrics.
+ */
+public class MetricRegistry {
+
+    private static final Logger logger = LogManager.getLogger(MetricRegistry.class);
+
+    private static final MetricRegistry DISABLED = new MetricRegistry(List.of(), 0);
+
+    private static MetricRegistry instance = DISABLED;
+
+    private static final Span NO_OP_SPAN = new Span(null, null);
+
+    private final List<MetricsExporter> exporters;
+
+    private final long intervalNanos;
+
+    private long nextSampleTime;
+
+    private final Map<String, LongSupplier> gauges = Maps.newLinkedHashMap();
+
+    private final Map<String, LongSupplier> counters = Maps.newLinkedHashMap();
+
+    /**
+     * Values and time of counters in previous sample, for computing rates.
+     */
+    private final Map<String, Long> lastCounts = Maps.newMap();
+
+    private long lastSampleTime;
+
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    private MetricRegistry(List<MetricsExporter> exporters, long intervalMillis) {
+        this.exporters = List.copyOf(exporters);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.lastSampleTime = System.nanoTime();
+        this.nextSampleTime = lastSampleTime + intervalNanos;
+    }
+
+    /**
+     * @return the current registry.
+     */
+    public static MetricRegistry get() {
+        return instance;
+    }
+
+    /**
+     * Enables metrics collection.
+     *
+     * @param exporters      exporters that receive the metrics.
+     * @param intervalMillis minimum interval between two samples
+     *                       taken by {@link #sampleIfDue()}.
+     */
+    public static synchronized void enable(
+            List<MetricsExporter> exporters, long intervalMillis) {
+        disable();
+        instance = new MetricRegistry(exporters, intervalMillis);
+        logger.info("Metrics are enabled, sample interval: {}ms", intervalMillis);
+    }
+
+    /**
+     * Takes a last sample, closes the exporters, and disables
+     * metrics collection.
+     */
+    public static synchronized void disable() {
+        if (instance != DISABLED) {
+            instance.sample();
+            instance.exporters.forEach(MetricsExporter::close);
+            instance = DISABLED;
+        }
+    }
+
+    public boolean isEnabled() {
+        return this != DISABLED;
+    }
+
+    /**
+     * Registers a metric whose value may go up and down, e.g., the size
+     * of a work-list.
+     */
+    public void registerGauge(String name, LongSupplier gauge) {
+        if (isEnabled()) {
+            gauges.put(name, gauge);
+        }
+    }
+
+    /**
+     * Registers a metric whose value only goes up, e.g., the number of
+     * processed work-list entries. Besides its value, its rate per second
+     * since previous sample is exported as {@code <name>.rate}.
+     */
+    public void registerCounter(String name, LongSupplier counter) {
+        if (isEnabled()) {
+            counters.put(name, counter);
+        }
+    }
+
+    /**
+     * Removes the metrics whose names start with given prefix, so that
+     * the analysis which registered them can be garbage collected.
+     */
+    public void unregister(String prefix) {
+        gauges.keySet().removeIf(name -> name.startsWith(prefix));
+        counters.keySet().removeIf(name -> name.startsWith(prefix));
+        lastCounts.keySet().removeIf(name -> name.startsWith(prefix));
+    }
+
+    /**
+     * Takes a sample if the sample interval has elapsed since previous
+     * sample. This method is cheap enough to be called in the main loop
+     * of an analysis.
+     */
+    public void sampleIfDue() {
+        if (isEnabled() && System.nanoTime() >= nextSampleTime) {
+            sample();
+        }
+    }
+
+    /**
+     * Takes a sample of all registered metrics and the heap and GC
+     * statistics of the JVM, and exports it.
+     */
+    public void sample() {
+        if (!isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        double seconds = Math.max(now - lastSampleTime, 1) / 1e9;
+        Map<String, Number> values = Maps.newLinkedHashMap();
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        counters.forEach((name, counter) -> {
+            long count = counter.getAsLong();
+            Long last = lastCounts.put(name, count);
+            values.put(name, count);
+            values.put(name + ".rate", (count - (last != null ? last : 0)) / seconds);
+        });
+        addJvmMetrics(values);
+        long timestamp = System.currentTimeMillis();
+        exporters.forEach(e -> e.exportSample(timestamp, values));
+        lastSampleTime = now;
+        nextSampleTime = now + intervalNanos;
+    }
+
+    private static void addJvmMetrics(Map<String, Number> values) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        values.put("jvm.heap.used", heap.getUsed());
+        values.put("jvm.heap.committed", heap.getCommitted());
+        long gcCount = 0;
+        long gcTime = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(gc.getCollectionCount(), 0);
+            gcTime += Math.max(gc.getCollectionTime(), 0);
+        }
+        values.put("jvm.gc.count", gcCount);
+        values.put("jvm.gc.time", gcTime);
+    }
+
+    /**
+     * Starts measuring a phase. The returned span should be closed
+     * by the same thread, typically by try-with-resources.
+     */
+    public Span startSpan(String name) {
+        return isEnabled() ? new Span(this, name) : NO_OP_SPAN;
+    }
+
+    private long currentThreadCpuTime() {
+        return threadBean.isCurrentThreadCpuTimeSupported()
+                ? threadBean.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * A phase measured by {@link MetricRegistry}.
+     */
+    public static final class Span implements AutoCloseable {
+
+        private final MetricRegistry registry;
+
+        private final String name;
+
+        private final long timestamp;
+
+        private final long startTime;
+
+        private final long startCpuTime;
+
+        private boolean closed;
+
+        private Span(MetricRegistry registry, String name) {
+            this.registry = registry;
+            this.name = name;
+            if (registry != null) {
+                timestamp = System.currentTimeMillis();
+                startCpuTime = registry.currentThreadCpuTime();
+                startTime = System.nanoTime();
+            } else {
+                timestamp = startTime = startCpuTime = 0;
+                closed = true;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            long wallNanos = System.nanoTime() - startTime;
+            long cpuTime = registry.currentThreadCpuTime();
+            long cpuNanos = startCpuTime >= 0 && cpuTime >= 0
+                    ? cpuTime - startCpuTime : -1;
+            registry.exporters.forEach(e ->
+                    e.exportSpan(timestamp, name, wallNanos, cpuNanos));
+        }
+    }
+}
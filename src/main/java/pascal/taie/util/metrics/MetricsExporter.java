@@ -0,0 +1,58 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.metrics;
+
+import java.util.Map;
+
+/**
+ * Receives the metrics collected by {@link MetricRegistry}.
+ * Exporters are only called from the thread that takes the sample
+ * or closes the span.
+ */
+public interface MetricsExporter {
+
+    /**
+     * Exports a sample of all registered metrics.
+     *
+     * @param timestamp time of the sample, in milliseconds since epoch.
+     * @param values    current values of the metrics, in registration order.
+     */
+    void exportSample(long timestamp, Map<String, Number> values);
+
+    /**
+     * Exports a finished span, e.g., an analysis phase.
+     *
+     * @param timestamp time when the span started, in milliseconds since epoch.
+     * @param name      name of the span.
+     * @param wallNanos elapsed wall-clock time, in nanoseconds.
+     * @param cpuNanos  CPU time consumed by the thread which started
+     *                  the span, in nanoseconds, or -1 if unavailable.
+     */
+    void exportSpan(long timestamp, String name, long wallNanos, long cpuNanos);
+
+    /**
+     * Flushes and releases the resources of this exporter.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.language.classes.JMethod;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AnalysisDaemonTest {
+
+    @Test
+    void testSplitArgs() {
+        assertArrayEquals(new String[]{"-a", "pta=cs:2-obj;only-app:true"},
+                AnalysisDaemon.splitArgs("-a pta=cs:2-obj;only-app:true"));
+        assertArrayEquals(new String[]{"-a", "cg"},
+                AnalysisDaemon.splitArgs("  -a \t cg  "));
+        assertArrayEquals(new String[]{"-a", "pta=dump-output:a b.txt"},
+                AnalysisDaemon.splitArgs("-a \"pta=dump-output:a b.txt\""));
+        assertArrayEquals(new String[]{"-a", "pta=dump-output:a b.txt"},
+                AnalysisDaemon.splitArgs("-a pta=dump-output:\"a b\".txt"));
+        assertArrayEquals(new String[]{"-p", ""},
+                AnalysisDaemon.splitArgs("-p \"\""));
+        assertArrayEquals(new String[0], AnalysisDaemon.splitArgs(""));
+        assertArrayEquals(new String[0], AnalysisDaemon.splitArgs("   "));
+    }
+
+    @BeforeAll
+    static void buildWorld() {
+        Main.buildWorld(
+                "-java", "8",
+                "-cp", "src/test/resources/pta/basic",
+                "-m", "Call"
+        );
+    }
+
+    @AfterAll
+    static void resetWorld() {
+        World.reset();
+    }
+
+    @Test
+    void testPlansInSequence() {
+        World world = World.get();
+        AnalysisDaemon.execute(AnalysisDaemon.splitArgs(
+                "-a pta=only-app:true -a cg=algorithm:pta"));
+        JMethod main = world.getMainMethod();
+        // the plan has been executed on the world ...
+        assertTrue(main.isIRBuilt());
+        // ... and left no results for the next plan
+        assertNoResults(world);
+        AnalysisDaemon.execute(AnalysisDaemon.splitArgs(
+                "-a pta=cs:1-call;only-app:true"));
+        assertNoResults(world);
+        // the world is kept resident
+        assertEquals(world, World.get());
+        assertEquals(main, World.get().getMainMethod());
+    }
+
+    @Test
+    void testEmptyPlan() {
+        assertThrows(IllegalArgumentException.class,
+                () -> AnalysisDaemon.execute(AnalysisDaemon.splitArgs("-kr pta")));
+    }
+
+    private static void assertNoResults(World world) {
+        assertTrue(world.getKeys().isEmpty(),
+                "Results left on world: " + world.getKeys());
+        for (String id : List.of(PointerAnalysis.ID, CallGraphBuilder.ID)) {
+            assertFalse(world.hasResult(id), "Result left: " + id);
+        }
+        world.getClassHierarchy().allClasses().forEach(c -> {
+            assertTrue(c.getKeys().isEmpty(),
+                    "Results left on " + c + ": " + c.getKeys());
+            c.getDeclaredMethods().forEach(m -> {
+                if (m.isIRBuilt()) {
+                    assertTrue(m.getIR().getKeys().isEmpty(),
+                            "Results left on IR of " + m + ": " + m.getIR().getKeys());
+                }
+            });
+        });
+    }
+}
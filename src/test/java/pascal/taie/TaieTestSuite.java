@@ -31,6 +31,7 @@ import pascal.taie.analysis.defuse.DefUseTest;
 import pascal.taie.analysis.graph.callgraph.cha.CHATestFull;
 import pascal.taie.analysis.pta.PTATestSuite;
 import pascal.taie.analysis.sideeffect.SideEffectTest;
+import pascal.taie.analysis.ssa.SSATest;
 import pascal.taie.config.OptionsTest;
 import pascal.taie.frontend.cache.SerializationTest;
 import pascal.taie.frontend.soot.SootFrontendTest;
@@ -52,11 +53,13 @@ import pascal.taie.util.UtilTestSuite;
         DefaultMethodTest.class,
         FieldTest.class,
         SerializationTest.class,
+        AnalysisDaemonTest.class,
         // analysis
         BugFinderTestSuite.class,
         DataflowTestSuite.class,
         DeadCodeTestFull.class,
         DefUseTest.class,
+        SSATest.class,
         CHATestFull.class,
         PTATestSuite.class,
         SideEffectTest.class,
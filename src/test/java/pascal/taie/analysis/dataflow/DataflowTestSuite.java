@@ -29,6 +29,9 @@ import pascal.taie.analysis.dataflow.analysis.LiveVarTestFull;
 import pascal.taie.analysis.dataflow.analysis.ReachDefTest;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPTestSuite;
 import pascal.taie.analysis.dataflow.fact.FactTest;
+import pascal.taie.analysis.dataflow.inter.IDESolverTest;
+import pascal.taie.analysis.dataflow.inter.IFDSSolverTest;
+import pascal.taie.analysis.dataflow.inter.ParallelInterSolverTest;
 
 @Suite
 @SelectClasses({
@@ -37,6 +40,9 @@ import pascal.taie.analysis.dataflow.fact.FactTest;
         LiveVarTestFull.class,
         ReachDefTest.class,
         AvailExpTest.class,
+        IFDSSolverTest.class,
+        IDESolverTest.class,
+        ParallelInterSolverTest.class,
 })
 public class DataflowTestSuite {
 }
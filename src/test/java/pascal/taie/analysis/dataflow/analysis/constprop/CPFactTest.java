@@ -0,0 +1,176 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.analysis.constprop;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.util.AnalysisException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CPFactTest {
+
+    private static Var[] newVars(int n) {
+        Var[] vars = new Var[n];
+        for (int i = 0; i < n; ++i) {
+            vars[i] = new Var(null, "v" + i, PrimitiveType.INT, i);
+        }
+        return vars;
+    }
+
+    @Test
+    void testUpdateAndRemove() {
+        Var[] vars = newVars(3);
+        CPFact fact = new CPFact();
+        assertTrue(fact.get(vars[0]).isUndef());
+        assertTrue(fact.update(vars[0], Value.makeConstant(1)));
+        assertFalse(fact.update(vars[0], Value.makeConstant(1)));
+        assertTrue(fact.update(vars[2], Value.makeConstant(Integer.MIN_VALUE)));
+        assertTrue(fact.update(vars[1], Value.getNAC()));
+        assertEquals(Value.makeConstant(Integer.MIN_VALUE), fact.get(vars[2]));
+        assertEquals("{v0=1, v1=NAC, v2=-2147483648}", fact.toString());
+        assertEquals(Value.getNAC(), fact.remove(vars[1]));
+        assertNull(fact.remove(vars[1]));
+        assertTrue(fact.update(vars[0], Value.getUndef()));
+        assertEquals(1, fact.keySet().size());
+        assertTrue(fact.keySet().contains(vars[2]));
+    }
+
+    @Test
+    void testCopyOnWrite() {
+        Var[] vars = newVars(2);
+        CPFact fact = new CPFact();
+        fact.update(vars[0], Value.makeConstant(1));
+        CPFact copy = fact.copy();
+        assertEquals(fact, copy);
+        copy.update(vars[0], Value.makeConstant(2));
+        copy.update(vars[1], Value.makeConstant(3));
+        assertEquals(Value.makeConstant(1), fact.get(vars[0]));
+        assertTrue(fact.get(vars[1]).isUndef());
+        fact.update(vars[1], Value.getNAC());
+        assertEquals(Value.makeConstant(3), copy.get(vars[1]));
+    }
+
+    @Test
+    void testMeet() {
+        Var[] vars = newVars(4);
+        CPFact f1 = new CPFact();
+        f1.update(vars[0], Value.makeConstant(1));
+        f1.update(vars[1], Value.makeConstant(1));
+        f1.update(vars[2], Value.getNAC());
+        CPFact f2 = new CPFact();
+        f2.update(vars[0], Value.makeConstant(1));
+        f2.update(vars[1], Value.makeConstant(2));
+        f2.update(vars[3], Value.makeConstant(5));
+        assertTrue(f1.meet(f2));
+        assertEquals("{v0=1, v1=NAC, v2=NAC, v3=5}", f1.toString());
+        assertFalse(f1.meet(f2));
+        assertEquals("{v0=1, v1=2, v3=5}", f2.toString());
+    }
+
+    @Test
+    void testVarsOfDifferentMethods() {
+        Var v1 = new Var(null, "x", PrimitiveType.INT, 0);
+        Var v2 = new Var(null, "y", PrimitiveType.INT, 0);
+        CPFact fact = new CPFact();
+        fact.update(v1, Value.makeConstant(1));
+        assertTrue(fact.get(v2).isUndef());
+        assertThrows(AnalysisException.class, () ->
+                fact.update(v2, Value.makeConstant(1)));
+    }
+
+    /**
+     * Compares random operations on CPFacts with the ones on maps,
+     * covering both sparse and dense modes.
+     */
+    @Test
+    void testRandomOperations() {
+        Random random = new Random(0);
+        ConstantPropagation.Analysis cp =
+                new ConstantPropagation.Analysis(null, true);
+        for (int n : new int[]{ 10, 100, 5000 }) {
+            Var[] vars = newVars(n);
+            CPFact[] facts = new CPFact[4];
+            Map<Var, Value>[] maps = new Map[facts.length];
+            for (int i = 0; i < facts.length; ++i) {
+                facts[i] = new CPFact();
+                maps[i] = new HashMap<>();
+            }
+            for (int op = 0; op < 20000; ++op) {
+                int i = random.nextInt(facts.length);
+                int j = random.nextInt(facts.length);
+                Var var = vars[random.nextInt(n)];
+                switch (random.nextInt(8)) {
+                    case 0, 1, 2 -> {
+                        Value value = switch (random.nextInt(4)) {
+                            case 0 -> Value.getUndef();
+                            case 1 -> Value.getNAC();
+                            default -> Value.makeConstant(random.nextInt(4) * 1000);
+                        };
+                        Value old = maps[i].getOrDefault(var, Value.getUndef());
+                        if (value.isUndef()) {
+                            maps[i].remove(var);
+                        } else {
+                            maps[i].put(var, value);
+                        }
+                        assertEquals(!old.equals(value), facts[i].update(var, value));
+                    }
+                    case 3 -> assertEquals(maps[i].remove(var), facts[i].remove(var));
+                    case 4 -> {
+                        facts[i] = facts[j].copy();
+                        maps[i] = new HashMap<>(maps[j]);
+                    }
+                    case 5 -> {
+                        Map<Var, Value> old = new HashMap<>(maps[i]);
+                        maps[j].forEach((v, value) -> maps[i].put(v,
+                                cp.meetValue(value, old.getOrDefault(v, Value.getUndef()))));
+                        assertEquals(!old.equals(maps[i]), facts[i].meet(facts[j]));
+                    }
+                    case 6 -> {
+                        Map<Var, Value> old = new HashMap<>(maps[i]);
+                        maps[i].putAll(maps[j]);
+                        assertEquals(!old.equals(maps[i]), facts[i].copyFrom(facts[j]));
+                    }
+                    default -> {
+                        if (random.nextInt(50) == 0) {
+                            facts[i].clear();
+                            maps[i].clear();
+                        }
+                    }
+                }
+                assertEquals(maps[i].keySet(), facts[i].keySet());
+                maps[i].forEach((v, value) -> assertEquals(value, facts[i].get(v)));
+                assertEquals(maps[i].equals(maps[j]), facts[i].equals(facts[j]));
+            }
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.junit.platform.suite.api.Suite;
 
 @Suite
 @SelectClasses({
+        CPFactTest.class,
         CPTestFull.class,
         EdgeRefineTest.class,
         InterCPAliasTest.class,
@@ -28,14 +28,16 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import pascal.taie.analysis.Tests;
 import pascal.taie.analysis.dataflow.inter.InterConstantPropagation;
+import pascal.taie.util.MultiStringsSource;
 
 public class InterCPTest {
 
     private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
 
-    void testInterCP(String mainClass) {
+    void testInterCP(String mainClass, String solver) {
         Tests.testMain(mainClass, CLASS_PATH, InterConstantPropagation.ID,
-                "edge-refine:false;alias-aware:false", "-a", "cg=algorithm:cha"
+                "edge-refine:false;alias-aware:false;solver:" + solver,
+                "-a", "cg=algorithm:cha"
                 // , "-a", "icfg=dump:true" // <-- uncomment this code if you want
                 // to output ICFGs for the test cases
         );
@@ -49,7 +51,27 @@ public class InterCPTest {
             "MultiIntArgs",
     })
     void test(String mainClass) {
-        testInterCP(mainClass);
+        testInterCP(mainClass, "worklist");
+    }
+
+    /**
+     * The parallel and IDE solvers reach the same results as the work-list
+     * solver on these programs, thus they share the expected files.
+     * Note that the IDE solver may be more precise on other programs,
+     * as it does not merge the values returned from the callees across
+     * call sites for linear expressions.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"Example", "parallel"})
+    @MultiStringsSource({"Reference", "parallel"})
+    @MultiStringsSource({"Fibonacci", "parallel"})
+    @MultiStringsSource({"MultiIntArgs", "parallel"})
+    @MultiStringsSource({"Example", "ide"})
+    @MultiStringsSource({"Reference", "ide"})
+    @MultiStringsSource({"Fibonacci", "ide"})
+    @MultiStringsSource({"MultiIntArgs", "ide"})
+    void testSolvers(String mainClass, String solver) {
+        testInterCP(mainClass, solver);
     }
 
 }
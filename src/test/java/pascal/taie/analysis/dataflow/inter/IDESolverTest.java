@@ -0,0 +1,247 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.analysis.dataflow.analysis.constprop.Value;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.analysis.graph.icfg.SimpleICFG;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static pascal.taie.analysis.dataflow.inter.IFDSSolverTest.getArg;
+import static pascal.taie.analysis.dataflow.inter.IFDSSolverTest.getLValue;
+
+public class IDESolverTest {
+
+    private static final String ZERO = "0";
+
+    /**
+     * Builds the ICFG of the program:
+     * <pre>
+     * main() {
+     *   x = 1;
+     *   r = inc(x);
+     *   y = 10;
+     *   s = inc(y);
+     *   t = inc(x);
+     * }
+     * inc(p) { q = p + 1; return q; }
+     * </pre>
+     */
+    private static SimpleICFG buildICFG() {
+        SimpleICFG icfg = new SimpleICFG();
+        icfg.addMethod("main", "main.entry", "x = 1", "r = inc(x)",
+                "y = 10", "s = inc(y)", "print(s)", "t = inc(x)", "main.exit");
+        icfg.addMethod("inc", "inc.entry", "q = p + 1", "return q");
+        icfg.addEntryMethod("main");
+        icfg.addEdge("main.entry", "x = 1");
+        icfg.addEdge("x = 1", "r = inc(x)");
+        icfg.addCall("r = inc(x)", "y = 10", "inc");
+        icfg.addEdge("y = 10", "s = inc(y)");
+        icfg.addCall("s = inc(y)", "print(s)", "inc");
+        icfg.addEdge("print(s)", "t = inc(x)");
+        icfg.addCall("t = inc(x)", "main.exit", "inc");
+        icfg.addEdge("inc.entry", "q = p + 1");
+        icfg.addEdge("q = p + 1", "return q");
+        return icfg;
+    }
+
+    @Test
+    void testLinearConstants() {
+        SimpleICFG icfg = buildICFG();
+        LinearConstantProblem problem = new LinearConstantProblem(icfg);
+        IDEResult<String, String, Value> result = new IDESolver<>(problem, icfg).solve();
+        // the values returned from inc() are not merged across call sites
+        assertEquals(Map.of("x", c(1), "r", c(2), "y", c(10), "s", c(11), "t", c(2)),
+                result.getValuesAt("main.exit"));
+        // the values of the callee are merged across contexts
+        assertEquals(Map.of("p", Value.getNAC(), "q", Value.getNAC()),
+                result.getValuesAt("return q"));
+        assertEquals(Value.getUndef(), result.getValueAt("return q", "x"));
+        // inc() is analyzed once for each fact at its entry, and the end
+        // summary of p, which is computed before t = inc(x) is reached,
+        // is applied to t
+        assertEquals(List.of(ZERO, "p"), problem.calleeFacts
+                .stream()
+                .sorted()
+                .toList());
+    }
+
+    private static Value c(int i) {
+        return Value.makeConstant(i);
+    }
+
+    /**
+     * Linear constant propagation over the assignments
+     * of the forms "x = c" and "q = p + 1".
+     */
+    private static class LinearConstantProblem
+            implements IDEProblem<String, String, Value> {
+
+        private final SimpleICFG icfg;
+
+        /**
+         * Facts processed at "q = p + 1".
+         */
+        private final List<String> calleeFacts = new ArrayList<>();
+
+        private LinearConstantProblem(SimpleICFG icfg) {
+            this.icfg = icfg;
+        }
+
+        @Override
+        public String getZeroFact() {
+            return ZERO;
+        }
+
+        @Override
+        public FlowFunction<String> getFlowFunction(String node) {
+            if (node.equals("x = 1") || node.equals("y = 10")) {
+                String lhs = getLValue(node);
+                return fact -> fact.equals(ZERO) ? Set.of(ZERO, lhs) :
+                        fact.equals(lhs) ? Set.of() : Set.of(fact);
+            } else if (node.equals("q = p + 1")) {
+                return fact -> {
+                    calleeFacts.add(fact);
+                    return fact.equals("p") ? Set.of("p", "q") : Set.of(fact);
+                };
+            }
+            return FlowFunction.identity();
+        }
+
+        @Override
+        public FlowFunction<String> getFlowFunction(ICFGEdge<String> edge) {
+            if (edge instanceof CallEdge<String>) {
+                String arg = getArg(edge.source());
+                return fact -> fact.equals(ZERO) ? Set.of(ZERO) :
+                        fact.equals(arg) ? Set.of("p") : Set.of();
+            } else if (edge instanceof ReturnEdge<String> returnEdge) {
+                String lhs = getLValue(returnEdge.getCallSite());
+                return fact -> fact.equals(ZERO) ? Set.of(ZERO) :
+                        fact.equals("q") ? Set.of(lhs) : Set.of();
+            } else if (icfg.isCallSite(edge.source())) {
+                String lhs = getLValue(edge.source());
+                return fact -> fact.equals(lhs) ? Set.of() : Set.of(fact);
+            }
+            return FlowFunction.identity();
+        }
+
+        @Override
+        public EdgeFunction<Value> getEdgeFunction(String node, String source, String target) {
+            if (source.equals(ZERO) && !target.equals(ZERO)) {
+                return new Constant(c(Integer.parseInt(
+                        node.substring(node.indexOf('=') + 2))));
+            } else if (source.equals("p") && target.equals("q")) {
+                return new Add(1);
+            }
+            return EdgeFunction.identity();
+        }
+
+        @Override
+        public EdgeFunction<Value> getEdgeFunction(
+                ICFGEdge<String> edge, String source, String target) {
+            return EdgeFunction.identity();
+        }
+
+        @Override
+        public Value getBoundaryValue(String entry, String fact) {
+            return Value.getNAC();
+        }
+
+        @Override
+        public Value getTopValue() {
+            return Value.getUndef();
+        }
+
+        @Override
+        public Value meet(Value v1, Value v2) {
+            if (v1.isUndef()) {
+                return v2;
+            } else if (v2.isUndef() || v1.equals(v2)) {
+                return v1;
+            }
+            return Value.getNAC();
+        }
+    }
+
+    /**
+     * Edge function that maps any value to {@link #value}.
+     */
+    private record Constant(Value value) implements EdgeFunction<Value> {
+
+        @Override
+        public Value apply(Value source) {
+            return value;
+        }
+
+        @Override
+        public EdgeFunction<Value> andThen(EdgeFunction<Value> next) {
+            return new Constant(next.apply(value));
+        }
+
+        @Override
+        public EdgeFunction<Value> meet(EdgeFunction<Value> other) {
+            if (value.isUndef() || equals(other)) {
+                return other;
+            }
+            return other instanceof Constant c && c.value.isUndef() ?
+                    this : new Constant(Value.getNAC());
+        }
+    }
+
+    /**
+     * Edge function that maps constant c to c + k.
+     */
+    private record Add(int k) implements EdgeFunction<Value> {
+
+        @Override
+        public Value apply(Value source) {
+            return source.isConstant() ?
+                    Value.makeConstant(source.getConstant() + k) : source;
+        }
+
+        @Override
+        public EdgeFunction<Value> andThen(EdgeFunction<Value> next) {
+            if (next instanceof Add add) {
+                return new Add(k + add.k);
+            }
+            return next instanceof Constant ? next : this;
+        }
+
+        @Override
+        public EdgeFunction<Value> meet(EdgeFunction<Value> other) {
+            if (equals(other) ||
+                    other instanceof Constant c && c.value.isUndef()) {
+                return this;
+            }
+            return new Constant(Value.getNAC());
+        }
+    }
+}
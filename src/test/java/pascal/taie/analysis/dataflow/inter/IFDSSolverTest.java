@@ -0,0 +1,155 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.analysis.graph.icfg.SimpleICFG;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class IFDSSolverTest {
+
+    private static final String ZERO = "0";
+
+    /**
+     * Builds the ICFG of the program:
+     * <pre>
+     * main() {
+     *   a = source();
+     *   x = id(a);
+     *   y = id(b);
+     *   z = id(a);
+     * }
+     * id(p) { return p; }
+     * </pre>
+     */
+    private static SimpleICFG buildICFG() {
+        SimpleICFG icfg = new SimpleICFG();
+        icfg.addMethod("main", "main.entry", "a = source()",
+                "x = id(a)", "y = id(b)", "print(y)", "z = id(a)", "main.exit");
+        icfg.addMethod("id", "id.entry", "return p");
+        icfg.addEntryMethod("main");
+        icfg.addEdge("main.entry", "a = source()");
+        icfg.addEdge("a = source()", "x = id(a)");
+        icfg.addCall("x = id(a)", "y = id(b)", "id");
+        icfg.addCall("y = id(b)", "print(y)", "id");
+        icfg.addEdge("print(y)", "z = id(a)");
+        icfg.addCall("z = id(a)", "main.exit", "id");
+        icfg.addEdge("id.entry", "return p");
+        return icfg;
+    }
+
+    @Test
+    void testTaint() {
+        SimpleICFG icfg = buildICFG();
+        TaintProblem problem = new TaintProblem(icfg);
+        IFDSResult<String, String> result = new IFDSSolver<>(problem, icfg).solve();
+        assertEquals(Set.of("a", "x"), result.getFactsAt("y = id(b)"));
+        // the taint returned to x is not merged into y
+        assertEquals(Set.of("a", "x"), result.getFactsAt("print(y)"));
+        assertEquals(Set.of("a", "x", "z"), result.getFactsAt("main.exit"));
+        assertEquals(Set.of("p"), result.getFactsAt("return p"));
+        // id() is analyzed once for each fact at its entry, and the end
+        // summary of p, which is computed before z = id(a) is reached,
+        // is applied to z
+        assertEquals(List.of(ZERO, "p"), problem.calleeEntryFacts
+                .stream()
+                .sorted()
+                .toList());
+    }
+
+    /**
+     * Tracks the variables that may hold the value of source().
+     */
+    private static class TaintProblem implements IFDSProblem<String, String> {
+
+        private final SimpleICFG icfg;
+
+        /**
+         * Facts processed at the entry of the callee.
+         */
+        private final List<String> calleeEntryFacts = new ArrayList<>();
+
+        private TaintProblem(SimpleICFG icfg) {
+            this.icfg = icfg;
+        }
+
+        @Override
+        public String getZeroFact() {
+            return ZERO;
+        }
+
+        @Override
+        public FlowFunction<String> getFlowFunction(String node) {
+            if (node.equals("a = source()")) {
+                return fact -> fact.equals(ZERO) ? Set.of(ZERO, "a") : Set.of(fact);
+            }
+            if (node.equals("id.entry")) {
+                return fact -> {
+                    calleeEntryFacts.add(fact);
+                    return Set.of(fact);
+                };
+            }
+            return FlowFunction.identity();
+        }
+
+        @Override
+        public FlowFunction<String> getFlowFunction(ICFGEdge<String> edge) {
+            if (edge instanceof CallEdge<String>) {
+                String arg = getArg(edge.source());
+                return fact -> fact.equals(ZERO) ? Set.of(ZERO) :
+                        fact.equals(arg) ? Set.of("p") : Set.of();
+            } else if (edge instanceof ReturnEdge<String> returnEdge) {
+                String lhs = getLValue(returnEdge.getCallSite());
+                return fact -> fact.equals(ZERO) ? Set.of(ZERO) :
+                        fact.equals("p") ? Set.of(lhs) : Set.of();
+            } else if (icfg.isCallSite(edge.source())) {
+                // call-to-return edge kills the LHS variable
+                String lhs = getLValue(edge.source());
+                return fact -> fact.equals(lhs) ? Set.of() : Set.of(fact);
+            }
+            return FlowFunction.identity();
+        }
+    }
+
+    /**
+     * @return the LHS variable of call site of the form "x = m(y)".
+     */
+    static String getLValue(String callSite) {
+        return callSite.substring(0, callSite.indexOf(' '));
+    }
+
+    /**
+     * @return the argument of call site of the form "x = m(y)".
+     */
+    static String getArg(String callSite) {
+        return callSite.substring(callSite.indexOf('(') + 1, callSite.indexOf(')'));
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.inter;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.SimpleICFG;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ParallelInterSolverTest {
+
+    /**
+     * Compares the results of {@link ParallelInterSolver} with the ones
+     * of {@link InterSolver} on randomly generated ICFGs, which contain
+     * loops, recursions and call sites with multiple callees.
+     */
+    @Test
+    void testRandomICFGs() {
+        for (long seed = 0; seed < 200; ++seed) {
+            SimpleICFG icfg = buildRandomICFG(new Random(seed));
+            DataflowResult<String, SetFact<String>> expected =
+                    new InterSolver<>(new Analysis(icfg), icfg).solve();
+            DataflowResult<String, SetFact<String>> actual =
+                    new ParallelInterSolver<>(new Analysis(icfg), icfg).solve();
+            for (String node : icfg) {
+                assertEquals(expected.getInFact(node), actual.getInFact(node),
+                        "IN fact of " + node + " with seed " + seed);
+                assertEquals(expected.getOutFact(node), actual.getOutFact(node),
+                        "OUT fact of " + node + " with seed " + seed);
+            }
+        }
+    }
+
+    /**
+     * Builds an ICFG whose methods are m0, m1, ..., and the nodes
+     * of method mi are mi:0, mi:1, ... The entry method is m0.
+     */
+    private static SimpleICFG buildRandomICFG(Random random) {
+        SimpleICFG icfg = new SimpleICFG();
+        int nMethods = 3 + random.nextInt(20);
+        int[] nNodes = new int[nMethods];
+        for (int m = 0; m < nMethods; ++m) {
+            nNodes[m] = 2 + random.nextInt(6);
+            String[] nodes = new String[nNodes[m]];
+            for (int i = 0; i < nodes.length; ++i) {
+                nodes[i] = "m" + m + ":" + i;
+            }
+            icfg.addMethod("m" + m, nodes);
+        }
+        icfg.addEntryMethod("m0");
+        for (int m = 0; m < nMethods; ++m) {
+            for (int i = 0; i < nNodes[m] - 1; ++i) {
+                String node = "m" + m + ":" + i;
+                String next = "m" + m + ":" + (i + 1);
+                if (i > 0 && random.nextInt(3) == 0) {
+                    String[] callees = new String[1 + random.nextInt(2)];
+                    for (int j = 0; j < callees.length; ++j) {
+                        callees[j] = "m" + random.nextInt(nMethods);
+                    }
+                    icfg.addCall(node, next, callees);
+                } else {
+                    icfg.addEdge(node, next);
+                    if (i > 0 && random.nextInt(5) == 0) {
+                        icfg.addEdge(node, "m" + m + ":" + (i - 1));
+                    }
+                }
+            }
+        }
+        return icfg;
+    }
+
+    /**
+     * Gen/kill analysis over the names of nodes. Each node generates its
+     * name and kills the names in the same "bucket" by the hash codes,
+     * and the call and call-to-return edges pass disjoint parts of facts.
+     */
+    private record Analysis(SimpleICFG icfg)
+            implements InterDataflowAnalysis<String, SetFact<String>> {
+
+        @Override
+        public boolean isForward() {
+            return true;
+        }
+
+        @Override
+        public SetFact<String> newBoundaryFact(String boundary) {
+            SetFact<String> fact = new SetFact<>();
+            fact.add("boundary");
+            return fact;
+        }
+
+        @Override
+        public SetFact<String> newInitialFact() {
+            return new SetFact<>();
+        }
+
+        @Override
+        public void meetInto(SetFact<String> fact, SetFact<String> target) {
+            target.union(fact);
+        }
+
+        @Override
+        public boolean transferNode(String node, SetFact<String> in, SetFact<String> out) {
+            SetFact<String> newOut = in.copy();
+            int hash = node.hashCode();
+            if (Math.floorMod(hash, 3) == 0) {
+                newOut.removeIf(f -> !f.equals(node) &&
+                        Math.floorMod(f.hashCode(), 5) == Math.floorMod(hash, 5));
+            }
+            if (Math.floorMod(hash, 4) == 0) {
+                newOut.add(node);
+            }
+            if (newOut.equals(out)) {
+                return false;
+            }
+            out.set(newOut);
+            return true;
+        }
+
+        @Override
+        public SetFact<String> transferEdge(ICFGEdge<String> edge, SetFact<String> out) {
+            if (edge instanceof CallEdge<String>) {
+                SetFact<String> fact = out.copy();
+                fact.removeIf(f -> Math.floorMod(f.hashCode(), 2) == 1);
+                return fact;
+            } else if (edge instanceof SimpleICFG.LocalEdge &&
+                    icfg.isCallSite(edge.source())) {
+                SetFact<String> fact = out.copy();
+                fact.removeIf(f -> Math.floorMod(f.hashCode(), 2) == 0);
+                return fact;
+            }
+            return out;
+        }
+    }
+}
@@ -32,4 +32,10 @@ public class DefUseTest {
         Tests.testInput("DefUse", "src/test/resources/defuse/",
                 DefUseAnalysis.ID);
     }
+
+    @Test
+    void testSSA() {
+        Tests.testInput("DefUse", "src/test/resources/defuse/",
+                DefUseAnalysis.ID, "ssa:true");
+    }
 }
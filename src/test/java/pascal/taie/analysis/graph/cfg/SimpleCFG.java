@@ -0,0 +1,69 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.cfg;
+
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Stmt;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * CFG over given statements, which is built by hand for testing
+ * the analyses on CFGs without building the world. The entry
+ * is connected to the first statement, and the other edges
+ * are added explicitly.
+ */
+public class SimpleCFG extends StmtCFG {
+
+    public SimpleCFG(List<Var> vars, List<Stmt> stmts) {
+        super(new DefaultIR(null, null, List.of(), Set.of(),
+                vars, stmts, List.of()));
+        for (int i = 0; i < stmts.size(); ++i) {
+            stmts.get(i).setIndex(i);
+        }
+        setEntry(new Nop());
+        setExit(new Nop());
+        stmts.forEach(this::addNode);
+        addEdge(new CFGEdge<>(CFGEdge.Kind.ENTRY, getEntry(), stmts.get(0)));
+    }
+
+    public void addEdge(Stmt source, Stmt target) {
+        addEdge(new CFGEdge<>(CFGEdge.Kind.GOTO, source, target));
+    }
+
+    public void addEdgeToExit(Stmt source) {
+        addEdge(new CFGEdge<>(CFGEdge.Kind.RETURN, source, getExit()));
+    }
+
+    /**
+     * Adds the edge from {@code source} to the exception handler
+     * starting at {@code handler}.
+     */
+    public void addExceptionalEdge(Stmt source, Stmt handler) {
+        addEdge(new ExceptionalEdge<>(CFGEdge.Kind.CAUGHT_EXCEPTION,
+                source, handler, Set.of()));
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.icfg;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * ICFG over string nodes and methods, which is built by hand for testing
+ * the inter-procedural solvers without building the world.
+ * The first and the last nodes of each method are its entry and exit.
+ */
+public class SimpleICFG implements ICFG<String, String> {
+
+    private final Set<String> entryMethods = Sets.newLinkedSet();
+
+    private final Map<String, String> entries = Maps.newLinkedHashMap();
+
+    private final Map<String, String> exits = Maps.newMap();
+
+    private final Map<String, String> node2Method = Maps.newLinkedHashMap();
+
+    private final MultiMap<String, ICFGEdge<String>> inEdges = Maps.newMultiMap();
+
+    private final MultiMap<String, ICFGEdge<String>> outEdges = Maps.newMultiMap();
+
+    private final MultiMap<String, String> callees = Maps.newMultiMap();
+
+    private final MultiMap<String, String> returnSites = Maps.newMultiMap();
+
+    private final MultiMap<String, String> callers = Maps.newMultiMap();
+
+    /**
+     * Adds a method and its nodes. The nodes are not connected,
+     * and the edges should be added by {@link #addEdge(String, String)}
+     * and {@link #addCall(String, String, String...)}.
+     */
+    public void addMethod(String method, String... nodes) {
+        entries.put(method, nodes[0]);
+        exits.put(method, nodes[nodes.length - 1]);
+        for (String node : nodes) {
+            node2Method.put(node, method);
+        }
+    }
+
+    public void addEntryMethod(String method) {
+        entryMethods.add(method);
+    }
+
+    /**
+     * Adds an intra-procedural edge.
+     */
+    public void addEdge(String source, String target) {
+        addEdge(new LocalEdge(source, target));
+    }
+
+    /**
+     * Adds the call-to-return edge from {@code callSite} to {@code retSite},
+     * and the call and return edges between the call site and the callees.
+     * The callees must have been added.
+     */
+    public void addCall(String callSite, String retSite, String... callees) {
+        addEdge(new LocalEdge(callSite, retSite));
+        returnSites.put(callSite, retSite);
+        for (String callee : callees) {
+            this.callees.put(callSite, callee);
+            callers.put(callee, callSite);
+            addEdge(new CallEdge<>(callSite, entries.get(callee), null));
+            addEdge(new ReturnEdge<>(exits.get(callee), retSite, callSite,
+                    List.of(), List.of()));
+        }
+    }
+
+    private void addEdge(ICFGEdge<String> edge) {
+        outEdges.put(edge.source(), edge);
+        inEdges.put(edge.target(), edge);
+    }
+
+    @Override
+    public Stream<String> entryMethods() {
+        return entryMethods.stream();
+    }
+
+    @Override
+    public Set<ICFGEdge<String>> getInEdgesOf(String node) {
+        return inEdges.get(node);
+    }
+
+    @Override
+    public Set<ICFGEdge<String>> getOutEdgesOf(String node) {
+        return outEdges.get(node);
+    }
+
+    @Override
+    public Set<String> getCalleesOf(String callSite) {
+        return callees.get(callSite);
+    }
+
+    @Override
+    public Set<String> getReturnSitesOf(String callSite) {
+        return returnSites.get(callSite);
+    }
+
+    @Override
+    public String getEntryOf(String method) {
+        return entries.get(method);
+    }
+
+    @Override
+    public String getExitOf(String method) {
+        return exits.get(method);
+    }
+
+    @Override
+    public Set<String> getCallersOf(String method) {
+        return callers.get(method);
+    }
+
+    @Override
+    public String getContainingMethodOf(String node) {
+        return node2Method.get(node);
+    }
+
+    @Override
+    public boolean isCallSite(String node) {
+        return callees.containsKey(node);
+    }
+
+    @Override
+    public Set<String> getPredsOf(String node) {
+        return inEdges.get(node)
+                .stream()
+                .map(ICFGEdge::source)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Set<String> getSuccsOf(String node) {
+        return outEdges.get(node)
+                .stream()
+                .map(ICFGEdge::target)
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Set<String> getNodes() {
+        return node2Method.keySet();
+    }
+
+    /**
+     * Intra-procedural edge or call-to-return edge. Unlike {@link NormalEdge}
+     * and {@link CallToReturnEdge}, it does not need a CFG edge.
+     */
+    public static class LocalEdge extends ICFGEdge<String> {
+
+        private LocalEdge(String source, String target) {
+            super(source, target);
+        }
+    }
+}
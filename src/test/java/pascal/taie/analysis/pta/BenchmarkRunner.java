@@ -36,9 +36,9 @@ import java.util.stream.Collectors;
 @CommandLine.Command
 public class BenchmarkRunner {
 
-    private static final String BENCHMARK_HOME = "java-benchmarks";
+    static final String BENCHMARK_HOME = "java-benchmarks";
 
-    private static final String BENCHMARK_INFO = "java-benchmarks/benchmark-info.yml";
+    static final String BENCHMARK_INFO = "java-benchmarks/benchmark-info.yml";
 
     private static final Map<String, BenchmarkInfo> benchmarkInfos =
             BenchmarkInfo.load(BENCHMARK_INFO);
@@ -102,14 +102,14 @@ public class BenchmarkRunner {
         return args.toArray(new String[0]);
     }
 
-    private String buildClassPath(List<String> paths) {
+    static String buildClassPath(List<String> paths) {
         return paths.stream()
-                .map(this::extendCP)
+                .map(BenchmarkRunner::extendCP)
                 .flatMap(List::stream)
                 .collect(Collectors.joining(File.pathSeparator));
     }
 
-    private List<String> extendCP(String path) {
+    private static List<String> extendCP(String path) {
         File file = new File(BENCHMARK_HOME, path);
         List<String> paths = new ArrayList<>();
         if (isJar(file)) {
@@ -25,6 +25,11 @@ package pascal.taie.analysis.pta;
 import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 import pascal.taie.analysis.pta.core.cs.context.ContextTest;
+import pascal.taie.analysis.pta.core.solver.SolverCheckpointTest;
+import pascal.taie.analysis.pta.plugin.PointsToDumpFormatTest;
+import pascal.taie.analysis.pta.plugin.reflection.ReflectionLogTest;
+import pascal.taie.analysis.pta.plugin.taint.TaintConfigCacheTest;
+import pascal.taie.analysis.pta.toolkit.demand.DemandPointsToTest;
 
 @Suite
 @SelectClasses({
@@ -36,7 +41,12 @@ import pascal.taie.analysis.pta.core.cs.context.ContextTest;
         Java9StringConcatTest.class,
         ReflectionTest.class,
         TaintTest.class,
+        TaintConfigCacheTest.class,
         WorldCacheTest.class,
+        SolverCheckpointTest.class,
+        PointsToDumpFormatTest.class,
+        ReflectionLogTest.class,
+        DemandPointsToTest.class,
 })
 public class PTATestSuite {
 }
@@ -0,0 +1,348 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.util.collection.Maps;
+import picocli.CommandLine;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Runs pointer analysis with a set of plans over the programs in
+ * java-benchmarks, and records the performance of each run, i.e.,
+ * wall time, solver time, peak heap and the sizes of the results.
+ * The measurements are written to a JSON report, and if a baseline
+ * report is given, they are compared with the baseline, and this
+ * runner exits with status 1 when any regression exceeds the thresholds.
+ * <p>
+ * All runs are performed in the same JVM. Before each run, the world
+ * of previous run is released and garbage is collected, and the peak
+ * usage of heap memory pools is reset. Note that the peak heap is
+ * the sum of the peak usage of all heap pools, thus it may be larger
+ * than the actual peak.
+ * <p>
+ * This runner is usually launched by Gradle task {@code perfRegression}.
+ */
+@CommandLine.Command
+public class PerfRegressionRunner {
+
+    /**
+     * Options of pointer analysis for each plan.
+     */
+    private static final Map<String, String> PLANS = Map.of(
+            "ci", "cs:ci",
+            "1-call", "cs:1-call",
+            "2-obj", "cs:2-obj",
+            "2-type", "cs:2-type",
+            "zipper", "cs:2-obj;advanced:zipper",
+            "taint", "cs:ci");
+
+    /**
+     * Time differences below this value (in milliseconds) are regarded
+     * as noise, and they are never reported as regressions.
+     */
+    private static final long MIN_TIME_DELTA = 1000;
+
+    /**
+     * Memory differences below this value (in MB) are regarded as noise.
+     */
+    private static final long MIN_MEMORY_DELTA = 64;
+
+    @CommandLine.Option(names = "-plans", split = ",",
+            defaultValue = "ci,1-call,2-obj,2-type,zipper,taint")
+    private List<String> plans;
+
+    @CommandLine.Option(names = "-taint-config",
+            defaultValue = "src/test/resources/pta/taint/taint-config.yml")
+    private String taintConfig;
+
+    @CommandLine.Option(names = "-report",
+            defaultValue = "output/perf-report.json")
+    private File report;
+
+    @CommandLine.Option(names = "-baseline")
+    private File baseline;
+
+    @CommandLine.Option(names = "-update-baseline")
+    private boolean updateBaseline;
+
+    /**
+     * Maximum allowed relative increase of wall time and solver time.
+     */
+    @CommandLine.Option(names = "-time-threshold", defaultValue = "0.2")
+    private double timeThreshold;
+
+    /**
+     * Maximum allowed relative increase of peak heap.
+     */
+    @CommandLine.Option(names = "-memory-threshold", defaultValue = "0.2")
+    private double memoryThreshold;
+
+    /**
+     * Maximum allowed relative change of result sizes. As result sizes
+     * are deterministic, any change is reported by default.
+     */
+    @CommandLine.Option(names = "-size-threshold", defaultValue = "0")
+    private double sizeThreshold;
+
+    @CommandLine.Parameters
+    private List<String> benchmarks;
+
+    public static void main(String[] args) {
+        PerfRegressionRunner runner = CommandLine.populateCommand(
+                new PerfRegressionRunner(), args);
+        if (!runner.runAll()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * @return {@code false} if any regression is detected.
+     */
+    private boolean runAll() {
+        if (benchmarks == null) {
+            throw new IllegalArgumentException("benchmarks are not given");
+        }
+        for (String plan : plans) {
+            if (!PLANS.containsKey(plan)) {
+                throw new IllegalArgumentException("unknown plan: " + plan
+                        + ", expected one of " + PLANS.keySet());
+            }
+        }
+        Map<String, BenchmarkInfo> benchmarkInfos =
+                BenchmarkInfo.load(BenchmarkRunner.BENCHMARK_INFO);
+        List<Measurement> measurements = new ArrayList<>();
+        for (String benchmark : benchmarks) {
+            BenchmarkInfo info = benchmarkInfos.get(benchmark);
+            if (info == null) {
+                throw new IllegalArgumentException("unknown benchmark: " + benchmark);
+            }
+            for (String plan : plans) {
+                measurements.add(run(info, plan));
+            }
+        }
+        writeReport(measurements, report);
+        boolean passed = true;
+        if (baseline != null) {
+            if (updateBaseline) {
+                writeReport(measurements, baseline);
+            } else {
+                passed = compare(readReport(baseline), measurements);
+            }
+        }
+        return passed;
+    }
+
+    private Measurement run(BenchmarkInfo info, String plan) {
+        System.out.printf("%nAnalyzing %s with plan %s%n", info.id(), plan);
+        World.reset();
+        System.gc();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans()
+                .stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long start = System.nanoTime();
+        Main.main(composeArgs(info, plan));
+        long wallTime = (System.nanoTime() - start) / 1_000_000;
+        long peakHeap = heapPools.stream()
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum() >> 20;
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        long varPointsTo = result.getVars()
+                .stream()
+                .mapToLong(v -> result.getPointsToSet(v).size())
+                .sum();
+        return new Measurement(info.id(), plan, wallTime,
+                SolverTimeRecorder.elapsedTime, peakHeap,
+                result.getCallGraph().getNumberOfMethods(),
+                result.getCallGraph().getNumberOfEdges(),
+                varPointsTo);
+    }
+
+    private String[] composeArgs(BenchmarkInfo info, String plan) {
+        List<String> args = new ArrayList<>();
+        Collections.addAll(args,
+                "-java", Integer.toString(info.jdk()),
+                "-acp", BenchmarkRunner.buildClassPath(info.apps()),
+                "-cp", BenchmarkRunner.buildClassPath(info.libs()),
+                "-wc",
+                "-m", info.main());
+        if (info.allowPhantom()) {
+            args.add("--allow-phantom");
+        }
+        StringBuilder ptaArgs = new StringBuilder(PLANS.get(plan));
+        if (plan.equals("taint")) {
+            ptaArgs.append(";taint-config:").append(taintConfig);
+        }
+        if (info.reflectionLog() != null) {
+            ptaArgs.append(";reflection-log:").append(new File(
+                    BenchmarkRunner.BENCHMARK_HOME, info.reflectionLog()));
+        }
+        ptaArgs.append(";plugins:[")
+                .append(SolverTimeRecorder.class.getName())
+                .append("]");
+        Collections.addAll(args, "-a", "pta=" + ptaArgs);
+        return args.toArray(new String[0]);
+    }
+
+    /**
+     * Compares the measurements with the baseline, and prints the
+     * differences that exceed the thresholds.
+     *
+     * @return {@code false} if any regression is detected.
+     */
+    private boolean compare(List<Measurement> baseline, List<Measurement> current) {
+        Map<String, Measurement> base = Maps.newMap();
+        baseline.forEach(m -> base.put(m.key(), m));
+        List<String> regressions = new ArrayList<>();
+        for (Measurement m : current) {
+            Measurement b = base.get(m.key());
+            if (b == null) {
+                System.out.printf("No baseline for %s%n", m.key());
+                continue;
+            }
+            checkIncrease(regressions, m, b, "wall time (ms)",
+                    Measurement::wallTime, timeThreshold, MIN_TIME_DELTA);
+            checkIncrease(regressions, m, b, "solver time (ms)",
+                    Measurement::solverTime, timeThreshold, MIN_TIME_DELTA);
+            checkIncrease(regressions, m, b, "peak heap (MB)",
+                    Measurement::peakHeap, memoryThreshold, MIN_MEMORY_DELTA);
+            checkChange(regressions, m, b, "#reachable methods",
+                    Measurement::reachableMethods);
+            checkChange(regressions, m, b, "#call edges",
+                    Measurement::callEdges);
+            checkChange(regressions, m, b, "#var points-to",
+                    Measurement::varPointsTo);
+        }
+        if (regressions.isEmpty()) {
+            System.out.println("\nNo performance regressions against " + this.baseline);
+            return true;
+        } else {
+            System.out.println("\nPerformance regressions against " + this.baseline + ":");
+            regressions.forEach(r -> System.out.println("  " + r));
+            return false;
+        }
+    }
+
+    private static void checkIncrease(
+            List<String> regressions, Measurement current, Measurement base,
+            String metric, ToLongFunction<Measurement> getter,
+            double threshold, long minDelta) {
+        long c = getter.applyAsLong(current);
+        long b = getter.applyAsLong(base);
+        if (c - b > minDelta && c > b * (1 + threshold)) {
+            regressions.add(describe(current, metric, b, c));
+        }
+    }
+
+    private void checkChange(
+            List<String> regressions, Measurement current, Measurement base,
+            String metric, ToLongFunction<Measurement> getter) {
+        long c = getter.applyAsLong(current);
+        long b = getter.applyAsLong(base);
+        if (Math.abs(c - b) > b * sizeThreshold) {
+            regressions.add(describe(current, metric, b, c));
+        }
+    }
+
+    private static String describe(Measurement m, String metric, long base, long current) {
+        String change = base == 0 ? "n/a" :
+                String.format("%+.1f%%", (current - base) * 100.0 / base);
+        return String.format("%s: %s %d -> %d (%s)",
+                m.key(), metric, base, current, change);
+    }
+
+    private static void writeReport(List<Measurement> measurements, File file) {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new RuntimeException("Failed to create directory " + dir);
+        }
+        try {
+            new ObjectMapper()
+                    .enable(SerializationFeature.INDENT_OUTPUT)
+                    .writeValue(file, measurements);
+            System.out.println("Performance report is written to " + file);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write report to " + file, e);
+        }
+    }
+
+    private static List<Measurement> readReport(File file) {
+        try {
+            return new ObjectMapper().readValue(file, new TypeReference<>() {});
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read report from " + file, e);
+        }
+    }
+
+    /**
+     * Performance of one run, i.e., a benchmark analyzed with a plan.
+     * Times are in milliseconds, and heap is in megabytes.
+     */
+    record Measurement(String benchmark, String plan,
+                       long wallTime, long solverTime, long peakHeap,
+                       long reachableMethods, long callEdges, long varPointsTo) {
+
+        String key() {
+            return benchmark + "/" + plan;
+        }
+    }
+
+    /**
+     * Records the elapsed time of the solver of pointer analysis.
+     * It is added to the analysis via option {@code plugins}.
+     */
+    public static class SolverTimeRecorder implements Plugin {
+
+        private static long elapsedTime;
+
+        private long start;
+
+        @Override
+        public void onStart() {
+            start = System.nanoTime();
+        }
+
+        @Override
+        public void onFinish() {
+            elapsedTime = (System.nanoTime() - start) / 1_000_000;
+        }
+    }
+}
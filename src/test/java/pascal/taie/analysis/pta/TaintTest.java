@@ -23,9 +23,24 @@
 package pascal.taie.analysis.pta;
 
 import org.junit.jupiter.params.ParameterizedTest;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.plugin.taint.TaintAnalysis;
+import pascal.taie.analysis.pta.plugin.taint.TaintFlow;
 import pascal.taie.util.MultiStringsSource;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 public class TaintTest {
 
     static final String DIR = "taint";
@@ -34,6 +49,10 @@ public class TaintTest {
 
     static final String TAINT_CONFIG = TAINT_CONFIG_PREFIX + "taint-config.yml";
 
+    static final String TAINT_PACKS = "taint-packs:["
+            + "src/test/resources/pta/taint/taint-config.yml,"
+            + "src/test/resources/pta/taint/taint-config-param-source.yml]";
+
     @ParameterizedTest
     @MultiStringsSource({"ArrayTaint", TAINT_CONFIG})
     @MultiStringsSource({"CharArray", TAINT_CONFIG})
@@ -68,4 +87,38 @@ public class TaintTest {
         Tests.testPTA(DIR, mainClass, opts);
     }
 
+    /**
+     * Runs two rule packs together, and checks the taint flows of each pack.
+     * The flows of pack taint-config should be the same as the ones in
+     * the expected file (detected with option taint-config), while pack
+     * taint-config-param-source detects nothing in these test cases.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"ComplexTaint", TAINT_PACKS})
+    @MultiStringsSource({"CSTaint", "cs:1-obj;" + TAINT_PACKS})
+    void testPacks(String mainClass, String opts) throws IOException {
+        Tests.testPTA(false, DIR, mainClass, opts);
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        Map<String, Set<TaintFlow>> packFlows =
+                result.getResult(TaintAnalysis.PACK_FLOWS_KEY);
+        assertEquals(List.of("taint-config", "taint-config-param-source"),
+                List.copyOf(packFlows.keySet()));
+        Set<String> flows = packFlows.get("taint-config")
+                .stream()
+                .map(TaintFlow::toString)
+                .collect(Collectors.toSet());
+        assertEquals(readExpectedTaintFlows(mainClass), flows);
+        assertTrue(packFlows.get("taint-config-param-source").isEmpty());
+    }
+
+    private static Set<String> readExpectedTaintFlows(String mainClass)
+            throws IOException {
+        Path expectedFile = Path.of("src/test/resources/pta", DIR,
+                mainClass + "-pta-expected.txt");
+        try (Stream<String> lines = Files.lines(expectedFile)) {
+            return lines.filter(line -> line.startsWith("TaintFlow{"))
+                    .collect(Collectors.toSet());
+        }
+    }
+
 }
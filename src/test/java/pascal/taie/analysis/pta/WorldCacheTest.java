@@ -26,9 +26,16 @@ package pascal.taie.analysis.pta;
 import org.junit.jupiter.api.Test;
 import pascal.taie.Main;
 import pascal.taie.World;
+import pascal.taie.config.Options;
 import pascal.taie.frontend.cache.CachedIRBuilder;
 import pascal.taie.frontend.cache.CachedWorldBuilder;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class WorldCacheTest {
@@ -55,4 +62,21 @@ public class WorldCacheTest {
         assertTrue(world2.getIRBuilder() instanceof CachedIRBuilder);
     }
 
+    @Test
+    void testProgramHash() throws IOException {
+        Path dir = Files.createTempDirectory("program-hash");
+        Path classFile = dir.resolve("A.class");
+        try {
+            Files.writeString(classFile, "v1");
+            Options options = Options.parse("-cp", dir.toString(), "-m", "A");
+            int hash = CachedWorldBuilder.getProgramHash(options);
+            assertEquals(hash, CachedWorldBuilder.getProgramHash(options));
+            // the options are unchanged, but the program is rebuilt
+            Files.writeString(classFile, "v2-rebuilt");
+            assertNotEquals(hash, CachedWorldBuilder.getProgramHash(options));
+        } finally {
+            Files.deleteIfExists(classFile);
+            Files.delete(dir);
+        }
+    }
 }
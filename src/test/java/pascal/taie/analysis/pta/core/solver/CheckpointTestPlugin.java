@@ -0,0 +1,68 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+
+/**
+ * Plugin for {@link SolverCheckpointTest}, which records the solver,
+ * and stalls the solver in the middle of the analysis when a time
+ * limit is given, so that the solver stops early and saves a checkpoint.
+ */
+public class CheckpointTestPlugin implements Plugin {
+
+    /**
+     * Number of new points-to sets before the solver is stalled.
+     */
+    private static final int STALL_AFTER = 1000;
+
+    private static DefaultSolver solver;
+
+    private boolean stall;
+
+    private int nPointsToSets;
+
+    static DefaultSolver getSolver() {
+        return solver;
+    }
+
+    @Override
+    public void setSolver(Solver solver) {
+        CheckpointTestPlugin.solver = (DefaultSolver) solver;
+        stall = solver.getOptions().getInt("time-limit") > 0;
+    }
+
+    @Override
+    public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+        if (stall && ++nPointsToSets == STALL_AFTER) {
+            long timeLimit = solver.getOptions().getInt("time-limit");
+            try {
+                Thread.sleep(timeLimit * 1000 + 2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.core.solver;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.util.collection.Maps;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SolverCheckpointTest {
+
+    @Test
+    void testResume() {
+        File dir = new File("output", "pta-checkpoints");
+        if (dir.exists()) {
+            for (File file : Objects.requireNonNull(dir.listFiles())) {
+                file.delete();
+            }
+        }
+        // analyzes JDK as well, so that the solver processes enough
+        // points-to sets before it is stalled by the plugin
+        String cs = "cs:1-obj";
+        String onlyApp = "only-app:false";
+        String plugins = "plugins:[" + CheckpointTestPlugin.class.getName() + "]";
+        String checkpointDir = "checkpoint-dir:" + dir;
+
+        // the result of an uninterrupted run
+        Tests.testPTA(false, "basic", "NativeModel", cs, onlyApp, plugins);
+        PointerAnalysisResult full = World.get().getResult(PointerAnalysis.ID);
+        Map<String, Set<String>> expected = toStrings(full);
+        int nEdges = full.getCSCallGraph().getNumberOfEdges();
+        int nMethods = full.getCSCallGraph().getNumberOfMethods();
+
+        // the first run is stalled by the plugin, and it stops early
+        // due to time limit and saves a checkpoint
+        Tests.testPTA(false, "basic", "NativeModel", cs, onlyApp, plugins,
+                checkpointDir, "time-limit:1");
+        assertEquals(0, CheckpointTestPlugin.getSolver().getNumberOfResumedFacts());
+        File[] checkpoints = dir.listFiles();
+        assertTrue(checkpoints != null && checkpoints.length == 1);
+
+        // the second run resumes from the checkpoint, reaches the same
+        // result as the uninterrupted run, and deletes the checkpoint
+        Tests.testPTA(false, "basic", "NativeModel", cs, onlyApp, plugins,
+                checkpointDir);
+        assertTrue(CheckpointTestPlugin.getSolver().getNumberOfResumedFacts() > 0);
+        PointerAnalysisResult resumed = World.get().getResult(PointerAnalysis.ID);
+        assertEquals(expected, toStrings(resumed));
+        assertEquals(nEdges, resumed.getCSCallGraph().getNumberOfEdges());
+        assertEquals(nMethods, resumed.getCSCallGraph().getNumberOfMethods());
+        assertEquals(0, Objects.requireNonNull(dir.listFiles()).length);
+    }
+
+    private static Map<String, Set<String>> toStrings(PointerAnalysisResult pta) {
+        Map<String, Set<String>> result = Maps.newMap();
+        for (CSVar csVar : pta.getCSVars()) {
+            PointsToSet pts = csVar.getPointsToSet();
+            if (pts != null) {
+                result.put(csVar.toString(), pts.objects()
+                        .map(Object::toString)
+                        .collect(Collectors.toSet()));
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PointsToDumpFormatTest {
+
+    private static final List<String> OBJECTS = List.of(
+            "[]:NewObj{<A: void m()>[0@L1] new A}",
+            "[]:NewObj{<A: void m()>[2@L2] new B}",
+            "[]:NewObj{<A: void m()>[4@L3] new 中}");
+
+    @Test
+    void testToText() throws IOException {
+        File binary = File.createTempFile("pta-results", ".bin");
+        File text = File.createTempFile("pta-results", ".txt");
+        try {
+            try (var writer = new PointsToDumpFormat.Writer(
+                    binary, PointsToDumpFormat.CS, OBJECTS)) {
+                writer.writeSection("Points-to sets of all variables");
+                writer.writePointer("[]:<A: void m()>/a", new int[]{0});
+                writer.writePointer("[]:<A: void m()>/b", new int[]{0, 1, 2});
+                writer.writePointer("[]:<A: void m()>/c", new int[]{});
+                writer.writeSection("Detected 1 taint flow(s):");
+                writer.writeLine("TaintFlow{a -> b}");
+            }
+            assertTrue(PointsToDumpFormat.isBinaryDump(binary));
+            PointsToDumpFormat.toText(binary, text);
+            assertFalse(PointsToDumpFormat.isBinaryDump(text));
+            assertEquals(List.of(
+                    "Points-to sets of all variables",
+                    "[]:<A: void m()>/a -> [" + OBJECTS.get(0) + "]",
+                    "[]:<A: void m()>/b -> [" + String.join(", ", OBJECTS) + "]",
+                    "[]:<A: void m()>/c -> []",
+                    "",
+                    "Detected 1 taint flow(s):",
+                    "TaintFlow{a -> b}",
+                    ""),
+                    Files.readAllLines(text.toPath()));
+        } finally {
+            binary.delete();
+            text.delete();
+        }
+    }
+
+    @Test
+    void testReadCI() throws IOException {
+        File binary = File.createTempFile("pta-ci-results", ".bin");
+        try {
+            try (var writer = new PointsToDumpFormat.Writer(
+                    binary, PointsToDumpFormat.CI, OBJECTS)) {
+                for (int i = 0; i < 1000; ++i) {
+                    writer.writePointer("<A: void m()>/v" + i,
+                            i % 2 == 0 ? new int[]{1} : new int[]{0, 2});
+                }
+            }
+            List<String> pointers = new ArrayList<>();
+            PointsToDumpFormat.read(binary, new PointsToDumpFormat.Visitor() {
+                @Override
+                public void visitKind(int kind) {
+                    assertEquals(PointsToDumpFormat.CI, kind);
+                }
+
+                @Override
+                public void visitPointer(String pointer, List<String> objects) {
+                    int i = pointers.size();
+                    assertEquals("<A: void m()>/v" + i, pointer);
+                    assertEquals(i % 2 == 0 ? List.of(OBJECTS.get(1))
+                                    : List.of(OBJECTS.get(0), OBJECTS.get(2)),
+                            objects);
+                    pointers.add(pointer);
+                }
+            });
+            assertEquals(1000, pointers.size());
+        } finally {
+            binary.delete();
+        }
+    }
+}
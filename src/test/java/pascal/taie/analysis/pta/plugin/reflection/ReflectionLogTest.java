@@ -0,0 +1,96 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.plugin.reflection;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReflectionLogTest {
+
+    private static final String LOG = "src/test/resources/pta/reflection/ReflectiveAction.log";
+
+    @Test
+    void testLookup() {
+        ReflectionLog log = ReflectionLog.load(LOG);
+        assertEquals(17, log.size());
+        List<LogItem> items = log.getItems("ReflectiveAction.forname", 38);
+        assertEquals(1, items.size());
+        assertEquals("Class.forName", items.get(0).api);
+        assertEquals("W", items.get(0).target);
+        assertTrue(log.getItems("ReflectiveAction.forname", 39).isEmpty());
+        // items without line numbers
+        assertEquals(2, log.getItems("java.lang.Class.newInstance",
+                LogItem.UNKNOWN).size());
+        // Field.get* is normalized to Field.get
+        assertEquals("Field.get",
+                log.getItems("ReflectiveAction.get", 83).get(0).api);
+        assertEquals(5, log.getItemsOf("ReflectiveAction.forname").size());
+        // the log is loaded only once
+        assertTrue(log == ReflectionLog.load(LOG));
+    }
+
+    @Test
+    void testBinaryFormat() throws IOException {
+        File binary = File.createTempFile("reflection-log", ".bin");
+        try {
+            ReflectionLog log = ReflectionLog.load(LOG);
+            assertFalse(ReflectionLog.isBinaryLog(new File(LOG)));
+            assertTrue(log.save(binary));
+            assertTrue(ReflectionLog.isBinaryLog(binary));
+            ReflectionLog loaded = ReflectionLog.load(binary.getPath());
+            assertEquals(log.getItems(), loaded.getItems());
+            assertEquals(log.getCallers(), loaded.getCallers());
+        } finally {
+            binary.delete();
+        }
+    }
+
+    @Test
+    void testLongStrings() throws IOException {
+        File text = File.createTempFile("reflection-log", ".log");
+        File binary = File.createTempFile("reflection-log", ".bin");
+        try {
+            // longer than the 64KB limit of DataOutputStream.writeUTF()
+            String target = "T".repeat(70000);
+            Files.writeString(text.toPath(), String.join("\n",
+                    "Class.forName;" + target + ";C.m;10;;",
+                    "Class.newInstance;" + target + ";C.m;;;"));
+            ReflectionLog log = ReflectionLog.load(text.getPath());
+            assertTrue(log.save(binary));
+            ReflectionLog loaded = ReflectionLog.load(binary.getPath());
+            assertEquals(log.getItems(), loaded.getItems());
+            assertEquals(target, loaded.getItems("C.m", 10).get(0).target);
+            assertEquals(1, loaded.getItems("C.m", LogItem.UNKNOWN).size());
+        } finally {
+            text.delete();
+            binary.delete();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.type.TypeSystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaintConfigCacheTest {
+
+    private static final String DIR = "src/test/resources/pta/taint";
+
+    private static final List<String> CONFIG_FILES = List.of(
+            "taint-config.yml", "taint-config-param-source.yml");
+
+    @BeforeAll
+    static void buildWorld() {
+        Main.buildWorld(
+                "-java", "8",
+                "-cp", DIR,
+                "-m", "ComplexTaint"
+        );
+    }
+
+    @AfterAll
+    static void resetWorld() {
+        World.reset();
+    }
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        File configDir = Files.createTempDirectory("taint-config").toFile();
+        for (String name : CONFIG_FILES) {
+            Files.copy(new File(DIR, name).toPath(),
+                    new File(configDir, name).toPath());
+        }
+        try {
+            String path = configDir.getPath();
+            ClassHierarchy hierarchy = World.get().getClassHierarchy();
+            TypeSystem typeSystem = World.get().getTypeSystem();
+            CompiledTaintConfig config = CompiledTaintConfig.compile(
+                    TaintConfig.loadConfig(path, hierarchy, typeSystem));
+            assertFalse(config.getSinks().isEmpty());
+            assertFalse(config.getParamSources().isEmpty());
+            int fingerprint = TaintConfigCache.fingerprint(path);
+            File cacheFile = new File(configDir, "taint-config.bin");
+            assertTrue(TaintConfigCache.save(config, cacheFile, fingerprint));
+            CompiledTaintConfig loaded = TaintConfigCache.load(
+                    cacheFile, fingerprint, hierarchy, typeSystem);
+            assertNotNull(loaded);
+            assertEquals(config.toString(), loaded.toString());
+            assertEquals(config.getMethods(), loaded.getMethods());
+            // changing a config file changes the fingerprint,
+            // and the stale cache is not loaded
+            Files.writeString(new File(configDir, CONFIG_FILES.get(1)).toPath(),
+                    "\n# changed\n", StandardOpenOption.APPEND);
+            int newFingerprint = TaintConfigCache.fingerprint(path);
+            assertNotEquals(fingerprint, newFingerprint);
+            assertNull(TaintConfigCache.load(
+                    cacheFile, newFingerprint, hierarchy, typeSystem));
+        } finally {
+            File[] files = configDir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    Files.delete(file.toPath());
+                }
+            }
+            Files.delete(configDir.toPath());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.demand;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.exp.Var;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DemandPointsToTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Array", "Cast", "CallParamRet", "Dispatch",
+            "InstanceField", "StaticField",
+    })
+    void testConsistentWithPTA(String main) {
+        Tests.testPTA(false, "basic", main);
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        DemandPointsTo demand = newDemandPointsTo(pta, Integer.MAX_VALUE);
+        for (Var var : pta.getVars()) {
+            if (var.getMethod() == World.get().getMainMethod()
+                    && var.getMethod().getIR().isParam(var)) {
+                // parameter of main method is set by entry point
+                continue;
+            }
+            DemandPointsTo.Answer answer = demand.pointsTo(var);
+            assertTrue(answer.isComplete());
+            assertEquals(toStrings(pta.getPointsToSet(var)),
+                    toStrings(answer.objects()), var.toString());
+        }
+    }
+
+    @Test
+    void testBudget() {
+        Tests.testPTA(false, "basic", "InstanceField");
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        Var var = pta.getVars()
+                .stream()
+                .filter(v -> !pta.getPointsToSet(v).isEmpty())
+                .findFirst()
+                .orElseThrow();
+        DemandPointsTo demand = newDemandPointsTo(pta, 1);
+        assertFalse(demand.pointsTo(var).isComplete());
+        assertTrue(demand.mayAlias(var, var));
+    }
+
+    private static DemandPointsTo newDemandPointsTo(
+            PointerAnalysisResult pta, int budget) {
+        AnalysisOptions options = new AnalysisOptions(Map.of(
+                "distinguish-string-constants", "reflection",
+                "merge-string-objects", true,
+                "merge-string-builders", true,
+                "merge-exception-objects", true));
+        return new DemandPointsTo(pta.getCallGraph(),
+                new AllocationSiteBasedModel(options), budget);
+    }
+
+    private static Set<String> toStrings(Set<Obj> pts) {
+        return pts.stream().map(Obj::toString).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.pta.toolkit.mahjong;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.analysis.pta.core.heap.Descriptor;
+import pascal.taie.analysis.pta.core.heap.MockObj;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.language.type.Type;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class DFASignaturesTest {
+
+    private static final Descriptor DESC = () -> "TestObj";
+
+    private static final List<Type> TYPES = List.of(
+            PrimitiveType.INT, PrimitiveType.LONG, PrimitiveType.CHAR);
+
+    private final Field.Factory fieldFactory = new Field.Factory();
+
+    private final List<Field> fields;
+
+    private int counter = 0;
+
+    public DFASignaturesTest() {
+        JClass c = new JClass(null, "C");
+        fields = new ArrayList<>();
+        for (String name : List.of("f", "g")) {
+            fields.add(fieldFactory.get(new JField(c, name, Set.of(),
+                    PrimitiveType.INT, null, AnnotationHolder.make(List.of()))));
+        }
+        fields.add(fieldFactory.getArrayIndex());
+    }
+
+    private DFAState newState(Type type) {
+        return new DFAState(Set.of(new MockObj(DESC, counter++, type, null, false)),
+                Set.of(type));
+    }
+
+    @Test
+    void testSmallHeap() {
+        // a1 -f-> b1, a2 -f-> b2, a3 -g-> b1, b1 and b2 have the same type
+        DFAState a1 = newState(PrimitiveType.INT);
+        DFAState a2 = newState(PrimitiveType.INT);
+        DFAState a3 = newState(PrimitiveType.INT);
+        DFAState b1 = newState(PrimitiveType.LONG);
+        DFAState b2 = newState(PrimitiveType.LONG);
+        a1.addTransition(fields.get(0), b1);
+        a2.addTransition(fields.get(0), b2);
+        a3.addTransition(fields.get(1), b1);
+        DFASignatures sigs = new DFASignatures(List.of(a1, a2, a3, b1, b2));
+        assertEquals(sigs.getSignature(a1), sigs.getSignature(a2));
+        assertEquals(sigs.getSignature(b1), sigs.getSignature(b2));
+        assertNotEquals(sigs.getSignature(a1), sigs.getSignature(a3));
+        assertNotEquals(sigs.getSignature(a1), sigs.getSignature(b1));
+    }
+
+    /**
+     * Builds DFAs whose states are instances of the states of a random
+     * template automaton, so that many of them are equivalent, and checks
+     * that two states have the same signature iff their DFAs are
+     * equivalent according to {@link DFAEquivChecker}.
+     */
+    @Test
+    void testConsistentWithEquivChecker() {
+        Random random = new Random(20221019L);
+        DFAEquivChecker checker = new DFAEquivChecker();
+        for (int round = 0; round < 20; ++round) {
+            int nTemplates = 2 + random.nextInt(6);
+            Type[] outputs = new Type[nTemplates];
+            int[][] succs = new int[nTemplates][fields.size()];
+            for (int t = 0; t < nTemplates; ++t) {
+                outputs[t] = TYPES.get(random.nextInt(TYPES.size()));
+                for (int f = 0; f < fields.size(); ++f) {
+                    // -1 means no transition
+                    succs[t][f] = random.nextInt(nTemplates + 1) - 1;
+                }
+            }
+            // each template state has several instances
+            List<List<DFAState>> instances = new ArrayList<>();
+            List<DFAState> states = new ArrayList<>();
+            List<Integer> templateOf = new ArrayList<>();
+            for (int t = 0; t < nTemplates; ++t) {
+                List<DFAState> list = new ArrayList<>();
+                for (int i = 1 + random.nextInt(3); i > 0; --i) {
+                    DFAState s = newState(outputs[t]);
+                    list.add(s);
+                    states.add(s);
+                    templateOf.add(t);
+                }
+                instances.add(list);
+            }
+            for (int i = 0; i < states.size(); ++i) {
+                int t = templateOf.get(i);
+                for (int f = 0; f < fields.size(); ++f) {
+                    int succ = succs[t][f];
+                    if (succ >= 0) {
+                        List<DFAState> targets = instances.get(succ);
+                        states.get(i).addTransition(fields.get(f),
+                                targets.get(random.nextInt(targets.size())));
+                    }
+                }
+            }
+            DFASignatures sigs = new DFASignatures(states);
+            for (DFAState s1 : states) {
+                for (DFAState s2 : states) {
+                    boolean equivalent = checker.isEquivalent(
+                            new DFA(s1), new DFA(s2));
+                    assertEquals(equivalent,
+                            sigs.getSignature(s1) == sigs.getSignature(s2),
+                            "Inconsistent signatures of " + s1 + " and " + s2);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.snapshot;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.exp.Var;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PointerAnalysisSnapshotTest {
+
+    @Test
+    void testSaveAndLoad() {
+        Tests.testPTA(false, "misc", "Zipper");
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        File file = new File(World.get().getOptions().getOutputDir(),
+                "Zipper-pta-snapshot.bin");
+        assertTrue(PointerAnalysisSnapshot.save(pta, file));
+        // options for the heap model which restores objects
+        AnalysisOptions options = new AnalysisOptions(Map.of(
+                "distinguish-string-constants", "reflection",
+                "merge-string-objects", true,
+                "merge-string-builders", true,
+                "merge-exception-objects", true));
+        PointerAnalysisResult loaded = PointerAnalysisSnapshot.load(file, options);
+        assertNotNull(loaded);
+        assertEquals(pta.getObjects().size(), loaded.getObjects().size());
+        assertEquals(pta.getVars().size(), loaded.getVars().size());
+        for (Var var : pta.getVars()) {
+            if (var.getIndex() >= 0) {
+                assertEquals(toStrings(pta.getPointsToSet(var)),
+                        toStrings(loaded.getPointsToSet(var)));
+            }
+        }
+        assertEquals(pta.getCallGraph().getNumberOfEdges(),
+                loaded.getCallGraph().getNumberOfEdges());
+        assertEquals(pta.getCallGraph().getNumberOfMethods(),
+                loaded.getCallGraph().getNumberOfMethods());
+        assertEquals(pta.getObjectFlowGraph().getNumberOfNodes(),
+                loaded.getObjectFlowGraph().getNumberOfNodes());
+    }
+
+    private static Set<String> toStrings(Set<Obj> pts) {
+        return pts.stream().map(Obj::toString).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.ssa;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.analysis.graph.cfg.SimpleCFG;
+import pascal.taie.ir.exp.RValue;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SSATest {
+
+    private static Var newVar(String name, int index) {
+        return new Var(null, name, PrimitiveType.INT, index);
+    }
+
+    /**
+     * Tests the SSA form of nested loops:
+     * <pre>
+     * s0: x = a;
+     * s1: nop;      // outer loop head
+     * s2: nop;      // inner loop head, goto s3 or s5
+     * s3: x = b;
+     * s4: nop;      // goto s2
+     * s5: nop;      // goto s1 or s6
+     * s6: y = x;
+     * </pre>
+     * The phis of x at the loop heads feed each other.
+     */
+    @Test
+    void testNestedLoops() {
+        Var a = newVar("a", 0), b = newVar("b", 1);
+        Var x = newVar("x", 2), y = newVar("y", 3);
+        Stmt s0 = new Copy(x, a), s1 = new Nop(), s2 = new Nop(),
+                s3 = new Copy(x, b), s4 = new Nop(), s5 = new Nop(),
+                s6 = new Copy(y, x);
+        SimpleCFG cfg = new SimpleCFG(List.of(a, b, x, y),
+                List.of(s0, s1, s2, s3, s4, s5, s6));
+        cfg.addEdge(s0, s1);
+        cfg.addEdge(s1, s2);
+        cfg.addEdge(s2, s3);
+        cfg.addEdge(s2, s5);
+        cfg.addEdge(s3, s4);
+        cfg.addEdge(s4, s2);
+        cfg.addEdge(s5, s1);
+        cfg.addEdge(s5, s6);
+        cfg.addEdgeToExit(s6);
+        SSA ssa = SSABuilder.build(cfg);
+
+        assertEquals(2, ssa.getPhis().size());
+        Phi outer = getOnlyPhi(ssa, s1, x);
+        Phi inner = getOnlyPhi(ssa, s2, x);
+        assertEquals(Map.of(s0, ssa.getDef(s0), s5, inner.getResult()),
+                outer.getOperands());
+        assertEquals(Map.of(s1, outer.getResult(), s4, ssa.getDef(s3)),
+                inner.getOperands());
+        // the use of x after the loops is defined by the inner phi,
+        // which merges the definitions before and in the loops
+        SSAVar use = ssa.getUse(s6, x);
+        assertEquals(inner.getResult(), use);
+        assertEquals(Set.of(s0, s3), ssa.getDefStmts(use));
+        assertTrue(ssa.getUse(s0, a).isEntry());
+        assertNull(ssa.getUse(s6, a));
+    }
+
+    /**
+     * Tests the SSA form of try-catch:
+     * <pre>
+     * s0: x = a;
+     * try {
+     *   s1: x = b;  // may throw exception
+     *   s2: x = c;  // may throw exception
+     *   s3: nop;    // goto s5
+     * } catch (...) {
+     *   s4: nop;
+     * }
+     * s5: y = x;
+     * </pre>
+     * The definition of the statement which throws exception reaches
+     * the handler, as in reaching definition analysis.
+     */
+    @Test
+    void testTryCatch() {
+        Var a = newVar("a", 0), b = newVar("b", 1), c = newVar("c", 2);
+        Var x = newVar("x", 3), y = newVar("y", 4);
+        Stmt s0 = new Copy(x, a), s1 = new Copy(x, b), s2 = new Copy(x, c),
+                s3 = new Nop(), s4 = new Nop(), s5 = new Copy(y, x);
+        SimpleCFG cfg = new SimpleCFG(List.of(a, b, c, x, y),
+                List.of(s0, s1, s2, s3, s4, s5));
+        cfg.addEdge(s0, s1);
+        cfg.addEdge(s1, s2);
+        cfg.addEdge(s2, s3);
+        cfg.addEdge(s3, s5);
+        cfg.addExceptionalEdge(s1, s4);
+        cfg.addExceptionalEdge(s2, s4);
+        cfg.addEdge(s4, s5);
+        cfg.addEdgeToExit(s5);
+        SSA ssa = SSABuilder.build(cfg);
+
+        assertEquals(2, ssa.getPhis().size());
+        Phi handler = getOnlyPhi(ssa, s4, x);
+        Phi join = getOnlyPhi(ssa, s5, x);
+        assertEquals(Map.of(s1, ssa.getDef(s1), s2, ssa.getDef(s2)),
+                handler.getOperands());
+        assertEquals(Map.of(s3, ssa.getDef(s2), s4, handler.getResult()),
+                join.getOperands());
+        SSAVar use = ssa.getUse(s5, x);
+        assertEquals(join.getResult(), use);
+        // x = a is killed by x = b before any exception is thrown
+        assertEquals(Set.of(s1, s2), ssa.getDefStmts(use));
+    }
+
+    private static Phi getOnlyPhi(SSA ssa, Stmt node, Var var) {
+        List<Phi> phis = ssa.getPhisAt(node);
+        assertEquals(1, phis.size());
+        Phi phi = phis.get(0);
+        assertEquals(var, phi.getVar());
+        assertEquals(phi, phi.getResult().getPhi());
+        return phi;
+    }
+
+    /**
+     * Compares the definitions of each use in SSA form with the ones
+     * computed by a brute-force reaching definition analysis
+     * on randomly generated CFGs.
+     */
+    @Test
+    void testRandomCFGs() {
+        for (long seed = 0; seed < 300; ++seed) {
+            Random random = new Random(seed);
+            List<Var> vars = new ArrayList<>();
+            int nVars = 1 + random.nextInt(4);
+            for (int i = 0; i < nVars; ++i) {
+                vars.add(newVar("v" + i, i));
+            }
+            List<Stmt> stmts = new ArrayList<>();
+            int nStmts = 2 + random.nextInt(30);
+            for (int i = 0; i < nStmts; ++i) {
+                stmts.add(random.nextInt(4) == 0 ? new Nop() : new Copy(
+                        vars.get(random.nextInt(nVars)),
+                        vars.get(random.nextInt(nVars))));
+            }
+            SimpleCFG cfg = new SimpleCFG(vars, stmts);
+            for (int i = 0; i < nStmts; ++i) {
+                if (i + 1 == nStmts) {
+                    cfg.addEdgeToExit(stmts.get(i));
+                } else if (random.nextInt(5) != 0) {
+                    cfg.addEdge(stmts.get(i), stmts.get(i + 1));
+                }
+                if (random.nextInt(3) == 0) {
+                    cfg.addEdge(stmts.get(i), stmts.get(random.nextInt(nStmts)));
+                }
+            }
+            Set<Stmt> reachable = getReachable(cfg);
+            SSA ssa = SSABuilder.build(cfg);
+            Map<Stmt, Set<Stmt>> reachingDefs = computeReachingDefs(cfg);
+            for (Stmt stmt : stmts) {
+                if (!reachable.contains(stmt)) {
+                    continue;
+                }
+                for (RValue use : stmt.getUses()) {
+                    if (use instanceof Var var) {
+                        Set<Stmt> expected = Sets.newSet();
+                        reachingDefs.get(stmt).forEach(def -> {
+                            // definitions in the cycles of dead code are ignored
+                            if (def.getDef().orElseThrow().equals(var) &&
+                                    reachable.contains(def)) {
+                                expected.add(def);
+                            }
+                        });
+                        assertEquals(expected, Set.copyOf(
+                                        ssa.getDefStmts(ssa.getUse(stmt, var))),
+                                "definitions of " + var + " at " + stmt +
+                                        " with seed " + seed);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the nodes reachable from the nodes without predecessors,
+     * i.e., the entry and the heads of dead code. SSA form covers these
+     * nodes, as the data-flow solvers do.
+     */
+    private static Set<Stmt> getReachable(SimpleCFG cfg) {
+        Set<Stmt> reachable = Sets.newSet();
+        Deque<Stmt> workList = new ArrayDeque<>();
+        cfg.forEach(node -> {
+            if (cfg.getPredsOf(node).isEmpty()) {
+                workList.add(node);
+            }
+        });
+        while (!workList.isEmpty()) {
+            Stmt node = workList.poll();
+            if (reachable.add(node)) {
+                workList.addAll(cfg.getSuccsOf(node));
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * @return the definitions reaching each statement (before it).
+     */
+    private static Map<Stmt, Set<Stmt>> computeReachingDefs(SimpleCFG cfg) {
+        Map<Stmt, Set<Stmt>> in = Maps.newMap();
+        Map<Stmt, Set<Stmt>> out = Maps.newMap();
+        cfg.forEach(node -> out.put(node, Set.of()));
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Stmt node : cfg) {
+                Set<Stmt> nodeIn = Sets.newSet();
+                cfg.getPredsOf(node).forEach(pred -> nodeIn.addAll(out.get(pred)));
+                in.put(node, nodeIn);
+                Set<Stmt> nodeOut = Sets.newSet(nodeIn);
+                node.getDef().ifPresent(def -> {
+                    nodeOut.removeIf(s -> s.getDef().orElseThrow().equals(def));
+                    nodeOut.add(node);
+                });
+                if (!nodeOut.equals(out.get(node))) {
+                    out.put(node, nodeOut);
+                    changed = true;
+                }
+            }
+        }
+        return in;
+    }
+}
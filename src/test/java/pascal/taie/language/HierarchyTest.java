@@ -29,6 +29,7 @@ import pascal.taie.World;
 import pascal.taie.ir.proginfo.FieldRef;
 import pascal.taie.ir.proginfo.FieldResolutionFailedException;
 import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
@@ -104,6 +105,23 @@ public class HierarchyTest {
         expectedNotSubclass(d, c);
     }
 
+    /**
+     * Test consistency of subclass checking and subclass collecting
+     * for all classes in the world.
+     */
+    @Test
+    void testSubclassConsistency() {
+        ClassHierarchy hierarchy = World.get().getClassHierarchy();
+        JClass object = hierarchy.getClass("java.lang.Object");
+        hierarchy.allClasses().forEach(sup -> {
+            Collection<JClass> subclasses = hierarchy.getAllSubclassesOf(sup);
+            hierarchy.allClasses().forEach(sub ->
+                    assertEquals(sup == object || subclasses.contains(sub),
+                            hierarchy.isSubclass(sup, sub),
+                            sub + " <: " + sup));
+        });
+    }
+
     private static void expectedSubclass(String sup, String sub) {
         JClass superclass = getClass(sup);
         JClass subclass = getClass(sub);
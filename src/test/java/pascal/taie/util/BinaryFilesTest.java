@@ -0,0 +1,81 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BinaryFilesTest {
+
+    @Test
+    void testVarIntAndString() throws IOException {
+        int[] ints = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, -2};
+        // longer than the 64KB limit of DataOutputStream.writeUTF()
+        String longString = "中".repeat(40000);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int i : ints) {
+            BinaryFiles.writeVarInt(out, i);
+        }
+        BinaryFiles.writeString(out, "");
+        BinaryFiles.writeString(out, longString);
+        out.flush();
+        DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()));
+        for (int i : ints) {
+            assertEquals(i, BinaryFiles.readVarInt(in));
+        }
+        assertEquals("", BinaryFiles.readString(in));
+        assertEquals(longString, BinaryFiles.readString(in));
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        File dir = Files.createTempDirectory("binary-files").toFile();
+        File file = new File(dir, "test.bin");
+        assertNull(BinaryFiles.load("test", file, f -> "unused"));
+        assertTrue(BinaryFiles.save("test", file,
+                f -> Files.writeString(f.toPath(), "content")));
+        assertEquals("content", BinaryFiles.load("test", file,
+                f -> Files.readString(f.toPath())));
+        // failed save keeps the previous file
+        assertFalse(BinaryFiles.save("test", file, f -> {
+            throw new IOException("expected failure");
+        }));
+        assertEquals("content", BinaryFiles.load("test", file,
+                f -> Files.readString(f.toPath())));
+        assertFalse(new File(dir, "test.bin.tmp").exists());
+    }
+}
@@ -26,12 +26,15 @@ import org.junit.platform.suite.api.SelectClasses;
 import org.junit.platform.suite.api.Suite;
 import pascal.taie.util.collection.CollectionTestSuite;
 import pascal.taie.util.graph.GraphTest;
+import pascal.taie.util.metrics.MetricRegistryTest;
 
 @Suite
 @SelectClasses({
+        BinaryFilesTest.class,
         CollectionTestSuite.class,
         GraphTest.class,
         IndexerTest.class,
+        MetricRegistryTest.class,
 })
 public class UtilTestSuite {
 }
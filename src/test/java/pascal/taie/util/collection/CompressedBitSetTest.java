@@ -0,0 +1,122 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompressedBitSetTest extends IBitSetTest {
+
+    @Override
+    protected IBitSet of(int... indexes) {
+        IBitSet result = new CompressedBitSet();
+        for (int i : indexes) {
+            result.set(i);
+        }
+        return result;
+    }
+
+    /**
+     * Compares the results of random operations on clustered sets,
+     * which exercise all container encodings, with {@link RegularBitSet}.
+     */
+    @Test
+    void testRandomOperations() {
+        Random random = new Random(0);
+        for (int round = 0; round < 200; ++round) {
+            IBitSet c1 = randomSet(random), c2 = randomSet(random);
+            IBitSet r1 = toRegular(c1), r2 = toRegular(c2);
+            assertEquals(r1.intersects(r2), c1.intersects(c2));
+            assertEquals(r1.contains(r2), c1.contains(c2));
+            IBitSet c = c1.copy(), r = r1.copy();
+            switch (round % 5) {
+                case 0 -> assertEquals(r.or(r2), c.or(c2));
+                case 1 -> assertEquals(r.and(r2), c.and(c2));
+                case 2 -> assertEquals(r.andNot(r2), c.andNot(c2));
+                case 3 -> assertEquals(r.xor(r2), c.xor(c2));
+                default -> assertEquals(toRegular(r.orDiff(r2)),
+                        toRegular(c.orDiff(c2)));
+            }
+            assertSame(r, c);
+            assertTrue(c.copy().contains(c));
+            assertEquals(c, c.copy());
+        }
+    }
+
+    @Test
+    void testRuns() {
+        IBitSet s = of();
+        for (int i = 100; i < 262_144; ++i) {
+            s.set(i);
+        }
+        assertEquals(262_044, s.cardinality());
+        assertEquals(262_144, s.length());
+        assertEquals(262_144, s.nextClearBit(100));
+        assertEquals(99, s.previousClearBit(150_000));
+        s.clear(150_000);
+        assertEquals(150_000, s.nextClearBit(100));
+        assertEquals(150_001, s.nextSetBit(150_000));
+        // runs take much less space than bitmaps
+        assertTrue(s.size() < toRegular(s).size() / 100);
+    }
+
+    private static IBitSet randomSet(Random random) {
+        IBitSet set = new CompressedBitSet();
+        int runs = random.nextInt(50);
+        for (int i = 0; i < runs; ++i) {
+            int start = random.nextInt(300_000);
+            int length = random.nextInt(i % 2 == 0 ? 10_000 : 10);
+            int step = 1 + random.nextInt(3);
+            for (int j = 0; j < length; j += step) {
+                set.set(start + j);
+            }
+        }
+        return set;
+    }
+
+    private static IBitSet toRegular(IBitSet set) {
+        IBitSet result = new RegularBitSet();
+        for (int i = set.nextSetBit(0); i >= 0; i = set.nextSetBit(i + 1)) {
+            result.set(i);
+        }
+        return result;
+    }
+
+    private static void assertSame(IBitSet expected, IBitSet actual) {
+        assertEquals(expected, toRegular(actual));
+        assertEquals(expected.cardinality(), actual.cardinality());
+        assertEquals(expected.length(), actual.length());
+        assertEquals(expected.hashCode(), actual.hashCode());
+        for (int i = 0; i < expected.length() + 10; i += 97) {
+            assertEquals(expected.get(i), actual.get(i));
+            assertEquals(expected.nextSetBit(i), actual.nextSetBit(i));
+            assertEquals(expected.nextClearBit(i), actual.nextClearBit(i));
+            assertEquals(expected.previousSetBit(i), actual.previousSetBit(i));
+            assertEquals(expected.previousClearBit(i), actual.previousClearBit(i));
+        }
+    }
+}
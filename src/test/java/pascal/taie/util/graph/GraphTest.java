@@ -23,16 +23,21 @@
 package pascal.taie.util.graph;
 
 import org.junit.jupiter.api.Test;
+import pascal.taie.util.SimpleIndexer;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -112,6 +117,48 @@ public class GraphTest {
         assertEquals(3, scc.getTrueComponents().size());
     }
 
+    @Test
+    void testIndexedSCC() {
+        Graph<Integer> g = readGraph("src/test/resources/util/graph-scc.txt");
+        IndexedSCC<Integer> scc = new IndexedSCC<>(g, new SimpleIndexer<>());
+        assertEquals(7, scc.getComponents().size());
+        assertEquals(3, scc.getTrueComponents().size());
+        for (int i = 0; i < 10; ++i) {
+            Graph<Integer> rg = genRandomGraph(500);
+            assertEquals(new SCC<>(rg).getComponents(),
+                    new IndexedSCC<>(rg, new SimpleIndexer<>()).getComponents());
+            assertEquals(new SCC<>(rg).getTrueComponents(),
+                    new IndexedSCC<>(rg, new SimpleIndexer<>()).getTrueComponents());
+        }
+    }
+
+    @Test
+    void testIndexedReachability() {
+        Graph<Integer> g = genRandomGraph(300);
+        Reachability<Integer> expected = new Reachability<>(g);
+        for (int cacheSize : new int[]{ IndexedReachability.UNBOUNDED, 0, 8 }) {
+            IndexedReachability<Integer> reachability =
+                    new IndexedReachability<>(g, new SimpleIndexer<>(), cacheSize);
+            for (Integer node : g) {
+                assertEquals(expected.reachableNodesFrom(node),
+                        Set.copyOf(reachability.reachableNodesFrom(node)));
+                assertEquals(expected.nodesCanReach(node),
+                        Set.copyOf(reachability.nodesCanReach(node)));
+            }
+            Set<Integer> expectedFrom = new HashSet<>();
+            Set<Integer> expectedTo = new HashSet<>();
+            List<Integer> nodes = List.of(1, 17, 42, 199);
+            for (Integer node : nodes) {
+                expectedFrom.addAll(expected.reachableNodesFrom(node));
+                expectedTo.addAll(expected.nodesCanReach(node));
+                assertEquals(expected.reachableNodesFrom(node).contains(7),
+                        reachability.canReach(node, 7));
+            }
+            assertEquals(expectedFrom, Set.copyOf(reachability.reachableNodesFrom(nodes)));
+            assertEquals(expectedTo, Set.copyOf(reachability.nodesCanReach(nodes)));
+        }
+    }
+
     @Test
     void testMergedSCC() {
         Graph<Integer> g = readGraph("src/test/resources/util/graph-scc.txt");
@@ -141,6 +188,74 @@ public class GraphTest {
         assertEquals(domFinder.getNodesDominatedBy(9), Set.of(9));
     }
 
+    @Test
+    void testDominatorTree() {
+        Graph<Integer> g = readGraph("src/test/resources/util/graph-dominator.txt");
+        DominatorTree<Integer> tree = new DominatorTree<>(g);
+        assertEquals(List.of(1), tree.getHeads());
+        assertNull(tree.getImmediateDominator(1));
+        assertEquals(1, (int) tree.getImmediateDominator(3));
+        assertEquals(4, (int) tree.getImmediateDominator(7));
+        assertEquals(8, (int) tree.getImmediateDominator(10));
+        assertEquals(Set.of(5, 6, 7), Set.copyOf(tree.getChildrenOf(4)));
+        assertTrue(tree.dominates(3, 9));
+        assertFalse(tree.dominates(5, 7));
+        assertEquals(List.of(9, 8, 7, 4, 3, 1), tree.getDominatorsOf(9));
+
+        assertEquals(Set.of(3), Set.copyOf(tree.getDominanceFrontierOf(2)));
+        assertEquals(Set.of(3, 4), Set.copyOf(tree.getDominanceFrontierOf(4)));
+        assertEquals(Set.of(3, 4, 7), Set.copyOf(tree.getDominanceFrontierOf(7)));
+        assertEquals(Set.of(3, 7), Set.copyOf(tree.getDominanceFrontierOf(8)));
+        assertTrue(tree.getDominanceFrontierOf(9).isEmpty());
+
+        DominatorTree<Integer> postTree = DominatorTree.ofPostDominators(
+                g, new SimpleIndexer<>());
+        assertEquals(List.of(9), postTree.getHeads());
+        assertEquals(3, (int) postTree.getImmediateDominator(1));
+        assertEquals(7, (int) postTree.getImmediateDominator(4));
+        assertEquals(8, (int) postTree.getImmediateDominator(7));
+        assertTrue(postTree.dominates(7, 5));
+    }
+
+    @Test
+    void testDominatorTreeOnRandomGraphs() {
+        for (int i = 0; i < 10; ++i) {
+            Graph<Integer> g = genRandomGraph(100);
+            DominatorTree<Integer> tree = new DominatorTree<>(g);
+            Set<Integer> reachable = reachableFromHeads(g, null);
+            for (Integer dom : g) {
+                // dom dominates the nodes which become unreachable
+                // after dom is removed
+                Set<Integer> rest = reachableFromHeads(g, dom);
+                for (Integer node : g) {
+                    assertEquals(reachable.contains(node)
+                                    && reachable.contains(dom)
+                                    && !rest.contains(node),
+                            tree.dominates(dom, node));
+                }
+            }
+        }
+    }
+
+    private static Set<Integer> reachableFromHeads(Graph<Integer> g, Integer removed) {
+        Set<Integer> visited = new HashSet<>();
+        Deque<Integer> stack = new ArrayDeque<>();
+        g.forEach(node -> {
+            if (g.getInDegreeOf(node) == 0 && !node.equals(removed)) {
+                stack.push(node);
+            }
+        });
+        while (!stack.isEmpty()) {
+            Integer node = stack.pop();
+            if (visited.add(node)) {
+                g.getSuccsOf(node).stream()
+                        .filter(succ -> !succ.equals(removed))
+                        .forEach(stack::push);
+            }
+        }
+        return visited;
+    }
+
     private static SimpleGraph<Integer> readGraph(String filePath) {
         SimpleGraph<Integer> graph = new SimpleGraph<>();
         try {
@@ -0,0 +1,116 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.metrics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MetricRegistryTest {
+
+    @AfterEach
+    void disable() {
+        MetricRegistry.disable();
+    }
+
+    @Test
+    void testDisabled() {
+        MetricRegistry metrics = MetricRegistry.get();
+        assertFalse(metrics.isEnabled());
+        metrics.registerGauge("x", () -> 1);
+        metrics.sample();
+        metrics.startSpan("x").close();
+    }
+
+    @Test
+    void testSampleAndSpan() {
+        List<Map<String, Number>> samples = new ArrayList<>();
+        List<String> spans = new ArrayList<>();
+        MetricRegistry.enable(List.of(new MetricsExporter() {
+            @Override
+            public void exportSample(long timestamp, Map<String, Number> values) {
+                samples.add(values);
+            }
+
+            @Override
+            public void exportSpan(long timestamp, String name,
+                                   long wallNanos, long cpuNanos) {
+                assertTrue(wallNanos >= 0);
+                spans.add(name);
+            }
+        }), 0);
+        MetricRegistry metrics = MetricRegistry.get();
+        long[] count = {0};
+        metrics.registerGauge("test.gauge", () -> 7);
+        metrics.registerCounter("test.counter", () -> count[0]);
+        count[0] = 10;
+        metrics.sampleIfDue();
+        assertEquals(1, samples.size());
+        assertEquals(7L, samples.get(0).get("test.gauge"));
+        assertEquals(10L, samples.get(0).get("test.counter"));
+        assertTrue(samples.get(0).containsKey("test.counter.rate"));
+        assertTrue(samples.get(0).containsKey("jvm.heap.used"));
+
+        try (var ignored = metrics.startSpan("phase")) {
+            count[0] = 20;
+        }
+        assertEquals(List.of("phase"), spans);
+
+        metrics.unregister("test.");
+        metrics.sample();
+        assertFalse(samples.get(1).containsKey("test.gauge"));
+    }
+
+    @Test
+    void testJsonLines() throws IOException {
+        File file = File.createTempFile("metrics", ".jsonl");
+        file.deleteOnExit();
+        MetricRegistry.enable(List.of(new JsonLinesExporter(file)), 0);
+        MetricRegistry metrics = MetricRegistry.get();
+        metrics.registerCounter("test.counter", () -> 3);
+        metrics.startSpan("phase").close();
+        // disabling takes the last sample
+        MetricRegistry.disable();
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(2, lines.size());
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode span = mapper.readTree(lines.get(0));
+        assertEquals("span", span.get("type").asText());
+        assertEquals("phase", span.get("name").asText());
+        JsonNode sample = mapper.readTree(lines.get(1));
+        assertEquals("sample", sample.get("type").asText());
+        assertEquals(3, sample.get("metrics").get("test.counter").asLong());
+    }
+}